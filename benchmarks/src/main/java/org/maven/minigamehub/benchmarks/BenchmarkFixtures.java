@@ -0,0 +1,112 @@
+package org.maven.minigamehub.benchmarks;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Mocked Bukkit objects shared by the benchmarks.
+ * Mocks are stub-only so they do not record invocations while being measured.
+ */
+public final class BenchmarkFixtures {
+  public static final String WORLD_NAME = "benchmark_world";
+
+  private static final Logger LOGGER = quietLogger();
+  private static World world;
+
+  private BenchmarkFixtures() {
+  }
+
+  /**
+   * Installs a mocked server as the Bukkit server if none is installed yet.
+   *
+   * @return The mocked server.
+   */
+  public static synchronized Server server() {
+    if (Bukkit.getServer() != null) {
+      return Bukkit.getServer();
+    }
+    Server server = stub(Server.class);
+    world = stub(World.class);
+    when(world.getName()).thenReturn(WORLD_NAME);
+    when(server.getLogger()).thenReturn(LOGGER);
+    when(server.getPluginManager()).thenReturn(stub(PluginManager.class));
+    when(server.getWorld(anyString())).thenReturn(world);
+    Bukkit.setServer(server);
+    return server;
+  }
+
+  /**
+   * Gets the world every mocked location is in.
+   *
+   * @return The mocked world.
+   */
+  public static World world() {
+    server();
+    return world;
+  }
+
+  /**
+   * Creates a mocked plugin that keeps its files in the given folder.
+   *
+   * @param dataFolder The plugin's data folder.
+   * @return The mocked plugin.
+   */
+  public static JavaPlugin plugin(File dataFolder) {
+    Server server = server();
+    JavaPlugin plugin = stub(JavaPlugin.class);
+    when(plugin.getDataFolder()).thenReturn(dataFolder);
+    when(plugin.getLogger()).thenReturn(LOGGER);
+    when(plugin.getServer()).thenReturn(server);
+    return plugin;
+  }
+
+  /**
+   * Creates online players spread over the mocked world, one chunk apart.
+   *
+   * @param count The number of players.
+   * @return The mocked players.
+   */
+  public static List<Player> players(int count) {
+    World playerWorld = world();
+    List<Player> players = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Player player = stub(Player.class);
+      UUID uuid = new UUID(0L, i);
+      Location location = new Location(playerWorld, i * 16.0, 64.0, i * 16.0);
+      when(player.getUniqueId()).thenReturn(uuid);
+      when(player.getName()).thenReturn("player" + i);
+      when(player.getLocation()).thenReturn(location);
+      when(player.getWorld()).thenReturn(playerWorld);
+      when(player.isOnline()).thenReturn(true);
+      players.add(player);
+    }
+    return players;
+  }
+
+  private static <T> T stub(Class<T> type) {
+    return mock(type, withSettings().stubOnly());
+  }
+
+  private static Logger quietLogger() {
+    Logger logger = Logger.getLogger("MiniGameHub-benchmarks");
+    logger.setLevel(Level.WARNING);
+    return logger;
+  }
+}
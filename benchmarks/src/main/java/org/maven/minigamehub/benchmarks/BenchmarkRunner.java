@@ -0,0 +1,35 @@
+package org.maven.minigamehub.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the allocation profiler and writes the results as JSON.
+ * Usage: {@code java -jar target/benchmarks.jar [results.json] [include regex]}
+ */
+public final class BenchmarkRunner {
+  private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+  private BenchmarkRunner() {
+  }
+
+  /**
+   * Entry point of the benchmark jar.
+   *
+   * @param args The result file and an optional benchmark filter.
+   * @throws RunnerException If a benchmark could not be run.
+   */
+  public static void main(String[] args) throws RunnerException {
+    String resultFile = args.length > 0 ? args[0] : DEFAULT_RESULT_FILE;
+    ChainedOptionsBuilder options = new OptionsBuilder()
+        .include(args.length > 1 ? args[1] : "org\\.maven\\.minigamehub\\..*Benchmark")
+        .addProfiler(GCProfiler.class)
+        .resultFormat(ResultFormatType.JSON)
+        .result(resultFile);
+    new Runner(options.build()).run();
+  }
+}
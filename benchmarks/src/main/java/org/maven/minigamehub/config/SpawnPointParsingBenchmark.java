@@ -0,0 +1,76 @@
+package org.maven.minigamehub.config;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.maven.minigamehub.benchmarks.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures reading the stored spawn points of a SurvivalGames world, one per
+ * player, and binding them to an arena world.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpawnPointParsingBenchmark {
+  @Param({"2", "16", "64", "256"})
+  public int players;
+
+  private Path dataFolder;
+  private JavaPlugin plugin;
+  private SpawnPointRegistry registry;
+  private World arenaWorld;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    dataFolder = Files.createTempDirectory("minigamehub-config");
+    plugin = BenchmarkFixtures.plugin(dataFolder.toFile());
+    registry = new SpawnPointRegistry(plugin);
+    for (int i = 0; i < players; i++) {
+      registry.add(BenchmarkFixtures.WORLD_NAME, SpawnPointRegistry.Kind.SPAWN, i * 3.5, 64.0, i * -2.25);
+    }
+    arenaWorld = BenchmarkFixtures.world();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(dataFolder)) {
+      files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  @Benchmark
+  public int loadSpawnPoints() {
+    return new SpawnPointRegistry(plugin).count(BenchmarkFixtures.WORLD_NAME, SpawnPointRegistry.Kind.SPAWN);
+  }
+
+  @Benchmark
+  public List<Location> bindSpawnPoints() {
+    return registry.getLocations(BenchmarkFixtures.WORLD_NAME, SpawnPointRegistry.Kind.SPAWN, arenaWorld);
+  }
+}
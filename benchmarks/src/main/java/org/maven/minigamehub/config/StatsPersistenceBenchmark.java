@@ -0,0 +1,112 @@
+package org.maven.minigamehub.config;
+
+import org.bukkit.entity.Player;
+import org.maven.minigamehub.benchmarks.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures recording game results in the stats store, which runs on the main
+ * thread, and writing a batch of results to each backend, which runs on the
+ * stats thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatsPersistenceBenchmark {
+  private static final String GAME = "deathswap";
+  private static final long NO_BACKGROUND_FLUSH_SECONDS = 300L;
+
+  @Param({"2", "16", "64", "256"})
+  public int players;
+
+  @Param({"sqlite", "yaml"})
+  public String backend;
+
+  private Path dataFolder;
+  private StatsBackend statsBackend;
+  private StatsStore store;
+  private List<Player> playerList;
+  private List<StatsEntry> batch;
+  private int round;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    dataFolder = Files.createTempDirectory("minigamehub-stats");
+    statsBackend = "sqlite".equals(backend)
+        ? new SqliteStatsBackend(new File(dataFolder.toFile(), "player_stats.db"))
+        : new YamlStatsBackend(new File(dataFolder.toFile(), "player_stats.yml"));
+    store = new StatsStore(BenchmarkFixtures.plugin(dataFolder.toFile()), statsBackend, NO_BACKGROUND_FLUSH_SECONDS);
+    playerList = BenchmarkFixtures.players(players);
+    batch = new ArrayList<>(players);
+    for (Player player : playerList) {
+      store.get(player.getUniqueId(), GAME);
+      batch.add(new StatsEntry(player.getUniqueId(), player.getName(), GAME, 0, 0));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    store.close();
+    try (Stream<Path> files = Files.walk(dataFolder)) {
+      files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  /**
+   * Records a result for every player the way a finished game does.
+   *
+   * @return The last recorded entry.
+   */
+  @Benchmark
+  public StatsEntry recordResults() {
+    StatsEntry last = null;
+    for (Player player : playerList) {
+      StatsEntry current = store.get(player.getUniqueId(), GAME);
+      last = new StatsEntry(player.getUniqueId(), player.getName(), GAME, current.getWins() + 1, current.getLosses());
+      store.put(last);
+    }
+    return last;
+  }
+
+  /**
+   * Writes one game's worth of results to the backend in a single batch.
+   *
+   * @return The number of entries written.
+   * @throws IOException If the backend could not write.
+   */
+  @Benchmark
+  public int writeBatch() throws IOException {
+    int wins = ++round;
+    for (int i = 0; i < batch.size(); i++) {
+      StatsEntry entry = batch.get(i);
+      batch.set(i, new StatsEntry(entry.getUuid(), entry.getPlayerName(), GAME, wins, entry.getLosses()));
+    }
+    statsBackend.saveAll(batch);
+    return batch.size();
+  }
+}
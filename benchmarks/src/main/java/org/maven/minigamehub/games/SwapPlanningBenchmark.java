@@ -0,0 +1,59 @@
+package org.maven.minigamehub.games;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.maven.minigamehub.benchmarks.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a DeathSwap swap: planning it ahead of the deadline, and reading
+ * the destinations from a prepared plan at the swap itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SwapPlanningBenchmark {
+  @Param({"2", "16", "64", "256"})
+  public int players;
+
+  @Param({"CYCLE", "PAIRWISE", "RANDOM"})
+  public String mode;
+
+  private Set<Player> alivePlayers;
+  private SwapPlanner planner;
+  private SwapPlanner.Plan plan;
+
+  @Setup
+  public void setUp() {
+    alivePlayers = new LinkedHashSet<>(BenchmarkFixtures.players(players));
+    planner = new SwapPlanner(SwapPlanner.Mode.valueOf(mode));
+    plan = planner.plan(alivePlayers);
+  }
+
+  @Benchmark
+  public SwapPlanner.Plan planSwap() {
+    return planner.plan(alivePlayers);
+  }
+
+  @Benchmark
+  public Location[] swapDestinations() {
+    return plan.getDestinations();
+  }
+}
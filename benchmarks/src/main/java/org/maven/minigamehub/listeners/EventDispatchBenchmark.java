@@ -0,0 +1,109 @@
+package org.maven.minigamehub.listeners;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.maven.minigamehub.benchmarks.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures routing interact events through the GameEventRouter, both for
+ * players in a game and for players outside any game.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventDispatchBenchmark {
+  @Param({"2", "16", "64", "256"})
+  public int players;
+
+  private GameEventRouter router;
+  private CountingGame game;
+  private PlayerInteractEvent[] participantEvents;
+  private PlayerInteractEvent[] bystanderEvents;
+
+  @Setup
+  public void setUp() {
+    BenchmarkFixtures.server();
+    router = new GameEventRouter(BenchmarkFixtures.plugin(null), false);
+    game = new CountingGame();
+
+    List<Player> all = BenchmarkFixtures.players(players * 2);
+    participantEvents = new PlayerInteractEvent[players];
+    bystanderEvents = new PlayerInteractEvent[players];
+    for (int i = 0; i < players; i++) {
+      Player participant = all.get(i);
+      router.bind(participant.getUniqueId(), game);
+      participantEvents[i] = new PlayerInteractEvent(participant, Action.LEFT_CLICK_AIR, null, null, null);
+      bystanderEvents[i] = new PlayerInteractEvent(all.get(players + i), Action.LEFT_CLICK_AIR, null, null, null);
+    }
+  }
+
+  /**
+   * Dispatches one interact event per player in a game.
+   *
+   * @return The number of events the game has received.
+   */
+  @Benchmark
+  public long participants() {
+    for (PlayerInteractEvent event : participantEvents) {
+      router.onPlayerInteract(event);
+    }
+    return game.interactions;
+  }
+
+  /**
+   * Dispatches one interact event per player outside any game.
+   *
+   * @return The number of events the game has received.
+   */
+  @Benchmark
+  public long bystanders() {
+    for (PlayerInteractEvent event : bystanderEvents) {
+      router.onPlayerInteract(event);
+    }
+    return game.interactions;
+  }
+
+  /**
+   * Game that only counts the events it receives.
+   */
+  private static final class CountingGame implements GameEventHandler {
+    private long interactions;
+
+    @Override
+    public void handlePlayerDeath(PlayerDeathEvent event) {
+    }
+
+    @Override
+    public void handlePlayerRespawn(PlayerRespawnEvent event) {
+    }
+
+    @Override
+    public void handlePlayerDisconnect(Player player) {
+    }
+
+    @Override
+    public void handlePlayerInteract(PlayerInteractEvent event) {
+      interactions++;
+    }
+  }
+}
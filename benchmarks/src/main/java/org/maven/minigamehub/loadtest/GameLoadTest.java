@@ -0,0 +1,223 @@
+package org.maven.minigamehub.loadtest;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.maven.minigamehub.config.ConfigManager;
+import org.maven.minigamehub.config.DataManager;
+import org.maven.minigamehub.config.GameJournal;
+import org.maven.minigamehub.config.InventoryStash;
+import org.maven.minigamehub.config.SpawnPointRegistry;
+import org.maven.minigamehub.games.DeathSwap;
+import org.maven.minigamehub.games.GameClock;
+import org.maven.minigamehub.games.GameScheduler;
+import org.maven.minigamehub.games.SurvivalGames;
+import org.maven.minigamehub.listeners.GameEventRouter;
+import org.maven.minigamehub.world.RegionResetEngine;
+import org.maven.minigamehub.world.WorldManager;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scripts fake players through full DeathSwap or SurvivalGames rounds on a
+ * simulated server and reports what the plugin cost.
+ * Usage: {@code GameLoadTest <deathswap|survivalgames> [players] [playersPerGame] [result.json]}
+ */
+public final class GameLoadTest {
+  private static final int TICKS_PER_SECOND = 20;
+  private static final int SWAP_INTERVAL_SECONDS = 10;
+  private static final int SWAPS = 3;
+  private static final double BORDER_SIZE = 64.0;
+  private static final String TEMPLATE_WORLD = "sg_template";
+  private static final int ARENA_START_TICKS = 220;
+  private static final long CLONE_TIMEOUT_MILLIS = 30_000L;
+
+  private GameLoadTest() {
+  }
+
+  /**
+   * Entry point of the load test.
+   *
+   * @param args The game, the number of players, the players per game and the result file.
+   * @throws Exception If the scenario failed.
+   */
+  public static void main(String[] args) throws Exception {
+    String game = args.length > 0 ? args[0].toLowerCase() : "deathswap";
+    int playerCount = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+    int playersPerGame = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+    Path resultFile = Paths.get(args.length > 3 ? args[3] : "loadtest-" + game + ".json");
+
+    LoadTestReport report = new LoadTestReport(game);
+    report.parameter("players", playerCount);
+    report.parameter("playersPerGame", playersPerGame);
+    try (SimulatedServer simulation = SimulatedServer.start(report)) {
+      switch (game) {
+        case "deathswap":
+          runDeathSwap(simulation, report, playerCount, playersPerGame);
+          break;
+        case "survivalgames":
+          runSurvivalGames(simulation, report, playerCount, playersPerGame);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown game: " + game);
+      }
+    }
+
+    report.writeJson(resultFile);
+    System.out.println(report.summary());
+    System.out.println("Results written to " + resultFile.toAbsolutePath());
+  }
+
+  /**
+   * Plays DeathSwap games through start, several swaps, deaths, disconnects and stop.
+   *
+   * @param simulation     The simulated server.
+   * @param report         The report of the run.
+   * @param playerCount    The number of players.
+   * @param playersPerGame The number of players per game.
+   */
+  private static void runDeathSwap(SimulatedServer simulation, LoadTestReport report, int playerCount,
+      int playersPerGame) {
+    simulation.getPlugin().getConfig().set("deathswap.world_pool.size", 0);
+    ConfigManager configManager = new ConfigManager(simulation.getPlugin());
+    DataManager dataManager = new DataManager(simulation.getPlugin());
+    GameEventRouter eventRouter = new GameEventRouter(simulation.getPlugin(), true);
+    InventoryStash inventoryStash = inventoryStash(simulation);
+    GameClock clock = new GameClock(simulation.getPlugin());
+    WorldManager worldManager = new WorldManager(simulation.getPlugin(), simulation.getMultiverse(), clock);
+    GameJournal journal = journal(simulation, dataManager);
+    DeathSwap deathSwap = new DeathSwap(simulation.getPlugin(), configManager, worldManager, dataManager, eventRouter,
+        inventoryStash, journal, new GameScheduler(simulation.getPlugin(), dataManager, clock));
+    deathSwap.setSwapInterval(SWAP_INTERVAL_SECONDS);
+    deathSwap.setBorderSize(BORDER_SIZE);
+    report.parameter("swapIntervalSeconds", SWAP_INTERVAL_SECONDS);
+    report.parameter("swaps", SWAPS);
+
+    CommandSender console = simulation.getServer().getConsoleSender();
+    List<List<PlayerMock>> games = partition(simulation.addPlayers(playerCount), playersPerGame);
+    for (List<PlayerMock> players : games) {
+      simulation.run("start", () -> deathSwap.startMatch(console, "", new ArrayList<Player>(players)));
+    }
+    simulation.ticks(SWAP_INTERVAL_SECONDS * TICKS_PER_SECOND * SWAPS);
+
+    // Half of every game dies, one player of every game disconnects
+    for (List<PlayerMock> players : games) {
+      for (int i = 0; i < players.size() / 2; i++) {
+        PlayerMock player = players.get(i);
+        simulation.run("deaths", () -> player.setHealth(0));
+        simulation.run("respawns", player::respawn);
+      }
+      PlayerMock leaving = players.get(players.size() - 1);
+      simulation.run("disconnects", leaving::disconnect);
+      simulation.tick();
+    }
+    simulation.ticks(SWAP_INTERVAL_SECONDS * TICKS_PER_SECOND);
+
+    simulation.run("stop", deathSwap::shutdown);
+    simulation.ticks(TICKS_PER_SECOND);
+    simulation.run("shutdown", () -> {
+      worldManager.shutdown();
+      eventRouter.shutdown();
+      dataManager.close();
+      journal.close();
+      inventoryStash.close();
+    });
+    simulation.tick();
+  }
+
+  /**
+   * Plays SurvivalGames arenas through start, deaths down to a winner and stop.
+   *
+   * @param simulation     The simulated server.
+   * @param report         The report of the run.
+   * @param playerCount    The number of players.
+   * @param playersPerGame The number of players per arena.
+   * @throws IOException          If the template snapshot could not be prepared.
+   * @throws InterruptedException If interrupted while waiting for arena worlds.
+   */
+  private static void runSurvivalGames(SimulatedServer simulation, LoadTestReport report, int playerCount,
+      int playersPerGame) throws IOException, InterruptedException {
+    simulation.getServer().addSimpleWorld(TEMPLATE_WORLD);
+    // A ready snapshot skips capturing the template, which MockBukkit worlds have no files for
+    Path snapshot = simulation.getPlugin().getDataFolder().toPath().resolve("templates").resolve(TEMPLATE_WORLD);
+    Files.createDirectories(snapshot);
+    Files.write(snapshot.resolve("level.dat"), new byte[0]);
+
+    ConfigManager configManager = new ConfigManager(simulation.getPlugin());
+    SpawnPointRegistry spawnPoints = configManager.getSpawnPoints();
+    spawnPoints.clear(TEMPLATE_WORLD, SpawnPointRegistry.Kind.SPAWN);
+    for (int i = 0; i < playersPerGame; i++) {
+      double angle = 2 * Math.PI * i / playersPerGame;
+      spawnPoints.add(TEMPLATE_WORLD, SpawnPointRegistry.Kind.SPAWN, Math.cos(angle) * 24, 64.0, Math.sin(angle) * 24);
+    }
+    GameEventRouter eventRouter = new GameEventRouter(simulation.getPlugin(), true);
+    InventoryStash inventoryStash = inventoryStash(simulation);
+    DataManager dataManager = new DataManager(simulation.getPlugin());
+    GameJournal journal = journal(simulation, dataManager);
+    GameClock clock = new GameClock(simulation.getPlugin());
+    WorldManager worldManager = new WorldManager(simulation.getPlugin(), simulation.getMultiverse(), clock);
+    SurvivalGames survivalGames = new SurvivalGames(simulation.getPlugin(),
+        simulation.getMultiverse().getMVWorldManager(), worldManager, configManager, eventRouter, inventoryStash,
+        journal, new RegionResetEngine(simulation.getPlugin(), 5, clock),
+        new GameScheduler(simulation.getPlugin(), dataManager, clock));
+
+    CommandSender console = simulation.getServer().getConsoleSender();
+    List<List<PlayerMock>> arenas = partition(simulation.addPlayers(playerCount), playersPerGame);
+    for (List<PlayerMock> players : arenas) {
+      simulation.run("start", () -> survivalGames.startMatch(console, TEMPLATE_WORLD, new ArrayList<Player>(players)));
+    }
+
+    // Arena worlds are copied off the main thread
+    long deadline = System.currentTimeMillis() + CLONE_TIMEOUT_MILLIS;
+    while (survivalGames.getArenas().size() < arenas.size() && System.currentTimeMillis() < deadline) {
+      simulation.tick();
+      Thread.sleep(1L);
+    }
+    report.parameter("arenasStarted", survivalGames.getArenas().size());
+    simulation.ticks(ARENA_START_TICKS);
+
+    // Everyone but the last player of each arena dies, which ends the arena
+    for (List<PlayerMock> players : arenas) {
+      for (int i = 0; i < players.size() - 1; i++) {
+        PlayerMock player = players.get(i);
+        simulation.run("deaths", () -> player.setHealth(0));
+        simulation.run("respawns", player::respawn);
+      }
+      simulation.tick();
+    }
+
+    simulation.run("stop", survivalGames::stopAll);
+    simulation.ticks(TICKS_PER_SECOND);
+    simulation.run("shutdown", () -> {
+      worldManager.shutdown();
+      eventRouter.shutdown();
+      dataManager.close();
+      journal.close();
+      inventoryStash.close();
+    });
+    simulation.tick();
+  }
+
+  private static InventoryStash inventoryStash(SimulatedServer simulation) {
+    return new InventoryStash(simulation.getPlugin(),
+        simulation.getPlugin().getDataFolder().toPath().resolve("inventory_stash.dat"));
+  }
+
+  private static GameJournal journal(SimulatedServer simulation, DataManager dataManager) {
+    return new GameJournal(simulation.getPlugin(),
+        simulation.getPlugin().getDataFolder().toPath().resolve("game_journal.dat"), dataManager);
+  }
+
+  private static List<List<PlayerMock>> partition(List<PlayerMock> players, int size) {
+    List<List<PlayerMock>> groups = new ArrayList<>();
+    for (int start = 0; start + 1 < players.size(); start += size) {
+      groups.add(players.subList(start, Math.min(players.size(), start + size)));
+    }
+    return groups;
+  }
+}
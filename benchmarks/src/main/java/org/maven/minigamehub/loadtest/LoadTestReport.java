@@ -0,0 +1,139 @@
+package org.maven.minigamehub.loadtest;
+
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measurements of one load test run.
+ * Tick samples are kept in primitive arrays so recording them does not allocate
+ * on every tick and skew the allocation numbers.
+ */
+public final class LoadTestReport {
+  private final String scenario;
+  private final Map<String, Object> parameters = new LinkedHashMap<>();
+  private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+  private long[] tickNanos = new long[1024];
+  private long[] tickAllocatedBytes = new long[1024];
+  private int ticks;
+  private long teleports;
+  private long fileWrites;
+
+  /**
+   * Constructor for the LoadTestReport class.
+   *
+   * @param scenario The name of the scenario.
+   */
+  public LoadTestReport(String scenario) {
+    this.scenario = scenario;
+  }
+
+  /**
+   * Records a parameter of the run.
+   *
+   * @param name  The name of the parameter.
+   * @param value The value of the parameter.
+   */
+  public void parameter(String name, Object value) {
+    parameters.put(name, value);
+  }
+
+  /**
+   * Records the plugin time and allocations of one tick.
+   *
+   * @param nanos          The nanoseconds spent in plugin code.
+   * @param allocatedBytes The bytes allocated by the server thread.
+   */
+  void recordTick(long nanos, long allocatedBytes) {
+    if (ticks == tickNanos.length) {
+      tickNanos = Arrays.copyOf(tickNanos, ticks * 2);
+      tickAllocatedBytes = Arrays.copyOf(tickAllocatedBytes, ticks * 2);
+    }
+    tickNanos[ticks] = nanos;
+    tickAllocatedBytes[ticks] = allocatedBytes;
+    ticks++;
+  }
+
+  /**
+   * Adds the plugin time of a scripted step, such as starting a game.
+   *
+   * @param phase The name of the step.
+   * @param nanos The nanoseconds spent in plugin code.
+   */
+  void recordPhase(String phase, long nanos) {
+    phaseNanos.merge(phase, nanos, Long::sum);
+  }
+
+  void addTeleports(long count) {
+    teleports += count;
+  }
+
+  void addFileWrites(long count) {
+    fileWrites += count;
+  }
+
+  /**
+   * Builds the summary of the run.
+   *
+   * @return The summary, ready to be printed or serialized.
+   */
+  public Map<String, Object> summary() {
+    long[] sortedNanos = Arrays.copyOf(tickNanos, ticks);
+    Arrays.sort(sortedNanos);
+    long totalNanos = 0;
+    long totalBytes = 0;
+    for (int i = 0; i < ticks; i++) {
+      totalNanos += tickNanos[i];
+      totalBytes += tickAllocatedBytes[i];
+    }
+
+    Map<String, Object> tickSummary = new LinkedHashMap<>();
+    tickSummary.put("count", ticks);
+    tickSummary.put("meanMillis", ticks == 0 ? 0.0 : totalNanos / (double) ticks / 1_000_000.0);
+    tickSummary.put("p50Millis", percentileMillis(sortedNanos, 0.50));
+    tickSummary.put("p95Millis", percentileMillis(sortedNanos, 0.95));
+    tickSummary.put("p99Millis", percentileMillis(sortedNanos, 0.99));
+    tickSummary.put("maxMillis", ticks == 0 ? 0.0 : sortedNanos[ticks - 1] / 1_000_000.0);
+    tickSummary.put("allocatedBytes", totalBytes);
+    tickSummary.put("meanAllocatedBytes", ticks == 0 ? 0 : totalBytes / ticks);
+
+    Map<String, Object> phases = new LinkedHashMap<>();
+    phaseNanos.forEach((phase, nanos) -> phases.put(phase, nanos / 1_000_000.0));
+
+    Map<String, Object> summary = new LinkedHashMap<>();
+    summary.put("scenario", scenario);
+    summary.put("parameters", parameters);
+    summary.put("ticks", tickSummary);
+    summary.put("phaseMillis", phases);
+    summary.put("teleports", teleports);
+    summary.put("fileWrites", fileWrites);
+    return summary;
+  }
+
+  /**
+   * Writes the summary as JSON.
+   *
+   * @param file The file to write.
+   * @throws IOException If the file could not be written.
+   */
+  public void writeJson(Path file) throws IOException {
+    try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      new GsonBuilder().setPrettyPrinting().create().toJson(summary(), writer);
+    }
+  }
+
+  private static double percentileMillis(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0.0;
+    }
+    int index = (int) Math.ceil(percentile * sorted.length) - 1;
+    return sorted[Math.max(0, index)] / 1_000_000.0;
+  }
+}
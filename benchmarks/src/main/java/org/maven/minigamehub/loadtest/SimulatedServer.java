@@ -0,0 +1,225 @@
+package org.maven.minigamehub.loadtest;
+
+import com.onarandombox.MultiverseCore.MultiverseCore;
+import com.onarandombox.MultiverseCore.api.MVWorldManager;
+import com.onarandombox.MultiverseCore.api.MultiverseWorld;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+import org.mockbukkit.mockbukkit.plugin.MockPlugin;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * In-process server stand-in for load tests.
+ * Wraps a MockBukkit server with a mocked Multiverse-Core whose worlds are
+ * MockBukkit worlds, and measures what the plugin costs while scripted players
+ * play through games: plugin time and allocations per tick, teleports and file
+ * writes in the plugin's data folder.
+ */
+public final class SimulatedServer implements AutoCloseable {
+  public static final String MAIN_WORLD = "world";
+  private static final String[] CONFIG_FILES = {"config.yml", "survivalgames.yml", "deathswap.yml", "spleef.yml"};
+
+  private final ServerMock server;
+  private final MockPlugin plugin;
+  private final MultiverseCore multiverse;
+  private final LoadTestReport report;
+  private final com.sun.management.ThreadMXBean threads =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+  private final WatchService fileWatcher;
+  private final List<PlayerMock> players = new ArrayList<>();
+  private long pendingNanos;
+  private long pendingAllocatedBytes;
+  private long teleports;
+
+  private SimulatedServer(LoadTestReport report) throws IOException {
+    this.report = report;
+    this.server = MockBukkit.mock();
+    this.plugin = MockBukkit.createMockPlugin("MiniGameHub");
+    server.addSimpleWorld(MAIN_WORLD);
+
+    Path dataFolder = plugin.getDataFolder().toPath();
+    Files.createDirectories(dataFolder);
+    for (String fileName : CONFIG_FILES) {
+      if (!Files.exists(dataFolder.resolve(fileName))) {
+        Files.createFile(dataFolder.resolve(fileName));
+      }
+    }
+    this.fileWatcher = FileSystems.getDefault().newWatchService();
+    dataFolder.register(fileWatcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+    this.multiverse = mockMultiverse();
+    server.getPluginManager().registerEvents(new TeleportCounter(), plugin);
+  }
+
+  /**
+   * Starts a simulated server.
+   *
+   * @param report The report the measurements are recorded in.
+   * @return The simulated server.
+   * @throws IOException If the plugin's data folder could not be prepared.
+   */
+  public static SimulatedServer start(LoadTestReport report) throws IOException {
+    return new SimulatedServer(report);
+  }
+
+  public ServerMock getServer() {
+    return server;
+  }
+
+  public MockPlugin getPlugin() {
+    return plugin;
+  }
+
+  public MultiverseCore getMultiverse() {
+    return multiverse;
+  }
+
+  /**
+   * Connects fake players.
+   *
+   * @param count The number of players to add.
+   * @return The new players.
+   */
+  public List<PlayerMock> addPlayers(int count) {
+    List<PlayerMock> added = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      PlayerMock player = server.addPlayer("Player" + players.size());
+      players.add(player);
+      added.add(player);
+    }
+    return added;
+  }
+
+  /**
+   * Runs a scripted step, counting its plugin time towards the next tick and
+   * towards the named phase.
+   *
+   * @param phase  The name of the step.
+   * @param action The step.
+   */
+  public void run(String phase, Runnable action) {
+    long threadId = Thread.currentThread().getId();
+    long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+    long start = System.nanoTime();
+    action.run();
+    long elapsed = System.nanoTime() - start;
+    pendingNanos += elapsed;
+    pendingAllocatedBytes += threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+    report.recordPhase(phase, elapsed);
+  }
+
+  /**
+   * Advances the server by one tick, running every scheduled plugin task.
+   */
+  public void tick() {
+    long threadId = Thread.currentThread().getId();
+    long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+    long start = System.nanoTime();
+    server.getScheduler().performOneTick();
+    long elapsed = System.nanoTime() - start;
+    long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+    report.recordTick(pendingNanos + elapsed, pendingAllocatedBytes + allocated);
+    pendingNanos = 0;
+    pendingAllocatedBytes = 0;
+    report.addTeleports(teleports);
+    teleports = 0;
+    drainFileWrites();
+  }
+
+  /**
+   * Advances the server by several ticks.
+   *
+   * @param count The number of ticks.
+   */
+  public void ticks(int count) {
+    for (int i = 0; i < count; i++) {
+      tick();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    drainFileWrites();
+    fileWatcher.close();
+    MockBukkit.unmock();
+  }
+
+  private void drainFileWrites() {
+    WatchKey key;
+    while ((key = fileWatcher.poll()) != null) {
+      report.addFileWrites(key.pollEvents().size());
+      key.reset();
+    }
+  }
+
+  /**
+   * Creates a Multiverse-Core stand-in that loads its worlds as MockBukkit worlds.
+   *
+   * @return The mocked Multiverse-Core.
+   */
+  private MultiverseCore mockMultiverse() {
+    MultiverseCore core = mock(MultiverseCore.class);
+    MVWorldManager worldManager = mock(MVWorldManager.class);
+    when(core.getMVWorldManager()).thenReturn(worldManager);
+    when(core.isEnabled()).thenReturn(true);
+
+    when(worldManager.addWorld(anyString(), any(World.Environment.class), isNull(), any(), anyBoolean(), isNull()))
+        .thenAnswer(invocation -> {
+          server.addSimpleWorld(invocation.getArgument(0));
+          return true;
+        });
+    when(worldManager.isMVWorld(anyString())).thenAnswer(invocation ->
+        Bukkit.getWorld((String) invocation.getArgument(0)) != null);
+    when(worldManager.getMVWorld(anyString())).thenAnswer(invocation -> {
+      World world = Bukkit.getWorld((String) invocation.getArgument(0));
+      if (world == null) {
+        return null;
+      }
+      MultiverseWorld mvWorld = mock(MultiverseWorld.class);
+      when(mvWorld.getName()).thenReturn(world.getName());
+      when(mvWorld.getCBWorld()).thenReturn(world);
+      return mvWorld;
+    });
+    when(worldManager.unloadWorld(anyString(), anyBoolean())).thenReturn(true);
+    when(worldManager.removeWorldFromConfig(anyString())).thenReturn(true);
+    when(worldManager.getMVWorlds()).thenReturn(Collections.emptyList());
+    when(worldManager.getUnloadedWorlds()).thenReturn(Collections.emptyList());
+    return core;
+  }
+
+  /**
+   * Counts every teleport that went through.
+   */
+  private final class TeleportCounter implements Listener {
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+      teleports++;
+    }
+  }
+}
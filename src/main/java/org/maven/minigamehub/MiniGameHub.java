@@ -4,18 +4,35 @@ import com.onarandombox.MultiverseCore.MultiverseCore;
 import com.onarandombox.MultiverseCore.api.MVWorldManager;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.maven.minigamehub.config.ConfigManager;
 import org.maven.minigamehub.config.DataManager;
+import org.maven.minigamehub.config.GameJournal;
+import org.maven.minigamehub.config.InventoryStash;
+import org.maven.minigamehub.config.StatsEntry;
 import org.maven.minigamehub.games.DeathSwap;
+import org.maven.minigamehub.games.GameClock;
+import org.maven.minigamehub.games.GameRegistry;
+import org.maven.minigamehub.games.GameScheduler;
+import org.maven.minigamehub.games.MiniGame;
 import org.maven.minigamehub.games.Spleef;
 import org.maven.minigamehub.games.SurvivalGames;
+import org.maven.minigamehub.world.RegionResetEngine;
 import org.maven.minigamehub.world.WorldManager;
 import org.maven.minigamehub.commands.DeathSwapCommands;
-import org.maven.minigamehub.listeners.DeathSwapListeners;
+import org.maven.minigamehub.listeners.GameEventRouter;
+import org.maven.minigamehub.listeners.InventoryStashListener;
+import org.maven.minigamehub.listeners.PlayerStatsListener;
+import org.maven.minigamehub.matchmaking.MatchmakingService;
+import org.maven.minigamehub.metrics.Counter;
+import org.maven.minigamehub.metrics.PluginMetrics;
+import org.maven.minigamehub.metrics.PrometheusExporter;
+import org.maven.minigamehub.metrics.Timer;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 
@@ -25,6 +42,9 @@ import java.util.stream.Collectors;
  * commands and game setup.
  */
 public final class MiniGameHub extends JavaPlugin {
+    private static final String INVENTORY_STASH_FILE_NAME = "inventory_stash.dat";
+    private static final String JOURNAL_FILE_NAME = "game_journal.dat";
+
     private ConfigManager configManager;
     private SurvivalGames survivalGames;
     private DeathSwap deathSwap;
@@ -32,6 +52,15 @@ public final class MiniGameHub extends JavaPlugin {
     private WorldManager worldManager;
     private DeathSwapCommands deathSwapCommands;
     private DataManager dataManager;
+    private GameEventRouter eventRouter;
+    private InventoryStash inventoryStash;
+    private GameJournal journal;
+    private RegionResetEngine resetEngine;
+    private MatchmakingService matchmaking;
+    private GameClock gameClock;
+    private GameScheduler gameScheduler;
+    private GameRegistry gameRegistry;
+    private PrometheusExporter metricsExporter;
 
     /**
      * Called when the plugin is enabled.
@@ -56,39 +85,148 @@ public final class MiniGameHub extends JavaPlugin {
     private void initializePlugin() {
         getLogger().info("Initializing ConfigManager...");
         configManager = new ConfigManager(this);
+        // Every periodic job of the plugin runs on this clock's single Bukkit task
+        gameClock = new GameClock(this);
+        initializeMetrics();
         initializeGames();
     }
 
+    /**
+     * Starts sampling the plugin's tick time and the Prometheus exports
+     * configured in the metrics section of config.yml.
+     */
+    private void initializeMetrics() {
+        if (!getConfig().getBoolean("metrics.enabled", true)) {
+            return;
+        }
+        PluginMetrics.startTickSampling(gameClock);
+        metricsExporter = new PrometheusExporter(this);
+        String file = getConfig().getString("metrics.prometheus.file", "metrics.prom");
+        if (file != null && !file.isEmpty()) {
+            long interval = Math.max(1, getConfig().getLong("metrics.prometheus.file_interval_seconds", 15));
+            metricsExporter.startFileDump(getDataFolder().toPath().resolve(file), interval);
+        }
+        int port = getConfig().getInt("metrics.prometheus.port", 0);
+        if (port > 0) {
+            metricsExporter.startHttpEndpoint(port);
+        }
+    }
+
     /**
      * Initializes the games supported by the plugin.
      * Checks for the presence of Multiverse-Core and sets up the games accordingly.
      */
     private void initializeGames() {
+        eventRouter = new GameEventRouter(this, getConfig().getBoolean("events.register_only_while_active", true));
+        inventoryStash = new InventoryStash(this, getDataFolder().toPath().resolve(INVENTORY_STASH_FILE_NAME));
+        getServer().getPluginManager().registerEvents(new InventoryStashListener(inventoryStash, eventRouter), this);
+        dataManager = new DataManager(this);
+        getServer().getPluginManager().registerEvents(new PlayerStatsListener(dataManager), this);
+        journal = new GameJournal(this, getDataFolder().toPath().resolve(JOURNAL_FILE_NAME), dataManager);
+        resetEngine = new RegionResetEngine(this, getConfig().getDouble("world.region_reset.max_millis_per_tick", 5),
+                gameClock);
+        gameScheduler = new GameScheduler(this, dataManager, gameClock);
+        matchmaking = new MatchmakingService(this, eventRouter, gameClock);
+        gameRegistry = new GameRegistry(this, eventRouter, matchmaking);
+
         MultiverseCore core = (MultiverseCore) getServer().getPluginManager().getPlugin("Multiverse-Core");
         if (core != null && core.isEnabled()) {
             getLogger().info("Multiverse-Core found and enabled.");
             MVWorldManager mvWorldManager = core.getMVWorldManager();
-            survivalGames = new SurvivalGames(this, mvWorldManager, configManager);
-            worldManager = new WorldManager(this, core);
+            worldManager = new WorldManager(this, core, gameClock);
+            worldManager.sweepOrphanedWorlds();
+            survivalGames = new SurvivalGames(this, mvWorldManager, worldManager, configManager, eventRouter,
+                    inventoryStash, journal, resetEngine, gameScheduler);
+            gameRegistry.register(survivalGames);
+            deathSwap = new DeathSwap(this, configManager, worldManager, dataManager, eventRouter, inventoryStash,
+                    journal, gameScheduler);
+            gameRegistry.register(deathSwap);
+            deathSwapCommands = new DeathSwapCommands(deathSwap, configManager, this);
+            getCommand("deathswap").setExecutor(deathSwapCommands);
         } else {
-            getLogger().warning("Multiverse-Core not found or not enabled. SurvivalGames may not function correctly.");
+            getLogger().warning("Multiverse-Core not found or not enabled. SurvivalGames and DeathSwap are disabled.");
             survivalGames = null;
+            deathSwap = null;
             worldManager = null;
+            getCommand("deathswap").setExecutor((sender, command, label, args) -> {
+                sender.sendMessage("DeathSwap requires Multiverse-Core.");
+                return true;
+            });
         }
+        spleef = new Spleef(this, configManager, dataManager, eventRouter, inventoryStash, journal, resetEngine,
+                gameScheduler);
+        gameRegistry.register(spleef);
+        recoverFromJournal();
+        journal.startCompaction(gameClock, getConfig().getLong("journal.compaction_interval_seconds", 300L));
+    }
 
-        dataManager = new DataManager(this);
-        deathSwap = new DeathSwap(this, configManager, worldManager, dataManager);
-        deathSwapCommands = new DeathSwapCommands(deathSwap, configManager, this);
-        getServer().getPluginManager().registerEvents(new DeathSwapListeners(deathSwap), this);
-        getCommand("deathswap").setExecutor(deathSwapCommands);
+    /**
+     * Resolves what the game journal found from an unclean shutdown. Results that
+     * may not have reached the stats backend are credited again, the worlds of
+     * interrupted games are deleted and arenas played in place are reset. Their
+     * players get their items back from the inventory stash now if they are
+     * online, or when they next join.
+     */
+    private void recoverFromJournal() {
+        for (StatsEntry result : journal.getRecoveredResults()) {
+            dataManager.restorePlayerStats(result);
+        }
+        for (GameJournal.InterruptedGame game : journal.getInterruptedGames()) {
+            getLogger().warning("Recovering interrupted " + game.getGameName() + " game in " + game.getWorldName()
+                    + " with " + game.getPlayers().size() + " players (" + game.getDeadPlayers().size() + " dead, "
+                    + game.getSwaps() + " swaps).");
+            for (UUID playerId : game.getPlayers()) {
+                Player player = getServer().getPlayer(playerId);
+                if (player != null) {
+                    inventoryStash.restore(player);
+                }
+            }
+            gameRegistry.recoverInterruptedGame(game);
+        }
     }
 
     /**
      * Called when the plugin is disabled.
-     * Logs a message indicating that the plugin has been disabled.
+     * Stops running games, flushes pending player stats and logs a message
+     * indicating that the plugin has been disabled.
      */
     @Override
     public void onDisable() {
+        if (matchmaking != null) {
+            matchmaking.shutdown();
+        }
+        if (gameRegistry != null) {
+            gameRegistry.shutdown();
+        }
+        if (resetEngine != null) {
+            // Finishes the resets queued by the games above before the server stops
+            resetEngine.shutdown();
+        }
+        if (gameScheduler != null) {
+            gameScheduler.shutdown();
+        }
+        if (worldManager != null) {
+            worldManager.shutdown();
+        }
+        if (eventRouter != null) {
+            eventRouter.shutdown();
+        }
+        if (dataManager != null) {
+            dataManager.close();
+        }
+        if (journal != null) {
+            journal.close();
+        }
+        if (inventoryStash != null) {
+            inventoryStash.close();
+        }
+        if (metricsExporter != null) {
+            metricsExporter.shutdown();
+        }
+        PluginMetrics.stopTickSampling();
+        if (gameClock != null) {
+            gameClock.shutdown();
+        }
         getLogger().info("MiniGameHub has been disabled!");
     }
 
@@ -103,33 +241,46 @@ public final class MiniGameHub extends JavaPlugin {
      */
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
-        if (!sender.isOp()) {
+        // Everyone may queue for games, everything else is for operators
+        boolean queueCommand = args.length >= 1 && "queue".equalsIgnoreCase(args[0]);
+        if (!sender.isOp() && !queueCommand) {
             sender.sendMessage("You don't have permission to use this command.");
             return true;
         }
 
         if (!command.getName().equalsIgnoreCase("minigame") || args.length < 1) {
-            sender.sendMessage("Usage: /minigame <start|setup|enable|disable> ...");
+            sender.sendMessage("Usage: /minigame <start|queue|setup|snapshot|enable|disable|top|metrics> ...");
             return true;
         }
 
+        long start = System.nanoTime();
         try {
             switch (args[0].toLowerCase()) {
                 case "setup":
                     return handleSetupCommand(sender, args);
                 case "start":
                     return handleStartCommand(sender, args);
+                case "queue":
+                    return handleQueueCommand(sender, args);
                 case "enable":
                 case "disable":
                     return handleCreatorModeCommand(sender, args);
+                case "snapshot":
+                    return handleSnapshotCommand(sender, args);
+                case "top":
+                    return handleTopCommand(sender, args);
+                case "metrics":
+                    return handleMetricsCommand(sender);
                 default:
-                    sender.sendMessage("Unknown subcommand. Usage: /minigame <start|setup|enable|disable> ...");
+                    sender.sendMessage("Unknown subcommand. Usage: /minigame <start|queue|setup|snapshot|enable|disable|top|metrics> ...");
                     return true;
             }
         } catch (Exception e) {
             sender.sendMessage("An error occurred while executing the command: " + e.getMessage());
             getLogger().log(Level.SEVERE, "Error executing command: " + e.getMessage(), e);
             return true;
+        } finally {
+            PluginMetrics.COMMAND.recordSince(start);
         }
     }
 
@@ -147,14 +298,78 @@ public final class MiniGameHub extends JavaPlugin {
         }
 
         if ("survivalgames".equalsIgnoreCase(args[1])) {
+            if (survivalGames == null) {
+                sender.sendMessage("SurvivalGames requires Multiverse-Core.");
+                return true;
+            }
             String worldName = args[2];
             survivalGames.setupWorld(sender, worldName);
+        } else if ("spleef".equalsIgnoreCase(args[1])) {
+            return handleSpleefSetupCommand(sender, args);
         } else {
             sender.sendMessage("Unknown game for setup: " + args[1]);
         }
         return true;
     }
 
+    /**
+     * Handles the setup command for a Spleef arena.
+     * The arena's world defaults to the world of the player running the command.
+     * 
+     * @param sender The sender of the command.
+     * @param args   The arguments passed to the command.
+     * @return true if the command was handled successfully, false otherwise.
+     */
+    private boolean handleSpleefSetupCommand(CommandSender sender, String[] args) {
+        String usage = "Usage: /minigame setup spleef <arena> <x1> <y1> <z1> <x2> <y2> <z2> [world]";
+        if (args.length < 9) {
+            sender.sendMessage(usage);
+            return true;
+        }
+        int[] corners = new int[6];
+        try {
+            for (int i = 0; i < corners.length; i++) {
+                corners[i] = Integer.parseInt(args[3 + i]);
+            }
+        } catch (NumberFormatException e) {
+            sender.sendMessage("Corner coordinates must be whole numbers. " + usage);
+            return true;
+        }
+        String worldName;
+        if (args.length >= 10) {
+            worldName = args[9];
+        } else if (sender instanceof Player) {
+            worldName = ((Player) sender).getWorld().getName();
+        } else {
+            sender.sendMessage(usage);
+            return true;
+        }
+        spleef.setupArena(sender, args[2], worldName, corners);
+        return true;
+    }
+
+    /**
+     * Handles the snapshot command for the plugin.
+     * Recaptures the snapshot SurvivalGames arenas are cloned from.
+     * 
+     * @param sender The sender of the command.
+     * @param args   The arguments passed to the command.
+     * @return true if the command was handled successfully, false otherwise.
+     */
+    private boolean handleSnapshotCommand(CommandSender sender, String[] args) {
+        if (args.length < 2) {
+            sender.sendMessage("Usage: /minigame snapshot <world>");
+            return true;
+        }
+
+        if (survivalGames == null) {
+            sender.sendMessage("SurvivalGames requires Multiverse-Core.");
+            return true;
+        }
+        survivalGames.captureSnapshot(sender, args[1]);
+        return true;
+    }
+
     /**
      * Handles the start command for the plugin.
      * 
@@ -164,27 +379,63 @@ public final class MiniGameHub extends JavaPlugin {
      */
     private boolean handleStartCommand(CommandSender sender, String[] args) {
         if (args.length < 2) {
-            sender.sendMessage("Usage: /minigame start <game> [world] [player1] [player2] ...");
+            sender.sendMessage("Usage: /minigame start <game> [world|arena] [player1] [player2] ...");
             return true;
         }
 
-        String game = args[1].toLowerCase();
-        List<String> playerNames;
-        String worldName = null;
-
-        if ("survivalgames".equals(game)) {
-            if (args.length < 4) {
-                sender.sendMessage("Usage: /minigame start survivalgames <world> <player1> <player2> ...");
-                return true;
+        MiniGame game = gameRegistry.get(args[1]);
+        if (game == null) {
+            if ("survivalgames".equalsIgnoreCase(args[1])) {
+                sender.sendMessage("SurvivalGames is not available. Make sure Multiverse-Core is installed.");
+            } else {
+                sender.sendMessage("Unknown game: " + args[1] + ". Available games: "
+                        + String.join(", ", gameRegistry.getNames()));
             }
-            worldName = args[2];
-            playerNames = Arrays.stream(args, 3, args.length).collect(Collectors.toList());
-        } else {
-            playerNames = Arrays.stream(args, 2, args.length).collect(Collectors.toList());
+            return true;
         }
 
-        sender.sendMessage("Starting the " + game + " game...");
-        startGame(game, worldName, playerNames, sender);
+        // Games played in a world or arena take it as the first argument
+        int firstPlayer = game.getTargetDescription() != null ? 3 : 2;
+        String target = args.length > 2 && firstPlayer == 3 ? args[2] : null;
+        List<String> playerNames = Arrays.stream(args, Math.min(firstPlayer, args.length), args.length)
+                .collect(Collectors.toList());
+
+        sender.sendMessage("Starting the " + game.getName() + " game...");
+        gameRegistry.start(sender, game.getName(), target, playerNames);
+        return true;
+    }
+
+    /**
+     * Handles the queue command, which lets players join and leave the
+     * matchmaking queues and lists them.
+     *
+     * @param sender The sender of the command.
+     * @param args   The arguments passed to the command.
+     * @return true if the command was handled successfully, false otherwise.
+     */
+    private boolean handleQueueCommand(CommandSender sender, String[] args) {
+        String usage = "Usage: /minigame queue <join <game> [world|arena]|leave|list>";
+        if (args.length < 2) {
+            sender.sendMessage(usage);
+            return true;
+        }
+        String action = args[1].toLowerCase();
+        if ("list".equals(action)) {
+            matchmaking.list(sender);
+            return true;
+        }
+        if (!(sender instanceof Player)) {
+            sender.sendMessage("Only players can join or leave a queue.");
+            return true;
+        }
+        Player player = (Player) sender;
+        if ("join".equals(action) && args.length >= 3) {
+            matchmaking.join(player, args[2].toLowerCase(), args.length >= 4 ? args[3] : "");
+        } else if ("leave".equals(action)) {
+            player.sendMessage(matchmaking.leave(player) ? "You have left the queue." : "You are not in a queue.");
+        } else {
+            sender.sendMessage(usage);
+        }
         return true;
     }
 
@@ -205,10 +456,18 @@ public final class MiniGameHub extends JavaPlugin {
 
         switch (args[1].toLowerCase()) {
             case "survivalgames":
-                survivalGames.setCreatorMode(enable);
+                if (survivalGames == null) {
+                    sender.sendMessage("SurvivalGames requires Multiverse-Core.");
+                } else {
+                    survivalGames.setCreatorMode(enable);
+                }
                 break;
             case "deathswap":
-                deathSwap.setCreatorMode(enable);
+                if (deathSwap == null) {
+                    sender.sendMessage("DeathSwap requires Multiverse-Core.");
+                } else {
+                    deathSwap.setCreatorMode(enable);
+                }
                 break;
             default:
                 sender.sendMessage(
@@ -219,72 +478,79 @@ public final class MiniGameHub extends JavaPlugin {
     }
 
     /**
-     * Starts the specified game with the given parameters.
-     * 
-     * @param game        The name of the game to start.
-     * @param worldName   The name of the world to use for the game (if applicable).
-     * @param playerNames The list of player names participating in the game.
-     * @param sender      The sender of the command.
+     * Handles the leaderboard command for the plugin.
+     * The query runs off the main thread and the result is sent back on it.
+     *
+     * @param sender The sender of the command.
+     * @param args   The arguments passed to the command.
+     * @return true if the command was handled successfully, false otherwise.
      */
-    private void startGame(String game, String worldName, List<String> playerNames, CommandSender sender) {
-        try {
-            switch (game) {
-                case "survivalgames":
-                    if (worldName == null) {
-                        sender.sendMessage(
-                                "Error: World name is missing. Usage: /minigame start survivalgames <world> <player1> <player2> ...");
+    private boolean handleTopCommand(CommandSender sender, String[] args) {
+        if (args.length < 2) {
+            sender.sendMessage("Usage: /minigame top <game> [count]");
+            return true;
+        }
+
+        String game = args[1].toLowerCase();
+        int count = 10;
+        if (args.length >= 3) {
+            try {
+                count = Math.max(1, Math.min(100, Integer.parseInt(args[2])));
+            } catch (NumberFormatException e) {
+                sender.sendMessage("Count must be a number.");
+                return true;
+            }
+        }
+
+        dataManager.getTopPlayers(game, count).whenComplete((top, error) ->
+                getServer().getScheduler().runTask(this, () -> {
+                    if (error != null) {
+                        sender.sendMessage("Could not load the leaderboard for " + game + ".");
+                        getLogger().log(Level.SEVERE, "Error loading leaderboard for " + game, error);
                         return;
                     }
-                    if (playerNames.isEmpty()) {
-                        sender.sendMessage(
-                                "Error: Player names are missing. Usage: /minigame start survivalgames <world> <player1> <player2> ...");
-                        return;
+                    sender.sendMessage("Top " + top.size() + " players in " + game + ":");
+                    for (int i = 0; i < top.size(); i++) {
+                        StatsEntry entry = top.get(i);
+                        String name = entry.getPlayerName() != null ? entry.getPlayerName() : entry.getUuid().toString();
+                        sender.sendMessage((i + 1) + ". " + name + " - " + entry.getWins() + " wins, "
+                                + entry.getLosses() + " losses");
                     }
-                    startSurvivalGames(sender, worldName, playerNames);
-                    break;
-                case "spleef":
-                    spleef.start(sender);
-                    break;
-                case "deathswap":
-                    if (playerNames.size() < 2) {
-                        sender.sendMessage(
-                                "Error: At least two player names are required. Usage: /minigame start deathswap <player1> <player2> ...");
-                        return;
-                    }
-                    startDeathSwap(sender, playerNames);
-                    break;
-                default:
-                    sender.sendMessage("Unknown game: " + game);
-                    break;
-            }
-        } catch (Exception e) {
-            sender.sendMessage("An error occurred while starting the game: " + e.getMessage());
-            getLogger().log(Level.SEVERE, "Error starting game " + game + ": " + e.getMessage(), e);
-        }
+                }));
+        return true;
     }
 
     /**
-     * Starts the SurvivalGames game.
-     * 
-     * @param sender      The sender of the command.
-     * @param worldName   The name of the world to use for the game.
-     * @param playerNames The list of player names participating in the game.
+     * Handles the metrics subcommand.
+     * Shows the count, median, 99th percentile and maximum of every timer that
+     * has recorded something, followed by the counters.
+     *
+     * @param sender The sender of the command.
+     * @return true if the command was handled successfully, false otherwise.
      */
-    private void startSurvivalGames(CommandSender sender, String worldName, List<String> playerNames) {
-        if (survivalGames != null) {
-            survivalGames.start(sender, worldName, playerNames);
-        } else {
-            sender.sendMessage("SurvivalGames is not available. Make sure Multiverse-Core is installed.");
+    private boolean handleMetricsCommand(CommandSender sender) {
+        sender.sendMessage("MiniGameHub metrics (count, p50, p99, max in ms):");
+        for (Timer timer : PluginMetrics.getTimers()) {
+            if (timer.getCount() == 0) {
+                continue;
+            }
+            String name = timer.getLabels().isEmpty() ? timer.getName() : timer.getName() + "{" + timer.getLabels() + "}";
+            sender.sendMessage(String.format("%s: %d, %.2f, %.2f, %.2f", name, timer.getCount(),
+                    timer.quantile(0.5) / 1_000_000.0, timer.quantile(0.99) / 1_000_000.0,
+                    timer.getMaxNanos() / 1_000_000.0));
         }
+        for (Counter counter : PluginMetrics.getCounters()) {
+            sender.sendMessage(counter.getName() + ": " + counter.get());
+        }
+        return true;
     }
 
     /**
-     * Starts the DeathSwap game.
-     * 
-     * @param sender      The sender of the command.
-     * @param playerNames The list of player names participating in the game.
+     * Gets the registry of the available games.
+     *
+     * @return The GameRegistry instance.
      */
-    private void startDeathSwap(CommandSender sender, List<String> playerNames) {
-        deathSwap.start(sender, playerNames);
+    public GameRegistry getGameRegistry() {
+        return gameRegistry;
     }
-}
\ No newline at end of file
+}
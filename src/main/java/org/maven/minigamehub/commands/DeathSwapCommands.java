@@ -7,6 +7,7 @@ import org.bukkit.configuration.file.FileConfiguration;
 import org.maven.minigamehub.MiniGameHub;
 import org.maven.minigamehub.config.ConfigManager;
 import org.maven.minigamehub.games.DeathSwap;
+import org.maven.minigamehub.metrics.PluginMetrics;
 
 import java.util.Arrays;
 import java.util.List;
@@ -40,13 +41,14 @@ public class DeathSwapCommands implements CommandExecutor {
   }
 
   /**
-   * Starts the DeathSwap game with the specified players.
+   * Starts the DeathSwap game with the specified players through the game registry,
+   * which validates the players.
    *
    * @param commandSender The sender of the command.
    * @param playerNames The list of player names to start the game with.
    */
   private void startGame(CommandSender commandSender, List<String> playerNames) {
-    deathSwap.start(commandSender, playerNames);
+    plugin.getGameRegistry().start(commandSender, deathSwap.getName(), null, playerNames);
   }
 
   /**
@@ -71,6 +73,15 @@ public class DeathSwapCommands implements CommandExecutor {
     if (!config.contains("warningTime")) {
       config.set("warningTime", 10);
     }
+    if (!config.contains("adaptiveSwapTime")) {
+      config.set("adaptiveSwapTime", true);
+    }
+    if (!config.contains("maxSwapTimeStretch")) {
+      config.set("maxSwapTimeStretch", 2.0);
+    }
+    if (!config.contains("swapMode")) {
+      config.set("swapMode", "cycle");
+    }
 
     try {
       configManager.saveGameConfig("deathswap");
@@ -84,6 +95,9 @@ public class DeathSwapCommands implements CommandExecutor {
     sender.sendMessage("§b➤ minSwapTime: §7Minimum time between swaps (in seconds)");
     sender.sendMessage("§b➤ maxSwapTime: §7Maximum time between swaps (in seconds)");
     sender.sendMessage("§b➤ warningTime: §7Time before swap to warn players (in seconds)");
+    sender.sendMessage("§b➤ adaptiveSwapTime: §7Lengthen swap times while the server is lagging");
+    sender.sendMessage("§b➤ maxSwapTimeStretch: §7Most a swap time is lengthened by (as a factor)");
+    sender.sendMessage("§b➤ swapMode: §7cycle, pairwise or random");
   }
 
   /**
@@ -136,7 +150,9 @@ public class DeathSwapCommands implements CommandExecutor {
           return true;
         }
         List<String> playerNames = Arrays.stream(args, 1, args.length).collect(Collectors.toList());
+        long start = System.nanoTime();
         startGame(sender, playerNames);
+        PluginMetrics.COMMAND.recordSince(start);
         break;
       case "setup":
         setup(sender);
@@ -3,6 +3,7 @@ package org.maven.minigamehub.config;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.maven.minigamehub.metrics.PluginMetrics;
 
 import java.io.File;
 import java.io.IOException;
@@ -26,10 +27,12 @@ public abstract class BaseConfigManager {
   }
 
   protected void saveConfig(FileConfiguration config, String fileName) {
+    long start = System.nanoTime();
     try {
       config.save(new File(dataFolder, fileName));
     } catch (IOException e) {
       plugin.getLogger().log(Level.SEVERE, "Could not save " + fileName, e);
     }
+    PluginMetrics.CONFIG_SAVE.recordSince(start);
   }
 }
\ No newline at end of file
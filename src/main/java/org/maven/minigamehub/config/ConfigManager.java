@@ -1,24 +1,24 @@
 package org.maven.minigamehub.config;
 
-import org.bukkit.Location;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
 
 public class ConfigManager extends BaseConfigManager {
+    private static final String[] LEGACY_SPAWN_POINT_KEYS = {"worldSpawnPoints", "worldRespawnPoints"};
+
     private FileConfiguration config;
     private final Map<String, FileConfiguration> gameConfigs;
-    private Map<String, List<Location>> worldSpawnPoints;
+    private final SpawnPointRegistry spawnPoints;
 
     public ConfigManager(JavaPlugin plugin) {
         super(plugin);
         this.gameConfigs = new HashMap<>();
-        this.worldSpawnPoints = new HashMap<>();
+        this.spawnPoints = new SpawnPointRegistry(plugin);
         setup();
     }
 
@@ -34,14 +34,54 @@ public class ConfigManager extends BaseConfigManager {
         gameConfigs.put(gameName, gameConfig);
 
         if (gameName.equals("survivalgames")) {
-            loadSurvivalGamesSpawnPoints(gameConfig);
+            migrateSurvivalGamesSpawnPoints(gameConfig);
+        }
+    }
+
+    /**
+     * Moves spawn points stored as "world,x,y,z" lists in survivalgames.yml into
+     * the spawn point registry, which keeps one file per world. Runs once; the
+     * lists are removed from survivalgames.yml afterwards.
+     *
+     * @param gameConfig The survivalgames.yml configuration.
+     */
+    private void migrateSurvivalGamesSpawnPoints(FileConfiguration gameConfig) {
+        boolean migrated = false;
+        for (String key : LEGACY_SPAWN_POINT_KEYS) {
+            List<?> list = gameConfig.getList(key);
+            if (list == null || list.isEmpty()) {
+                continue;
+            }
+            SpawnPointRegistry.Kind kind = key.equals("worldSpawnPoints")
+                    ? SpawnPointRegistry.Kind.SPAWN : SpawnPointRegistry.Kind.RESPAWN;
+            for (Object obj : list) {
+                importLegacySpawnPoint(obj, kind);
+            }
+            gameConfig.set(key, null);
+            migrated = true;
+        }
+        if (migrated) {
+            spawnPoints.saveAll();
+            saveConfig(gameConfig, "survivalgames.yml");
+            plugin.getLogger().info("Moved Survival Games spawn points to the spawnpoints folder.");
         }
     }
 
-    private void loadSurvivalGamesSpawnPoints(FileConfiguration gameConfig) {
-        Map<String, List<Location>> loadedSpawnPoints = convertListToSpawnPoints(gameConfig.getList("worldSpawnPoints"));
-        if (loadedSpawnPoints != null) {
-            worldSpawnPoints.putAll(loadedSpawnPoints);
+    private void importLegacySpawnPoint(Object obj, SpawnPointRegistry.Kind kind) {
+        if (!(obj instanceof String)) {
+            plugin.getLogger().log(Level.WARNING, "Invalid spawn point type: " + obj.getClass().getName());
+            return;
+        }
+        String[] parts = ((String) obj).split(",");
+        if (parts.length != 4) {
+            plugin.getLogger().log(Level.WARNING, "Invalid spawn point format: " + obj);
+            return;
+        }
+        try {
+            spawnPoints.importPoint(parts[0], kind, Double.parseDouble(parts[1]), Double.parseDouble(parts[2]),
+                    Double.parseDouble(parts[3]));
+        } catch (NumberFormatException e) {
+            plugin.getLogger().log(Level.WARNING, "Invalid spawn point format: " + obj, e);
         }
     }
 
@@ -53,6 +93,15 @@ public class ConfigManager extends BaseConfigManager {
         return gameConfigs.get(gameName);
     }
 
+    /**
+     * Gets the registry of the spawn and respawn points of every world.
+     *
+     * @return The SpawnPointRegistry instance.
+     */
+    public SpawnPointRegistry getSpawnPoints() {
+        return spawnPoints;
+    }
+
     public void saveConfig() {
         saveConfig(config, "config.yml");
     }
@@ -63,32 +112,4 @@ public class ConfigManager extends BaseConfigManager {
             saveConfig(gameConfig, gameName + ".yml");
         }
     }
-
-    public Map<String, List<Location>> convertListToSpawnPoints(List<?> list) {
-        Map<String, List<Location>> spawnPoints = new HashMap<>();
-        if (list != null) {
-            for (Object obj : list) {
-                if (obj instanceof String) {
-                    String[] parts = ((String) obj).split(",");
-                    if (parts.length == 4) {
-                        String worldName = parts[0];
-                        try {
-                            double x = Double.parseDouble(parts[1]);
-                            double y = Double.parseDouble(parts[2]);
-                            double z = Double.parseDouble(parts[3]);
-                            Location location = new Location(plugin.getServer().getWorld(worldName), x, y, z);
-                            spawnPoints.computeIfAbsent(worldName, k -> new ArrayList<>()).add(location);
-                        } catch (NumberFormatException e) {
-                            plugin.getLogger().log(Level.WARNING, "Invalid spawn point format: " + obj, e);
-                        }
-                    } else {
-                        plugin.getLogger().log(Level.WARNING, "Invalid spawn point format: " + obj);
-                    }
-                } else {
-                    plugin.getLogger().log(Level.WARNING, "Invalid spawn point type: " + obj.getClass().getName());
-                }
-            }
-        }
-        return spawnPoints;
-    }
 }
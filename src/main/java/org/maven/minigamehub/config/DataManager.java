@@ -4,11 +4,21 @@ import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
 
 public class DataManager extends BaseConfigManager {
-  private FileConfiguration statsConfig;
+  private static final String STATS_FILE_NAME = "player_stats.yml";
+  private static final String STATS_DATABASE_NAME = "player_stats.db";
+  private static final long DEFAULT_FLUSH_INTERVAL_SECONDS = 30L;
+
+  private StatsStore statsStore;
   private FileConfiguration settingsConfig;
 
   public DataManager(JavaPlugin plugin) {
@@ -17,26 +27,128 @@ public class DataManager extends BaseConfigManager {
   }
 
   private void loadConfigurations() {
-    statsConfig = loadConfig("player_stats.yml");
+    long flushInterval = plugin.getConfig().getLong("stats.flush_interval_seconds", DEFAULT_FLUSH_INTERVAL_SECONDS);
+    statsStore = new StatsStore(plugin, createStatsBackend(), flushInterval);
     settingsConfig = loadConfig("game_settings.yml");
   }
 
+  /**
+   * Creates the stats backend selected by {@code stats.backend} in config.yml.
+   * Falls back to the YAML file if the database cannot be opened.
+   *
+   * @return The stats backend.
+   */
+  private StatsBackend createStatsBackend() {
+    File legacyFile = new File(dataFolder, STATS_FILE_NAME);
+    if ("yaml".equalsIgnoreCase(plugin.getConfig().getString("stats.backend", "sqlite"))) {
+      return new YamlStatsBackend(legacyFile);
+    }
+
+    SqliteStatsBackend backend = null;
+    try {
+      backend = new SqliteStatsBackend(new File(dataFolder, STATS_DATABASE_NAME));
+      migrateLegacyStats(backend, legacyFile);
+      return backend;
+    } catch (IOException e) {
+      if (backend != null) {
+        // Opened but the migration failed; release the connection before using the file
+        backend.close();
+      }
+      plugin.getLogger().log(Level.SEVERE, "Could not open stats database, falling back to " + STATS_FILE_NAME, e);
+      return new YamlStatsBackend(legacyFile);
+    }
+  }
+
+  /**
+   * Imports stats from an existing player_stats.yml into the database once and
+   * renames the file so it is not imported again.
+   *
+   * @param backend    The database backend.
+   * @param legacyFile The YAML stats file.
+   * @throws IOException If the stats could not be imported.
+   */
+  private void migrateLegacyStats(StatsBackend backend, File legacyFile) throws IOException {
+    if (!legacyFile.exists()) {
+      return;
+    }
+    List<StatsEntry> legacyEntries = new YamlStatsBackend(legacyFile).loadAll();
+    backend.saveAll(legacyEntries);
+    if (!legacyFile.renameTo(new File(dataFolder, STATS_FILE_NAME + ".migrated"))) {
+      plugin.getLogger().warning("Could not rename " + STATS_FILE_NAME + " after migrating it to the database.");
+    }
+    plugin.getLogger().info("Migrated " + legacyEntries.size() + " stats entries from " + STATS_FILE_NAME + ".");
+  }
+
   public void savePlayerStats(Player player, String gameName, int wins, int losses) {
-    String uuid = player.getUniqueId().toString();
-    statsConfig.set(uuid + ".name", player.getName());
-    statsConfig.set(uuid + "." + gameName + ".wins", wins);
-    statsConfig.set(uuid + "." + gameName + ".losses", losses);
-    saveConfig(statsConfig, "player_stats.yml");
+    statsStore.put(new StatsEntry(player.getUniqueId(), player.getName(), gameName, wins, losses));
   }
 
   public Map<String, Integer> getPlayerStats(Player player, String gameName) {
-    String uuid = player.getUniqueId().toString();
+    StatsEntry entry = statsStore.get(player.getUniqueId(), gameName);
     Map<String, Integer> stats = new HashMap<>();
-    stats.put("wins", statsConfig.getInt(uuid + "." + gameName + ".wins", 0));
-    stats.put("losses", statsConfig.getInt(uuid + "." + gameName + ".losses", 0));
+    stats.put("wins", entry != null ? entry.getWins() : 0);
+    stats.put("losses", entry != null ? entry.getLosses() : 0);
     return stats;
   }
 
+  /**
+   * Loads a player's stats in the background ahead of their first use.
+   * Safe to call from any thread.
+   *
+   * @param uuid The UUID of the player.
+   */
+  public void preloadPlayerStats(UUID uuid) {
+    statsStore.preload(uuid);
+  }
+
+  /**
+   * Drops a player's stats from memory once any pending changes are written.
+   *
+   * @param uuid The UUID of the player.
+   */
+  public void unloadPlayerStats(UUID uuid) {
+    statsStore.evict(uuid);
+  }
+
+  /**
+   * Gets the players with the most wins in a game without loading every
+   * player into memory.
+   *
+   * @param gameName The name of the game.
+   * @param limit    The maximum number of players to return.
+   * @return A future completed off the main thread with the top players, best first.
+   */
+  public CompletableFuture<List<StatsEntry>> getTopPlayers(String gameName, int limit) {
+    return statsStore.topWins(gameName, limit);
+  }
+
+  /**
+   * Puts back a stats entry recovered from the game journal after a crash.
+   * The entry holds the player's totals, so applying it twice is harmless.
+   *
+   * @param entry The recovered stats entry.
+   */
+  public void restorePlayerStats(StatsEntry entry) {
+    statsStore.put(entry);
+  }
+
+  /**
+   * Writes the pending player stats in the background.
+   *
+   * @return A future completed once they have been written.
+   */
+  public CompletableFuture<Void> flushPlayerStats() {
+    return statsStore.flush();
+  }
+
+  /**
+   * Writes any pending player stats to disk and stops the background writer.
+   * Must be called when the plugin is disabled.
+   */
+  public void close() {
+    statsStore.close();
+  }
+
   public void saveGameSettings(String gameName, Map<String, Object> settings) {
     for (Map.Entry<String, Object> entry : settings.entrySet()) {
       settingsConfig.set(gameName + "." + entry.getKey(), entry.getValue());
@@ -53,4 +165,4 @@ public class DataManager extends BaseConfigManager {
     }
     return settings;
   }
-}
\ No newline at end of file
+}
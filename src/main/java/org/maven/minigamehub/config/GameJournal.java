@@ -0,0 +1,558 @@
+package org.maven.minigamehub.config;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.maven.minigamehub.games.GameClock;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of game lifecycle events.
+ * Games record when they start, who joins, who dies, every swap and when they
+ * stop, and every stats result they hand to the stats store. Records are
+ * appended on a background thread and synced once per batch. On startup the
+ * journal is replayed: games that never stopped were interrupted by a crash,
+ * and results that may not have reached the stats backend are handed back.
+ * The journal is compacted periodically down to the running games and the
+ * results that have not been flushed yet.
+ * Apart from the background writer, all methods run on the main thread.
+ */
+public class GameJournal {
+  private static final byte RECORD_START = 1;
+  private static final byte RECORD_JOIN = 2;
+  private static final byte RECORD_DEATH = 3;
+  private static final byte RECORD_SWAP = 4;
+  private static final byte RECORD_STOP = 5;
+  private static final byte RECORD_RESULT = 6;
+  private static final int MAX_RECORD_LENGTH = 1 << 16;
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 10L;
+
+  private final JavaPlugin plugin;
+  private final Path file;
+  private final DataManager dataManager;
+  private final Map<String, List<byte[]>> openGames = new LinkedHashMap<>();
+  private final Deque<PendingResult> pendingResults = new ArrayDeque<>();
+  private final List<InterruptedGame> interruptedGames = new ArrayList<>();
+  private final List<StatsEntry> recoveredResults = new ArrayList<>();
+  private final Queue<WriteRequest> pendingWrites = new ConcurrentLinkedQueue<>();
+  private final ExecutorService writer;
+  private FileOutputStream fileOutput;
+  private DataOutputStream output;
+  private GameClock.Timeout compactionTask;
+  private long nextSequence;
+  private long recordsSinceCompaction;
+
+  /**
+   * Constructor for the GameJournal class.
+   * Replays the journal left by the previous run and compacts it.
+   *
+   * @param plugin      The JavaPlugin instance.
+   * @param file        The journal file.
+   * @param dataManager The DataManager results are flushed through before they are compacted away.
+   */
+  public GameJournal(JavaPlugin plugin, Path file, DataManager dataManager) {
+    this.plugin = plugin;
+    this.file = file;
+    this.dataManager = dataManager;
+    this.writer = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "MiniGameHub-Journal");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    replay();
+    // Interrupted games are resolved by the caller, only the results are kept until flushed
+    for (StatsEntry result : recoveredResults) {
+      pendingResults.addLast(new PendingResult(nextSequence++, encodeResult(result)));
+    }
+    queueCompaction();
+  }
+
+  /**
+   * Gets the games that were still running when the server stopped.
+   *
+   * @return An unmodifiable list of the interrupted games.
+   */
+  public List<InterruptedGame> getInterruptedGames() {
+    return Collections.unmodifiableList(interruptedGames);
+  }
+
+  /**
+   * Gets the latest result of every player and game found in the journal.
+   * Results recorded before a crash may not have reached the stats backend.
+   *
+   * @return An unmodifiable list of the recovered results.
+   */
+  public List<StatsEntry> getRecoveredResults() {
+    return Collections.unmodifiableList(recoveredResults);
+  }
+
+  /**
+   * Starts compacting the journal periodically on the shared game clock.
+   *
+   * @param clock           The shared game clock.
+   * @param intervalSeconds The number of seconds between compactions.
+   */
+  public void startCompaction(GameClock clock, long intervalSeconds) {
+    if (compactionTask != null) {
+      return;
+    }
+    long intervalTicks = Math.max(1L, intervalSeconds) * 20L;
+    compactionTask = clock.scheduleRepeating(intervalTicks, intervalTicks, this::compact);
+  }
+
+  /**
+   * Records the start of a game and its players.
+   *
+   * @param gameName  The name of the game, for example deathswap.
+   * @param worldName The name of the game's world, which identifies the game.
+   * @param players   The players taking part.
+   */
+  public void gameStarted(String gameName, String worldName, Collection<Player> players) {
+    List<byte[]> records = new ArrayList<>();
+    openGames.put(worldName, records);
+    append(records, encode(RECORD_START, worldName, null, gameName));
+    for (Player player : players) {
+      append(records, encode(RECORD_JOIN, worldName, player.getUniqueId(), null));
+    }
+  }
+
+  /**
+   * Records the death of a player in a game.
+   *
+   * @param worldName The name of the game's world.
+   * @param playerId  The UUID of the player.
+   */
+  public void playerDied(String worldName, UUID playerId) {
+    List<byte[]> records = openGames.get(worldName);
+    if (records != null) {
+      append(records, encode(RECORD_DEATH, worldName, playerId, null));
+    }
+  }
+
+  /**
+   * Records a swap in a game.
+   *
+   * @param worldName The name of the game's world.
+   */
+  public void playersSwapped(String worldName) {
+    List<byte[]> records = openGames.get(worldName);
+    if (records != null) {
+      append(records, encode(RECORD_SWAP, worldName, null, null));
+    }
+  }
+
+  /**
+   * Records the end of a game. Its records are dropped on the next compaction.
+   *
+   * @param worldName The name of the game's world.
+   */
+  public void gameStopped(String worldName) {
+    if (openGames.remove(worldName) != null) {
+      append(null, encode(RECORD_STOP, worldName, null, null));
+    }
+  }
+
+  /**
+   * Records a stats result handed to the stats store, so it can be credited
+   * again if the server stops before it was written.
+   *
+   * @param result The new stats of the player.
+   */
+  public void resultRecorded(StatsEntry result) {
+    byte[] record = encodeResult(result);
+    pendingResults.addLast(new PendingResult(nextSequence, record));
+    append(null, record);
+  }
+
+  /**
+   * Compacts the journal down to the running games and writes any pending
+   * records, then closes it. Must be called after the games have stopped and
+   * the stats store has been closed, so no results are left to keep.
+   */
+  public void close() {
+    if (compactionTask != null) {
+      compactionTask.cancel();
+      compactionTask = null;
+    }
+    if (writer.isShutdown()) {
+      return;
+    }
+    pendingResults.clear();
+    queueCompaction();
+    writer.execute(this::closeOutput);
+    writer.shutdown();
+    try {
+      if (!writer.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        plugin.getLogger().severe("Timed out waiting for the game journal to be written.");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      plugin.getLogger().severe("Interrupted while waiting for the game journal to be written.");
+    }
+  }
+
+  /**
+   * Flushes the pending stats and then compacts the journal, dropping the
+   * results that are now on disk. Skipped if nothing was recorded since the
+   * last compaction.
+   */
+  private void compact() {
+    if (recordsSinceCompaction == 0) {
+      return;
+    }
+    long flushedSequence = nextSequence;
+    dataManager.flushPlayerStats().whenComplete((ignored, error) -> {
+      if (!plugin.isEnabled()) {
+        return;
+      }
+      plugin.getServer().getScheduler().runTask(plugin, () -> {
+        if (error != null) {
+          plugin.getLogger().log(Level.WARNING, "Player stats could not be flushed, keeping their journal records",
+              error);
+        } else {
+          while (!pendingResults.isEmpty() && pendingResults.peekFirst().sequence < flushedSequence) {
+            pendingResults.pollFirst();
+          }
+        }
+        queueCompaction();
+      });
+    });
+  }
+
+  /**
+   * Queues a rewrite of the journal with the live records. The rewrite is
+   * ordered with the appends, so records queued after it go to the new file.
+   */
+  private void queueCompaction() {
+    List<byte[]> live = new ArrayList<>();
+    pendingResults.forEach(result -> live.add(result.record));
+    openGames.values().forEach(live::addAll);
+    recordsSinceCompaction = 0;
+    enqueue(new WriteRequest(null, live));
+  }
+
+  /**
+   * Queues a record for the background writer.
+   *
+   * @param gameRecords The records of the record's game, or null if it does not belong to a running game.
+   * @param record      The encoded record.
+   */
+  private void append(List<byte[]> gameRecords, byte[] record) {
+    if (gameRecords != null) {
+      gameRecords.add(record);
+    }
+    nextSequence++;
+    recordsSinceCompaction++;
+    enqueue(new WriteRequest(record, null));
+  }
+
+  private void enqueue(WriteRequest request) {
+    if (writer.isShutdown()) {
+      return;
+    }
+    pendingWrites.add(request);
+    writer.execute(this::writePending);
+  }
+
+  /**
+   * Writes every queued record and rewrite, syncing the file once per batch.
+   * Runs on the writer thread only.
+   */
+  private void writePending() {
+    boolean unsynced = false;
+    WriteRequest request;
+    while ((request = pendingWrites.poll()) != null) {
+      try {
+        if (request.snapshot != null) {
+          if (unsynced) {
+            sync();
+            unsynced = false;
+          }
+          rewrite(request.snapshot);
+        } else if (output != null) {
+          writeRecord(output, request.record);
+          unsynced = true;
+        }
+      } catch (IOException e) {
+        plugin.getLogger().log(Level.SEVERE, "Could not write to the game journal " + file, e);
+      }
+    }
+    if (unsynced) {
+      try {
+        sync();
+      } catch (IOException e) {
+        plugin.getLogger().log(Level.SEVERE, "Could not sync the game journal " + file, e);
+      }
+    }
+  }
+
+  /**
+   * Replaces the journal with the given records and reopens it for appending.
+   * Runs on the writer thread only.
+   *
+   * @param records The live records.
+   * @throws IOException If the journal could not be rewritten.
+   */
+  private void rewrite(List<byte[]> records) throws IOException {
+    closeOutput();
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    Files.createDirectories(file.toAbsolutePath().getParent());
+    try (FileOutputStream stream = new FileOutputStream(temporary.toFile());
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+      for (byte[] record : records) {
+        writeRecord(out, record);
+      }
+      out.flush();
+      stream.getFD().sync();
+    }
+    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    fileOutput = new FileOutputStream(file.toFile(), true);
+    output = new DataOutputStream(new BufferedOutputStream(fileOutput));
+  }
+
+  private void sync() throws IOException {
+    if (output != null) {
+      output.flush();
+      fileOutput.getFD().sync();
+    }
+  }
+
+  private void closeOutput() {
+    if (output == null) {
+      return;
+    }
+    try {
+      output.close();
+    } catch (IOException e) {
+      plugin.getLogger().log(Level.WARNING, "Could not close the game journal " + file, e);
+    }
+    output = null;
+    fileOutput = null;
+  }
+
+  /**
+   * Reads the journal, rebuilding the games that never stopped and the latest
+   * result of every player. Reading stops at the first torn or corrupt record.
+   */
+  private void replay() {
+    if (!Files.exists(file)) {
+      return;
+    }
+    Map<String, InterruptedGame> games = new LinkedHashMap<>();
+    Map<String, StatsEntry> results = new LinkedHashMap<>();
+    int records = 0;
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      while (true) {
+        int length;
+        try {
+          length = in.readInt();
+        } catch (EOFException e) {
+          break;
+        }
+        if (length <= 0 || length > MAX_RECORD_LENGTH) {
+          throw new IOException("Invalid record length " + length);
+        }
+        long checksum = in.readInt() & 0xFFFFFFFFL;
+        byte[] record = new byte[length];
+        in.readFully(record);
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        if (crc.getValue() != checksum) {
+          throw new IOException("Checksum mismatch in record " + (records + 1));
+        }
+        applyRecord(record, games, results);
+        records++;
+      }
+    } catch (EOFException e) {
+      plugin.getLogger().warning("The last record of " + file.getFileName() + " was incomplete and has been dropped.");
+    } catch (IOException e) {
+      plugin.getLogger().log(Level.SEVERE, "Could not replay the whole game journal " + file + ", stopped after "
+          + records + " records", e);
+    }
+    interruptedGames.addAll(games.values());
+    recoveredResults.addAll(results.values());
+  }
+
+  /**
+   * Applies one journal record to the replay state.
+   *
+   * @param record  The encoded record.
+   * @param games   The games that have started and not stopped, by world name.
+   * @param results The latest result of every player and game, by stats key.
+   * @throws IOException If the record could not be decoded.
+   */
+  private static void applyRecord(byte[] record, Map<String, InterruptedGame> games, Map<String, StatsEntry> results)
+      throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+    byte type = in.readByte();
+    if (type == RECORD_RESULT) {
+      UUID playerId = new UUID(in.readLong(), in.readLong());
+      String playerName = in.readUTF();
+      String gameName = in.readUTF();
+      StatsEntry result = new StatsEntry(playerId, playerName.isEmpty() ? null : playerName, gameName,
+          in.readInt(), in.readInt());
+      results.put(result.getKey(), result);
+      return;
+    }
+
+    String worldName = in.readUTF();
+    switch (type) {
+      case RECORD_START:
+        games.put(worldName, new InterruptedGame(in.readUTF(), worldName));
+        break;
+      case RECORD_JOIN:
+      case RECORD_DEATH:
+        InterruptedGame game = games.get(worldName);
+        if (game != null) {
+          UUID playerId = new UUID(in.readLong(), in.readLong());
+          (type == RECORD_JOIN ? game.players : game.deadPlayers).add(playerId);
+        }
+        break;
+      case RECORD_SWAP:
+        InterruptedGame swapped = games.get(worldName);
+        if (swapped != null) {
+          swapped.swaps++;
+        }
+        break;
+      case RECORD_STOP:
+        games.remove(worldName);
+        break;
+      default:
+        throw new IOException("Unknown record type " + type);
+    }
+  }
+
+  private static void writeRecord(DataOutputStream out, byte[] record) throws IOException {
+    CRC32 crc = new CRC32();
+    crc.update(record);
+    out.writeInt(record.length);
+    out.writeInt((int) crc.getValue());
+    out.write(record);
+  }
+
+  private static byte[] encode(byte type, String worldName, UUID playerId, String gameName) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(type);
+      out.writeUTF(worldName);
+      if (playerId != null) {
+        out.writeLong(playerId.getMostSignificantBits());
+        out.writeLong(playerId.getLeastSignificantBits());
+      }
+      if (gameName != null) {
+        out.writeUTF(gameName);
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static byte[] encodeResult(StatsEntry result) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(RECORD_RESULT);
+      out.writeLong(result.getUuid().getMostSignificantBits());
+      out.writeLong(result.getUuid().getLeastSignificantBits());
+      out.writeUTF(result.getPlayerName() != null ? result.getPlayerName() : "");
+      out.writeUTF(result.getGameName());
+      out.writeInt(result.getWins());
+      out.writeInt(result.getLosses());
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * A game that was still running when the server stopped.
+   */
+  public static final class InterruptedGame {
+    private final String gameName;
+    private final String worldName;
+    private final Set<UUID> players = new HashSet<>();
+    private final Set<UUID> deadPlayers = new HashSet<>();
+    private int swaps;
+
+    private InterruptedGame(String gameName, String worldName) {
+      this.gameName = gameName;
+      this.worldName = worldName;
+    }
+
+    public String getGameName() {
+      return gameName;
+    }
+
+    public String getWorldName() {
+      return worldName;
+    }
+
+    public Set<UUID> getPlayers() {
+      return Collections.unmodifiableSet(players);
+    }
+
+    public Set<UUID> getDeadPlayers() {
+      return Collections.unmodifiableSet(deadPlayers);
+    }
+
+    public int getSwaps() {
+      return swaps;
+    }
+  }
+
+  /**
+   * A result record that is kept until the stats have been flushed.
+   */
+  private static final class PendingResult {
+    private final long sequence;
+    private final byte[] record;
+
+    private PendingResult(long sequence, byte[] record) {
+      this.sequence = sequence;
+      this.record = record;
+    }
+  }
+
+  /**
+   * A record to append or, if the snapshot is set, a rewrite of the journal.
+   */
+  private static final class WriteRequest {
+    private final byte[] record;
+    private final List<byte[]> snapshot;
+
+    private WriteRequest(byte[] record, List<byte[]> snapshot) {
+      this.record = record;
+      this.snapshot = snapshot;
+    }
+  }
+}
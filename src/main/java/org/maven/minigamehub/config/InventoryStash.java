@@ -0,0 +1,428 @@
+package org.maven.minigamehub.config;
+
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.util.io.BukkitObjectInputStream;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Stash for the inventories of players in games.
+ * When a player joins a game their inventory, armor, off-hand item, experience,
+ * health and potion effects are serialized to a compact byte array keyed by
+ * their UUID, so no live items or player references are kept. Every change is
+ * appended to a file on a background thread, so stashes survive a crash and are
+ * restored when the player next joins. The file is compacted when it is loaded.
+ * All methods except the constructor's background work run on the main thread.
+ */
+public class InventoryStash {
+  private static final int FORMAT_VERSION = 1;
+  private static final byte RECORD_STASH = 1;
+  private static final byte RECORD_CLEAR = 2;
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 10L;
+
+  private final JavaPlugin plugin;
+  private final Path file;
+  private final Map<UUID, byte[]> stashes = new HashMap<>();
+  private final Queue<Record> pendingRecords = new ConcurrentLinkedQueue<>();
+  private final ExecutorService writer;
+  private FileOutputStream output;
+
+  /**
+   * Constructor for the InventoryStash class.
+   * Loads the stashes left in the file by the previous run and compacts it.
+   *
+   * @param plugin The JavaPlugin instance.
+   * @param file   The append-only file the stashes are written to.
+   */
+  public InventoryStash(JavaPlugin plugin, Path file) {
+    this.plugin = plugin;
+    this.file = file;
+    this.writer = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "MiniGameHub-InventoryStash");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    load();
+    if (!stashes.isEmpty()) {
+      plugin.getLogger().info("Found " + stashes.size() + " stashed inventories to restore when their players join.");
+    }
+    Map<UUID, byte[]> live = new HashMap<>(stashes);
+    writer.execute(() -> compact(live));
+  }
+
+  /**
+   * Saves the player's inventory and state and clears their inventory.
+   * A player who is already stashed keeps their original stash.
+   *
+   * @param player The player to stash.
+   * @return True if the player was stashed, false if serializing failed and the inventory was left alone.
+   */
+  public boolean stashAndClear(Player player) {
+    UUID uuid = player.getUniqueId();
+    if (!stashes.containsKey(uuid)) {
+      byte[] data;
+      try {
+        data = serialize(player);
+      } catch (IOException e) {
+        plugin.getLogger().log(Level.SEVERE, "Could not stash the inventory of " + player.getName(), e);
+        return false;
+      }
+      stashes.put(uuid, data);
+      append(new Record(RECORD_STASH, uuid, data));
+    }
+    player.getInventory().clear();
+    return true;
+  }
+
+  /**
+   * Checks if a player has a stash waiting to be restored.
+   *
+   * @param uuid The UUID of the player.
+   * @return True if the player is stashed.
+   */
+  public boolean isStashed(UUID uuid) {
+    return stashes.containsKey(uuid);
+  }
+
+  /**
+   * Restores a player's stashed inventory and state and drops the stash.
+   * Stashes that cannot be read are kept so the items are not lost. Dead
+   * players keep their stash too, because the server clears their inventory
+   * again when they respawn; use {@link #restoreAfterRespawn(Player)} for them.
+   *
+   * @param player The player to restore.
+   * @return True if a stash was restored, false otherwise.
+   */
+  public boolean restore(Player player) {
+    UUID uuid = player.getUniqueId();
+    byte[] data = stashes.get(uuid);
+    if (data == null || player.isDead()) {
+      return false;
+    }
+    try {
+      apply(player, data);
+    } catch (IOException | ClassNotFoundException e) {
+      plugin.getLogger().log(Level.SEVERE, "Could not restore the stashed inventory of " + player.getName(), e);
+      return false;
+    }
+    stashes.remove(uuid);
+    append(new Record(RECORD_CLEAR, uuid, null));
+    return true;
+  }
+
+  /**
+   * Restores a player's stash on the tick after they respawn, once the server
+   * has finished resetting them. Called from a respawn event. Players who have
+   * left by then keep their stash until they join again.
+   *
+   * @param player The respawning player.
+   */
+  public void restoreAfterRespawn(Player player) {
+    if (!stashes.containsKey(player.getUniqueId())) {
+      return;
+    }
+    new BukkitRunnable() {
+      @Override
+      public void run() {
+        if (player.isOnline()) {
+          restore(player);
+        }
+      }
+    }.runTask(plugin);
+  }
+
+  /**
+   * Writes all pending changes and closes the file.
+   * Blocks until they have been written or the shutdown timeout elapses.
+   */
+  public void close() {
+    if (writer.isShutdown()) {
+      return;
+    }
+    writer.execute(() -> {
+      writePendingRecords();
+      closeOutput();
+    });
+    writer.shutdown();
+    try {
+      if (!writer.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        plugin.getLogger().severe("Timed out waiting for stashed inventories to be written.");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      plugin.getLogger().severe("Interrupted while waiting for stashed inventories to be written.");
+    }
+  }
+
+  /**
+   * Queues a record to be appended to the file in the background.
+   *
+   * @param record The record to append.
+   */
+  private void append(Record record) {
+    if (writer.isShutdown()) {
+      plugin.getLogger().warning("Inventory stash is closed, a change for " + record.uuid + " was not written.");
+      return;
+    }
+    pendingRecords.add(record);
+    writer.execute(this::writePendingRecords);
+  }
+
+  /**
+   * Reads every record in the file, later records replacing earlier ones.
+   * A record cut short by a crash ends the file.
+   */
+  private void load() {
+    if (!Files.exists(file)) {
+      return;
+    }
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      while (true) {
+        byte type;
+        try {
+          type = in.readByte();
+        } catch (EOFException e) {
+          break;
+        }
+        UUID uuid = new UUID(in.readLong(), in.readLong());
+        if (type == RECORD_STASH) {
+          byte[] data = new byte[in.readInt()];
+          in.readFully(data);
+          stashes.put(uuid, data);
+        } else if (type == RECORD_CLEAR) {
+          stashes.remove(uuid);
+        } else {
+          throw new IOException("Unknown record type " + type);
+        }
+      }
+    } catch (EOFException e) {
+      plugin.getLogger().warning("The last record of " + file.getFileName() + " was incomplete and has been dropped.");
+    } catch (IOException e) {
+      plugin.getLogger().log(Level.SEVERE, "Could not read all stashed inventories from " + file, e);
+    }
+  }
+
+  /**
+   * Rewrites the file with only the live stashes and opens it for appending.
+   * Runs on the writer thread only.
+   *
+   * @param live The stashes loaded from the file.
+   */
+  private void compact(Map<UUID, byte[]> live) {
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      Files.createDirectories(file.toAbsolutePath().getParent());
+      try (FileOutputStream stream = new FileOutputStream(temporary.toFile());
+          DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+        for (Map.Entry<UUID, byte[]> stash : live.entrySet()) {
+          writeRecord(out, new Record(RECORD_STASH, stash.getKey(), stash.getValue()));
+        }
+        out.flush();
+        stream.getFD().sync();
+      }
+      Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      output = new FileOutputStream(file.toFile(), true);
+    } catch (IOException e) {
+      plugin.getLogger().log(Level.SEVERE, "Could not compact " + file + ", stashes will not survive a restart", e);
+    }
+  }
+
+  /**
+   * Appends the queued records and syncs the file once for all of them.
+   * If the file could not be opened for appending, the records are dropped
+   * instead so they do not pile up in memory.
+   * Runs on the writer thread only.
+   */
+  private void writePendingRecords() {
+    if (pendingRecords.isEmpty()) {
+      return;
+    }
+    if (output == null) {
+      int dropped = 0;
+      while (pendingRecords.poll() != null) {
+        dropped++;
+      }
+      plugin.getLogger().warning(file + " is not open, " + dropped
+          + " stash changes were not written and will not survive a restart.");
+      return;
+    }
+    try {
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+      Record record;
+      while ((record = pendingRecords.poll()) != null) {
+        writeRecord(out, record);
+      }
+      out.flush();
+      output.getFD().sync();
+    } catch (IOException e) {
+      plugin.getLogger().log(Level.SEVERE, "Could not write stashed inventories to " + file, e);
+    }
+  }
+
+  private void closeOutput() {
+    if (output == null) {
+      return;
+    }
+    try {
+      output.close();
+    } catch (IOException e) {
+      plugin.getLogger().log(Level.WARNING, "Could not close " + file, e);
+    }
+    output = null;
+  }
+
+  private static void writeRecord(DataOutputStream out, Record record) throws IOException {
+    out.writeByte(record.type);
+    out.writeLong(record.uuid.getMostSignificantBits());
+    out.writeLong(record.uuid.getLeastSignificantBits());
+    if (record.type == RECORD_STASH) {
+      out.writeInt(record.data.length);
+      out.write(record.data);
+    }
+  }
+
+  /**
+   * Serializes the parts of a player's state that games change.
+   *
+   * @param player The player to serialize.
+   * @return The serialized state.
+   * @throws IOException If an item could not be serialized.
+   */
+  private static byte[] serialize(Player player) throws IOException {
+    PlayerInventory inventory = player.getInventory();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+    try (BukkitObjectOutputStream out = new BukkitObjectOutputStream(bytes)) {
+      out.writeByte(FORMAT_VERSION);
+      writeItems(out, inventory.getStorageContents());
+      writeItems(out, inventory.getArmorContents());
+      writeItems(out, new ItemStack[] {inventory.getItemInOffHand()});
+      out.writeInt(player.getLevel());
+      out.writeFloat(player.getExp());
+      out.writeInt(player.getTotalExperience());
+      out.writeDouble(player.getHealth());
+      Collection<PotionEffect> effects = player.getActivePotionEffects();
+      out.writeInt(effects.size());
+      for (PotionEffect effect : effects) {
+        out.writeObject(effect);
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Applies a serialized state to a player, replacing their current items and effects.
+   *
+   * @param player The player to restore.
+   * @param data   The serialized state.
+   * @throws IOException            If the data could not be read.
+   * @throws ClassNotFoundException If the data refers to an unknown class.
+   */
+  private static void apply(Player player, byte[] data) throws IOException, ClassNotFoundException {
+    ItemStack[] storage;
+    ItemStack[] armor;
+    ItemStack offHand;
+    int level;
+    float exp;
+    int totalExperience;
+    double health;
+    List<PotionEffect> effects = new ArrayList<>();
+    // Read everything first so a bad stash leaves the player untouched
+    try (BukkitObjectInputStream in = new BukkitObjectInputStream(new ByteArrayInputStream(data))) {
+      int version = in.readByte();
+      if (version != FORMAT_VERSION) {
+        throw new IOException("Unsupported stash format " + version);
+      }
+      storage = readItems(in);
+      armor = readItems(in);
+      offHand = readItems(in)[0];
+      level = in.readInt();
+      exp = in.readFloat();
+      totalExperience = in.readInt();
+      health = in.readDouble();
+      int effectCount = in.readInt();
+      for (int i = 0; i < effectCount; i++) {
+        effects.add((PotionEffect) in.readObject());
+      }
+    }
+
+    PlayerInventory inventory = player.getInventory();
+    inventory.clear();
+    inventory.setStorageContents(storage);
+    inventory.setArmorContents(armor);
+    inventory.setItemInOffHand(offHand);
+    player.setLevel(level);
+    player.setExp(exp);
+    player.setTotalExperience(totalExperience);
+    if (!player.isDead()) {
+      AttributeInstance maxHealth = player.getAttribute(Attribute.GENERIC_MAX_HEALTH);
+      double limit = maxHealth != null ? maxHealth.getValue() : health;
+      player.setHealth(Math.max(0.5, Math.min(limit, health)));
+    }
+    for (PotionEffect effect : player.getActivePotionEffects()) {
+      player.removePotionEffect(effect.getType());
+    }
+    player.addPotionEffects(effects);
+  }
+
+  private static void writeItems(BukkitObjectOutputStream out, ItemStack[] items) throws IOException {
+    out.writeInt(items.length);
+    for (ItemStack item : items) {
+      out.writeObject(item);
+    }
+  }
+
+  private static ItemStack[] readItems(BukkitObjectInputStream in) throws IOException, ClassNotFoundException {
+    ItemStack[] items = new ItemStack[in.readInt()];
+    for (int i = 0; i < items.length; i++) {
+      items[i] = (ItemStack) in.readObject();
+    }
+    return items;
+  }
+
+  /**
+   * One change to the stash file.
+   */
+  private static final class Record {
+    private final byte type;
+    private final UUID uuid;
+    private final byte[] data;
+
+    private Record(byte type, UUID uuid, byte[] data) {
+      this.type = type;
+      this.uuid = uuid;
+      this.data = data;
+    }
+  }
+}
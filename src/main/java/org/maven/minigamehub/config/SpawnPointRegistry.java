@@ -0,0 +1,233 @@
+package org.maven.minigamehub.config;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of the spawn and respawn points of every game world.
+ * Points are kept as packed x, y, z coordinates in one double array per world
+ * and kind, and only turned into Locations when a game asks for them, bound to
+ * whichever world the game is played in. Each world's points live in their own
+ * file under spawnpoints/, which is read the first time the world is used and
+ * rewritten only when that world's points change.
+ */
+public class SpawnPointRegistry extends BaseConfigManager {
+  private static final String DIRECTORY = "spawnpoints";
+
+  /**
+   * The kinds of points a world can have.
+   */
+  public enum Kind {
+    /** Where players start a match, one per player. */
+    SPAWN("spawn"),
+    /** Where dead players respawn while the match runs. */
+    RESPAWN("respawn");
+
+    private final String key;
+
+    Kind(String key) {
+      this.key = key;
+    }
+  }
+
+  private final Map<String, WorldPoints> worlds = new HashMap<>();
+
+  /**
+   * Constructor for the SpawnPointRegistry class.
+   *
+   * @param plugin The JavaPlugin instance.
+   */
+  public SpawnPointRegistry(JavaPlugin plugin) {
+    super(plugin);
+  }
+
+  /**
+   * Gets the number of points of a kind in a world.
+   *
+   * @param worldName The name of the world.
+   * @param kind      The kind of points.
+   * @return The number of points.
+   */
+  public int count(String worldName, Kind kind) {
+    return points(worldName).get(kind).size;
+  }
+
+  /**
+   * Gets the points of a kind in a world as Locations in the given world.
+   * Binding to another world lets arenas use the points of the template they
+   * were copied from.
+   *
+   * @param worldName The name of the world the points were set in.
+   * @param kind      The kind of points.
+   * @param bindTo    The world the Locations are created in.
+   * @return A new list of Locations, in the order the points were added.
+   */
+  public List<Location> getLocations(String worldName, Kind kind, World bindTo) {
+    PointList list = points(worldName).get(kind);
+    if (list.size == 0) {
+      return Collections.emptyList();
+    }
+    List<Location> locations = new ArrayList<>(list.size);
+    for (int i = 0; i < list.size; i++) {
+      locations.add(list.toLocation(i, bindTo));
+    }
+    return locations;
+  }
+
+  /**
+   * Gets one point of a kind in a world as a Location in the given world.
+   *
+   * @param worldName The name of the world the points were set in.
+   * @param kind      The kind of points.
+   * @param index     The index of the point.
+   * @param bindTo    The world the Location is created in.
+   * @return The Location, or null if the world has no point at that index.
+   */
+  public Location getLocation(String worldName, Kind kind, int index, World bindTo) {
+    PointList list = points(worldName).get(kind);
+    return index >= 0 && index < list.size ? list.toLocation(index, bindTo) : null;
+  }
+
+  /**
+   * Adds a point and saves the world's points.
+   *
+   * @param worldName The name of the world.
+   * @param kind      The kind of point.
+   * @param x         The x coordinate.
+   * @param y         The y coordinate.
+   * @param z         The z coordinate.
+   */
+  public void add(String worldName, Kind kind, double x, double y, double z) {
+    WorldPoints points = points(worldName);
+    points.get(kind).add(x, y, z);
+    save(worldName, points);
+  }
+
+  /**
+   * Removes every point of a kind in a world and saves the world's points.
+   *
+   * @param worldName The name of the world.
+   * @param kind      The kind of points.
+   */
+  public void clear(String worldName, Kind kind) {
+    WorldPoints points = points(worldName);
+    points.get(kind).size = 0;
+    save(worldName, points);
+  }
+
+  /**
+   * Imports points saved in the old single-list format without saving them.
+   * Used once when migrating; call {@link #saveAll()} afterwards.
+   *
+   * @param worldName The name of the world.
+   * @param kind      The kind of point.
+   * @param x         The x coordinate.
+   * @param y         The y coordinate.
+   * @param z         The z coordinate.
+   */
+  void importPoint(String worldName, Kind kind, double x, double y, double z) {
+    points(worldName).get(kind).add(x, y, z);
+  }
+
+  /**
+   * Saves the points of every world that has been loaded.
+   */
+  void saveAll() {
+    worlds.forEach(this::save);
+  }
+
+  /**
+   * Gets the points of a world, reading its file on first use.
+   *
+   * @param worldName The name of the world.
+   * @return The world's points.
+   */
+  private WorldPoints points(String worldName) {
+    WorldPoints points = worlds.get(worldName);
+    if (points == null) {
+      points = load(worldName);
+      worlds.put(worldName, points);
+    }
+    return points;
+  }
+
+  private WorldPoints load(String worldName) {
+    WorldPoints points = new WorldPoints();
+    File file = new File(dataFolder, fileName(worldName));
+    if (file.exists()) {
+      FileConfiguration config = YamlConfiguration.loadConfiguration(file);
+      for (Kind kind : Kind.values()) {
+        List<Double> coordinates = config.getDoubleList(kind.key);
+        PointList list = points.get(kind);
+        for (int i = 0; i + 2 < coordinates.size(); i += 3) {
+          list.add(coordinates.get(i), coordinates.get(i + 1), coordinates.get(i + 2));
+        }
+      }
+    }
+    return points;
+  }
+
+  private void save(String worldName, WorldPoints points) {
+    FileConfiguration config = new YamlConfiguration();
+    for (Kind kind : Kind.values()) {
+      PointList list = points.get(kind);
+      List<Double> coordinates = new ArrayList<>(list.size * 3);
+      for (int i = 0; i < list.size * 3; i++) {
+        coordinates.add(list.coordinates[i]);
+      }
+      config.set(kind.key, coordinates);
+    }
+    saveConfig(config, fileName(worldName));
+  }
+
+  private static String fileName(String worldName) {
+    return DIRECTORY + File.separator + worldName + ".yml";
+  }
+
+  /**
+   * The points of one world, one list per kind.
+   */
+  private static final class WorldPoints {
+    private final PointList spawn = new PointList();
+    private final PointList respawn = new PointList();
+
+    private PointList get(Kind kind) {
+      return kind == Kind.SPAWN ? spawn : respawn;
+    }
+  }
+
+  /**
+   * Points packed as x, y, z triples in one growable array.
+   */
+  private static final class PointList {
+    private double[] coordinates = new double[0];
+    private int size;
+
+    private void add(double x, double y, double z) {
+      if ((size + 1) * 3 > coordinates.length) {
+        coordinates = Arrays.copyOf(coordinates, Math.max(24, coordinates.length * 2));
+      }
+      int offset = size * 3;
+      coordinates[offset] = x;
+      coordinates[offset + 1] = y;
+      coordinates[offset + 2] = z;
+      size++;
+    }
+
+    private Location toLocation(int index, World world) {
+      int offset = index * 3;
+      return new Location(world, coordinates[offset], coordinates[offset + 1], coordinates[offset + 2]);
+    }
+  }
+}
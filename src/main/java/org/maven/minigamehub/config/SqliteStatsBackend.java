@@ -0,0 +1,135 @@
+package org.maven.minigamehub.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stats backend storing one row per player and game in an embedded SQLite
+ * database. Rows are keyed by (uuid, game) and indexed by (game, wins) so both
+ * per-player loads and leaderboards only touch the rows they return.
+ * The SQLite JDBC driver ships with the server, so no extra dependency is needed.
+ */
+public class SqliteStatsBackend implements StatsBackend {
+  private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS player_stats ("
+      + "uuid TEXT NOT NULL, "
+      + "game TEXT NOT NULL, "
+      + "name TEXT, "
+      + "wins INTEGER NOT NULL DEFAULT 0, "
+      + "losses INTEGER NOT NULL DEFAULT 0, "
+      + "PRIMARY KEY (uuid, game))";
+  private static final String CREATE_LEADERBOARD_INDEX =
+      "CREATE INDEX IF NOT EXISTS idx_player_stats_game_wins ON player_stats (game, wins DESC)";
+  private static final String SELECT_PLAYER =
+      "SELECT game, name, wins, losses FROM player_stats WHERE uuid = ?";
+  private static final String UPSERT = "INSERT INTO player_stats (uuid, game, name, wins, losses) "
+      + "VALUES (?, ?, ?, ?, ?) "
+      + "ON CONFLICT (uuid, game) DO UPDATE SET "
+      + "name = COALESCE(excluded.name, player_stats.name), wins = excluded.wins, losses = excluded.losses";
+  private static final String SELECT_TOP_WINS =
+      "SELECT uuid, name, wins, losses FROM player_stats WHERE game = ? ORDER BY wins DESC LIMIT ?";
+
+  private final Connection connection;
+
+  /**
+   * Constructor for the SqliteStatsBackend class.
+   * Opens the database and creates the schema if needed.
+   *
+   * @param databaseFile The SQLite database file.
+   * @throws IOException If the database could not be opened.
+   */
+  public SqliteStatsBackend(File databaseFile) throws IOException {
+    try {
+      Class.forName("org.sqlite.JDBC");
+      databaseFile.getParentFile().mkdirs();
+      connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("PRAGMA journal_mode=WAL");
+        statement.execute("PRAGMA synchronous=NORMAL");
+        statement.execute(CREATE_TABLE);
+        statement.execute(CREATE_LEADERBOARD_INDEX);
+      }
+    } catch (ClassNotFoundException | SQLException e) {
+      throw new IOException("Could not open stats database " + databaseFile.getName(), e);
+    }
+  }
+
+  @Override
+  public List<StatsEntry> loadPlayer(UUID uuid) throws IOException {
+    List<StatsEntry> entries = new ArrayList<>();
+    try (PreparedStatement statement = connection.prepareStatement(SELECT_PLAYER)) {
+      statement.setString(1, uuid.toString());
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          entries.add(new StatsEntry(uuid, resultSet.getString("name"), resultSet.getString("game"),
+              resultSet.getInt("wins"), resultSet.getInt("losses")));
+        }
+      }
+    } catch (SQLException e) {
+      throw new IOException("Could not load stats for " + uuid, e);
+    }
+    return entries;
+  }
+
+  @Override
+  public void saveAll(Collection<StatsEntry> entries) throws IOException {
+    try {
+      connection.setAutoCommit(false);
+      try (PreparedStatement statement = connection.prepareStatement(UPSERT)) {
+        for (StatsEntry entry : entries) {
+          statement.setString(1, entry.getUuid().toString());
+          statement.setString(2, entry.getGameName());
+          statement.setString(3, entry.getPlayerName());
+          statement.setInt(4, entry.getWins());
+          statement.setInt(5, entry.getLosses());
+          statement.addBatch();
+        }
+        statement.executeBatch();
+        connection.commit();
+      } catch (SQLException e) {
+        connection.rollback();
+        throw e;
+      } finally {
+        connection.setAutoCommit(true);
+      }
+    } catch (SQLException e) {
+      throw new IOException("Could not save " + entries.size() + " stats entries", e);
+    }
+  }
+
+  @Override
+  public List<StatsEntry> topWins(String gameName, int limit) throws IOException {
+    List<StatsEntry> entries = new ArrayList<>(limit);
+    try (PreparedStatement statement = connection.prepareStatement(SELECT_TOP_WINS)) {
+      statement.setString(1, gameName);
+      statement.setInt(2, limit);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          entries.add(new StatsEntry(UUID.fromString(resultSet.getString("uuid")), resultSet.getString("name"),
+              gameName, resultSet.getInt("wins"), resultSet.getInt("losses")));
+        }
+      }
+    } catch (SQLException e) {
+      throw new IOException("Could not load leaderboard for " + gameName, e);
+    }
+    return entries;
+  }
+
+  @Override
+  public void close() {
+    try {
+      connection.close();
+    } catch (SQLException ignored) {
+      // The database is being shut down, there is nothing left to do.
+    }
+  }
+}
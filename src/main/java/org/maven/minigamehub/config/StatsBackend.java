@@ -0,0 +1,46 @@
+package org.maven.minigamehub.config;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persistent storage for player stats.
+ * Implementations are only ever called from the stats writer thread, so they do
+ * not need to be thread-safe.
+ */
+public interface StatsBackend {
+
+  /**
+   * Loads all stats of a single player.
+   *
+   * @param uuid The UUID of the player.
+   * @return The player's stats for every game they have played.
+   * @throws IOException If the stats could not be read.
+   */
+  List<StatsEntry> loadPlayer(UUID uuid) throws IOException;
+
+  /**
+   * Inserts or replaces the given stats in one batch.
+   *
+   * @param entries The stats to store.
+   * @throws IOException If the stats could not be written.
+   */
+  void saveAll(Collection<StatsEntry> entries) throws IOException;
+
+  /**
+   * Gets the players with the most wins in a game, best first.
+   *
+   * @param gameName The name of the game.
+   * @param limit    The maximum number of entries to return.
+   * @return The top entries ordered by wins descending.
+   * @throws IOException If the stats could not be read.
+   */
+  List<StatsEntry> topWins(String gameName, int limit) throws IOException;
+
+  /**
+   * Releases any resources held by the backend.
+   */
+  void close();
+}
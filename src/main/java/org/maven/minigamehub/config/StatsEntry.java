@@ -0,0 +1,68 @@
+package org.maven.minigamehub.config;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of one player's wins and losses in one game.
+ * Instances are safe to hand between the main thread and the stats writer.
+ */
+public final class StatsEntry {
+  private final UUID uuid;
+  private final String playerName;
+  private final String gameName;
+  private final int wins;
+  private final int losses;
+
+  /**
+   * Constructor for the StatsEntry class.
+   *
+   * @param uuid       The UUID of the player.
+   * @param playerName The last known name of the player.
+   * @param gameName   The name of the game the stats belong to.
+   * @param wins       The number of wins.
+   * @param losses     The number of losses.
+   */
+  public StatsEntry(UUID uuid, String playerName, String gameName, int wins, int losses) {
+    this.uuid = Objects.requireNonNull(uuid, "uuid cannot be null");
+    this.playerName = playerName;
+    this.gameName = Objects.requireNonNull(gameName, "gameName cannot be null");
+    this.wins = wins;
+    this.losses = losses;
+  }
+
+  /**
+   * Builds the key used to identify a player's stats for a game.
+   *
+   * @param uuid     The UUID of the player.
+   * @param gameName The name of the game.
+   * @return The key for the player and game.
+   */
+  public static String key(UUID uuid, String gameName) {
+    return uuid + "." + gameName;
+  }
+
+  public String getKey() {
+    return key(uuid, gameName);
+  }
+
+  public UUID getUuid() {
+    return uuid;
+  }
+
+  public String getPlayerName() {
+    return playerName;
+  }
+
+  public String getGameName() {
+    return gameName;
+  }
+
+  public int getWins() {
+    return wins;
+  }
+
+  public int getLosses() {
+    return losses;
+  }
+}
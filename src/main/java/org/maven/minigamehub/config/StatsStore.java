@@ -0,0 +1,234 @@
+package org.maven.minigamehub.config;
+
+import org.bukkit.plugin.java.JavaPlugin;
+import org.maven.minigamehub.metrics.PluginMetrics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Write-behind store for player stats.
+ * Players are loaded lazily from the backend, updates are kept in memory and
+ * coalesced per player and game, then written in batches on a background
+ * thread at most every flush interval. All backend access happens on that one
+ * thread.
+ */
+public class StatsStore {
+  private static final long MIN_FLUSH_INTERVAL_SECONDS = 1L;
+  private static final long MAX_FLUSH_INTERVAL_SECONDS = 300L;
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 10L;
+
+  private final JavaPlugin plugin;
+  private final StatsBackend backend;
+  private final Map<String, StatsEntry> entries = new ConcurrentHashMap<>();
+  private final Map<String, StatsEntry> dirtyEntries = new ConcurrentHashMap<>();
+  private final Set<UUID> loadedPlayers = ConcurrentHashMap.newKeySet();
+  private final ScheduledExecutorService writer;
+
+  /**
+   * Constructor for the StatsStore class.
+   * Starts the periodic background flush.
+   *
+   * @param plugin               The JavaPlugin instance.
+   * @param backend              The backend the stats are persisted to.
+   * @param flushIntervalSeconds The maximum number of seconds dirty stats stay in memory.
+   */
+  public StatsStore(JavaPlugin plugin, StatsBackend backend, long flushIntervalSeconds) {
+    this.plugin = plugin;
+    this.backend = backend;
+
+    long interval = Math.max(MIN_FLUSH_INTERVAL_SECONDS, Math.min(MAX_FLUSH_INTERVAL_SECONDS, flushIntervalSeconds));
+    this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "MiniGameHub-Stats");
+      thread.setDaemon(true);
+      return thread;
+    });
+    writer.scheduleWithFixedDelay(this::writeDirtyEntries, interval, interval, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Gets the stats of a player for a game.
+   * If the player has not been preloaded, their stats are loaded from the
+   * backend first, blocking the calling thread.
+   *
+   * @param uuid     The UUID of the player.
+   * @param gameName The name of the game.
+   * @return The stats entry, or null if the player has no stats for the game.
+   */
+  public StatsEntry get(UUID uuid, String gameName) {
+    if (!loadedPlayers.contains(uuid) && !writer.isShutdown()) {
+      try {
+        writer.submit(() -> loadPlayer(uuid)).get();
+      } catch (ExecutionException e) {
+        plugin.getLogger().log(Level.SEVERE, "Could not load stats for " + uuid, e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    return entries.get(StatsEntry.key(uuid, gameName));
+  }
+
+  /**
+   * Loads a player's stats in the background so later reads do not block.
+   * Safe to call from any thread.
+   *
+   * @param uuid The UUID of the player.
+   */
+  public void preload(UUID uuid) {
+    if (!loadedPlayers.contains(uuid) && !writer.isShutdown()) {
+      writer.execute(() -> loadPlayer(uuid));
+    }
+  }
+
+  /**
+   * Drops a player's stats from memory once they have been written.
+   *
+   * @param uuid The UUID of the player.
+   */
+  public void evict(UUID uuid) {
+    if (writer.isShutdown()) {
+      return;
+    }
+    writer.execute(() -> {
+      writeDirtyEntries();
+      loadedPlayers.remove(uuid);
+      String prefix = uuid + ".";
+      entries.keySet().removeIf(key -> key.startsWith(prefix) && !dirtyEntries.containsKey(key));
+    });
+  }
+
+  /**
+   * Updates the stats of a player for a game.
+   * The change is visible immediately and written to disk on the next flush.
+   *
+   * @param entry The new stats entry.
+   */
+  public void put(StatsEntry entry) {
+    String key = entry.getKey();
+    entries.put(key, entry);
+    dirtyEntries.put(key, entry);
+  }
+
+  /**
+   * Gets the players with the most wins in a game.
+   * Pending changes are written first so the result includes them.
+   *
+   * @param gameName The name of the game.
+   * @param limit    The maximum number of entries to return.
+   * @return A future completed on the stats thread with the top entries.
+   */
+  public CompletableFuture<List<StatsEntry>> topWins(String gameName, int limit) {
+    return CompletableFuture.supplyAsync(() -> {
+      writeDirtyEntries();
+      try {
+        return backend.topWins(gameName, limit);
+      } catch (IOException e) {
+        throw new CompletionException(e);
+      }
+    }, writer);
+  }
+
+  /**
+   * Requests an immediate background flush of all dirty stats.
+   *
+   * @return A future completed on the stats thread once the stats dirty at the
+   *         time of the call have been written, or exceptionally if writing failed.
+   */
+  public CompletableFuture<Void> flush() {
+    if (writer.isShutdown()) {
+      return CompletableFuture.failedFuture(new IOException("The stats store is closed"));
+    }
+    return CompletableFuture.runAsync(() -> {
+      if (!writeDirtyEntries()) {
+        throw new CompletionException(new IOException("Could not save player stats"));
+      }
+    }, writer);
+  }
+
+  /**
+   * Writes all pending stats, stops the background writer and closes the backend.
+   * Blocks until the final flush has completed or the shutdown timeout elapses.
+   */
+  public void close() {
+    if (writer.isShutdown()) {
+      return;
+    }
+    writer.execute(() -> {
+      writeDirtyEntries();
+      backend.close();
+    });
+    writer.shutdown();
+    try {
+      if (!writer.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        plugin.getLogger().severe("Timed out waiting for player stats to be written.");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      plugin.getLogger().severe("Interrupted while waiting for player stats to be written.");
+    }
+  }
+
+  /**
+   * Loads a player's stats from the backend into the cache.
+   * Entries updated in memory in the meantime are kept. Runs on the writer thread only.
+   *
+   * @param uuid The UUID of the player.
+   */
+  private void loadPlayer(UUID uuid) {
+    if (loadedPlayers.contains(uuid)) {
+      return;
+    }
+    try {
+      for (StatsEntry entry : backend.loadPlayer(uuid)) {
+        entries.putIfAbsent(entry.getKey(), entry);
+      }
+      loadedPlayers.add(uuid);
+    } catch (IOException e) {
+      plugin.getLogger().log(Level.SEVERE, "Could not load stats for " + uuid, e);
+    }
+  }
+
+  /**
+   * Drains the dirty entries and writes them to the backend in one batch.
+   * Runs on the writer thread only.
+   *
+   * @return True if every drained entry was written, false if they were requeued.
+   */
+  private boolean writeDirtyEntries() {
+    List<StatsEntry> batch = new ArrayList<>(dirtyEntries.size());
+    for (String key : dirtyEntries.keySet()) {
+      StatsEntry entry = dirtyEntries.remove(key);
+      if (entry != null) {
+        batch.add(entry);
+      }
+    }
+    if (batch.isEmpty()) {
+      return true;
+    }
+
+    long start = System.nanoTime();
+    try {
+      backend.saveAll(batch);
+      PluginMetrics.STATS_FLUSH.recordSince(start);
+      PluginMetrics.STATS_ENTRIES_WRITTEN.add(batch.size());
+      return true;
+    } catch (IOException e) {
+      plugin.getLogger().log(Level.SEVERE, "Could not save player stats, will retry", e);
+      // Requeue without overwriting anything newer that arrived in the meantime.
+      batch.forEach(entry -> dirtyEntries.putIfAbsent(entry.getKey(), entry));
+      return false;
+    }
+  }
+}
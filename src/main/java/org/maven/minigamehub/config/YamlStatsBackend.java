@@ -0,0 +1,155 @@
+package org.maven.minigamehub.config;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Stats backend storing nested {@code uuid.game.wins} keys in a YAML file.
+ * The whole file is parsed on construction and rewritten on every batch, so it
+ * is only suitable for small servers.
+ */
+public class YamlStatsBackend implements StatsBackend {
+  private final File statsFile;
+  private final YamlConfiguration document;
+
+  /**
+   * Constructor for the YamlStatsBackend class.
+   *
+   * @param statsFile The YAML file the stats are stored in.
+   */
+  public YamlStatsBackend(File statsFile) {
+    this.statsFile = statsFile;
+    this.document = statsFile.exists() ? YamlConfiguration.loadConfiguration(statsFile) : new YamlConfiguration();
+  }
+
+  @Override
+  public List<StatsEntry> loadPlayer(UUID uuid) {
+    List<StatsEntry> entries = new ArrayList<>();
+    ConfigurationSection playerSection = document.getConfigurationSection(uuid.toString());
+    if (playerSection != null) {
+      readPlayerSection(uuid, playerSection, entries);
+    }
+    return entries;
+  }
+
+  /**
+   * Loads the stats of every player in the file.
+   *
+   * @return All stats entries in the file.
+   */
+  public List<StatsEntry> loadAll() {
+    List<StatsEntry> entries = new ArrayList<>();
+    for (String uuidKey : document.getKeys(false)) {
+      ConfigurationSection playerSection = document.getConfigurationSection(uuidKey);
+      UUID uuid = parseUuid(uuidKey);
+      if (playerSection != null && uuid != null) {
+        readPlayerSection(uuid, playerSection, entries);
+      }
+    }
+    return entries;
+  }
+
+  @Override
+  public void saveAll(Collection<StatsEntry> entries) throws IOException {
+    for (StatsEntry entry : entries) {
+      String uuid = entry.getUuid().toString();
+      if (entry.getPlayerName() != null) {
+        document.set(uuid + ".name", entry.getPlayerName());
+      }
+      document.set(uuid + "." + entry.getGameName() + ".wins", entry.getWins());
+      document.set(uuid + "." + entry.getGameName() + ".losses", entry.getLosses());
+    }
+    writeAtomically(document.saveToString());
+  }
+
+  @Override
+  public List<StatsEntry> topWins(String gameName, int limit) {
+    Comparator<StatsEntry> byWins = Comparator.comparingInt(StatsEntry::getWins);
+    PriorityQueue<StatsEntry> top = new PriorityQueue<>(Math.max(1, limit), byWins);
+    for (String uuidKey : document.getKeys(false)) {
+      ConfigurationSection gameSection = document.getConfigurationSection(uuidKey + "." + gameName);
+      UUID uuid = parseUuid(uuidKey);
+      if (gameSection == null || uuid == null) {
+        continue;
+      }
+      top.add(new StatsEntry(uuid, document.getString(uuidKey + ".name"), gameName,
+          gameSection.getInt("wins", 0), gameSection.getInt("losses", 0)));
+      if (top.size() > limit) {
+        top.poll();
+      }
+    }
+    List<StatsEntry> result = new ArrayList<>(top);
+    result.sort(byWins.reversed());
+    return result;
+  }
+
+  @Override
+  public void close() {
+    // Nothing to release, every batch is written straight to disk.
+  }
+
+  /**
+   * Reads the per-game sections of a player into the given list.
+   *
+   * @param uuid          The UUID of the player.
+   * @param playerSection The player's section in the document.
+   * @param entries       The list to add the entries to.
+   */
+  private void readPlayerSection(UUID uuid, ConfigurationSection playerSection, List<StatsEntry> entries) {
+    String playerName = playerSection.getString("name");
+    for (String gameName : playerSection.getKeys(false)) {
+      ConfigurationSection gameSection = playerSection.getConfigurationSection(gameName);
+      if (gameSection != null) {
+        entries.add(new StatsEntry(uuid, playerName, gameName,
+            gameSection.getInt("wins", 0), gameSection.getInt("losses", 0)));
+      }
+    }
+  }
+
+  /**
+   * Parses a UUID key from the document.
+   *
+   * @param uuidKey The key to parse.
+   * @return The UUID, or null if the key is not a valid UUID.
+   */
+  private UUID parseUuid(String uuidKey) {
+    try {
+      return UUID.fromString(uuidKey);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Writes the data to a temp file next to the stats file and renames it over
+   * the stats file.
+   *
+   * @param data The serialized stats.
+   * @throws IOException If the file could not be written.
+   */
+  private void writeAtomically(String data) throws IOException {
+    Path target = statsFile.toPath();
+    Files.createDirectories(target.getParent());
+    Path temp = target.resolveSibling(statsFile.getName() + ".tmp");
+    Files.write(temp, data.getBytes(StandardCharsets.UTF_8));
+    try {
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+}
@@ -2,41 +2,53 @@ package org.maven.minigamehub.games;
 
 import org.bukkit.*;
 import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
-import org.bukkit.event.Listener;
-import org.bukkit.event.block.Action;
 import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerRespawnEvent;
-import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.maven.minigamehub.config.ConfigManager;
+import org.maven.minigamehub.listeners.GameEventRouter;
+import org.maven.minigamehub.world.SafeLocationFinder;
+import org.maven.minigamehub.world.TeleportScheduler;
 import org.maven.minigamehub.world.WorldManager;
+import org.maven.minigamehub.world.WorldPool;
 import org.maven.minigamehub.config.DataManager;
+import org.maven.minigamehub.config.GameJournal;
+import org.maven.minigamehub.config.InventoryStash;
+import org.maven.minigamehub.config.StatsEntry;
 
 import java.util.*;
-import java.util.logging.Level;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
-public class DeathSwap implements Listener {
-    private static final int TICKS_PER_SECOND = 20;
+/**
+ * Manager for DeathSwap games.
+ * Runs any number of {@link DeathSwapSession}s side by side and maps each player
+ * to their session. The sessions' swap countdowns are driven by the shared
+ * {@link GameScheduler}.
+ */
+public class DeathSwap implements MiniGame {
     private static final String BROADCAST_PREFIX = ChatColor.GOLD + "DeathSwap: " + ChatColor.RESET;
-    private static final List<Integer> COUNTDOWN_TIMES = Arrays.asList(60, 30, 10, 5);
+    // How long a game in a world without sampled spawn points waits for them before using the world spawn
+    private static final long SCATTER_WAIT_TICKS = 100L;
 
     private final JavaPlugin plugin;
+    private final ConfigManager configManager;
     private final WorldManager worldManager;
     private final DataManager dataManager;
-    private final Set<Player> gamePlayers = new HashSet<>();
-    private final Set<Player> alivePlayers = new HashSet<>();
-    private final Set<Player> spectators = new HashSet<>();
+    private final GameEventRouter eventRouter;
+    private final InventoryStash inventoryStash;
+    private final GameJournal journal;
+    private final GameScheduler scheduler;
+    private final WorldPool worldPool;
+    private final List<DeathSwapSession> sessions = new ArrayList<>();
+    private final Map<UUID, DeathSwapSession> playerSessions = new HashMap<>();
+    private final Set<UUID> pendingMainWorldRespawns = new HashSet<>();
     private int swapInterval;
     private double borderSize;
-    private BukkitRunnable swapTimerTask;
-    private final Map<Player, ItemStack[]> playerInventories = new HashMap<>();
-    private final Map<Player, ItemStack[]> playerArmor = new HashMap<>();
     private boolean creatorMode;
-    private String currentGameWorld;
     private final Location mainWorldSpawnLocation;
 
     /**
@@ -47,25 +59,32 @@ public class DeathSwap implements Listener {
      * @param configManager The ConfigManager instance.
      * @param worldManager The WorldManager instance.
      * @param dataManager The DataManager instance.
+     * @param eventRouter The GameEventRouter delivering the players' events.
+     * @param inventoryStash The InventoryStash holding the players' items during a game.
+     * @param journal The GameJournal recording the games for crash recovery.
+     * @param scheduler The GameScheduler ticking the sessions.
      */
     public DeathSwap(JavaPlugin plugin, ConfigManager configManager, WorldManager worldManager,
-            DataManager dataManager) {
+            DataManager dataManager, GameEventRouter eventRouter, InventoryStash inventoryStash,
+            GameJournal journal, GameScheduler scheduler) {
         this.plugin = Objects.requireNonNull(plugin, "plugin cannot be null");
+        this.configManager = Objects.requireNonNull(configManager, "configManager cannot be null");
         this.worldManager = Objects.requireNonNull(worldManager, "worldManager cannot be null");
         this.dataManager = Objects.requireNonNull(dataManager, "dataManager cannot be null");
+        this.eventRouter = Objects.requireNonNull(eventRouter, "eventRouter cannot be null");
+        this.inventoryStash = Objects.requireNonNull(inventoryStash, "inventoryStash cannot be null");
+        this.journal = Objects.requireNonNull(journal, "journal cannot be null");
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler cannot be null");
         this.mainWorldSpawnLocation = Optional
                 .ofNullable(Bukkit.getWorld(plugin.getConfig().getString("main_world", "world")))
                 .map(World::getSpawnLocation)
                 .orElseThrow(() -> new IllegalStateException("Main world not found"));
         loadGameSettings();
-        registerEvents();
-    }
-
-    /**
-     * Registers the event listeners for the game.
-     */
-    private void registerEvents() {
-        Bukkit.getPluginManager().registerEvents(this, plugin);
+        this.worldPool = new WorldPool(plugin, worldManager, "deathswap_",
+                plugin.getConfig().getInt("deathswap.world_pool.size", 2),
+                plugin.getConfig().getLong("deathswap.world_pool.maintenance_interval_ticks", 100L),
+                borderSize);
+        worldPool.start();
     }
 
     /**
@@ -88,49 +107,143 @@ public class DeathSwap implements Listener {
     }
 
     /**
-     * Starts the DeathSwap game.
-     * 
-     * @param commandSender The sender of the start command.
-     * @param playerNames The list of player names to participate in the game.
+     * Gets the way players are matched to the spot they swap into from the
+     * swapMode setting.
+     *
+     * @param config The deathswap.yml configuration.
+     * @return The configured mode, or CYCLE if none or an unknown one is set.
      */
-    public void start(CommandSender commandSender, List<String> playerNames) {
-        // Check if a game is already running
-        if (isGameRunning()) {
-            commandSender.sendMessage(BROADCAST_PREFIX + "A game is already in progress.");
-            return;
+    private SwapPlanner.Mode getSwapMode(FileConfiguration config) {
+        String name = config.getString("swapMode", "cycle");
+        SwapPlanner.Mode mode = SwapPlanner.Mode.fromName(name);
+        if (mode == null) {
+            plugin.getLogger().warning("Unknown DeathSwap swapMode " + name + ", using cycle.");
+            return SwapPlanner.Mode.CYCLE;
         }
+        return mode;
+    }
+
+    /**
+     * Gets the name of the game.
+     *
+     * @return "deathswap".
+     */
+    @Override
+    public String getName() {
+        return "deathswap";
+    }
+
+    /**
+     * DeathSwap sessions lease their own world, so they have no target.
+     *
+     * @return null.
+     */
+    @Override
+    public String getTargetDescription() {
+        return null;
+    }
 
+    /**
+     * Checks if players can queue for a target. DeathSwap has a single queue.
+     *
+     * @param target The target, which must be empty.
+     * @return True if the target is empty.
+     */
+    @Override
+    public boolean isValidTarget(String target) {
+        return target.isEmpty();
+    }
+
+    /**
+     * Starts a new DeathSwap session.
+     * Any number of sessions can run at the same time, each in its own world.
+     *
+     * @param commandSender The sender to report to.
+     * @param target        Ignored, sessions lease their own world.
+     * @param validPlayers  The players taking part, online and in no game.
+     * @return True if the session was started.
+     */
+    @Override
+    public boolean startMatch(CommandSender commandSender, String target, List<Player> validPlayers) {
         loadGameSettings();
 
-        // Validate the list of players
-        List<Player> validPlayers = validatePlayers(playerNames, commandSender);
         // Check if there are enough players to start the game
         if (!hasEnoughPlayers(validPlayers, commandSender)) {
-            return;
+            return false;
         }
 
-        // Create a new game world
-        currentGameWorld = "deathswap_" + System.currentTimeMillis();
-        worldManager.createNewWorld(currentGameWorld);
-        worldManager.setWorldBorder(currentGameWorld, borderSize);
-        worldManager.teleportPlayersToWorld(playerNames, currentGameWorld);
+        // Lease a pre-generated game world
+        worldPool.setBorderSize(borderSize);
+        String worldName = worldPool.lease();
+
+        FileConfiguration config = configManager.getGameConfig("deathswap");
+        DeathSwapSession session = new DeathSwapSession(this, scheduler, worldName,
+                SwapIntervalPolicy.fromConfig(config, swapInterval), new SwapPlanner(getSwapMode(config)));
+        sessions.add(session);
+        for (Player player : validPlayers) {
+            playerSessions.put(player.getUniqueId(), session);
+            eventRouter.bind(player.getUniqueId(), this);
+        }
+        journal.gameStarted("deathswap", worldName, validPlayers);
+        session.start(validPlayers);
+        scatterPlayers(session, validPlayers);
+        commandSender.sendMessage(BROADCAST_PREFIX + "DeathSwap game started in world: " + worldName);
+        return true;
+    }
 
-        // Add valid players to the game
-        gamePlayers.addAll(validPlayers);
-        alivePlayers.addAll(validPlayers);
-        preparePlayersForGame(validPlayers);
-        announceGameStart(validPlayers);
-        startSwapTimer();
-        commandSender.sendMessage(BROADCAST_PREFIX + "DeathSwap game started in world: " + currentGameWorld);
+    /**
+     * Teleports the players of a new session to safe points spread over the
+     * bordered area of its world. Pooled worlds are usually sampled while they
+     * are pre-generated. A world leased before that has finished is sampled
+     * when it is leased, and the players wait for that sample for at most
+     * {@link #SCATTER_WAIT_TICKS} ticks.
+     *
+     * @param session The new session.
+     * @param players The players to teleport.
+     */
+    private void scatterPlayers(DeathSwapSession session, List<Player> players) {
+        World world = Bukkit.getWorld(session.getWorldName());
+        if (world == null) {
+            plugin.getLogger().severe("World " + session.getWorldName() + " does not exist.");
+            return;
+        }
+        SafeLocationFinder finder = worldManager.getSafeLocationFinder();
+        if (finder.getCachedCount(world.getName()) >= players.size()) {
+            teleportToScatterPoints(session, players, world);
+            return;
+        }
+        CompletableFuture<Void> ready = new CompletableFuture<>();
+        GameClock.Timeout timeout = scheduler.schedule(SCATTER_WAIT_TICKS, () -> ready.complete(null));
+        finder.prepare(world, true).whenComplete((count, error) -> ready.complete(null));
+        ready.thenRun(() -> {
+            timeout.cancel();
+            teleportToScatterPoints(session, players, world);
+        });
     }
 
     /**
-     * Checks if a game is currently running.
+     * Teleports the players still in a session to the cached safe points of its
+     * world. Players left over when too few points are cached start at the
+     * world spawn.
      *
-     * @return true if a game is running, false otherwise.
+     * @param session The session.
+     * @param players The players of the session when it started.
+     * @param world   The session's world.
      */
-    private boolean isGameRunning() {
-        return swapTimerTask != null && !swapTimerTask.isCancelled();
+    private void teleportToScatterPoints(DeathSwapSession session, List<Player> players, World world) {
+        if (!session.isRunning()) {
+            return;
+        }
+        List<Player> remaining = players.stream()
+                .filter(player -> player.isOnline() && !player.isDead()
+                        && playerSessions.get(player.getUniqueId()) == session)
+                .collect(Collectors.toList());
+        List<Location> points = worldManager.getSafeLocationFinder().getScatterPoints(world, remaining.size());
+        Map<Player, Location> destinations = new LinkedHashMap<>();
+        for (int i = 0; i < remaining.size(); i++) {
+            destinations.put(remaining.get(i), i < points.size() ? points.get(i) : world.getSpawnLocation());
+        }
+        worldManager.getTeleportScheduler().schedule(destinations, false);
     }
 
     /**
@@ -151,213 +264,128 @@ public class DeathSwap implements Listener {
     }
 
     /**
-     * Announces the start of the game to all players.
+     * Gets the session a player is currently in.
      *
-     * @param validPlayers The list of valid players.
+     * @param player The player to look up.
+     * @return The player's session, or null if they are not in a game.
      */
-    private void announceGameStart(List<Player> validPlayers) {
-        String playerNames = validPlayers.stream().map(Player::getName).collect(Collectors.joining(", "));
-        Bukkit.broadcastMessage(BROADCAST_PREFIX + "Game is starting with players: " + playerNames);
+    public DeathSwapSession getSession(Player player) {
+        return playerSessions.get(player.getUniqueId());
     }
 
     /**
-     * Validates the list of player names and returns a list of valid players.
+     * Gets all running sessions.
      *
-     * @param playerNames   The list of player names to validate.
-     * @param commandSender The sender of the command to start the game.
-     * @return The list of valid players.
-     */
-    private List<Player> validatePlayers(List<String> playerNames, CommandSender commandSender) {
-        List<Player> validPlayers = new ArrayList<>();
-        List<String> offlinePlayers = new ArrayList<>();
-
-        // Iterate through the list of player names
-        for (String name : playerNames) {
-            Player player = Bukkit.getPlayerExact(name);
-            // Check if the player is online
-            if (player != null && player.isOnline()) {
-                validPlayers.add(player);
-            } else {
-                offlinePlayers.add(name);
-            }
-        }
-
-        // Notify the command sender about offline players
-        if (!offlinePlayers.isEmpty()) {
-            commandSender.sendMessage(BROADCAST_PREFIX + "The following players are offline or not found: "
-                    + String.join(", ", offlinePlayers));
-        }
-
-        return validPlayers;
+     * @return An unmodifiable view of the running sessions.
+     */
+    public Collection<DeathSwapSession> getSessions() {
+        return Collections.unmodifiableList(sessions);
     }
 
     /**
-     * Prepares the players for the game by clearing their inventories and storing
-     * their current items.
+     * Gets all running sessions.
      *
-     * @param validPlayers The list of valid players.
+     * @return An unmodifiable view of the running sessions.
      */
-    private void preparePlayersForGame(List<Player> validPlayers) {
-        // Iterate through the list of valid players
-        for (Player player : validPlayers) {
-            playerInventories.put(player, player.getInventory().getContents());
-            playerArmor.put(player, player.getInventory().getArmorContents());
-            player.getInventory().clear();
-            player.getInventory().setArmorContents(null);
-        }
+    @Override
+    public Collection<DeathSwapSession> getMatches() {
+        return getSessions();
     }
 
     /**
-     * Starts the swap timer that periodically swaps the players' locations.
+     * Gets the location players are sent to when they leave a game.
+     *
+     * @return The main world spawn location.
      */
-    private void startSwapTimer() {
-        // Cancel the existing swap timer task if it exists
-        if (swapTimerTask != null) {
-            swapTimerTask.cancel();
-        }
+    Location getMainWorldSpawnLocation() {
+        return mainWorldSpawnLocation;
+    }
 
-        // Create a new swap timer task
-        swapTimerTask = new BukkitRunnable() {
-            int countdown = swapInterval;
-
-            @Override
-            public void run() {
-                // Check if the countdown has reached zero
-                if (countdown <= 0) {
-                    swapPlayers();
-                    countdown = swapInterval;
-                } else if (COUNTDOWN_TIMES.contains(countdown)) {
-                    broadcastCountdown(countdown);
-                }
-                countdown--;
+    /**
+     * Removes a finished session from the registry and releases its world back
+     * to the pool for deletion. Called by the session once it has restored its players.
+     *
+     * @param session The session that has ended.
+     */
+    void endSession(DeathSwapSession session) {
+        sessions.remove(session);
+        for (Player player : session.getGamePlayers()) {
+            playerSessions.remove(player.getUniqueId(), session);
+            // Players that died on the final blow still have to respawn outside the deleted world
+            if (player.isDead()) {
+                pendingMainWorldRespawns.add(player.getUniqueId());
+            } else {
+                eventRouter.unbind(player.getUniqueId(), this);
             }
-        };
-        swapTimerTask.runTaskTimer(plugin, 0L, TICKS_PER_SECOND);
+        }
+        journal.gameStopped(session.getWorldName());
+        worldPool.release(session.getWorldName());
     }
 
     /**
-     * Broadcasts the countdown to all players.
+     * Deletes the world of a session interrupted by a crash.
      *
-     * @param seconds The number of seconds remaining until the swap.
-     */
-    private void broadcastCountdown(int seconds) {
-        String message = BROADCAST_PREFIX + "Swapping in " + seconds + " second" + (seconds == 1 ? "" : "s") + "!";
-        // Iterate through the list of game players
-        for (Player player : gamePlayers) {
-            player.sendMessage(message);
-            player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f, 1.0f);
-        }
+     * @param game The interrupted session found in the game journal.
+     */
+    @Override
+    public void recoverInterruptedGame(GameJournal.InterruptedGame game) {
+        worldManager.deleteWorld(game.getWorldName());
     }
 
     /**
-     * Swaps the locations of the players.
+     * Stops every running session.
      */
-    private void swapPlayers() {
-        // Check if there are less than 2 alive players
-        if (alivePlayers.size() < 2) {
-            stopGame();
-            return;
+    @Override
+    public void stopAll() {
+        for (DeathSwapSession session : sessions.toArray(new DeathSwapSession[0])) {
+            session.stop();
         }
+    }
 
-        List<Location> locations = new ArrayList<>(alivePlayers.size());
-        // Store the locations of alive players
-        alivePlayers.forEach(player -> locations.add(player.getLocation()));
-        List<Player> playerList = new ArrayList<>(alivePlayers);
-        Collections.shuffle(playerList);
-
-        // Iterate through the list of players and swap their locations
-        for (int i = 0; i < playerList.size(); i++) {
-            Player player = playerList.get(i);
-            Player nextPlayer = playerList.get((i + 1) % playerList.size());
-            Location nextLocation = locations.get((i + 1) % locations.size());
-
-            player.teleport(nextLocation);
-            player.sendMessage(BROADCAST_PREFIX + "You swapped places with " + nextPlayer.getName() + "!");
-            player.playSound(player.getLocation(), Sound.ENTITY_ENDERMAN_TELEPORT, 1.0f, 1.0f);
-        }
+    /**
+     * Stops every running session and deletes all pooled worlds.
+     * Called when the plugin is disabled.
+     */
+    @Override
+    public void shutdown() {
+        stopAll();
+        worldPool.shutdown();
     }
 
     /**
-     * Handles the player respawn event.
+     * Gets the stash holding the players' items while they are in a session.
      *
-     * @param event The PlayerRespawnEvent.
+     * @return The InventoryStash instance.
      */
-    public void handlePlayerRespawn(PlayerRespawnEvent event) {
-        Player player = event.getPlayer();
-        // Determine the respawn location based on the number of alive players
-        Location respawnLocation = alivePlayers.size() > 1 ? Bukkit.getWorld(currentGameWorld).getSpawnLocation()
-                : mainWorldSpawnLocation;
-        event.setRespawnLocation(respawnLocation);
-        // Set the player's game mode to spectator if there are more than 1 alive players
-        if (alivePlayers.size() > 1) {
-            player.setGameMode(GameMode.SPECTATOR);
-        }
+    InventoryStash getInventoryStash() {
+        return inventoryStash;
     }
 
     /**
-     * Resets the game state by clearing all player data and game-related
-     * collections.
+     * Gets the journal recording the sessions for crash recovery.
+     *
+     * @return The GameJournal instance.
      */
-    private void resetGameState() {
-        playerInventories.clear();
-        playerArmor.clear();
-        gamePlayers.clear();
-        alivePlayers.clear();
-        spectators.clear();
+    GameJournal getJournal() {
+        return journal;
     }
 
     /**
-     * Stops the DeathSwap game and resets the game state.
+     * Gets the scheduler that spreads the sessions' teleports over several ticks.
+     *
+     * @return The TeleportScheduler instance.
      */
-    public void stopGame() {
-        try {
-            // Cancel the swap timer task if it exists
-            if (swapTimerTask != null) {
-                swapTimerTask.cancel();
-                swapTimerTask = null;
-            }
-
-            final Player winner;
-            // Determine the winner if there is only one alive player
-            if (alivePlayers.size() == 1) {
-                winner = alivePlayers.iterator().next();
-            } else {
-                winner = null;
-            }
+    TeleportScheduler getTeleportScheduler() {
+        return worldManager.getTeleportScheduler();
+    }
 
-            // Restore player inventories and teleport them to the main world spawn location
-            gamePlayers.forEach(player -> {
-                if (player != null && player.isOnline()) {
-                    player.getInventory().setContents(playerInventories.getOrDefault(player, new ItemStack[0]));
-                    player.getInventory().setArmorContents(playerArmor.getOrDefault(player, new ItemStack[0]));
-                    player.teleport(mainWorldSpawnLocation);
-                    savePlayerStats(player, player.equals(winner));
-                }
-            });
-
-            resetGameState();
-
-            // Unload and delete the current game world
-            if (currentGameWorld != null) {
-                new BukkitRunnable() {
-                    @Override
-                    public void run() {
-                        worldManager.removeAllPlayersFromWorld(currentGameWorld, "world");
-                        if (worldManager.unloadWorldFromServer(currentGameWorld)) {
-                            try {
-                                worldManager.deleteWorld(currentGameWorld);
-                            } catch (Exception e) {
-                                plugin.getLogger().log(Level.SEVERE, "Failed to delete world: " + currentGameWorld, e);
-                            }
-                        } else {
-                            plugin.getLogger().severe("Failed to unload world: " + currentGameWorld);
-                        }
-                    }
-                }.runTaskLater(plugin, 20L);
-            }
-        } finally {
-            currentGameWorld = null;
-        }
+    /**
+     * Gets the cache of safe points in the sessions' worlds.
+     *
+     * @return The SafeLocationFinder instance.
+     */
+    SafeLocationFinder getSafeLocationFinder() {
+        return worldManager.getSafeLocationFinder();
     }
 
     /**
@@ -366,7 +394,7 @@ public class DeathSwap implements Listener {
      * @param player The player whose stats are to be saved.
      * @param won    Whether the player won the game.
      */
-    private void savePlayerStats(Player player, boolean won) {
+    void savePlayerStats(Player player, boolean won) {
         Map<String, Integer> stats = dataManager.getPlayerStats(player, "deathswap");
         int wins = stats.get("wins");
         int losses = stats.get("losses");
@@ -377,6 +405,25 @@ public class DeathSwap implements Listener {
             losses++;
         }
         dataManager.savePlayerStats(player, "deathswap", wins, losses);
+        journal.resultRecorded(new StatsEntry(player.getUniqueId(), player.getName(), "deathswap", wins, losses));
+    }
+
+    /**
+     * Handles the player respawn event.
+     *
+     * @param event The PlayerRespawnEvent.
+     */
+    @Override
+    public void handlePlayerRespawn(PlayerRespawnEvent event) {
+        Player player = event.getPlayer();
+        DeathSwapSession session = playerSessions.get(player.getUniqueId());
+        if (session != null) {
+            session.handlePlayerRespawn(event);
+        } else if (pendingMainWorldRespawns.remove(player.getUniqueId())) {
+            event.setRespawnLocation(mainWorldSpawnLocation);
+            eventRouter.unbind(player.getUniqueId(), this);
+            inventoryStash.restoreAfterRespawn(player);
+        }
     }
 
     /**
@@ -384,27 +431,11 @@ public class DeathSwap implements Listener {
      *
      * @param event The PlayerDeathEvent.
      */
+    @Override
     public void handlePlayerDeath(PlayerDeathEvent event) {
-        Player player = event.getEntity();
-        // Remove the player from the list of alive players
-        if (alivePlayers.remove(player)) {
-            spectators.add(player);
-            player.setGameMode(GameMode.SPECTATOR);
-            savePlayerStats(player, false);
-            // Check if there is only one alive player remaining
-            if (alivePlayers.size() <= 1) {
-                if (alivePlayers.size() == 1) {
-                    Player winner = alivePlayers.iterator().next();
-                    Bukkit.broadcastMessage(BROADCAST_PREFIX + winner.getName() + " has won the game!");
-                    savePlayerStats(winner, true);
-                }
-                stopGame();
-            }
-            Bukkit.broadcastMessage(BROADCAST_PREFIX + "Player " + player.getName() + " has died. "
-                    + alivePlayers.size() + " players remaining.");
-
-            plugin.getLogger().info("Alive players after " + player.getName() + " died: " +
-                    alivePlayers.stream().map(Player::getName).collect(Collectors.joining(", ")));
+        DeathSwapSession session = playerSessions.get(event.getEntity().getUniqueId());
+        if (session != null) {
+            session.handlePlayerDeath(event);
         }
     }
 
@@ -413,22 +444,26 @@ public class DeathSwap implements Listener {
      *
      * @param player The player who disconnected.
      */
+    @Override
     public void handlePlayerDisconnect(Player player) {
-        // Remove the player from the list of alive players
-        if (alivePlayers.remove(player)) {
-            player.getInventory().setContents(playerInventories.remove(player));
-            savePlayerStats(player, false);
-            // Check if there is only one alive player remaining
-            if (alivePlayers.size() <= 1) {
-                if (alivePlayers.size() == 1) {
-                    Player winner = alivePlayers.iterator().next();
-                    Bukkit.broadcastMessage(BROADCAST_PREFIX + winner.getName() + " has won the game!");
-                    savePlayerStats(winner, true);
-                }
-                stopGame();
-            }
-        } else {
-            spectators.remove(player);
+        eventRouter.unbind(player.getUniqueId(), this);
+        pendingMainWorldRespawns.remove(player.getUniqueId());
+        DeathSwapSession session = playerSessions.remove(player.getUniqueId());
+        if (session != null) {
+            session.handlePlayerDisconnect(player);
+        }
+    }
+
+    /**
+     * Handles the player interact event.
+     *
+     * @param event The PlayerInteractEvent.
+     */
+    @Override
+    public void handlePlayerInteract(PlayerInteractEvent event) {
+        DeathSwapSession session = playerSessions.get(event.getPlayer().getUniqueId());
+        if (session != null) {
+            session.handlePlayerInteract(event);
         }
     }
 
@@ -450,72 +485,6 @@ public class DeathSwap implements Listener {
         return creatorMode;
     }
 
-    /**
-     * Gets the set of alive players.
-     *
-     * @return An unmodifiable set of alive players.
-     */
-    public Set<Player> getAlivePlayers() {
-        return Collections.unmodifiableSet(alivePlayers);
-    }
-
-    private final Map<Player, Integer> spectatorTargets = new HashMap<>();
-
-    /**
-     * Handles the player interact event.
-     *
-     * @param event The PlayerInteractEvent.
-     */
-    public void handlePlayerInteract(PlayerInteractEvent event) {
-        Player interactingPlayer = event.getPlayer();
-
-        // Check if the interacting player is a spectator
-        if (!spectators.contains(interactingPlayer)) {
-            return;
-        }
-
-        // Check if the player left-clicked in the air or on a block
-        if (event.getAction() == Action.LEFT_CLICK_AIR || event.getAction() == Action.LEFT_CLICK_BLOCK) {
-            // Check if there are no active players to teleport to
-            if (alivePlayers.isEmpty()) {
-                interactingPlayer.sendMessage(ChatColor.RED + "There are no active players to teleport to.");
-                return;
-            }
-
-            int nextIndex = spectatorTargets.getOrDefault(interactingPlayer, -1) + 1;
-            // Reset the index if it exceeds the number of alive players
-            if (nextIndex >= alivePlayers.size()) {
-                nextIndex = 0;
-            }
-
-            Player nextTargetPlayer = getNextTargetPlayer(alivePlayers, nextIndex);
-
-            // Teleport the interacting player to the next target player
-            if (nextTargetPlayer != null && nextTargetPlayer.isOnline()) {
-                interactingPlayer.teleport(nextTargetPlayer.getLocation());
-                interactingPlayer.sendMessage(ChatColor.GREEN + "Teleported to " + nextTargetPlayer.getName());
-                spectatorTargets.put(interactingPlayer, nextIndex);
-            }
-        }
-    }
-
-    /**
-     * Gets the next target player for a spectator to teleport to.
-     *
-     * @param activePlayers The set of active players.
-     * @param index         The index of the next target player.
-     * @return The next target player.
-     */
-    private Player getNextTargetPlayer(Set<Player> activePlayers, int index) {
-        List<Player> playerList = new ArrayList<>(activePlayers);
-        // Check if the list of active players is empty
-        if (playerList.isEmpty()) {
-            return null;
-        }
-
-        return playerList.get(index);
-    }
-
     /**
      * Sets the swap interval for the game.
      *
@@ -533,6 +502,7 @@ public class DeathSwap implements Listener {
      */
     public void setBorderSize(double size) {
         this.borderSize = size;
+        worldPool.setBorderSize(size);
         saveGameSettings();
     }
 }
@@ -0,0 +1,405 @@
+package org.maven.minigamehub.games;
+
+import org.bukkit.*;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.maven.minigamehub.metrics.PluginMetrics;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * State of a single DeathSwap match.
+ * Each session owns its own world and players. Sessions are created by
+ * {@link DeathSwap}, which also maps players to their session. At the start
+ * of each round its length is taken from the {@link SwapIntervalPolicy} and its
+ * warnings and swap are worked out as deadlines on the shared
+ * {@link GameClock}, with only the next one pending. The next swap is planned
+ * by the {@link SwapPlanner} ahead of its deadline.
+ */
+public class DeathSwapSession extends GameMatch {
+    private static final String BROADCAST_PREFIX = ChatColor.GOLD + "DeathSwap: " + ChatColor.RESET;
+    private static final long TICKS_PER_SECOND = 20L;
+
+    private final DeathSwap deathSwap;
+    private final String worldName;
+    private final SwapIntervalPolicy intervalPolicy;
+    private final SwapPlanner swapPlanner;
+    private final Set<Player> gamePlayers = new HashSet<>();
+    private final Set<Player> alivePlayers = new HashSet<>();
+    private final Set<Player> spectators = new HashSet<>();
+    private final Map<Player, Integer> spectatorTargets = new HashMap<>();
+    private final long[] roundDelays;
+    private CompletableFuture<Void> pendingSwap;
+    private SwapPlanner.Plan nextSwap;
+    private GameClock.Timeout roundTimeout;
+    private int firstRoundWarning;
+    private int roundEvents;
+    private int nextRoundEvent;
+
+    /**
+     * Constructor for the DeathSwapSession class.
+     *
+     * @param deathSwap      The DeathSwap manager owning this session.
+     * @param scheduler      The GameScheduler timing the session's rounds.
+     * @param worldName      The name of the world the session is played in.
+     * @param intervalPolicy The policy deciding the length and warnings of each round.
+     * @param swapPlanner    The planner deciding whose spot each player swaps into.
+     */
+    DeathSwapSession(DeathSwap deathSwap, GameScheduler scheduler, String worldName,
+            SwapIntervalPolicy intervalPolicy, SwapPlanner swapPlanner) {
+        super(scheduler);
+        this.deathSwap = deathSwap;
+        this.worldName = worldName;
+        this.intervalPolicy = intervalPolicy;
+        this.swapPlanner = swapPlanner;
+        this.roundDelays = new long[intervalPolicy.getWarningSeconds().length + 1];
+    }
+
+    /**
+     * Starts the session with the given players.
+     *
+     * @param players The players taking part in the session.
+     */
+    void start(List<Player> players) {
+        transition(GameState.STARTING);
+        gamePlayers.addAll(players);
+        alivePlayers.addAll(players);
+        preparePlayersForGame(players);
+        transition(GameState.RUNNING);
+        announceGameStart(players);
+        startRound();
+    }
+
+    /**
+     * Gets the name of the world the session is played in.
+     *
+     * @return The world name.
+     */
+    public String getWorldName() {
+        return worldName;
+    }
+
+    /**
+     * Checks if the session is still running.
+     *
+     * @return true if the session is running, false otherwise.
+     */
+    public boolean isRunning() {
+        return getState() == GameState.RUNNING;
+    }
+
+    /**
+     * Gets the players taking part in the session.
+     *
+     * @return An unmodifiable set of the session's players.
+     */
+    public Set<Player> getGamePlayers() {
+        return Collections.unmodifiableSet(gamePlayers);
+    }
+
+    /**
+     * Gets the set of alive players.
+     *
+     * @return An unmodifiable set of alive players.
+     */
+    public Set<Player> getAlivePlayers() {
+        return Collections.unmodifiableSet(alivePlayers);
+    }
+
+    /**
+     * Announces the start of the game to the session's players.
+     *
+     * @param players The players taking part in the session.
+     */
+    private void announceGameStart(List<Player> players) {
+        String playerNames = players.stream().map(Player::getName).collect(Collectors.joining(", "));
+        broadcast(BROADCAST_PREFIX + "Game is starting with players: " + playerNames);
+    }
+
+    /**
+     * Prepares the players for the game by stashing their current items and
+     * clearing their inventories.
+     *
+     * @param players The players taking part in the session.
+     */
+    private void preparePlayersForGame(List<Player> players) {
+        for (Player player : players) {
+            deathSwap.getInventoryStash().stashAndClear(player);
+        }
+    }
+
+    /**
+     * Starts a round. Its length is picked from the interval policy, then the
+     * delays between the warnings that fit in it and the swap are worked out.
+     */
+    private void startRound() {
+        int interval = intervalPolicy.nextInterval(getScheduler().getClock().getAverageTickMillis());
+        int[] warnings = intervalPolicy.getWarningSeconds();
+        firstRoundWarning = 0;
+        while (firstRoundWarning < warnings.length && warnings[firstRoundWarning] >= interval) {
+            firstRoundWarning++;
+        }
+        int event = 0;
+        int elapsed = 0;
+        for (int i = firstRoundWarning; i < warnings.length; i++) {
+            roundDelays[event++] = (interval - warnings[i] - elapsed) * TICKS_PER_SECOND;
+            elapsed = interval - warnings[i];
+        }
+        roundDelays[event] = (interval - elapsed) * TICKS_PER_SECOND;
+        roundEvents = event + 1;
+        nextRoundEvent = 0;
+        scheduleNextRoundEvent();
+        planNextSwap();
+    }
+
+    /**
+     * Plans the next swap of the alive players, unless it is already planned.
+     */
+    private void planNextSwap() {
+        if (nextSwap == null && alivePlayers.size() >= 2) {
+            nextSwap = swapPlanner.plan(alivePlayers);
+        }
+    }
+
+    /**
+     * Registers the next warning or swap of the round with the game clock.
+     */
+    private void scheduleNextRoundEvent() {
+        roundTimeout = getScheduler().schedule(roundDelays[nextRoundEvent], this::runRoundEvent);
+    }
+
+    /**
+     * Broadcasts a warning or, at the end of the round, swaps the players and
+     * starts the next round.
+     */
+    private void runRoundEvent() {
+        roundTimeout = null;
+        if (!isRunning()) {
+            return;
+        }
+        if (nextRoundEvent < roundEvents - 1) {
+            broadcastCountdown(intervalPolicy.getWarningMessage(firstRoundWarning + nextRoundEvent++));
+            scheduleNextRoundEvent();
+            // Replans here if a player died or left since the round started
+            planNextSwap();
+            return;
+        }
+        swapPlayers();
+        if (isRunning()) {
+            startRound();
+        }
+    }
+
+    /**
+     * Broadcasts the countdown to the session's players.
+     *
+     * @param message The announcement of the seconds remaining until the swap.
+     */
+    private void broadcastCountdown(String message) {
+        for (Player player : gamePlayers) {
+            player.sendMessage(message);
+            player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f, 1.0f);
+        }
+    }
+
+    /**
+     * Swaps the locations of the alive players.
+     */
+    private void swapPlayers() {
+        if (alivePlayers.size() < 2) {
+            stop();
+            return;
+        }
+
+        if (pendingSwap != null && !pendingSwap.isDone()) {
+            // The previous swap is still being teleported
+            return;
+        }
+
+        long start = System.nanoTime();
+        planNextSwap();
+        SwapPlanner.Plan plan = nextSwap;
+        nextSwap = null;
+
+        // Players are frozen until everyone has arrived so the swap looks simultaneous
+        pendingSwap = deathSwap.getTeleportScheduler().schedule(plan.getPlayers(), plan.getDestinations(), true);
+        pendingSwap.thenRun(() -> plan.announce(alivePlayers));
+        deathSwap.getJournal().playersSwapped(worldName);
+        PluginMetrics.SWAPS.increment();
+        PluginMetrics.DEATHSWAP_SWAP.recordSince(start);
+    }
+
+    /**
+     * Sends a message to every player in the session.
+     *
+     * @param message The message to send.
+     */
+    private void broadcast(String message) {
+        for (Player player : gamePlayers) {
+            if (player.isOnline()) {
+                player.sendMessage(message);
+            }
+        }
+    }
+
+    /**
+     * Handles the player respawn event for a player in this session.
+     *
+     * @param event The PlayerRespawnEvent.
+     */
+    void handlePlayerRespawn(PlayerRespawnEvent event) {
+        World world = Bukkit.getWorld(worldName);
+        if (isRunning() && alivePlayers.size() > 1 && world != null) {
+            // Spectators come back over the playing area rather than at a spawn that may be outside it
+            Location safePoint = deathSwap.getSafeLocationFinder().getSafePoint(world);
+            event.setRespawnLocation(safePoint != null ? safePoint : world.getSpawnLocation());
+            event.getPlayer().setGameMode(GameMode.SPECTATOR);
+        } else {
+            event.setRespawnLocation(deathSwap.getMainWorldSpawnLocation());
+        }
+    }
+
+    /**
+     * Handles the player death event for a player in this session.
+     *
+     * @param event The PlayerDeathEvent.
+     */
+    void handlePlayerDeath(PlayerDeathEvent event) {
+        Player player = event.getEntity();
+        if (!alivePlayers.remove(player)) {
+            return;
+        }
+        nextSwap = null;
+        deathSwap.getTeleportScheduler().removePlayer(player.getUniqueId());
+        deathSwap.getJournal().playerDied(worldName, player.getUniqueId());
+
+        spectators.add(player);
+        player.setGameMode(GameMode.SPECTATOR);
+        deathSwap.savePlayerStats(player, false);
+        broadcast(BROADCAST_PREFIX + "Player " + player.getName() + " has died. "
+                + alivePlayers.size() + " players remaining.");
+        checkForWinner();
+    }
+
+    /**
+     * Handles a player in this session disconnecting.
+     *
+     * @param player The player who disconnected.
+     */
+    void handlePlayerDisconnect(Player player) {
+        deathSwap.getTeleportScheduler().removePlayer(player.getUniqueId());
+        if (alivePlayers.remove(player)) {
+            nextSwap = null;
+            restoreInventory(player);
+            gamePlayers.remove(player);
+            deathSwap.savePlayerStats(player, false);
+            checkForWinner();
+        } else {
+            spectators.remove(player);
+            spectatorTargets.remove(player);
+        }
+    }
+
+    /**
+     * Ends the session if at most one player is left alive.
+     */
+    private void checkForWinner() {
+        if (alivePlayers.size() > 1) {
+            return;
+        }
+        if (alivePlayers.size() == 1) {
+            Player winner = alivePlayers.iterator().next();
+            broadcast(BROADCAST_PREFIX + winner.getName() + " has won the game!");
+        }
+        stop();
+    }
+
+    /**
+     * Handles the player interact event for a spectator in this session.
+     * Left-clicking cycles the spectator through the alive players.
+     *
+     * @param event The PlayerInteractEvent.
+     */
+    void handlePlayerInteract(PlayerInteractEvent event) {
+        Player interactingPlayer = event.getPlayer();
+        if (!spectators.contains(interactingPlayer)) {
+            return;
+        }
+
+        if (event.getAction() == Action.LEFT_CLICK_AIR || event.getAction() == Action.LEFT_CLICK_BLOCK) {
+            if (alivePlayers.isEmpty()) {
+                interactingPlayer.sendMessage(ChatColor.RED + "There are no active players to teleport to.");
+                return;
+            }
+
+            int nextIndex = spectatorTargets.getOrDefault(interactingPlayer, -1) + 1;
+            if (nextIndex >= alivePlayers.size()) {
+                nextIndex = 0;
+            }
+
+            Player nextTargetPlayer = new ArrayList<>(alivePlayers).get(nextIndex);
+            if (nextTargetPlayer.isOnline()) {
+                interactingPlayer.teleport(nextTargetPlayer.getLocation());
+                interactingPlayer.sendMessage(ChatColor.GREEN + "Teleported to " + nextTargetPlayer.getName());
+                spectatorTargets.put(interactingPlayer, nextIndex);
+            }
+        }
+    }
+
+    /**
+     * Stops the session, restores the players and hands the world back to the
+     * manager for deletion. Deaths and disconnects have already been recorded,
+     * so only the players still alive get a result here.
+     */
+    void stop() {
+        if (!isRunning()) {
+            return;
+        }
+        transition(GameState.ENDING);
+        if (roundTimeout != null) {
+            roundTimeout.cancel();
+            roundTimeout = null;
+        }
+        if (pendingSwap != null) {
+            pendingSwap.cancel(false);
+        }
+
+        Player winner = alivePlayers.size() == 1 ? alivePlayers.iterator().next() : null;
+        for (Player player : gamePlayers) {
+            if (player.isOnline()) {
+                // Dead players keep their stash until they respawn
+                restoreInventory(player);
+                if (!player.isDead()) {
+                    player.teleport(deathSwap.getMainWorldSpawnLocation());
+                }
+                player.setGameMode(GameMode.SURVIVAL);
+            }
+            if (alivePlayers.contains(player)) {
+                deathSwap.savePlayerStats(player, player.equals(winner));
+            }
+        }
+
+        transition(GameState.CLEANUP);
+        deathSwap.endSession(this);
+
+        alivePlayers.clear();
+        spectators.clear();
+        spectatorTargets.clear();
+    }
+
+    /**
+     * Restores the items and state stashed when the player joined the session.
+     * Players who are offline when the session ends get them back when they
+     * join again, and dead players once they have respawned.
+     *
+     * @param player The player whose inventory will be restored.
+     */
+    private void restoreInventory(Player player) {
+        deathSwap.getInventoryStash().restore(player);
+    }
+}
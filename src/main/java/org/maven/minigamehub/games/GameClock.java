@@ -0,0 +1,297 @@
+package org.maven.minigamehub.games;
+
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.maven.minigamehub.metrics.PluginMetrics;
+
+import java.util.logging.Level;
+
+/**
+ * Hierarchical timing wheel every match and every periodic job of the plugin
+ * registers its deadlines with. Besides the games, the world workers, world
+ * pool maintenance, journal compaction, matchmaking and the metrics sampler
+ * run on it, so the plugin keeps a single repeating Bukkit task.
+ * Four wheels of 64 slots cover one tick, 64 ticks, 4096 ticks and 262144
+ * ticks per slot. A deadline is put in the finest wheel that reaches it and
+ * moved down to a finer wheel when that wheel comes round to it, so scheduling
+ * and cancelling take constant time however many deadlines are pending, and a
+ * tick only looks at the deadlines that are due. Deadlines further away than
+ * the coarsest wheel reaches are parked in its last slot and placed again
+ * when it comes round. One Bukkit task advances the clock, and only while
+ * deadlines are pending. The same task keeps a moving average of the time
+ * between server ticks, which tells the games how far the server is behind.
+ */
+public class GameClock {
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int WHEELS = 4;
+    private static final long MAX_DELAY = 1L << (WHEEL_BITS * WHEELS);
+    private static final double NANOS_PER_TICK = 50_000_000.0;
+    // Weight of the latest tick in the moving average, about one second of ticks
+    private static final double TICK_AVERAGE_WEIGHT = 0.05;
+
+    private final JavaPlugin plugin;
+    private final Slot[][] wheels = new Slot[WHEELS][WHEEL_SIZE];
+    private BukkitRunnable ticker;
+    private long currentTick;
+    private int pending;
+    private long lastTickNanos;
+    private double averageTickNanos = NANOS_PER_TICK;
+
+    /**
+     * Constructor for the GameClock class.
+     *
+     * @param plugin The JavaPlugin instance.
+     */
+    public GameClock(JavaPlugin plugin) {
+        this.plugin = plugin;
+        for (Slot[] wheel : wheels) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                wheel[i] = new Slot();
+            }
+        }
+    }
+
+    /**
+     * Runs a task once after a delay.
+     *
+     * @param delayTicks The delay in ticks. Delays below one run on the next tick.
+     * @param task       The task to run on the main thread.
+     * @return The deadline, which can be cancelled.
+     */
+    public Timeout schedule(long delayTicks, Runnable task) {
+        return schedule(delayTicks, 0L, task);
+    }
+
+    /**
+     * Runs a task after a delay and then repeatedly until it is cancelled.
+     *
+     * @param delayTicks  The delay before the first run in ticks.
+     * @param periodTicks The ticks between two runs, at least one.
+     * @param task        The task to run on the main thread.
+     * @return The deadline, which can be cancelled.
+     */
+    public Timeout scheduleRepeating(long delayTicks, long periodTicks, Runnable task) {
+        return schedule(delayTicks, Math.max(1L, periodTicks), task);
+    }
+
+    private Timeout schedule(long delayTicks, long periodTicks, Runnable task) {
+        Timeout timeout = new Timeout(currentTick + Math.max(1L, delayTicks), periodTicks, task);
+        insert(timeout);
+        pending++;
+        startTicker();
+        return timeout;
+    }
+
+    /**
+     * Puts a deadline in the finest wheel that reaches it.
+     *
+     * @param timeout The deadline, which must not be in a slot.
+     */
+    private void insert(Timeout timeout) {
+        long delay = timeout.deadline - currentTick;
+        long slotTick = delay < MAX_DELAY ? timeout.deadline : currentTick + MAX_DELAY - 1;
+        int wheel = 0;
+        while (wheel < WHEELS - 1 && delay >= 1L << (WHEEL_BITS * (wheel + 1))) {
+            wheel++;
+        }
+        int index = (int) (slotTick >>> (WHEEL_BITS * wheel)) & WHEEL_MASK;
+        wheels[wheel][index].add(timeout);
+    }
+
+    /**
+     * Starts the clock's task if it is not running yet.
+     */
+    private void startTicker() {
+        if (ticker != null || !plugin.isEnabled()) {
+            return;
+        }
+        // The time the clock was idle is not a server tick
+        lastTickNanos = 0;
+        ticker = new BukkitRunnable() {
+            @Override
+            public void run() {
+                long start = System.nanoTime();
+                if (lastTickNanos != 0) {
+                    averageTickNanos += (start - lastTickNanos - averageTickNanos) * TICK_AVERAGE_WEIGHT;
+                }
+                lastTickNanos = start;
+                tick();
+                PluginMetrics.GAME_TICK.recordSince(start);
+            }
+        };
+        ticker.runTaskTimer(plugin, 1L, 1L);
+    }
+
+    /**
+     * Stops the clock's task once no deadline is pending.
+     */
+    private void stopTickerIfIdle() {
+        if (ticker != null && pending == 0) {
+            ticker.cancel();
+            ticker = null;
+        }
+    }
+
+    /**
+     * Advances the clock by one tick, moves the deadlines of coarser wheels that
+     * have come round down to finer ones and runs the deadlines that are due.
+     * Package-private so tests can advance the clock without a server.
+     */
+    void tick() {
+        currentTick++;
+        for (int wheel = 1; wheel < WHEELS; wheel++) {
+            if ((currentTick & ((1L << (WHEEL_BITS * wheel)) - 1)) != 0) {
+                break;
+            }
+            Slot slot = wheels[wheel][(int) (currentTick >>> (WHEEL_BITS * wheel)) & WHEEL_MASK];
+            for (Timeout timeout = slot.poll(); timeout != null; timeout = slot.poll()) {
+                insert(timeout);
+            }
+        }
+        Slot due = wheels[0][(int) currentTick & WHEEL_MASK];
+        // Taken one at a time, a task may cancel another deadline of the same slot
+        for (Timeout timeout = due.poll(); timeout != null; timeout = due.poll()) {
+            if (timeout.periodTicks > 0) {
+                timeout.deadline += timeout.periodTicks;
+                insert(timeout);
+            } else {
+                pending--;
+            }
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                plugin.getLogger().log(Level.SEVERE, "A task scheduled on the game clock failed", e);
+            }
+        }
+        stopTickerIfIdle();
+    }
+
+    /**
+     * Gets the number of ticks the clock has advanced.
+     *
+     * @return The current tick.
+     */
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Gets the average time between the server ticks the clock has seen
+     * recently. A server keeping up runs a tick every 50 milliseconds.
+     *
+     * @return The average tick time in milliseconds.
+     */
+    public double getAverageTickMillis() {
+        return averageTickNanos / 1_000_000.0;
+    }
+
+    /**
+     * Drops every pending deadline and stops the clock's task.
+     * Called when the plugin is disabled.
+     */
+    public void shutdown() {
+        for (Slot[] wheel : wheels) {
+            for (Slot slot : wheel) {
+                while (slot.poll() != null) {
+                    // Unlinks the deadline so a later cancel is a no-op
+                }
+            }
+        }
+        pending = 0;
+        stopTickerIfIdle();
+    }
+
+    /**
+     * A pending deadline.
+     */
+    public final class Timeout {
+        private final long periodTicks;
+        private final Runnable task;
+        private long deadline;
+        private Slot slot;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(long deadline, long periodTicks, Runnable task) {
+            this.deadline = deadline;
+            this.periodTicks = periodTicks;
+            this.task = task;
+        }
+
+        /**
+         * Checks if the deadline is still pending.
+         *
+         * @return True if the task will run again.
+         */
+        public boolean isPending() {
+            return slot != null;
+        }
+
+        /**
+         * Gets the number of ticks until the task runs next.
+         *
+         * @return The remaining ticks, or zero if the deadline is not pending.
+         */
+        public long getRemainingTicks() {
+            return isPending() ? deadline - currentTick : 0L;
+        }
+
+        /**
+         * Cancels the deadline. Does nothing if it has already run or been cancelled.
+         */
+        public void cancel() {
+            if (slot == null) {
+                return;
+            }
+            slot.remove(this);
+            pending--;
+            stopTickerIfIdle();
+        }
+    }
+
+    /**
+     * A doubly linked list of the deadlines in one slot of a wheel.
+     */
+    private static final class Slot {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.slot = this;
+            timeout.previous = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.previous == null) {
+                head = timeout.next;
+            } else {
+                timeout.previous.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.previous;
+            } else {
+                timeout.next.previous = timeout.previous;
+            }
+            timeout.slot = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+
+        private Timeout poll() {
+            Timeout timeout = head;
+            if (timeout != null) {
+                remove(timeout);
+            }
+            return timeout;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.maven.minigamehub.games;
+
+/**
+ * Base class of a single match, such as a DeathSwap session or a Spleef arena.
+ * Holds the match's {@link GameState} and only allows the transitions the state
+ * machine permits. While the match is STARTING or RUNNING, the shared
+ * {@link GameScheduler} calls {@link #tick()} every {@link #getTickInterval()} ticks
+ * if the match has periodic work. One-off deadlines such as start delays are
+ * registered with {@link GameScheduler#schedule(long, Runnable)} instead.
+ */
+public abstract class GameMatch {
+    private final GameScheduler scheduler;
+    private GameState state = GameState.WAITING;
+
+    /**
+     * Constructor for the GameMatch class.
+     *
+     * @param scheduler The GameScheduler ticking the match.
+     */
+    protected GameMatch(GameScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Gets the state the match is in.
+     *
+     * @return The current state.
+     */
+    public GameState getState() {
+        return state;
+    }
+
+    /**
+     * Moves the match to another state.
+     *
+     * @param next The state to move to.
+     * @throws IllegalStateException If the state machine does not allow the transition.
+     */
+    protected void transition(GameState next) {
+        if (!state.canTransitionTo(next)) {
+            throw new IllegalStateException("Cannot move " + getClass().getSimpleName() + " from " + state + " to " + next);
+        }
+        GameState previous = state;
+        state = next;
+        scheduler.stateChanged(this, previous, next);
+    }
+
+    /**
+     * Gets the scheduler ticking the match, which also runs its background steps.
+     *
+     * @return The GameScheduler instance.
+     */
+    protected GameScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Gets the number of ticks between two calls to {@link #tick()}.
+     *
+     * @return The interval in ticks, or zero if the match has no periodic work.
+     */
+    protected long getTickInterval() {
+        return 0L;
+    }
+
+    /**
+     * Does the match's periodic work while it is STARTING or RUNNING.
+     */
+    protected void tick() {
+    }
+}
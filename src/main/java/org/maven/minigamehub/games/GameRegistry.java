@@ -0,0 +1,166 @@
+package org.maven.minigamehub.games;
+
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.maven.minigamehub.config.GameJournal;
+import org.maven.minigamehub.listeners.GameEventRouter;
+import org.maven.minigamehub.matchmaking.MatchmakingService;
+
+import java.util.*;
+import java.util.logging.Level;
+
+/**
+ * Registry of the available game modes.
+ * Starts matches by game name, resolving and validating the players once for
+ * every mode, and makes every registered game available to the matchmaking
+ * queues. Also stops the games and hands interrupted matches to them.
+ */
+public class GameRegistry {
+    private final JavaPlugin plugin;
+    private final GameEventRouter eventRouter;
+    private final MatchmakingService matchmaking;
+    private final Map<String, MiniGame> games = new LinkedHashMap<>();
+
+    /**
+     * Constructor for the GameRegistry class.
+     *
+     * @param plugin      The JavaPlugin instance.
+     * @param eventRouter The GameEventRouter telling which players are in a game.
+     * @param matchmaking The MatchmakingService the games are queued through.
+     */
+    public GameRegistry(JavaPlugin plugin, GameEventRouter eventRouter, MatchmakingService matchmaking) {
+        this.plugin = plugin;
+        this.eventRouter = eventRouter;
+        this.matchmaking = matchmaking;
+    }
+
+    /**
+     * Registers a game and its matchmaking queue.
+     *
+     * @param game The game.
+     */
+    public void register(MiniGame game) {
+        games.put(game.getName(), game);
+        matchmaking.registerGame(game.getName(), game);
+    }
+
+    /**
+     * Gets a registered game.
+     *
+     * @param name The name of the game.
+     * @return The game, or null if no game has that name.
+     */
+    public MiniGame get(String name) {
+        return games.get(name.toLowerCase());
+    }
+
+    /**
+     * Gets the names of the registered games.
+     *
+     * @return An unmodifiable view of the game names.
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(games.keySet());
+    }
+
+    /**
+     * Starts a match of a game with the named players.
+     *
+     * @param sender      The sender of the command.
+     * @param name        The name of the game.
+     * @param target      The world or arena name, or null for games without one.
+     * @param playerNames The names of the players taking part.
+     */
+    public void start(CommandSender sender, String name, String target, List<String> playerNames) {
+        MiniGame game = get(name);
+        if (game == null) {
+            sender.sendMessage("Unknown game: " + name + ". Available games: " + String.join(", ", games.keySet()));
+            return;
+        }
+        String targetDescription = game.getTargetDescription();
+        if (targetDescription != null && (target == null || target.isEmpty())) {
+            sender.sendMessage("Usage: /minigame start " + game.getName() + " <" + targetDescription
+                    + "> <player1> <player2> ...");
+            return;
+        }
+        List<Player> players = resolvePlayers(playerNames, sender);
+        if (players.size() < 2) {
+            sender.sendMessage("At least two players who are online and not in a game are required.");
+            return;
+        }
+        try {
+            game.startMatch(sender, targetDescription != null ? target : "", players);
+        } catch (RuntimeException e) {
+            sender.sendMessage("An error occurred while starting the game: " + e.getMessage());
+            plugin.getLogger().log(Level.SEVERE, "Error starting game " + game.getName(), e);
+        }
+    }
+
+    /**
+     * Resolves player names to the players who can join a match.
+     * Players that are offline, already in a game or named twice are left out,
+     * and the sender is told about the first two.
+     *
+     * @param playerNames The player names.
+     * @param sender      The sender to report to.
+     * @return The players, in the order they were named.
+     */
+    public List<Player> resolvePlayers(List<String> playerNames, CommandSender sender) {
+        List<Player> players = new ArrayList<>();
+        List<String> offlinePlayers = new ArrayList<>();
+        List<String> busyPlayers = new ArrayList<>();
+        for (String playerName : playerNames) {
+            Player player = Bukkit.getPlayerExact(playerName);
+            if (player == null || !player.isOnline()) {
+                offlinePlayers.add(playerName);
+            } else if (eventRouter.isInGame(player.getUniqueId())) {
+                busyPlayers.add(player.getName());
+            } else if (!players.contains(player)) {
+                players.add(player);
+            }
+        }
+        if (!offlinePlayers.isEmpty()) {
+            sender.sendMessage("The following players are offline or not found: " + String.join(", ", offlinePlayers));
+        }
+        if (!busyPlayers.isEmpty()) {
+            sender.sendMessage("The following players are already in a game: " + String.join(", ", busyPlayers));
+        }
+        return players;
+    }
+
+    /**
+     * Hands a match interrupted by a crash to its game.
+     *
+     * @param game The interrupted match found in the game journal.
+     */
+    public void recoverInterruptedGame(GameJournal.InterruptedGame game) {
+        MiniGame miniGame = games.get(game.getGameName());
+        if (miniGame == null) {
+            plugin.getLogger().warning("Cannot recover interrupted " + game.getGameName() + " game in "
+                    + game.getWorldName() + ", the game is not available.");
+            return;
+        }
+        miniGame.recoverInterruptedGame(game);
+    }
+
+    /**
+     * Stops every running match of every game.
+     */
+    public void stopAll() {
+        for (MiniGame game : games.values()) {
+            game.stopAll();
+        }
+    }
+
+    /**
+     * Stops every game and releases their resources.
+     * Called when the plugin is disabled.
+     */
+    public void shutdown() {
+        for (MiniGame game : games.values()) {
+            game.shutdown();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.maven.minigamehub.games;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.maven.minigamehub.config.DataManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Shared scheduler of every game mode's matches.
+ * Every deadline of every match, such as a start delay, a countdown
+ * announcement or the periodic tick of a STARTING or RUNNING {@link GameMatch},
+ * is registered with one {@link GameClock}, which advances all of them from a
+ * single Bukkit task. Lifecycle steps that must not hold up the main thread,
+ * such as preparing worlds, run through {@link #supplyAsync(Supplier)} and
+ * continue on the main thread. Pending player stats are written in the
+ * background whenever a match moves to CLEANUP.
+ */
+public class GameScheduler {
+    private final JavaPlugin plugin;
+    private final DataManager dataManager;
+    private final GameClock clock;
+    private final Map<GameMatch, GameClock.Timeout> matchTicks = new HashMap<>();
+
+    /**
+     * Constructor for the GameScheduler class.
+     *
+     * @param plugin      The JavaPlugin instance.
+     * @param dataManager The DataManager whose pending stats are written after every match.
+     * @param clock       The shared game clock the matches' deadlines are registered with.
+     */
+    public GameScheduler(JavaPlugin plugin, DataManager dataManager, GameClock clock) {
+        this.plugin = plugin;
+        this.dataManager = dataManager;
+        this.clock = clock;
+    }
+
+    /**
+     * Gets the clock every deadline of the plugin's games is registered with.
+     *
+     * @return The GameClock instance.
+     */
+    public GameClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Runs a task once after a delay, on the shared game clock.
+     *
+     * @param delayTicks The delay in ticks.
+     * @param task       The task to run on the main thread.
+     * @return The deadline, which the match must cancel if it ends first.
+     */
+    public GameClock.Timeout schedule(long delayTicks, Runnable task) {
+        return clock.schedule(delayTicks, task);
+    }
+
+    /**
+     * Runs a lifecycle step off the main thread.
+     * The step must not use the Bukkit API, except for thread-safe parts.
+     *
+     * @param step The step to run.
+     * @param <T>  The type of the step's result.
+     * @return A future completed on the main thread with the step's result.
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> step) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                T value;
+                try {
+                    value = step.get();
+                } catch (RuntimeException e) {
+                    completeOnMainThread(() -> result.completeExceptionally(e));
+                    return;
+                }
+                completeOnMainThread(() -> result.complete(value));
+            }
+        }.runTaskAsynchronously(plugin);
+        return result;
+    }
+
+    private void completeOnMainThread(Runnable completion) {
+        if (plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, completion);
+        }
+    }
+
+    /**
+     * Starts or stops ticking a match whose state has changed, and writes the
+     * pending player stats once a match's results are in.
+     * Called by {@link GameMatch#transition(GameState)}.
+     *
+     * @param match    The match.
+     * @param previous The state the match has left.
+     * @param next     The state the match has entered.
+     */
+    void stateChanged(GameMatch match, GameState previous, GameState next) {
+        long interval = match.getTickInterval();
+        if (next.isActive() && !previous.isActive() && interval > 0) {
+            matchTicks.put(match, clock.scheduleRepeating(interval, interval, match::tick));
+        } else if (!next.isActive() && previous.isActive()) {
+            GameClock.Timeout tick = matchTicks.remove(match);
+            if (tick != null) {
+                tick.cancel();
+            }
+        }
+        if (previous == GameState.ENDING && next == GameState.CLEANUP) {
+            dataManager.flushPlayerStats().whenComplete((ignored, error) -> {
+                if (error != null) {
+                    plugin.getLogger().log(Level.SEVERE, "Failed to write player stats after a match", error);
+                }
+            });
+        }
+    }
+
+    /**
+     * Cancels the periodic ticks of the matches still registered.
+     * Called when the plugin is disabled, after the games have stopped.
+     */
+    public void shutdown() {
+        for (GameClock.Timeout tick : matchTicks.values()) {
+            tick.cancel();
+        }
+        matchTicks.clear();
+    }
+}
@@ -0,0 +1,53 @@
+package org.maven.minigamehub.games;
+
+/**
+ * The states a match goes through. Matches are created WAITING, go through
+ * STARTING and RUNNING, then ENDING while the players are restored and CLEANUP
+ * while their world or arena is torn down or reset. Reusable arenas return to
+ * WAITING afterwards.
+ */
+public enum GameState {
+    /** Created or idle, no players are taking part. */
+    WAITING,
+    /** Players are being prepared, the match has not begun yet. */
+    STARTING,
+    /** The match is being played. */
+    RUNNING,
+    /** The match is over and its players are being restored. */
+    ENDING,
+    /** The match's world or arena is being torn down or reset. */
+    CLEANUP;
+
+    /**
+     * Checks if a match in this state may move to another state.
+     * WAITING may go straight to CLEANUP to reset an arena left behind by a crash.
+     *
+     * @param next The state to move to.
+     * @return True if the transition is allowed.
+     */
+    public boolean canTransitionTo(GameState next) {
+        switch (this) {
+            case WAITING:
+                return next == STARTING || next == CLEANUP;
+            case STARTING:
+                return next == RUNNING || next == ENDING;
+            case RUNNING:
+                return next == ENDING;
+            case ENDING:
+                return next == CLEANUP;
+            case CLEANUP:
+                return next == WAITING;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Checks if matches in this state are ticked by the {@link GameScheduler}.
+     *
+     * @return True for STARTING and RUNNING.
+     */
+    public boolean isActive() {
+        return this == STARTING || this == RUNNING;
+    }
+}
@@ -0,0 +1,84 @@
+package org.maven.minigamehub.games;
+
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.maven.minigamehub.config.GameJournal;
+import org.maven.minigamehub.listeners.GameEventHandler;
+import org.maven.minigamehub.matchmaking.MatchLauncher;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A game mode registered with the {@link GameRegistry}.
+ * The registry resolves and validates the players, so a game only receives
+ * players who are online and in no game. Games run their matches as
+ * {@link GameMatch}es ticked by the shared {@link GameScheduler}.
+ */
+public interface MiniGame extends GameEventHandler, MatchLauncher {
+
+    /**
+     * Gets the name of the game as used in commands, the game journal and the stats.
+     *
+     * @return The game name.
+     */
+    String getName();
+
+    /**
+     * Gets what the target of a match is called in usage messages.
+     *
+     * @return "world", "arena" or another noun, or null if matches have no target.
+     */
+    String getTargetDescription();
+
+    /**
+     * Starts a match.
+     *
+     * @param sender  The sender to report to.
+     * @param target  The world or arena name, or the empty string for games without one.
+     * @param players The players taking part, online and in no game.
+     * @return True if the match was started or is being prepared.
+     */
+    boolean startMatch(CommandSender sender, String target, List<Player> players);
+
+    /**
+     * Gets the game's current matches.
+     *
+     * @return An unmodifiable view of the matches.
+     */
+    Collection<? extends GameMatch> getMatches();
+
+    /**
+     * Stops every running match.
+     */
+    void stopAll();
+
+    /**
+     * Stops every running match and releases the game's resources.
+     * Called when the plugin is disabled.
+     */
+    default void shutdown() {
+        stopAll();
+    }
+
+    /**
+     * Cleans up after a match interrupted by a crash, for example by deleting
+     * or resetting its world.
+     *
+     * @param game The interrupted match found in the game journal.
+     */
+    void recoverInterruptedGame(GameJournal.InterruptedGame game);
+
+    /**
+     * Starts a match from a matchmaking queue, reporting to the console.
+     *
+     * @param target  The world or arena name, or the empty string.
+     * @param players The players taking part.
+     * @return True if the match was started.
+     */
+    @Override
+    default boolean launch(String target, List<Player> players) {
+        return startMatch(Bukkit.getConsoleSender(), target, players);
+    }
+}
@@ -1,10 +1,578 @@
 package org.maven.minigamehub.games;
 
+import org.bukkit.*;
 import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.maven.minigamehub.config.ConfigManager;
+import org.maven.minigamehub.config.DataManager;
+import org.maven.minigamehub.config.GameJournal;
+import org.maven.minigamehub.config.InventoryStash;
+import org.maven.minigamehub.config.StatsEntry;
+import org.maven.minigamehub.listeners.GameEventRouter;
+import org.maven.minigamehub.world.RegionResetEngine;
+import org.maven.minigamehub.world.RegionSnapshot;
 
-public class Spleef {
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
 
-    public void start(CommandSender sender) {
-        sender.sendMessage("spleef is starting");
+/**
+ * Manager for Spleef games.
+ * Arenas are boxes of floor blocks in an existing world, defined in spleef.yml.
+ * Each arena runs one round at a time. Falling players are found by the arena
+ * comparing its players' height to its elimination height a few times per
+ * second from the shared game scheduler, so Spleef does not need a move listener.
+ */
+public class Spleef implements MiniGame {
+    private static final String SNAPSHOT_DIRECTORY = "spleef";
+
+    private final JavaPlugin plugin;
+    private final ConfigManager configManager;
+    private final DataManager dataManager;
+    private final GameEventRouter eventRouter;
+    private final InventoryStash inventoryStash;
+    private final GameJournal journal;
+    private final RegionResetEngine resetEngine;
+    private final GameScheduler scheduler;
+    private final Map<String, SpleefArena> arenas = new LinkedHashMap<>();
+    private final Map<UUID, SpleefArena> playerArenas = new HashMap<>();
+    // Lower-case names of the arenas whose floor is being captured and saved
+    private final Set<String> arenasBeingSetUp = new HashSet<>();
+    private final Set<UUID> pendingLobbyRespawns = new HashSet<>();
+    private final Location lobbyLocation;
+    private final long fallCheckIntervalTicks;
+
+    /**
+     * Constructor for the Spleef class.
+     * Loads the arenas defined in spleef.yml and their floor snapshots.
+     *
+     * @param plugin         The JavaPlugin instance.
+     * @param configManager  The ConfigManager instance.
+     * @param dataManager    The DataManager instance.
+     * @param eventRouter    The GameEventRouter delivering the players' events.
+     * @param inventoryStash The InventoryStash holding the players' items during a round.
+     * @param journal        The GameJournal recording the rounds for crash recovery.
+     * @param resetEngine    The RegionResetEngine capturing and rebuilding the floors.
+     * @param scheduler      The GameScheduler ticking the arenas.
+     */
+    public Spleef(JavaPlugin plugin, ConfigManager configManager, DataManager dataManager,
+            GameEventRouter eventRouter, InventoryStash inventoryStash, GameJournal journal,
+            RegionResetEngine resetEngine, GameScheduler scheduler) {
+        this.plugin = Objects.requireNonNull(plugin, "plugin cannot be null");
+        this.configManager = Objects.requireNonNull(configManager, "configManager cannot be null");
+        this.dataManager = Objects.requireNonNull(dataManager, "dataManager cannot be null");
+        this.eventRouter = Objects.requireNonNull(eventRouter, "eventRouter cannot be null");
+        this.inventoryStash = Objects.requireNonNull(inventoryStash, "inventoryStash cannot be null");
+        this.journal = Objects.requireNonNull(journal, "journal cannot be null");
+        this.resetEngine = Objects.requireNonNull(resetEngine, "resetEngine cannot be null");
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler cannot be null");
+        this.lobbyLocation = Optional
+                .ofNullable(Bukkit.getWorld(plugin.getConfig().getString("main_world", "world")))
+                .map(World::getSpawnLocation)
+                .orElseThrow(() -> new IllegalStateException("Main world not found"));
+        FileConfiguration config = configManager.getGameConfig("spleef");
+        this.fallCheckIntervalTicks = Math.max(1L, config.getLong("fall_check_interval_ticks", 4L));
+        loadArenas(config);
+    }
+
+    /**
+     * Loads the arenas section of spleef.yml.
+     *
+     * @param config The spleef.yml configuration.
+     */
+    private void loadArenas(FileConfiguration config) {
+        ConfigurationSection section = config.getConfigurationSection("arenas");
+        if (section == null) {
+            return;
+        }
+        for (String name : section.getKeys(false)) {
+            ConfigurationSection arenaSection = section.getConfigurationSection(name);
+            if (arenaSection == null) {
+                continue;
+            }
+            Material floorMaterial = Material.matchMaterial(arenaSection.getString("floor_material", "SNOW_BLOCK"));
+            if (floorMaterial == null || !floorMaterial.isBlock()) {
+                plugin.getLogger().warning("Spleef arena " + name + " has an invalid floor_material, skipping it.");
+                continue;
+            }
+            int[] corners = new int[] { arenaSection.getInt("min.x"), arenaSection.getInt("min.y"),
+                    arenaSection.getInt("min.z"), arenaSection.getInt("max.x"), arenaSection.getInt("max.y"),
+                    arenaSection.getInt("max.z") };
+            double eliminationY = arenaSection.getDouble("elimination_y", Math.min(corners[1], corners[4]) - 1);
+            SpleefArena arena = new SpleefArena(this, name, arenaSection.getString("world", "world"), corners,
+                    eliminationY, floorMaterial);
+            Path snapshotFile = getSnapshotFile(name);
+            try {
+                RegionSnapshot snapshot = RegionSnapshot.load(snapshotFile);
+                if (snapshot == null) {
+                    plugin.getLogger().warning("Spleef arena " + name + " has no floor snapshot yet, run /minigame setup spleef " + name + " again.");
+                } else if (arena.setSnapshot(snapshot) < 0) {
+                    plugin.getLogger().warning("The floor snapshot of Spleef arena " + name + " does not match its corners, run /minigame setup spleef " + name + " again.");
+                }
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to load the floor snapshot of Spleef arena " + name, e);
+            }
+            arenas.put(name.toLowerCase(), arena);
+        }
+    }
+
+    /**
+     * Defines an arena, or redefines an existing one, and captures its floor.
+     * The floor is every block of the floor material between the two corners.
+     * The capture is spread over several ticks; the sender is told when the
+     * arena is saved. No round can start in the arena until then.
+     *
+     * @param sender    The sender of the command.
+     * @param name      The name of the arena.
+     * @param worldName The name of the world the arena is in.
+     * @param corners   The two opposite corners of the floor as x1, y1, z1, x2, y2, z2.
+     */
+    public void setupArena(CommandSender sender, String name, String worldName, int[] corners) {
+        World world = Bukkit.getWorld(worldName);
+        if (world == null) {
+            sender.sendMessage("World " + worldName + " does not exist.");
+            return;
+        }
+        String key = name.toLowerCase();
+        SpleefArena existing = arenas.get(key);
+        if (existing != null && existing.getState() != GameState.WAITING) {
+            sender.sendMessage("Spleef arena " + name + " is in use.");
+            return;
+        }
+        if (!arenasBeingSetUp.add(key)) {
+            sender.sendMessage("Spleef arena " + name + " is already being set up.");
+            return;
+        }
+
+        FileConfiguration config = configManager.getGameConfig("spleef");
+        String path = "arenas." + name;
+        Material configuredMaterial = Material.matchMaterial(config.getString(path + ".floor_material", "SNOW_BLOCK"));
+        Material floorMaterial = configuredMaterial != null ? configuredMaterial : Material.SNOW_BLOCK;
+        int minY = Math.min(corners[1], corners[4]);
+        double eliminationY = config.getDouble(path + ".elimination_y", minY - 1);
+        SpleefArena arena = new SpleefArena(this, name, worldName, corners, eliminationY, floorMaterial);
+        sender.sendMessage("Capturing the floor of Spleef arena " + name + "...");
+        resetEngine.capture(world, corners[0], corners[1], corners[2], corners[3], corners[4], corners[5])
+                .whenComplete((snapshot, error) -> {
+                    if (error != null) {
+                        arenasBeingSetUp.remove(key);
+                        sender.sendMessage("Failed to capture the floor of Spleef arena " + name + ".");
+                        plugin.getLogger().log(Level.SEVERE, "Failed to capture the floor of Spleef arena " + name, error);
+                        return;
+                    }
+                    int breakable = arena.setSnapshot(snapshot);
+                    if (breakable < 0) {
+                        arenasBeingSetUp.remove(key);
+                        sender.sendMessage("The corners of Spleef arena " + name + " are outside the world's height.");
+                        return;
+                    }
+                    if (breakable == 0) {
+                        arenasBeingSetUp.remove(key);
+                        sender.sendMessage("There are no " + floorMaterial.name().toLowerCase() + " blocks between the corners.");
+                        return;
+                    }
+                    saveFloorSnapshot(name, snapshot).whenComplete((saved, saveError) -> {
+                        arenasBeingSetUp.remove(key);
+                        if (saveError != null) {
+                            sender.sendMessage("Failed to save the floor of Spleef arena " + name + ".");
+                            plugin.getLogger().log(Level.SEVERE, "Failed to save the floor snapshot of Spleef arena "
+                                    + name, saveError);
+                            return;
+                        }
+                        saveArena(name, worldName, corners, floorMaterial, eliminationY);
+                        arenas.put(key, arena);
+                        sender.sendMessage("Spleef arena " + name + " saved with " + breakable + " floor blocks.");
+                    });
+                });
+    }
+
+    /**
+     * Writes an arena's floor snapshot to the plugin folder in the background.
+     *
+     * @param name     The name of the arena.
+     * @param snapshot The snapshot to write.
+     * @return A future completed on the main thread once the snapshot has been written.
+     */
+    private CompletableFuture<Void> saveFloorSnapshot(String name, RegionSnapshot snapshot) {
+        CompletableFuture<Void> saved = new CompletableFuture<>();
+        Path file = getSnapshotFile(name);
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                IOException failure = null;
+                try {
+                    snapshot.save(file);
+                } catch (IOException e) {
+                    failure = e;
+                }
+                IOException error = failure;
+                plugin.getServer().getScheduler().runTask(plugin, () -> {
+                    if (error == null) {
+                        saved.complete(null);
+                    } else {
+                        saved.completeExceptionally(error);
+                    }
+                });
+            }
+        }.runTaskAsynchronously(plugin);
+        return saved;
+    }
+
+    /**
+     * Writes an arena's definition to spleef.yml.
+     *
+     * @param name          The name of the arena.
+     * @param worldName     The name of the world the arena is in.
+     * @param corners       The two opposite corners of the floor as x1, y1, z1, x2, y2, z2.
+     * @param floorMaterial The material of the breakable floor blocks.
+     * @param eliminationY  The height below which players are out.
+     */
+    private void saveArena(String name, String worldName, int[] corners, Material floorMaterial, double eliminationY) {
+        FileConfiguration config = configManager.getGameConfig("spleef");
+        String path = "arenas." + name;
+        config.set(path + ".world", worldName);
+        config.set(path + ".min.x", Math.min(corners[0], corners[3]));
+        config.set(path + ".min.y", Math.min(corners[1], corners[4]));
+        config.set(path + ".min.z", Math.min(corners[2], corners[5]));
+        config.set(path + ".max.x", Math.max(corners[0], corners[3]));
+        config.set(path + ".max.y", Math.max(corners[1], corners[4]));
+        config.set(path + ".max.z", Math.max(corners[2], corners[5]));
+        config.set(path + ".floor_material", floorMaterial.name());
+        config.set(path + ".elimination_y", eliminationY);
+        configManager.saveGameConfig("spleef");
+    }
+
+    /**
+     * Gets the name of the game.
+     *
+     * @return "spleef".
+     */
+    @Override
+    public String getName() {
+        return "spleef";
+    }
+
+    /**
+     * Spleef rounds are played on an arena.
+     *
+     * @return "arena".
+     */
+    @Override
+    public String getTargetDescription() {
+        return "arena";
+    }
+
+    /**
+     * Checks if an arena exists.
+     *
+     * @param target The name of the arena.
+     * @return True if the arena has been set up.
+     */
+    @Override
+    public boolean isValidTarget(String target) {
+        return arenas.containsKey(target.toLowerCase());
+    }
+
+    /**
+     * Starts a round in an arena.
+     *
+     * @param sender       The sender to report to.
+     * @param arenaName    The name of the arena.
+     * @param validPlayers The players taking part, online and in no game.
+     * @return True if the round was started.
+     */
+    @Override
+    public boolean startMatch(CommandSender sender, String arenaName, List<Player> validPlayers) {
+        SpleefArena arena = arenas.get(arenaName.toLowerCase());
+        if (arena == null) {
+            sender.sendMessage("Spleef arena " + arenaName + " does not exist.");
+            return false;
+        }
+        if (arena.getState() != GameState.WAITING) {
+            sender.sendMessage("Spleef arena " + arena.getName() + " is in use.");
+            return false;
+        }
+        if (arenasBeingSetUp.contains(arenaName.toLowerCase())) {
+            sender.sendMessage("Spleef arena " + arena.getName() + " is being set up.");
+            return false;
+        }
+        if (!arena.hasSnapshot() || Bukkit.getWorld(arena.getWorldName()) == null) {
+            sender.sendMessage("Spleef arena " + arena.getName() + " is not set up.");
+            return false;
+        }
+        if (validPlayers.size() < 2) {
+            sender.sendMessage("At least two players are required to start Spleef.");
+            return false;
+        }
+
+        journal.gameStarted("spleef", arena.getJournalKey(), validPlayers);
+        for (Player player : validPlayers) {
+            playerArenas.put(player.getUniqueId(), arena);
+            eventRouter.bind(player.getUniqueId(), this);
+        }
+        int[] bounds = arena.getColumnBounds();
+        eventRouter.bindRegion(arena.getWorldName(), bounds[0], bounds[1], bounds[2], bounds[3], this);
+        arena.start(validPlayers, sender);
+        return true;
+    }
+
+    /**
+     * Releases the players of a finished round. Called by the arena once it has
+     * restored its players, before it starts rebuilding the floor.
+     *
+     * @param arena The arena whose round has ended.
+     */
+    void endRound(SpleefArena arena) {
+        for (Player player : arena.getParticipants()) {
+            playerArenas.remove(player.getUniqueId(), arena);
+            if (player.isDead()) {
+                pendingLobbyRespawns.add(player.getUniqueId());
+            } else {
+                eventRouter.unbind(player.getUniqueId(), this);
+            }
+        }
+        journal.gameStopped(arena.getJournalKey());
+    }
+
+    /**
+     * Releases an arena's region once its floor has been rebuilt. Called by the
+     * arena when it accepts new rounds again.
+     *
+     * @param arena The arena whose floor is complete.
+     */
+    void floorRestored(SpleefArena arena) {
+        eventRouter.unbindRegions(arena.getWorldName(), this);
+    }
+
+    /**
+     * Rebuilds the floor of an arena whose round was interrupted by a crash.
+     *
+     * @param game The interrupted round found in the game journal.
+     */
+    @Override
+    public void recoverInterruptedGame(GameJournal.InterruptedGame game) {
+        String key = game.getWorldName();
+        for (SpleefArena arena : arenas.values()) {
+            if (arena.getJournalKey().equals(key)) {
+                plugin.getLogger().info("Rebuilding the floor of Spleef arena " + arena.getName() + ".");
+                int[] bounds = arena.getColumnBounds();
+                eventRouter.bindRegion(arena.getWorldName(), bounds[0], bounds[1], bounds[2], bounds[3], this);
+                arena.restoreFloor(true);
+                return;
+            }
+        }
+        plugin.getLogger().warning("Interrupted Spleef round " + key + " belongs to an arena that no longer exists.");
+    }
+
+    /**
+     * Stops every running round.
+     *
+     * @param sender The sender of the command.
+     */
+    public void stop(CommandSender sender) {
+        if (playerArenas.isEmpty()) {
+            sender.sendMessage("No Spleef round is currently running.");
+            return;
+        }
+        stopAll();
+        sender.sendMessage("Spleef has been stopped.");
+    }
+
+    /**
+     * Stops every running round.
+     */
+    @Override
+    public void stopAll() {
+        for (SpleefArena arena : arenas.values()) {
+            arena.stop();
+        }
+    }
+
+    /**
+     * Stops every running round. The floors are queued with the reset engine,
+     * which rebuilds them at once when it shuts down.
+     * Called when the plugin is disabled.
+     */
+    @Override
+    public void shutdown() {
+        stopAll();
+    }
+
+    /**
+     * Gets the names of the defined arenas.
+     *
+     * @return An unmodifiable view of the arena names.
+     */
+    public Set<String> getArenaNames() {
+        return Collections.unmodifiableSet(arenas.keySet());
+    }
+
+    /**
+     * Gets every arena, whether a round is running on it or not.
+     *
+     * @return An unmodifiable view of the arenas.
+     */
+    @Override
+    public Collection<SpleefArena> getMatches() {
+        return Collections.unmodifiableCollection(arenas.values());
+    }
+
+    /**
+     * Gets the plugin instance.
+     *
+     * @return The JavaPlugin instance.
+     */
+    JavaPlugin getPlugin() {
+        return plugin;
+    }
+
+    /**
+     * Gets the stash holding the players' items while they are in a round.
+     *
+     * @return The InventoryStash instance.
+     */
+    InventoryStash getInventoryStash() {
+        return inventoryStash;
+    }
+
+    /**
+     * Gets the journal recording the rounds for crash recovery.
+     *
+     * @return The GameJournal instance.
+     */
+    GameJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Gets the location players are sent to when they leave a round.
+     *
+     * @return The main world spawn location.
+     */
+    Location getLobbyLocation() {
+        return lobbyLocation;
+    }
+
+    /**
+     * Gets the scheduler ticking the arenas.
+     *
+     * @return The GameScheduler instance.
+     */
+    GameScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Gets the number of ticks between two checks for fallen players.
+     *
+     * @return The interval in ticks.
+     */
+    long getFallCheckIntervalTicks() {
+        return fallCheckIntervalTicks;
+    }
+
+    /**
+     * Gets the engine capturing and rebuilding the floors.
+     *
+     * @return The RegionResetEngine instance.
+     */
+    RegionResetEngine getResetEngine() {
+        return resetEngine;
+    }
+
+    private Path getSnapshotFile(String arenaName) {
+        return plugin.getDataFolder().toPath().resolve(SNAPSHOT_DIRECTORY).resolve(arenaName + ".region");
+    }
+
+    /**
+     * Saves the player's stats to the data manager.
+     *
+     * @param player The player whose stats are to be saved.
+     * @param won    Whether the player won the round.
+     */
+    void savePlayerStats(Player player, boolean won) {
+        Map<String, Integer> stats = dataManager.getPlayerStats(player, "spleef");
+        int wins = stats.get("wins");
+        int losses = stats.get("losses");
+        if (won) {
+            wins++;
+        } else {
+            losses++;
+        }
+        dataManager.savePlayerStats(player, "spleef", wins, losses);
+        journal.resultRecorded(new StatsEntry(player.getUniqueId(), player.getName(), "spleef", wins, losses));
+    }
+
+    /**
+     * Handles block break events.
+     * Breaks by players in a round are checked against their arena's floor.
+     * Breaks inside an arena by anyone else are cancelled.
+     *
+     * @param event The BlockBreakEvent.
+     */
+    @Override
+    public void handleBlockBreak(BlockBreakEvent event) {
+        SpleefArena arena = playerArenas.get(event.getPlayer().getUniqueId());
+        if (arena != null) {
+            arena.handleBlockBreak(event);
+        } else {
+            event.setCancelled(true);
+        }
+    }
+
+    /**
+     * Handles player death events.
+     *
+     * @param event The PlayerDeathEvent.
+     */
+    @Override
+    public void handlePlayerDeath(PlayerDeathEvent event) {
+        SpleefArena arena = playerArenas.get(event.getEntity().getUniqueId());
+        if (arena != null) {
+            arena.handlePlayerDeath(event);
+        }
+    }
+
+    /**
+     * Handles player respawn events.
+     * Players whose round ended while they were dead respawn in the lobby.
+     *
+     * @param event The PlayerRespawnEvent.
+     */
+    @Override
+    public void handlePlayerRespawn(PlayerRespawnEvent event) {
+        Player player = event.getPlayer();
+        SpleefArena arena = playerArenas.get(player.getUniqueId());
+        if (arena != null) {
+            arena.handlePlayerRespawn(event);
+        } else if (pendingLobbyRespawns.remove(player.getUniqueId())) {
+            event.setRespawnLocation(lobbyLocation);
+            eventRouter.unbind(player.getUniqueId(), this);
+            inventoryStash.restoreAfterRespawn(player);
+        }
+    }
+
+    /**
+     * Handles player disconnect events.
+     *
+     * @param player The player who disconnected.
+     */
+    @Override
+    public void handlePlayerDisconnect(Player player) {
+        eventRouter.unbind(player.getUniqueId(), this);
+        pendingLobbyRespawns.remove(player.getUniqueId());
+        SpleefArena arena = playerArenas.remove(player.getUniqueId());
+        if (arena != null) {
+            arena.handlePlayerDisconnect(player);
+        }
     }
 }
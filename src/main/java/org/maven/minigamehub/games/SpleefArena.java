@@ -0,0 +1,465 @@
+package org.maven.minigamehub.games;
+
+import org.bukkit.*;
+import org.bukkit.block.Block;
+import org.bukkit.command.CommandSender;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.inventory.ItemStack;
+import org.maven.minigamehub.world.RegionResetEngine;
+import org.maven.minigamehub.world.RegionSnapshot;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
+/**
+ * A Spleef arena and the state of the match played on it.
+ * The floor is a box of blocks captured in a {@link RegionSnapshot}, which is
+ * also stored on disk so the floor can be rebuilt after a crash. Which of its
+ * positions may be broken is kept in a bitset indexed by position, so every
+ * block break costs one bounds check and one bit lookup. While a round runs the
+ * floor is tracked by the {@link RegionResetEngine}, which puts back only the
+ * broken blocks afterwards. An arena goes through the game states once per
+ * round and returns to WAITING once its floor has been rebuilt.
+ */
+public class SpleefArena extends GameMatch {
+    private static final long GAME_START_DELAY = 60L; // 3 seconds delay (20 ticks per second)
+    private static final String BROADCAST_PREFIX = ChatColor.AQUA + "Spleef: " + ChatColor.RESET;
+
+    private final Spleef spleef;
+    private final String name;
+    private final String worldName;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int width;
+    private final int height;
+    private final int depth;
+    private final double eliminationY;
+    private final Material floorMaterial;
+    private RegionSnapshot snapshot;
+    private BitSet breakable = new BitSet();
+    private RegionResetEngine.TrackedRegion region;
+    private final Set<Player> participants = new LinkedHashSet<>();
+    private final Set<Player> alivePlayers = new LinkedHashSet<>();
+    private GameClock.Timeout startDelay;
+
+    /**
+     * Constructor for the SpleefArena class.
+     *
+     * @param spleef        The Spleef manager owning this arena.
+     * @param name          The name of the arena.
+     * @param worldName     The name of the world the arena is in.
+     * @param corners       The two opposite corners of the floor as x1, y1, z1, x2, y2, z2.
+     * @param eliminationY  The height below which players are out.
+     * @param floorMaterial The material of the breakable floor blocks.
+     */
+    SpleefArena(Spleef spleef, String name, String worldName, int[] corners, double eliminationY,
+            Material floorMaterial) {
+        super(spleef.getScheduler());
+        this.spleef = spleef;
+        this.name = name;
+        this.worldName = worldName;
+        this.minX = Math.min(corners[0], corners[3]);
+        this.minY = Math.min(corners[1], corners[4]);
+        this.minZ = Math.min(corners[2], corners[5]);
+        this.width = Math.abs(corners[3] - corners[0]) + 1;
+        this.height = Math.abs(corners[4] - corners[1]) + 1;
+        this.depth = Math.abs(corners[5] - corners[2]) + 1;
+        this.eliminationY = eliminationY;
+        this.floorMaterial = floorMaterial;
+    }
+
+    /**
+     * Gets the name of the arena.
+     *
+     * @return The arena name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the name of the world the arena is in.
+     *
+     * @return The world name.
+     */
+    public String getWorldName() {
+        return worldName;
+    }
+
+    /**
+     * Gets the key the arena's rounds are recorded under in the game journal.
+     * Arenas are played in shared worlds, so the key names the arena instead.
+     *
+     * @return The journal key.
+     */
+    String getJournalKey() {
+        return "spleef/" + name;
+    }
+
+    /**
+     * Checks if the floor snapshot has been captured or loaded.
+     *
+     * @return True if the floor can be restored.
+     */
+    boolean hasSnapshot() {
+        return snapshot != null;
+    }
+
+    /**
+     * Gets the players who started the current round.
+     *
+     * @return An unmodifiable view of the participants.
+     */
+    Set<Player> getParticipants() {
+        return Collections.unmodifiableSet(participants);
+    }
+
+    /**
+     * Gets the corners of the floor as x1, y1, z1, x2, y2 and z2 block coordinates.
+     *
+     * @return The corners of the floor.
+     */
+    int[] getCorners() {
+        return new int[] { minX, minY, minZ, minX + width - 1, minY + height - 1, minZ + depth - 1 };
+    }
+
+    /**
+     * Gets the corners of the floor as minX, minZ, maxX and maxZ block coordinates.
+     *
+     * @return The floor's bounds on the x and z axes.
+     */
+    int[] getColumnBounds() {
+        return new int[] { minX, minZ, minX + width - 1, minZ + depth - 1 };
+    }
+
+    /**
+     * Sets the snapshot the floor is restored to after every round and derives
+     * the breakable positions from it.
+     *
+     * @param snapshot The snapshot of the floor's box.
+     * @return The number of breakable positions, or -1 if the snapshot does not
+     *         cover exactly the floor's box.
+     */
+    int setSnapshot(RegionSnapshot snapshot) {
+        if (snapshot.getMinX() != minX || snapshot.getMinY() != minY || snapshot.getMinZ() != minZ
+                || snapshot.getMaxX() != minX + width - 1 || snapshot.getMaxY() != minY + height - 1
+                || snapshot.getMaxZ() != minZ + depth - 1) {
+            return -1;
+        }
+        this.snapshot = snapshot;
+        this.breakable = snapshot.positionsMatching(data -> data.getMaterial() == floorMaterial);
+        return breakable.cardinality();
+    }
+
+    /**
+     * Starts a round. Stashes the players' items, hands out shovels and spreads
+     * the players over the floor. Breaking is allowed after a short delay,
+     * registered with the shared game clock.
+     *
+     * @param players The players taking part.
+     * @param sender  The sender who started the round.
+     */
+    void start(List<Player> players, CommandSender sender) {
+        World world = Bukkit.getWorld(worldName);
+        participants.addAll(players);
+        alivePlayers.addAll(players);
+        transition(GameState.STARTING);
+        startDelay = getScheduler().schedule(GAME_START_DELAY, this::finishStartDelay);
+        region = spleef.getResetEngine().track(world, snapshot);
+
+        List<Location> spawns = getSpawnLocations(world, players.size());
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            spleef.getInventoryStash().stashAndClear(player);
+            player.setGameMode(GameMode.SURVIVAL);
+            player.setFoodLevel(20);
+            player.getInventory().addItem(createShovel());
+            player.teleport(spawns.get(i));
+        }
+        broadcast(BROADCAST_PREFIX + "Round starting on " + name + " in 3 seconds!");
+        sender.sendMessage("Spleef is starting on " + name + ".");
+    }
+
+    /**
+     * Gets the number of ticks between two fall checks.
+     *
+     * @return The fall check interval from spleef.yml.
+     */
+    @Override
+    protected long getTickInterval() {
+        return spleef.getFallCheckIntervalTicks();
+    }
+
+    /**
+     * Lets the players break the floor once the start delay is over.
+     */
+    private void finishStartDelay() {
+        startDelay = null;
+        if (getState() == GameState.STARTING) {
+            transition(GameState.RUNNING);
+            broadcast(BROADCAST_PREFIX + "Go!");
+        }
+    }
+
+    /**
+     * Checks for fallen players once the round runs.
+     * Called by the shared game scheduler while the round starts or runs.
+     */
+    @Override
+    protected void tick() {
+        if (getState() == GameState.RUNNING) {
+            checkFalls();
+        }
+    }
+
+    /**
+     * Spreads spawn locations evenly over the breakable positions of the top
+     * layer of the floor.
+     *
+     * @param world The arena's world.
+     * @param count The number of locations.
+     * @return The spawn locations.
+     */
+    private List<Location> getSpawnLocations(World world, int count) {
+        int layerSize = width * depth;
+        int topLayer = height - 1;
+        while (topLayer > 0 && breakable.get(topLayer * layerSize, (topLayer + 1) * layerSize).isEmpty()) {
+            topLayer--;
+        }
+        int from = topLayer * layerSize;
+        int to = from + layerSize;
+        BitSet layer = breakable.get(from, to);
+        int available = layer.cardinality();
+        List<Location> spawns = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int position;
+            if (available == 0) {
+                position = layerSize / 2;
+            } else {
+                // Walks to the n-th breakable position, n spread evenly over the layer
+                int target = (int) ((long) i * available / count);
+                position = layer.nextSetBit(0);
+                for (int skip = 0; skip < target; skip++) {
+                    position = layer.nextSetBit(position + 1);
+                }
+            }
+            int x = position % width;
+            int z = position / width;
+            spawns.add(new Location(world, minX + x + 0.5, minY + topLayer + 1, minZ + z + 0.5));
+        }
+        return spawns;
+    }
+
+    private ItemStack createShovel() {
+        ItemStack shovel = new ItemStack(Material.DIAMOND_SHOVEL);
+        shovel.addUnsafeEnchantment(Enchantment.EFFICIENCY, 5);
+        return shovel;
+    }
+
+    /**
+     * Handles a block break inside the arena. Only breakable floor positions can
+     * be broken, and only by players still in the round while it runs.
+     *
+     * @param event The BlockBreakEvent.
+     */
+    void handleBlockBreak(BlockBreakEvent event) {
+        Block block = event.getBlock();
+        int index = snapshot.indexOf(block.getX(), block.getY(), block.getZ());
+        if (getState() != GameState.RUNNING || index < 0 || !breakable.get(index) || !alivePlayers.contains(event.getPlayer())
+                || !worldName.equals(block.getWorld().getName())) {
+            event.setCancelled(true);
+            return;
+        }
+        // The reset engine marks the position for restoring once the break goes through
+        event.setDropItems(false);
+    }
+
+    /**
+     * Eliminates every player in the round who has fallen below the elimination
+     * height or left the arena's world.
+     */
+    private void checkFalls() {
+        if (getState() != GameState.RUNNING) {
+            return;
+        }
+        List<Player> fallen = null;
+        for (Player player : alivePlayers) {
+            Location location = player.getLocation();
+            if (location.getY() < eliminationY || !worldName.equals(location.getWorld().getName())) {
+                if (fallen == null) {
+                    fallen = new ArrayList<>();
+                }
+                fallen.add(player);
+            }
+        }
+        if (fallen != null) {
+            fallen.forEach(this::eliminate);
+        }
+    }
+
+    /**
+     * Takes a player out of the round and lets them watch the rest of it.
+     *
+     * @param player The player who is out.
+     */
+    private void eliminate(Player player) {
+        if (!alivePlayers.remove(player)) {
+            return;
+        }
+        spleef.getJournal().playerDied(getJournalKey(), player.getUniqueId());
+        spleef.savePlayerStats(player, false);
+        if (player.isOnline() && !player.isDead()) {
+            player.setGameMode(GameMode.SPECTATOR);
+            player.teleport(getViewingLocation());
+        }
+        broadcast(BROADCAST_PREFIX + player.getName() + " is out! " + alivePlayers.size() + " players remaining.");
+        checkForWinner();
+    }
+
+    /**
+     * Handles the death of a player in this arena, which counts as falling.
+     *
+     * @param event The PlayerDeathEvent.
+     */
+    void handlePlayerDeath(PlayerDeathEvent event) {
+        event.getDrops().clear();
+        eliminate(event.getEntity());
+    }
+
+    /**
+     * Handles the respawn of a player in this arena. Players respawn above the
+     * floor as spectators while the round runs.
+     *
+     * @param event The PlayerRespawnEvent.
+     */
+    void handlePlayerRespawn(PlayerRespawnEvent event) {
+        if (getState().isActive()) {
+            event.setRespawnLocation(getViewingLocation());
+            event.getPlayer().setGameMode(GameMode.SPECTATOR);
+        } else {
+            event.setRespawnLocation(spleef.getLobbyLocation());
+        }
+    }
+
+    /**
+     * Handles a player in this arena disconnecting. They are out and get their
+     * items back when they join again.
+     *
+     * @param player The player who disconnected.
+     */
+    void handlePlayerDisconnect(Player player) {
+        participants.remove(player);
+        eliminate(player);
+    }
+
+    private Location getViewingLocation() {
+        return new Location(Bukkit.getWorld(worldName), minX + width / 2.0, minY + height + 5, minZ + depth / 2.0);
+    }
+
+    /**
+     * Ends the round if at most one player is left.
+     */
+    private void checkForWinner() {
+        if (alivePlayers.size() > 1) {
+            return;
+        }
+        if (alivePlayers.size() == 1) {
+            broadcast(BROADCAST_PREFIX + alivePlayers.iterator().next().getName() + " has won the round!");
+        }
+        stop();
+    }
+
+    /**
+     * Stops the round, restores the players and starts rebuilding the floor.
+     * The players still in the round get their result here.
+     */
+    void stop() {
+        if (!getState().isActive()) {
+            return;
+        }
+        transition(GameState.ENDING);
+        if (startDelay != null) {
+            startDelay.cancel();
+            startDelay = null;
+        }
+        Player winner = alivePlayers.size() == 1 ? alivePlayers.iterator().next() : null;
+        for (Player player : participants) {
+            if (player.isOnline()) {
+                // Dead players keep their stash until they respawn
+                spleef.getInventoryStash().restore(player);
+                if (!player.isDead()) {
+                    player.teleport(spleef.getLobbyLocation());
+                }
+                player.setGameMode(GameMode.SURVIVAL);
+            }
+            if (alivePlayers.contains(player)) {
+                spleef.savePlayerStats(player, player.equals(winner));
+            }
+        }
+        spleef.endRound(this);
+        participants.clear();
+        alivePlayers.clear();
+        restoreFloor(false);
+    }
+
+    /**
+     * Rebuilds the floor from the snapshot, spread over several ticks by the
+     * reset engine. The arena is in CLEANUP meanwhile and accepts a new round
+     * once the floor is complete.
+     *
+     * @param everything True to compare every position of the floor, for example
+     *                   when the broken ones are not known after a crash.
+     */
+    void restoreFloor(boolean everything) {
+        transition(GameState.CLEANUP);
+        World world = Bukkit.getWorld(worldName);
+        if (world == null || !hasSnapshot()) {
+            spleef.getPlugin().getLogger().warning("Cannot restore the floor of Spleef arena " + name
+                    + ", its world or snapshot is missing.");
+            if (region != null) {
+                spleef.getResetEngine().untrack(region);
+                region = null;
+            }
+            transition(GameState.WAITING);
+            spleef.floorRestored(this);
+            return;
+        }
+        CompletableFuture<Integer> restored;
+        if (everything || region == null) {
+            if (region != null) {
+                spleef.getResetEngine().untrack(region);
+            }
+            restored = spleef.getResetEngine().resetAll(world, snapshot);
+        } else {
+            restored = spleef.getResetEngine().reset(region);
+        }
+        region = null;
+        restored.whenComplete((blocks, error) -> {
+            if (error != null) {
+                spleef.getPlugin().getLogger().log(Level.SEVERE, "Failed to restore the floor of Spleef arena " + name,
+                        error);
+            }
+            transition(GameState.WAITING);
+            spleef.floorRestored(this);
+        });
+    }
+
+    /**
+     * Sends a message to every player in the round.
+     *
+     * @param message The message to send.
+     */
+    private void broadcast(String message) {
+        for (Player player : participants) {
+            if (player.isOnline()) {
+                player.sendMessage(message);
+            }
+        }
+    }
+}
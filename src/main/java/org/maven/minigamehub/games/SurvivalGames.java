@@ -4,84 +4,106 @@ import com.onarandombox.MultiverseCore.api.MVWorldManager;
 import com.onarandombox.MultiverseCore.api.MultiverseWorld;
 import org.bukkit.*;
 import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
-import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerRespawnEvent;
-import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.potion.PotionEffect;
-import org.bukkit.potion.PotionEffectType;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.maven.minigamehub.config.ConfigManager;
-
+import org.maven.minigamehub.config.GameJournal;
+import org.maven.minigamehub.config.InventoryStash;
+import org.maven.minigamehub.config.SpawnPointRegistry;
+import org.maven.minigamehub.listeners.GameEventRouter;
+import org.maven.minigamehub.world.RegionResetEngine;
+import org.maven.minigamehub.world.RegionSnapshot;
+import org.maven.minigamehub.world.TeleportScheduler;
+import org.maven.minigamehub.world.TemplateCloner;
+import org.maven.minigamehub.world.WorldManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
-import java.util.stream.Collectors;
 
 /**
- * Class representing the SurvivalGames game.
- * Implements the Listener interface to handle various game events.
+ * Manager for SurvivalGames matches.
+ * Runs any number of {@link SurvivalGamesArena}s side by side and maps each
+ * player to their arena so event handlers can find it in constant time.
+ * Player events arrive through the {@link GameEventRouter}; the creator mode
+ * listener is only registered while creator mode is enabled.
+ * With reset_in_place enabled, a template with bounds is played directly and
+ * its changed blocks are put back by the {@link RegionResetEngine} afterwards,
+ * one match per template at a time, instead of cloning it for every match.
  */
-public class SurvivalGames implements Listener {
-    private static final long GAME_START_DELAY = 200L; // 10 seconds delay (20 ticks per second)
-    private static final long SLOWNESS_EFFECT_DURATION = 200L;
-    private static final PotionEffectType SLOWNESS_EFFECT_TYPE = PotionEffectType.SLOWNESS;
-    private static final int SLOWNESS_EFFECT_AMPLIFIER = 255;
+public class SurvivalGames implements MiniGame {
+    private static final double MAX_BOUNDED_BORDER_SIZE = 100000;
+    private static final String REGION_SNAPSHOT_DIRECTORY = "templates";
+    private static final String IN_PLACE_JOURNAL_PREFIX = "survivalgames/";
 
     private final JavaPlugin plugin;
     private final MVWorldManager worldManager;
-    private final List<Player> players = new ArrayList<>();
-    private final Map<Player, ItemStack[]> playerInventories = new HashMap<>();
-    private Map<String, List<Location>> worldSpawnPoints = new LinkedHashMap<>();
-    private Map<String, List<Location>> worldRespawnPoints = new LinkedHashMap<>();
-    private List<Player> deadPlayers = new ArrayList<>();
-    private boolean gameRunning = false;
-    private CommandSender currentSender = null;
+    private final WorldManager gameWorlds;
+    private final List<SurvivalGamesArena> arenas = new ArrayList<>();
+    private final Map<UUID, SurvivalGamesArena> playerArenas = new HashMap<>();
+    private final Set<UUID> pendingLobbyRespawns = new HashSet<>();
+    private final GameEventRouter eventRouter;
+    private final InventoryStash inventoryStash;
+    private final GameJournal journal;
+    private final Listener creatorModeListener = new CreatorModeListener();
+    private final SpawnPointRegistry spawnPoints;
+    private final RegionResetEngine resetEngine;
+    private final GameScheduler scheduler;
+    private final Map<String, RegionSnapshot> regionSnapshots = new HashMap<>();
+    private final Set<String> busyTemplates = new HashSet<>();
+    private int nextArenaId;
     private boolean creatorModeEnabled = false;
     private final ConfigManager configManager;
-    private String currentGameWorld = null;
 
     /**
      * Constructor for the SurvivalGames class.
      *
-     * @param plugin        The JavaPlugin instance.
-     * @param worldManager  The MVWorldManager instance.
-     * @param configManager The ConfigManager instance.
+     * @param plugin         The JavaPlugin instance.
+     * @param worldManager   The MVWorldManager instance.
+     * @param gameWorlds     The WorldManager used to delete finished arena worlds.
+     * @param configManager  The ConfigManager instance.
+     * @param eventRouter    The GameEventRouter delivering the players' events.
+     * @param inventoryStash The InventoryStash holding the players' items during a match.
+     * @param journal        The GameJournal recording the matches for crash recovery.
+     * @param resetEngine    The RegionResetEngine resetting templates played in place.
+     * @param scheduler      The GameScheduler ticking the arenas.
      */
-    public SurvivalGames(JavaPlugin plugin, MVWorldManager worldManager, ConfigManager configManager) {
+    public SurvivalGames(JavaPlugin plugin, MVWorldManager worldManager, WorldManager gameWorlds,
+            ConfigManager configManager, GameEventRouter eventRouter, InventoryStash inventoryStash,
+            GameJournal journal, RegionResetEngine resetEngine, GameScheduler scheduler) {
         this.plugin = plugin;
         this.worldManager = worldManager;
+        this.gameWorlds = gameWorlds;
         this.configManager = configManager;
-        Bukkit.getPluginManager().registerEvents(this, plugin);
+        this.eventRouter = eventRouter;
+        this.inventoryStash = inventoryStash;
+        this.journal = journal;
+        this.resetEngine = resetEngine;
+        this.scheduler = scheduler;
+        this.spawnPoints = configManager.getSpawnPoints();
 
         loadConfiguration();
     }
 
     /**
      * Loads the configuration for the SurvivalGames game.
-     * This includes loading spawn points, assigned worlds, and respawn points.
+     * Spawn and respawn points are read from the spawn point registry when a
+     * world is first used.
      */
     private void loadConfiguration() {
-        loadSpawnPoints();
         loadAssignedWorlds();
-        loadRespawnPoints();
-    }
-
-    /**
-     * Loads the spawn points from the configuration.
-     */
-    private void loadSpawnPoints() {
-        if (configManager.getGameConfig("survivalgames").contains("worldSpawnPoints")) {
-            List<?> spawnPointsList = configManager.getGameConfig("survivalgames").getList("worldSpawnPoints");
-            if (spawnPointsList != null && !spawnPointsList.isEmpty()) {
-                worldSpawnPoints = configManager.convertListToSpawnPoints(spawnPointsList);
-            }
-        }
     }
 
     /**
@@ -95,7 +117,6 @@ public class SurvivalGames implements Listener {
                     MultiverseWorld world = worldManager.getMVWorld(worldName);
                     if (world != null) {
                         // Perform any necessary setup for the world
-                        // setupWorld(currentSender, worldName);
                     }
                 }
             } else {
@@ -107,380 +128,621 @@ public class SurvivalGames implements Listener {
     }
 
     /**
-     * Loads the respawn points from the configuration.
+     * Gets the name of the game.
+     *
+     * @return "survivalgames".
      */
-    private void loadRespawnPoints() {
-        if (configManager.getGameConfig("survivalgames").contains("worldRespawnPoints")) {
-            List<?> respawnPointsList = configManager.getGameConfig("survivalgames").getList("worldRespawnPoints");
-            if (respawnPointsList != null && !respawnPointsList.isEmpty()) {
-                worldRespawnPoints = configManager.convertListToSpawnPoints(respawnPointsList);
-            }
-        }
+    @Override
+    public String getName() {
+        return "survivalgames";
     }
 
     /**
-     * Starts the SurvivalGames game.
+     * Gets what the target of a match is called in usage messages.
      *
-     * @param sender      The sender of the command.
-     * @param worldName   The name of the world where the game will be played.
-     * @param playerNames The list of player names to include in the game.
+     * @return "world", matches are played in a copy of a template world.
      */
-    public void start(CommandSender sender, String worldName, List<String> playerNames) {
-        currentSender = sender;
-        if (isGameRunning()) {
-            sender.sendMessage("The game is already running.");
-            return;
-        }
+    @Override
+    public String getTargetDescription() {
+        return "world";
+    }
 
+    /**
+     * Checks if a world exists and has enough spawn points for a match.
+     *
+     * @param target The name of the template world.
+     * @return True if matches can be played in the world.
+     */
+    @Override
+    public boolean isValidTarget(String target) {
+        return worldManager.getMVWorld(target) != null && getSpawnPointCount(target) >= 2;
+    }
+
+    /**
+     * Gets the most players a match in a template world can hold.
+     *
+     * @param target The name of the template world.
+     * @return The number of spawn points in the world.
+     */
+    @Override
+    public int getCapacity(String target) {
+        return getSpawnPointCount(target);
+    }
+
+    /**
+     * Starts a new SurvivalGames arena.
+     * Any number of arenas can run at the same time, each in its own copy of a
+     * template world. Templates reset in place hold one arena at a time.
+     *
+     * @param sender       The sender to report to.
+     * @param worldName    The name of the template world the game will be played in.
+     * @param validPlayers The players taking part, online and in no game.
+     * @return True if the arena is being prepared, false if it could not be started.
+     */
+    @Override
+    public boolean startMatch(CommandSender sender, String worldName, List<Player> validPlayers) {
         MultiverseWorld originalWorld = worldManager.getMVWorld(worldName);
         if (originalWorld == null) {
             sender.sendMessage("World " + worldName + " does not exist.");
-            return;
+            return false;
         }
 
-        // Create a copy of the world
-        String gameWorldName = worldName + "_game_" + System.currentTimeMillis();
-        if (!worldManager.cloneWorld(worldName, gameWorldName)) {
-            sender.sendMessage("Failed to create a copy of the world.");
-            return;
-        }
-        currentGameWorld = gameWorldName;
-
-        MultiverseWorld gameWorld = worldManager.getMVWorld(gameWorldName);
-        List<Location> spawnPoints = worldSpawnPoints.get(worldName);
-        if (spawnPoints == null || spawnPoints.size() < playerNames.size()) {
+        if (getSpawnPointCount(worldName) < validPlayers.size()) {
             sender.sendMessage("Not enough spawn points set in world " + worldName + ".");
-            return;
+            return false;
         }
 
-        // Update spawn points for the new world
-        List<Location> gameSpawnPoints = spawnPoints.stream()
-                .map(loc -> new Location(gameWorld.getCBWorld(), loc.getX(), loc.getY(), loc.getZ(), loc.getYaw(),
-                        loc.getPitch()))
-                .collect(Collectors.toList());
-
-        List<Player> validPlayers = getValidPlayers(playerNames);
         if (validPlayers.size() < 2) {
             sender.sendMessage("Not enough players to start the game.");
-            return;
+            return false;
         }
 
-        players.addAll(validPlayers);
-        gameRunning = true;
-        sender.sendMessage("Survival games is starting in 10 seconds!");
+        int[] bounds = getArenaBounds(worldName);
+        if (isResetInPlace() && bounds != null) {
+            return startInPlace(sender, worldName, bounds, validPlayers);
+        }
 
-        startGameWithDelay(gameSpawnPoints);
+        // Reserve the players while the world copy is created off the main thread
+        String gameWorldName = worldName + "_game_" + System.currentTimeMillis() + "_" + nextArenaId++;
+        validPlayers.forEach(player -> eventRouter.bind(player.getUniqueId(), this));
+        // Journaled before the copy exists so a crash during the copy still cleans it up
+        journal.gameStarted("survivalgames", gameWorldName, validPlayers);
+        sender.sendMessage("Preparing arena " + gameWorldName + "...");
+        gameWorlds.getTemplateCloner().cloneTemplate(worldName, gameWorldName, getTemplateBounds(worldName))
+                .whenComplete((gameWorld, error) -> {
+                    if (error != null) {
+                        validPlayers.forEach(player -> eventRouter.unbind(player.getUniqueId(), this));
+                        journal.gameStopped(gameWorldName);
+                        sender.sendMessage("Failed to create a copy of the world.");
+                        plugin.getLogger().log(Level.SEVERE, "Failed to clone " + worldName + " into " + gameWorldName, error);
+                        return;
+                    }
+                    startArena(sender, worldName, gameWorld, gameWorldName, null, validPlayers);
+                });
+        return true;
     }
 
     /**
-     * Retrieves a list of valid players from the provided player names.
+     * Gets the number of spawn points set in a template world, which is the
+     * most players a match in it can hold.
      *
-     * @param playerNames The list of player names to validate.
-     * @return A list of valid players.
+     * @param worldName The name of the template world.
+     * @return The number of spawn points.
      */
-    private List<Player> getValidPlayers(List<String> playerNames) {
-        return playerNames.stream()
-                .map(Bukkit::getPlayer)
-                .filter(Objects::nonNull)
-                .filter(Player::isOnline)
-                .peek(this::saveAndClearInventory)
-                .collect(Collectors.toList());
+    public int getSpawnPointCount(String worldName) {
+        return spawnPoints.count(worldName, SpawnPointRegistry.Kind.SPAWN);
     }
 
     /**
-     * Saves the player's inventory and clears it.
+     * Starts an arena in the template world itself. The template's snapshot is
+     * loaded or captured first if this is its first match since the server
+     * started.
      *
-     * @param player The player whose inventory will be saved and cleared.
+     * @param sender    The sender of the command.
+     * @param worldName The name of the template world.
+     * @param bounds    The template's bounds as minX, minZ, maxX and maxZ.
+     * @param players   The players taking part.
+     * @return True if the arena is being prepared, false if the template is not available.
      */
-    private void saveAndClearInventory(Player player) {
-        playerInventories.put(player, player.getInventory().getContents());
-        player.getInventory().clear();
+    private boolean startInPlace(CommandSender sender, String worldName, int[] bounds, List<Player> players) {
+        World world = Bukkit.getWorld(worldName);
+        if (world == null) {
+            sender.sendMessage("World " + worldName + " is not loaded.");
+            return false;
+        }
+        if (!busyTemplates.add(worldName)) {
+            sender.sendMessage("A game is already running in " + worldName + ".");
+            return false;
+        }
+        String journalKey = IN_PLACE_JOURNAL_PREFIX + worldName;
+        players.forEach(player -> eventRouter.bind(player.getUniqueId(), this));
+        journal.gameStarted("survivalgames", journalKey, players);
+        if (!regionSnapshots.containsKey(worldName)) {
+            sender.sendMessage("Preparing the snapshot of " + worldName + "...");
+        }
+        getRegionSnapshot(world, bounds).whenComplete((snapshot, error) -> {
+            if (error != null) {
+                players.forEach(player -> eventRouter.unbind(player.getUniqueId(), this));
+                journal.gameStopped(journalKey);
+                busyTemplates.remove(worldName);
+                sender.sendMessage("Failed to capture a snapshot of " + worldName + ".");
+                plugin.getLogger().log(Level.SEVERE, "Failed to capture the region snapshot of " + worldName, error);
+                return;
+            }
+            startArena(sender, worldName, world, journalKey, resetEngine.track(world, snapshot), players);
+        });
+        return true;
     }
 
     /**
-     * Starts the game with a delay, teleporting players to their spawn points.
+     * Gets the snapshot a template reset in place is restored to. Snapshots are
+     * kept in memory once used, read from the plugin folder on first use, or
+     * captured from the world over its full height if there is no file yet.
      *
-     * @param spawnPoints The list of spawn points to teleport players to.
+     * @param world  The template world.
+     * @param bounds The template's bounds as minX, minZ, maxX and maxZ.
+     * @return A future completed on the main thread with the snapshot.
      */
-    private void startGameWithDelay(List<Location> spawnPoints) {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                teleportPlayersToSpawnPoints(spawnPoints);
+    private CompletableFuture<RegionSnapshot> getRegionSnapshot(World world, int[] bounds) {
+        String worldName = world.getName();
+        RegionSnapshot cached = regionSnapshots.get(worldName);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<RegionSnapshot> result = new CompletableFuture<>();
+        Path file = getRegionSnapshotFile(worldName);
+        scheduler.supplyAsync(() -> {
+            try {
+                return RegionSnapshot.load(file);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Recapturing unreadable region snapshot " + file, e);
+                return null;
+            }
+        }).thenAccept(snapshot -> {
+            if (snapshot != null && matchesBounds(snapshot, world, bounds)) {
+                regionSnapshots.put(worldName, snapshot);
+                result.complete(snapshot);
+                return;
             }
-        }.runTaskLater(plugin, GAME_START_DELAY);
+            resetEngine.capture(world, bounds[0], world.getMinHeight(), bounds[1], bounds[2],
+                    world.getMaxHeight() - 1, bounds[3]).whenComplete((captured, error) -> {
+                        if (error != null) {
+                            result.completeExceptionally(error);
+                            return;
+                        }
+                        regionSnapshots.put(worldName, captured);
+                        saveRegionSnapshot(file, captured);
+                        result.complete(captured);
+                    });
+        });
+        return result;
+    }
+
+    /**
+     * Checks if a snapshot covers a template's bounds over the world's full height.
+     *
+     * @param snapshot The snapshot to check.
+     * @param world    The template world.
+     * @param bounds   The template's bounds as minX, minZ, maxX and maxZ.
+     * @return True if the snapshot can be used for the template.
+     */
+    private boolean matchesBounds(RegionSnapshot snapshot, World world, int[] bounds) {
+        return snapshot.getMinX() == bounds[0] && snapshot.getMinZ() == bounds[1] && snapshot.getMaxX() == bounds[2]
+                && snapshot.getMaxZ() == bounds[3] && snapshot.getMinY() == world.getMinHeight()
+                && snapshot.getMaxY() == world.getMaxHeight() - 1;
+    }
 
+    /**
+     * Writes a region snapshot to the plugin folder in the background.
+     *
+     * @param file     The file to write.
+     * @param snapshot The snapshot to write.
+     */
+    private void saveRegionSnapshot(Path file, RegionSnapshot snapshot) {
         new BukkitRunnable() {
+            @Override
             public void run() {
-                removeSlownessEffectFromPlayers();
-                Bukkit.broadcastMessage("Survival Games has started!");
+                try {
+                    snapshot.save(file);
+                } catch (IOException e) {
+                    plugin.getLogger().log(Level.SEVERE, "Failed to save region snapshot " + file, e);
+                }
             }
-        }.runTaskLater(plugin, SLOWNESS_EFFECT_DURATION);
+        }.runTaskAsynchronously(plugin);
+    }
+
+    private Path getRegionSnapshotFile(String worldName) {
+        return plugin.getDataFolder().toPath().resolve(REGION_SNAPSHOT_DIRECTORY).resolve(worldName + ".region");
     }
 
     /**
-     * Teleports players to their respective spawn points.
+     * Checks if templates with bounds are played in place and reset afterwards.
      *
-     * @param spawnPoints The list of spawn points to teleport players to.
+     * @return True if the reset_in_place option is enabled.
+     */
+    private boolean isResetInPlace() {
+        return configManager.getGameConfig("survivalgames").getBoolean("reset_in_place", false);
+    }
+
+    /**
+     * Starts an arena once its world copy has been loaded, or its template's
+     * snapshot is ready when it is played in place.
+     * Players who left in the meantime are dropped; the world is deleted or
+     * released again if too few players remain.
+     *
+     * @param sender      The sender of the command.
+     * @param worldName   The name of the template world.
+     * @param gameWorld   The world the arena is played in.
+     * @param journalKey  The key the match is recorded under in the game journal.
+     * @param resetRegion The region tracking the template's changes, or null for a world copy.
+     * @param players     The players reserved for the arena.
      */
-    private void teleportPlayersToSpawnPoints(List<Location> spawnPoints) {
-        for (int i = 0; i < players.size(); i++) {
-            Player player = players.get(i);
-            if (player != null) {
-                player.teleport(spawnPoints.get(i));
-                player.setGameMode(GameMode.ADVENTURE);
-                player.addPotionEffect(new PotionEffect(SLOWNESS_EFFECT_TYPE, 1000000,
-                        SLOWNESS_EFFECT_AMPLIFIER, false, false));
-                player.sendMessage("Survival games has started!");
-                // Give initial items, etc.
+    private void startArena(CommandSender sender, String worldName, World gameWorld, String journalKey,
+            RegionResetEngine.TrackedRegion resetRegion, List<Player> players) {
+        List<Player> remainingPlayers = new ArrayList<>();
+        for (Player player : players) {
+            if (player.isOnline() && eventRouter.getGame(player.getUniqueId()) == this) {
+                remainingPlayers.add(player);
             }
         }
+        if (remainingPlayers.size() < 2) {
+            sender.sendMessage("Not enough players to start the game.");
+            remainingPlayers.forEach(player -> eventRouter.unbind(player.getUniqueId(), this));
+            journal.gameStopped(journalKey);
+            if (resetRegion != null) {
+                // Nothing has been played yet, so there is nothing to put back
+                resetEngine.untrack(resetRegion);
+                busyTemplates.remove(worldName);
+            } else {
+                gameWorlds.deleteWorld(gameWorld.getName());
+            }
+            return;
+        }
+
+        // Points are set in the template and bound to the arena's copy of it
+        SurvivalGamesArena arena = new SurvivalGamesArena(this, worldName, gameWorld.getName(), journalKey,
+                resetRegion, sender, spawnPoints.getLocations(worldName, SpawnPointRegistry.Kind.RESPAWN, gameWorld));
+        arenas.add(arena);
+        remainingPlayers.forEach(player -> playerArenas.put(player.getUniqueId(), arena));
+        // Protects the arena from players who are not part of it, such as staff visiting the world
+        int[] bounds = getArenaBounds(worldName);
+        if (bounds != null) {
+            eventRouter.bindRegion(gameWorld.getName(), bounds[0], bounds[1], bounds[2], bounds[3], this);
+        } else {
+            eventRouter.bindRegion(gameWorld.getName(), Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE,
+                    Integer.MAX_VALUE, this);
+        }
+        arena.start(remainingPlayers, spawnPoints.getLocations(worldName, SpawnPointRegistry.Kind.SPAWN, gameWorld));
     }
 
     /**
-     * Removes the slowness effect from all players.
+     * Recaptures the snapshot arenas of a template world are cloned from, and
+     * drops the snapshot it is reset to when played in place so the next match
+     * captures it again. Needed after the template has been edited.
+     *
+     * @param sender    The sender of the command.
+     * @param worldName The name of the template world.
      */
-    private void removeSlownessEffectFromPlayers() {
-        players.forEach(player -> {
-            if (player != null) {
-                player.removePotionEffect(SLOWNESS_EFFECT_TYPE);
-            }
-        });
+    public void captureSnapshot(CommandSender sender, String worldName) {
+        if (worldManager.getMVWorld(worldName) == null) {
+            sender.sendMessage("World " + worldName + " does not exist.");
+            return;
+        }
+        if (busyTemplates.contains(worldName)) {
+            sender.sendMessage("A game is running in " + worldName + ", try again once it has been reset.");
+            return;
+        }
+        regionSnapshots.remove(worldName);
+        try {
+            Files.deleteIfExists(getRegionSnapshotFile(worldName));
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to delete the region snapshot of " + worldName, e);
+        }
+        sender.sendMessage("Capturing a snapshot of " + worldName + "...");
+        gameWorlds.getTemplateCloner().captureSnapshot(worldName, getTemplateBounds(worldName))
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        sender.sendMessage("Failed to capture a snapshot of " + worldName + ".");
+                        plugin.getLogger().log(Level.SEVERE, "Failed to capture a snapshot of " + worldName, error);
+                    } else {
+                        sender.sendMessage("Snapshot of " + worldName + " captured.");
+                    }
+                });
     }
 
     /**
-     * Stops the SurvivalGames game.
+     * Gets the area of a template world that arenas are copied from.
+     *
+     * @param worldName The name of the template world.
+     * @return The bounds, or null to copy the whole world.
+     */
+    private TemplateCloner.RegionBounds getTemplateBounds(String worldName) {
+        int[] bounds = getArenaBounds(worldName);
+        return bounds == null ? null : TemplateCloner.RegionBounds.ofBlocks(bounds[0], bounds[1], bounds[2], bounds[3]);
+    }
+
+    /**
+     * Gets the area of a template world that arenas are played in.
+     * Uses the templateBounds section of the configuration, falling back to the
+     * template's world border when it has been shrunk from the default.
+     *
+     * @param worldName The name of the template world.
+     * @return The block bounds as minX, minZ, maxX and maxZ, or null if the whole world is used.
+     */
+    private int[] getArenaBounds(String worldName) {
+        ConfigurationSection section = configManager.getGameConfig("survivalgames")
+                .getConfigurationSection("templateBounds." + worldName);
+        if (section != null) {
+            return new int[] { section.getInt("minX"), section.getInt("minZ"), section.getInt("maxX"),
+                    section.getInt("maxZ") };
+        }
+        World world = Bukkit.getWorld(worldName);
+        if (world == null || world.getWorldBorder().getSize() >= MAX_BOUNDED_BORDER_SIZE) {
+            return null;
+        }
+        Location center = world.getWorldBorder().getCenter();
+        int radius = (int) Math.ceil(world.getWorldBorder().getSize() / 2.0);
+        return new int[] { center.getBlockX() - radius, center.getBlockZ() - radius, center.getBlockX() + radius,
+                center.getBlockZ() + radius };
+    }
+
+    /**
+     * Stops every running arena.
      *
      * @param sender The sender of the command.
      */
     public void stop(CommandSender sender) {
-        if (!isGameRunning()) {
+        if (arenas.isEmpty()) {
             sender.sendMessage("No game is currently running.");
             return;
         }
-
-        players.forEach(this::restorePlayerState);
-        cleanupGame();
+        stopAll();
         sender.sendMessage("Survival games has been stopped.");
-        saveSpawnPoints();
+    }
 
-        // Delete the game world copy
-        if (currentGameWorld != null) {
-            worldManager.deleteWorld(currentGameWorld);
-            currentGameWorld = null;
+    /**
+     * Stops every running arena.
+     */
+    @Override
+    public void stopAll() {
+        for (SurvivalGamesArena arena : arenas.toArray(new SurvivalGamesArena[0])) {
+            arena.stop();
         }
     }
 
     /**
-     * Restores the player's state, including their inventory.
+     * Removes a finished arena from the registry and deletes its world copy in
+     * the background, or resets the template it was played in over the next
+     * ticks. Called by the arena once it has restored its players.
      *
-     * @param player The player whose state will be restored.
+     * @param arena The arena that has ended.
      */
-    private void restorePlayerState(Player player) {
-        if (player != null) {
-            try {
-                ItemStack[] savedInventory = playerInventories.get(player);
-                if (savedInventory != null) {
-                    player.getInventory().setContents(savedInventory);
-                }
-                player.sendMessage("Survival games has ended!");
-                // Teleport players to a lobby or predefined location
-            } catch (Exception e) {
-                plugin.getLogger().log(Level.WARNING, "Failed to restore inventory for player " + player.getName(), e);
+    void endArena(SurvivalGamesArena arena) {
+        arenas.remove(arena);
+        for (Player player : arena.getParticipants()) {
+            playerArenas.remove(player.getUniqueId(), arena);
+            if (player.isDead()) {
+                pendingLobbyRespawns.add(player.getUniqueId());
+            } else {
+                eventRouter.unbind(player.getUniqueId(), this);
             }
         }
+        RegionResetEngine.TrackedRegion resetRegion = arena.getResetRegion();
+        if (resetRegion == null) {
+            eventRouter.unbindRegions(arena.getGameWorldName(), this);
+            journal.gameStopped(arena.getJournalKey());
+            gameWorlds.deleteWorld(arena.getGameWorldName());
+            return;
+        }
+        // The region stays protected and journaled until the template is back to its snapshot
+        resetEngine.reset(resetRegion).whenComplete((blocks, error) -> {
+            if (error != null) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to reset " + arena.getTemplateWorldName(), error);
+            }
+            eventRouter.unbindRegions(arena.getGameWorldName(), this);
+            journal.gameStopped(arena.getJournalKey());
+            busyTemplates.remove(arena.getTemplateWorldName());
+        });
     }
 
     /**
-     * Cleans up the game state, clearing player lists and inventories.
+     * Cleans up after a match interrupted by a crash. World copies are deleted,
+     * templates played in place are compared against their snapshot and reset.
+     *
+     * @param game The interrupted match found in the game journal.
      */
-    private void cleanupGame() {
-        players.clear();
-        playerInventories.clear();
-        gameRunning = false;
+    @Override
+    public void recoverInterruptedGame(GameJournal.InterruptedGame game) {
+        String key = game.getWorldName();
+        if (!key.startsWith(IN_PLACE_JOURNAL_PREFIX)) {
+            gameWorlds.deleteWorld(key);
+            return;
+        }
+        String worldName = key.substring(IN_PLACE_JOURNAL_PREFIX.length());
+        World world = Bukkit.getWorld(worldName);
+        RegionSnapshot snapshot = null;
+        try {
+            snapshot = RegionSnapshot.load(getRegionSnapshotFile(worldName));
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to load the region snapshot of " + worldName, e);
+        }
+        if (world == null || snapshot == null) {
+            plugin.getLogger().warning("Cannot reset " + worldName + " after an interrupted match, its world or snapshot is missing.");
+            return;
+        }
+        plugin.getLogger().info("Resetting " + worldName + " after an interrupted match.");
+        busyTemplates.add(worldName);
+        regionSnapshots.put(worldName, snapshot);
+        eventRouter.bindRegion(worldName, snapshot.getMinX(), snapshot.getMinZ(), snapshot.getMaxX(),
+                snapshot.getMaxZ(), this);
+        resetEngine.resetAll(world, snapshot).whenComplete((blocks, error) -> {
+            if (error != null) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to reset " + worldName, error);
+            }
+            eventRouter.unbindRegions(worldName, this);
+            busyTemplates.remove(worldName);
+        });
     }
 
     /**
-     * Enters setup mode for the SurvivalGames game in a specific world.
+     * Gets the arena a player is currently in.
      *
-     * @param sender    The sender of the command.
-     * @param worldName The name of the world to set up.
+     * @param player The player to look up.
+     * @return The player's arena, or null if they are not in a game.
      */
-    public void setupWorld(CommandSender sender, String worldName) {
-        setCreatorMode(true);
-        sender.sendMessage("Entered setup mode for Survival Games in world: " + worldName);
+    public SurvivalGamesArena getArena(Player player) {
+        return playerArenas.get(player.getUniqueId());
     }
 
     /**
-     * Handles player interaction events.
-     * If the player is in creator mode and is an operator, sets a spawn point.
+     * Gets all running arenas.
      *
-     * @param event The PlayerInteractEvent.
+     * @return An unmodifiable view of the running arenas.
      */
-    @EventHandler
-    public void onPlayerInteract(PlayerInteractEvent event) {
-        if (!getCreatorMode() || !event.getPlayer().isOp())
-            return;
+    public Collection<SurvivalGamesArena> getArenas() {
+        return Collections.unmodifiableList(arenas);
+    }
 
-        Player player = event.getPlayer();
-        if (player.getInventory().getItemInMainHand().getType() == Material.STICK) {
-            Location location = event.getClickedBlock().getLocation();
-            String worldName = location.getWorld().getName();
-            worldSpawnPoints.computeIfAbsent(worldName, k -> new ArrayList<>()).add(location);
-            player.sendMessage("Spawn point set at " + location);
-            saveSpawnPoints();
-        }
+    /**
+     * Gets the game's current matches.
+     *
+     * @return An unmodifiable view of the running arenas.
+     */
+    @Override
+    public Collection<SurvivalGamesArena> getMatches() {
+        return getArenas();
     }
 
     /**
-     * Handles block break events.
-     * If the player is in the game, cancels the event.
+     * Gets the scheduler ticking the arenas.
      *
-     * @param event The BlockBreakEvent.
+     * @return The GameScheduler instance.
      */
-    @EventHandler
-    public void onBlockBreak(BlockBreakEvent event) {
-        if (players.contains(event.getPlayer())) {
-            event.setCancelled(true);
-        }
+    GameScheduler getScheduler() {
+        return scheduler;
     }
 
     /**
-     * Handles player respawn events.
-     * If the player is in the list of dead players, respawns them.
+     * Gets the plugin instance.
      *
-     * @param event The PlayerRespawnEvent.
+     * @return The JavaPlugin instance.
      */
-    @EventHandler
-    public void onPlayerRespawn(PlayerRespawnEvent event) {
-        Player player = event.getPlayer();
-        if (deadPlayers.remove(player)) {
-            respawnPlayer(player);
-        }
+    JavaPlugin getPlugin() {
+        return plugin;
     }
 
     /**
-     * Handles player death events.
-     * If the player is in the game, sets their game mode to spectator and checks
-     * for a winner.
+     * Gets the stash holding the players' items while they are in a match.
      *
-     * @param event The PlayerDeathEvent.
+     * @return The InventoryStash instance.
      */
-    @EventHandler
-    public void onPlayerDeath(PlayerDeathEvent event) {
-        Player player = event.getEntity();
-        if (isPlayerInGame(player)) {
-            player.setGameMode(GameMode.SPECTATOR);
-            players.remove(player);
-            checkForWinner();
-        }
-        deadPlayers.add(player);
+    InventoryStash getInventoryStash() {
+        return inventoryStash;
     }
 
     /**
-     * Respawns the player at a respawn point if they are in the game.
+     * Gets the journal recording the matches for crash recovery.
      *
-     * @param player The player to respawn.
+     * @return The GameJournal instance.
      */
-    private void respawnPlayer(Player player) {
-        if (isPlayerInGame(player)) {
-            List<Location> respawnPoints = worldRespawnPoints.get(player.getWorld().getName());
-            if (respawnPoints != null && !respawnPoints.isEmpty()) {
-                player.teleport(respawnPoints.get(0));
-            }
-        }
+    GameJournal getJournal() {
+        return journal;
     }
 
     /**
-     * Handles player disconnection.
-     * If the player is in the game, removes them and checks for a winner.
+     * Gets the scheduler that spreads the arenas' teleports over several ticks.
      *
-     * @param player The player who disconnected.
+     * @return The TeleportScheduler instance.
      */
-    public void handlePlayerDisconnect(Player player) {
-        if (isPlayerInGame(player)) {
-            players.remove(player);
-            Bukkit.broadcastMessage(player.getName() + " has disconnected from the game.");
-            restorePlayerState(player);
-            checkForWinner();
-        }
+    TeleportScheduler getTeleportScheduler() {
+        return gameWorlds.getTeleportScheduler();
     }
 
     /**
-     * Handles player quit events.
-     * Calls handlePlayerDisconnect for the player who quit.
+     * Gets the location players are sent to when they leave a game.
      *
-     * @param event The PlayerQuitEvent.
+     * @return The main world spawn location.
      */
-    @EventHandler
-    public void onPlayerQuit(PlayerQuitEvent event) {
-        handlePlayerDisconnect(event.getPlayer());
+    Location getLobbyLocation() {
+        World mainWorld = Bukkit.getWorld(plugin.getConfig().getString("main_world", "world"));
+        return (mainWorld != null ? mainWorld : Bukkit.getWorlds().get(0)).getSpawnLocation();
     }
 
     /**
-     * Checks for a winner in the game.
-     * If there is only one player left, declares them the winner and stops the
-     * game.
-     * If no players are left, announces the end of the game.
+     * Enters setup mode for the SurvivalGames game in a specific world.
+     *
+     * @param sender    The sender of the command.
+     * @param worldName The name of the world to set up.
      */
-    private void checkForWinner() {
-        if (players.size() == 1) {
-            Player winner = players.get(0);
-            if (winner != null) {
-                Bukkit.broadcastMessage(winner.getName() + " has won the Survival Games!");
-                stop(currentSender);
-            }
-        } else if (players.isEmpty()) {
-            Bukkit.broadcastMessage("No players left in the game. The game has ended.");
-            stop(currentSender);
-        }
+    public void setupWorld(CommandSender sender, String worldName) {
+        setCreatorMode(true);
+        sender.sendMessage("Entered setup mode for Survival Games in world: " + worldName);
     }
 
     /**
-     * Checks if a player is in the game.
+     * Handles block break events.
+     * Cancels the event if the player is in a game, or if they are not part of
+     * the game but the block lies inside an arena.
      *
-     * @param player The player to check.
-     * @return True if the player is in the game, false otherwise.
+     * @param event The BlockBreakEvent.
      */
-    private boolean isPlayerInGame(Player player) {
-        return player != null && players.contains(player);
+    @Override
+    public void handleBlockBreak(BlockBreakEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+        if (playerArenas.containsKey(uuid) || eventRouter.getGame(uuid) != this) {
+            event.setCancelled(true);
+        }
     }
 
     /**
-     * Checks if the game is currently running.
+     * Handles player respawn events.
+     * Players in a game respawn inside their arena, players whose game ended
+     * while they were dead respawn in the lobby.
      *
-     * @return True if the game is running, false otherwise.
+     * @param event The PlayerRespawnEvent.
      */
-    private boolean isGameRunning() {
-        return gameRunning;
+    @Override
+    public void handlePlayerRespawn(PlayerRespawnEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+        SurvivalGamesArena arena = playerArenas.get(uuid);
+        if (arena != null) {
+            arena.handlePlayerRespawn(event);
+        } else if (pendingLobbyRespawns.remove(uuid)) {
+            event.setRespawnLocation(getLobbyLocation());
+            eventRouter.unbind(uuid, this);
+            inventoryStash.restoreAfterRespawn(event.getPlayer());
+        }
     }
 
     /**
-     * Saves the spawn points to the configuration.
+     * Handles player death events.
+     * If the player is in a game, their arena turns them into a spectator and
+     * checks for a winner.
+     *
+     * @param event The PlayerDeathEvent.
      */
-    private void saveSpawnPoints() {
-        List<String> spawnPointsList = convertSpawnPointsToList(worldSpawnPoints);
-        configManager.getGameConfig("survivalgames").set("worldSpawnPoints", spawnPointsList);
-        configManager.saveGameConfig("survivalgames");
+    @Override
+    public void handlePlayerDeath(PlayerDeathEvent event) {
+        SurvivalGamesArena arena = playerArenas.get(event.getEntity().getUniqueId());
+        if (arena != null) {
+            arena.handlePlayerDeath(event);
+        }
     }
 
     /**
-     * Converts the spawn points map to a list of strings.
+     * Handles player disconnection.
+     * If the player is in a game, removes them and checks for a winner.
      *
-     * @param spawnPoints The map of spawn points.
-     * @return A list of strings representing the spawn points.
+     * @param player The player who disconnected.
      */
-    private List<String> convertSpawnPointsToList(Map<String, List<Location>> spawnPoints) {
-        List<String> spawnPointsList = new ArrayList<>();
-        for (Map.Entry<String, List<Location>> entry : spawnPoints.entrySet()) {
-            String worldName = entry.getKey();
-            for (Location location : entry.getValue()) {
-                String spawnPoint = String.format("%s,%f,%f,%f", worldName, location.getX(), location.getY(),
-                        location.getZ());
-                spawnPointsList.add(spawnPoint);
-            }
+    @Override
+    public void handlePlayerDisconnect(Player player) {
+        eventRouter.unbind(player.getUniqueId(), this);
+        pendingLobbyRespawns.remove(player.getUniqueId());
+        SurvivalGamesArena arena = playerArenas.remove(player.getUniqueId());
+        if (arena != null) {
+            arena.handlePlayerDisconnect(player);
         }
-        return spawnPointsList;
     }
 
     /**
@@ -489,6 +751,11 @@ public class SurvivalGames implements Listener {
      * @param enable True to enable creator mode, false to disable.
      */
     public void setCreatorMode(boolean enable) {
+        if (enable && !creatorModeEnabled) {
+            Bukkit.getPluginManager().registerEvents(creatorModeListener, plugin);
+        } else if (!enable && creatorModeEnabled) {
+            HandlerList.unregisterAll(creatorModeListener);
+        }
         creatorModeEnabled = enable;
         String status = enable ? "enabled" : "disabled";
         plugin.getLogger().info("Creator mode " + status + " for Survival Games.");
@@ -502,4 +769,32 @@ public class SurvivalGames implements Listener {
     public boolean getCreatorMode() {
         return creatorModeEnabled;
     }
-}
\ No newline at end of file
+
+    /**
+     * Listener for setting spawn points while creator mode is enabled.
+     */
+    private class CreatorModeListener implements Listener {
+
+        /**
+         * Handles player interaction events.
+         * If the player is an operator holding a stick, sets a spawn point.
+         *
+         * @param event The PlayerInteractEvent.
+         */
+        @EventHandler
+        public void onPlayerInteract(PlayerInteractEvent event) {
+            if (!event.getPlayer().isOp() || event.getClickedBlock() == null)
+                return;
+
+            Player player = event.getPlayer();
+            if (player.getInventory().getItemInMainHand().getType() == Material.STICK) {
+                Location location = event.getClickedBlock().getLocation();
+                String worldName = location.getWorld().getName();
+                // Only this world's spawn point file is rewritten
+                spawnPoints.add(worldName, SpawnPointRegistry.Kind.SPAWN, location.getX(), location.getY(),
+                        location.getZ());
+                player.sendMessage("Spawn point set at " + location);
+            }
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package org.maven.minigamehub.games;
+
+import org.bukkit.*;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+import org.maven.minigamehub.world.RegionResetEngine;
+import org.maven.minigamehub.world.SpatialIndex;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
+/**
+ * State of a single SurvivalGames match.
+ * Each arena plays in its own copy of a template world, or in the template
+ * itself when the template is reset in place after the match. Arenas are
+ * created by {@link SurvivalGames}, which also maps players to their arena.
+ * The start delay is a deadline on the shared {@link GameClock}.
+ */
+public class SurvivalGamesArena extends GameMatch {
+    private static final int GAME_START_DELAY_SECONDS = 10;
+    private static final PotionEffectType SLOWNESS_EFFECT_TYPE = PotionEffectType.SLOWNESS;
+    private static final int SLOWNESS_EFFECT_AMPLIFIER = 255;
+    private static final int RESPAWN_INDEX_CELL_SIZE = 32;
+    private static final double RESPAWN_SAFE_RADIUS = 16.0;
+
+    private final SurvivalGames survivalGames;
+    private final String templateWorldName;
+    private final String gameWorldName;
+    private final String journalKey;
+    private final RegionResetEngine.TrackedRegion resetRegion;
+    private final CommandSender sender;
+    private final Set<Player> participants = new LinkedHashSet<>();
+    private final Set<Player> alivePlayers = new LinkedHashSet<>();
+    private final SpatialIndex<Location> respawnPoints = new SpatialIndex<>(RESPAWN_INDEX_CELL_SIZE);
+    private List<Location> spawnPoints;
+    private CompletableFuture<Void> pendingTeleports;
+    private GameClock.Timeout startDelay;
+
+    /**
+     * Constructor for the SurvivalGamesArena class.
+     *
+     * @param survivalGames     The SurvivalGames manager owning this arena.
+     * @param templateWorldName The name of the world the arena was copied from.
+     * @param gameWorldName     The name of the world the match is played in.
+     * @param journalKey        The key the match is recorded under in the game journal.
+     * @param resetRegion       The region tracking the template's changes when it is
+     *                          reset in place, or null if the world is a copy.
+     * @param sender            The sender who started the match.
+     * @param respawnPoints     The respawn points in the arena's world.
+     */
+    SurvivalGamesArena(SurvivalGames survivalGames, String templateWorldName, String gameWorldName,
+            String journalKey, RegionResetEngine.TrackedRegion resetRegion, CommandSender sender,
+            List<Location> respawnPoints) {
+        super(survivalGames.getScheduler());
+        this.survivalGames = survivalGames;
+        this.templateWorldName = templateWorldName;
+        this.gameWorldName = gameWorldName;
+        this.journalKey = journalKey;
+        this.resetRegion = resetRegion;
+        this.sender = sender;
+        for (Location point : respawnPoints) {
+            this.respawnPoints.addPoint(point.getX(), point.getY(), point.getZ(), point);
+        }
+    }
+
+    /**
+     * Gets the name of the world the arena was copied from.
+     *
+     * @return The template world name.
+     */
+    public String getTemplateWorldName() {
+        return templateWorldName;
+    }
+
+    /**
+     * Gets the name of the world the match is played in. This is the template
+     * world itself when it is reset in place.
+     *
+     * @return The game world name.
+     */
+    public String getGameWorldName() {
+        return gameWorldName;
+    }
+
+    /**
+     * Gets the key the match is recorded under in the game journal.
+     *
+     * @return The journal key.
+     */
+    String getJournalKey() {
+        return journalKey;
+    }
+
+    /**
+     * Gets the region tracking the template's changes during the match.
+     *
+     * @return The tracked region, or null if the match is played in a world copy.
+     */
+    RegionResetEngine.TrackedRegion getResetRegion() {
+        return resetRegion;
+    }
+
+    /**
+     * Checks if the match is still running, including its start delay.
+     *
+     * @return True if the match is starting or running, false otherwise.
+     */
+    public boolean isRunning() {
+        return getState().isActive();
+    }
+
+    /**
+     * Gets everyone who took part in the match, alive or not.
+     *
+     * @return An unmodifiable set of the arena's players.
+     */
+    public Set<Player> getParticipants() {
+        return Collections.unmodifiableSet(participants);
+    }
+
+    /**
+     * Starts the match, teleporting players to their spawn points after a delay.
+     *
+     * @param players     The players taking part in the match.
+     * @param spawnPoints The spawn points in the arena's world, at least one per player.
+     */
+    void start(List<Player> players, List<Location> spawnPoints) {
+        transition(GameState.STARTING);
+        for (Player player : players) {
+            survivalGames.getInventoryStash().stashAndClear(player);
+        }
+        participants.addAll(players);
+        alivePlayers.addAll(players);
+        this.spawnPoints = spawnPoints;
+        startDelay = getScheduler().schedule(GAME_START_DELAY_SECONDS * 20L, this::finishStartDelay);
+        sender.sendMessage("Survival games is starting in " + GAME_START_DELAY_SECONDS + " seconds!");
+    }
+
+    /**
+     * Teleports players to their spawn points once the start delay is over.
+     * The match runs once the last player has arrived.
+     */
+    private void finishStartDelay() {
+        startDelay = null;
+        if (getState() != GameState.STARTING) {
+            return;
+        }
+        pendingTeleports = teleportPlayersToSpawnPoints(spawnPoints);
+        pendingTeleports.thenRun(() -> {
+            if (getState() == GameState.STARTING) {
+                transition(GameState.RUNNING);
+                removeSlownessEffectFromPlayers();
+                broadcast("Survival Games has started!");
+            }
+        });
+    }
+
+    /**
+     * Teleports players to their respective spawn points.
+     * Players are slowed before their teleport so nobody can move off their
+     * spawn point while the rest are still being teleported.
+     *
+     * @param spawnPoints The list of spawn points to teleport players to.
+     * @return A future completed once every player has been teleported.
+     */
+    private CompletableFuture<Void> teleportPlayersToSpawnPoints(List<Location> spawnPoints) {
+        Map<Player, Location> destinations = new LinkedHashMap<>();
+        int index = 0;
+        for (Player player : alivePlayers) {
+            destinations.put(player, spawnPoints.get(index++));
+            player.setGameMode(GameMode.ADVENTURE);
+            player.addPotionEffect(new PotionEffect(SLOWNESS_EFFECT_TYPE, 1000000,
+                    SLOWNESS_EFFECT_AMPLIFIER, false, false));
+            player.sendMessage("Survival games has started!");
+            // Give initial items, etc.
+        }
+        return survivalGames.getTeleportScheduler().schedule(destinations, false);
+    }
+
+    /**
+     * Removes the slowness effect from all players.
+     */
+    private void removeSlownessEffectFromPlayers() {
+        alivePlayers.forEach(player -> player.removePotionEffect(SLOWNESS_EFFECT_TYPE));
+    }
+
+    /**
+     * Sends a message to every player in the arena.
+     *
+     * @param message The message to send.
+     */
+    private void broadcast(String message) {
+        for (Player player : participants) {
+            if (player.isOnline()) {
+                player.sendMessage(message);
+            }
+        }
+    }
+
+    /**
+     * Handles the death of a player in this arena.
+     * The player becomes a spectator and the arena checks for a winner.
+     *
+     * @param event The PlayerDeathEvent.
+     */
+    void handlePlayerDeath(PlayerDeathEvent event) {
+        Player player = event.getEntity();
+        survivalGames.getTeleportScheduler().removePlayer(player.getUniqueId());
+        if (alivePlayers.remove(player)) {
+            survivalGames.getJournal().playerDied(journalKey, player.getUniqueId());
+            player.setGameMode(GameMode.SPECTATOR);
+            checkForWinner();
+        }
+    }
+
+    /**
+     * Handles the respawn of a player in this arena.
+     * While the match runs, dead players respawn at the respawn point nearest to
+     * where they died that has no living player close to it, or at the nearest
+     * respawn point if every point has one.
+     *
+     * @param event The PlayerRespawnEvent.
+     */
+    void handlePlayerRespawn(PlayerRespawnEvent event) {
+        Location respawnPoint = isRunning() ? findRespawnPoint(event.getPlayer().getLocation()) : null;
+        event.setRespawnLocation(respawnPoint != null ? respawnPoint : survivalGames.getLobbyLocation());
+    }
+
+    /**
+     * Finds the respawn point for a player who died at a location.
+     *
+     * @param deathLocation The location the player died at.
+     * @return The respawn point, or null if the arena has none.
+     */
+    private Location findRespawnPoint(Location deathLocation) {
+        if (respawnPoints.isEmpty()) {
+            return null;
+        }
+        // Rebuilt per respawn, a few hundred players at most and only read once
+        SpatialIndex<Player> livingPlayers = new SpatialIndex<>(RESPAWN_INDEX_CELL_SIZE);
+        for (Player player : alivePlayers) {
+            Location location = player.getLocation();
+            if (player.isOnline() && gameWorldName.equals(location.getWorld().getName())) {
+                livingPlayers.addPoint(location.getX(), location.getY(), location.getZ(), player);
+            }
+        }
+        double x = deathLocation.getX();
+        double y = deathLocation.getY();
+        double z = deathLocation.getZ();
+        Location safePoint = respawnPoints.nearest(x, y, z,
+                point -> !livingPlayers.anyWithinRadius(point.getX(), point.getY(), point.getZ(),
+                        RESPAWN_SAFE_RADIUS));
+        return safePoint != null ? safePoint : respawnPoints.nearest(x, y, z, null);
+    }
+
+    /**
+     * Handles a player in this arena disconnecting.
+     *
+     * @param player The player who disconnected.
+     */
+    void handlePlayerDisconnect(Player player) {
+        survivalGames.getTeleportScheduler().removePlayer(player.getUniqueId());
+        participants.remove(player);
+        if (alivePlayers.remove(player)) {
+            broadcast(player.getName() + " has disconnected from the game.");
+            restorePlayerState(player);
+            checkForWinner();
+        } else {
+            restorePlayerState(player);
+        }
+    }
+
+    /**
+     * Checks for a winner in the match.
+     * If there is only one player left, declares them the winner and stops the
+     * match. If no players are left, announces the end of the match.
+     */
+    private void checkForWinner() {
+        if (alivePlayers.size() == 1) {
+            Player winner = alivePlayers.iterator().next();
+            broadcast(winner.getName() + " has won the Survival Games!");
+            stop();
+        } else if (alivePlayers.isEmpty()) {
+            broadcast("No players left in the game. The game has ended.");
+            stop();
+        }
+    }
+
+    /**
+     * Stops the match, restores every participant and hands the world back to
+     * the manager for deletion or resetting.
+     */
+    void stop() {
+        if (!isRunning()) {
+            return;
+        }
+        transition(GameState.ENDING);
+        if (startDelay != null) {
+            startDelay.cancel();
+            startDelay = null;
+        }
+        if (pendingTeleports != null) {
+            pendingTeleports.cancel(false);
+        }
+
+        for (Player player : participants) {
+            if (!player.isOnline()) {
+                // Restored from the stash when they join again
+                continue;
+            }
+            // Dead players keep their stash until they respawn
+            restorePlayerState(player);
+            if (!player.isDead()) {
+                player.teleport(survivalGames.getLobbyLocation());
+                player.setGameMode(GameMode.SURVIVAL);
+            }
+        }
+        transition(GameState.CLEANUP);
+        survivalGames.endArena(this);
+        sender.sendMessage("Survival games in " + gameWorldName + " has been stopped.");
+
+        participants.clear();
+        alivePlayers.clear();
+    }
+
+    /**
+     * Restores the player's state, including their inventory, experience,
+     * health and effects from before the match.
+     *
+     * @param player The player whose state will be restored.
+     */
+    private void restorePlayerState(Player player) {
+        try {
+            player.removePotionEffect(SLOWNESS_EFFECT_TYPE);
+            survivalGames.getInventoryStash().restore(player);
+            player.sendMessage("Survival games has ended!");
+        } catch (Exception e) {
+            survivalGames.getPlugin().getLogger().log(Level.WARNING,
+                    "Failed to restore inventory for player " + player.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.maven.minigamehub.games;
+
+import org.bukkit.ChatColor;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides how long each DeathSwap round lasts and when players are warned.
+ * Rounds last a uniformly random number of seconds between minSwapTime and
+ * maxSwapTime from deathswap.yml, or the fixed swap interval if those are not
+ * set. In adaptive mode a round is lengthened while the server is behind, in
+ * proportion to how slow its ticks are, so a swap is not added to a tick that
+ * is already struggling. Warnings are broadcast warningTime seconds before the
+ * swap and then at the usual countdown marks below it.
+ */
+public class SwapIntervalPolicy {
+    private static final String BROADCAST_PREFIX = ChatColor.GOLD + "DeathSwap: " + ChatColor.RESET;
+    private static final int[] COUNTDOWN_MARKS = { 60, 30, 10, 5, 3, 2, 1 };
+    private static final double MILLIS_PER_TICK = 50.0;
+    // Ticks up to 10% slower than normal are not treated as lag
+    private static final double LAG_TOLERANCE = 1.1;
+
+    private final int minSeconds;
+    private final int maxSeconds;
+    private final boolean adaptive;
+    private final double maxStretch;
+    private final int[] warningSeconds;
+    private final String[] warningMessages;
+
+    /**
+     * Constructor for the SwapIntervalPolicy class.
+     *
+     * @param minSeconds     The shortest round in seconds, at least one.
+     * @param maxSeconds     The longest round in seconds before any stretching.
+     * @param warningSeconds The seconds before the swap of the first warning, or zero for none.
+     * @param adaptive       True to lengthen rounds while the server is behind.
+     * @param maxStretch     The most a round may be lengthened by, as a factor.
+     */
+    public SwapIntervalPolicy(int minSeconds, int maxSeconds, int warningSeconds, boolean adaptive,
+            double maxStretch) {
+        this.minSeconds = Math.max(1, minSeconds);
+        this.maxSeconds = Math.max(this.minSeconds, maxSeconds);
+        this.adaptive = adaptive;
+        this.maxStretch = Math.max(1.0, maxStretch);
+        // The first warning comes warningTime seconds before the swap, then the marks below it
+        int[] marks = Arrays.stream(COUNTDOWN_MARKS).filter(mark -> mark < warningSeconds).toArray();
+        this.warningSeconds = new int[warningSeconds > 0 ? marks.length + 1 : 0];
+        if (warningSeconds > 0) {
+            this.warningSeconds[0] = warningSeconds;
+            System.arraycopy(marks, 0, this.warningSeconds, 1, marks.length);
+        }
+        this.warningMessages = new String[this.warningSeconds.length];
+        for (int i = 0; i < warningMessages.length; i++) {
+            int seconds = this.warningSeconds[i];
+            warningMessages[i] = BROADCAST_PREFIX + "Swapping in " + seconds + " second" + (seconds == 1 ? "" : "s") + "!";
+        }
+    }
+
+    /**
+     * Creates a policy from the DeathSwap game config.
+     * Without minSwapTime and maxSwapTime every round lasts the fixed interval.
+     *
+     * @param config               The deathswap.yml configuration.
+     * @param fixedIntervalSeconds The swap interval used when no range is set.
+     * @return The policy.
+     */
+    public static SwapIntervalPolicy fromConfig(ConfigurationSection config, int fixedIntervalSeconds) {
+        boolean ranged = config.contains("minSwapTime") && config.contains("maxSwapTime");
+        return new SwapIntervalPolicy(
+                ranged ? config.getInt("minSwapTime") : fixedIntervalSeconds,
+                ranged ? config.getInt("maxSwapTime") : fixedIntervalSeconds,
+                config.getInt("warningTime", 60),
+                config.getBoolean("adaptiveSwapTime", true),
+                config.getDouble("maxSwapTimeStretch", 2.0));
+    }
+
+    /**
+     * Picks the length of the next round.
+     *
+     * @param averageTickMillis The recent average time between server ticks.
+     * @return The round length in seconds.
+     */
+    public int nextInterval(double averageTickMillis) {
+        int seconds = minSeconds == maxSeconds ? minSeconds
+                : ThreadLocalRandom.current().nextInt(minSeconds, maxSeconds + 1);
+        double lag = averageTickMillis / MILLIS_PER_TICK;
+        if (adaptive && lag > LAG_TOLERANCE) {
+            seconds = (int) Math.ceil(seconds * Math.min(maxStretch, lag));
+        }
+        return seconds;
+    }
+
+    /**
+     * Gets the seconds before the swap at which players are warned, longest first.
+     *
+     * @return The warning times in seconds. Must not be modified.
+     */
+    int[] getWarningSeconds() {
+        return warningSeconds;
+    }
+
+    /**
+     * Gets the message broadcast for a warning.
+     *
+     * @param index The index of the warning in {@link #getWarningSeconds()}.
+     * @return The warning message.
+     */
+    String getWarningMessage(int index) {
+        return warningMessages[index];
+    }
+}
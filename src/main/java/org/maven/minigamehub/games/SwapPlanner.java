@@ -0,0 +1,255 @@
+package org.maven.minigamehub.games;
+
+import org.bukkit.ChatColor;
+import org.bukkit.Location;
+import org.bukkit.Sound;
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Plans DeathSwap swaps ahead of time.
+ * A plan is a derangement of the alive players, worked out over an int array
+ * so nobody is ever sent back to their own spot, together with the message
+ * each player gets once they have arrived. Sessions build the plan for the
+ * next swap at the start of a round and again whenever a player dies or
+ * leaves, so the swap itself only reads the current locations, teleports and
+ * sends the prepared messages.
+ */
+class SwapPlanner {
+    private static final String BROADCAST_PREFIX = ChatColor.GOLD + "DeathSwap: " + ChatColor.RESET;
+
+    /**
+     * The ways players can be matched to the spot they swap into.
+     */
+    enum Mode {
+        /** Players swap spots in pairs; with an odd count the last three rotate. */
+        PAIRWISE,
+        /** All players rotate through one cycle in random order. */
+        CYCLE,
+        /** Any random arrangement in which nobody keeps their spot. */
+        RANDOM;
+
+        /**
+         * Gets a mode by its name in deathswap.yml.
+         *
+         * @param name The name, in any case.
+         * @return The mode, or null if there is no mode with that name.
+         */
+        static Mode fromName(String name) {
+            for (Mode mode : values()) {
+                if (mode.name().equalsIgnoreCase(name)) {
+                    return mode;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Mode mode;
+    private int[] order = new int[0];
+
+    /**
+     * Constructor for the SwapPlanner class.
+     *
+     * @param mode The way players are matched to the spot they swap into.
+     */
+    SwapPlanner(Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Plans a swap of the given players.
+     *
+     * @param players The players to swap, at least two.
+     * @return The plan.
+     * @throws IllegalArgumentException If fewer than two players are given.
+     */
+    Plan plan(Collection<Player> players) {
+        Player[] planned = players.toArray(new Player[0]);
+        int count = planned.length;
+        int[] targets = planTargets(count);
+        String[] messages = new String[count];
+        for (int i = 0; i < count; i++) {
+            messages[i] = BROADCAST_PREFIX + "You swapped places with " + planned[targets[i]].getName() + "!";
+        }
+        return new Plan(planned, targets, messages);
+    }
+
+    /**
+     * Works out whose spot each of a number of players takes, without anyone
+     * keeping their own.
+     *
+     * @param count The number of players, at least two.
+     * @return The index of the player whose spot each player takes.
+     * @throws IllegalArgumentException If the count is below two.
+     */
+    int[] planTargets(int count) {
+        if (count < 2) {
+            throw new IllegalArgumentException("At least two players are needed for a swap");
+        }
+        if (order.length < count) {
+            order = new int[count];
+        }
+        int[] targets = new int[count];
+        switch (mode) {
+            case PAIRWISE:
+                planPairs(targets, count);
+                break;
+            case RANDOM:
+                planDerangement(targets, count);
+                break;
+            case CYCLE:
+            default:
+                planCycle(targets, count);
+                break;
+        }
+        return targets;
+    }
+
+    /**
+     * Fills targets with a uniformly random single cycle using Sattolo's algorithm.
+     *
+     * @param targets Filled with the index of the player whose spot each player takes.
+     * @param count   The number of players.
+     */
+    private static void planCycle(int[] targets, int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < count; i++) {
+            targets[i] = i;
+        }
+        for (int i = count - 1; i > 0; i--) {
+            swap(targets, i, random.nextInt(i));
+        }
+    }
+
+    /**
+     * Fills targets with random pairs that swap spots. With an odd count the
+     * last three players rotate instead.
+     *
+     * @param targets Filled with the index of the player whose spot each player takes.
+     * @param count   The number of players.
+     */
+    private void planPairs(int[] targets, int count) {
+        shuffleOrder(count);
+        for (int i = 0; i + 1 < count; i += 2) {
+            targets[order[i]] = order[i + 1];
+            targets[order[i + 1]] = order[i];
+        }
+        if (count % 2 == 1 && count >= 3) {
+            int first = order[count - 3];
+            int second = order[count - 2];
+            int third = order[count - 1];
+            targets[first] = second;
+            targets[second] = third;
+            targets[third] = first;
+        }
+    }
+
+    /**
+     * Fills targets with a uniformly random derangement. Permutations with a
+     * fixed point are drawn again, which takes about e attempts on average.
+     *
+     * @param targets Filled with the index of the player whose spot each player takes.
+     * @param count   The number of players.
+     */
+    private static void planDerangement(int[] targets, int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean deranged;
+        do {
+            for (int i = 0; i < count; i++) {
+                targets[i] = i;
+            }
+            deranged = true;
+            // Fisher-Yates from the back; a position is final once passed, so stop at the first fixed point
+            for (int i = count - 1; i >= 0 && deranged; i--) {
+                swap(targets, i, random.nextInt(i + 1));
+                deranged = targets[i] != i;
+            }
+        } while (!deranged);
+    }
+
+    /**
+     * Shuffles the first count entries of the reused order array.
+     *
+     * @param count The number of players.
+     */
+    private void shuffleOrder(int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        for (int i = count - 1; i > 0; i--) {
+            swap(order, i, random.nextInt(i + 1));
+        }
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        int value = array[i];
+        array[i] = array[j];
+        array[j] = value;
+    }
+
+    /**
+     * A planned swap: which spot each player takes and what they are told.
+     * The arrays the swap fills are allocated with the plan, so the swap tick
+     * itself allocates nothing beyond the players' locations.
+     */
+    static final class Plan {
+        private final Player[] players;
+        private final int[] targets;
+        private final String[] messages;
+        private final Location[] locations;
+        private final Location[] destinations;
+
+        private Plan(Player[] players, int[] targets, String[] messages) {
+            this.players = players;
+            this.targets = targets;
+            this.messages = messages;
+            this.locations = new Location[players.length];
+            this.destinations = new Location[players.length];
+        }
+
+        /**
+         * Gets the players of the plan, in teleport order.
+         *
+         * @return The players, parallel to {@link #getDestinations()}.
+         */
+        Player[] getPlayers() {
+            return players;
+        }
+
+        /**
+         * Reads the players' current locations and works out the location each
+         * player swaps into.
+         *
+         * @return The destination of each player, parallel to {@link #getPlayers()}.
+         */
+        Location[] getDestinations() {
+            for (int i = 0; i < players.length; i++) {
+                locations[i] = players[i].getLocation();
+            }
+            for (int i = 0; i < players.length; i++) {
+                destinations[i] = locations[targets[i]];
+            }
+            return destinations;
+        }
+
+        /**
+         * Tells every player who is still alive whose spot they took.
+         *
+         * @param alivePlayers The session's alive players.
+         */
+        void announce(Set<Player> alivePlayers) {
+            for (int i = 0; i < players.length; i++) {
+                Player player = players[i];
+                if (alivePlayers.contains(player)) {
+                    player.sendMessage(messages[i]);
+                    player.playSound(player.getLocation(), Sound.ENTITY_ENDERMAN_TELEPORT, 1.0f, 1.0f);
+                }
+            }
+        }
+    }
+}
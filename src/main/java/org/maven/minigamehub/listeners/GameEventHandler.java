@@ -0,0 +1,53 @@
+package org.maven.minigamehub.listeners;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+
+/**
+ * A game that receives the events of its players from the {@link GameEventRouter}.
+ * Only events of players bound to the game are passed to it, except for block
+ * events inside a region bound to the game.
+ */
+public interface GameEventHandler {
+
+  /**
+   * Handles the death of a player bound to the game.
+   *
+   * @param event The PlayerDeathEvent.
+   */
+  void handlePlayerDeath(PlayerDeathEvent event);
+
+  /**
+   * Handles the respawn of a player bound to the game.
+   *
+   * @param event The PlayerRespawnEvent.
+   */
+  void handlePlayerRespawn(PlayerRespawnEvent event);
+
+  /**
+   * Handles a player bound to the game disconnecting.
+   *
+   * @param player The player who disconnected.
+   */
+  void handlePlayerDisconnect(Player player);
+
+  /**
+   * Handles an interaction of a player bound to the game.
+   *
+   * @param event The PlayerInteractEvent.
+   */
+  default void handlePlayerInteract(PlayerInteractEvent event) {
+  }
+
+  /**
+   * Handles a block broken by a player bound to the game, or by any player
+   * inside a region bound to the game.
+   *
+   * @param event The BlockBreakEvent.
+   */
+  default void handleBlockBreak(BlockBreakEvent event) {
+  }
+}
@@ -0,0 +1,254 @@
+package org.maven.minigamehub.listeners;
+
+import org.bukkit.Bukkit;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.maven.minigamehub.metrics.PluginMetrics;
+import org.maven.minigamehub.world.SpatialIndex;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Listener class routing player events to the game the player is in.
+ * Games bind their players to themselves, so each event costs one map lookup and
+ * reaches at most one game. Events of players outside a game stop at the lookup.
+ * Games can also bind regions of a world, so that block events of players
+ * outside the game still reach it when the block lies inside its region.
+ * Regions are kept in a {@link SpatialIndex} per world.
+ * The router can optionally stay unregistered while no player or region is bound.
+ */
+public class GameEventRouter implements Listener {
+  private static final int REGION_CELL_SIZE = 64;
+
+  private final JavaPlugin plugin;
+  private final boolean registerOnlyWhileActive;
+  private final Map<UUID, GameEventHandler> playerGames = new HashMap<>();
+  private final Map<String, SpatialIndex<GameEventHandler>> regions = new HashMap<>();
+  private boolean registered;
+
+  /**
+   * Constructor for the GameEventRouter class.
+   *
+   * @param plugin                  The JavaPlugin instance.
+   * @param registerOnlyWhileActive True to register the event handlers only while a player or region is bound to a game.
+   */
+  public GameEventRouter(JavaPlugin plugin, boolean registerOnlyWhileActive) {
+    this.plugin = plugin;
+    this.registerOnlyWhileActive = registerOnlyWhileActive;
+    if (!registerOnlyWhileActive) {
+      register();
+    }
+  }
+
+  /**
+   * Binds a player to a game so the game receives their events.
+   * Replaces any previous binding of the player.
+   *
+   * @param playerId The UUID of the player.
+   * @param game     The game the player is in.
+   */
+  public void bind(UUID playerId, GameEventHandler game) {
+    playerGames.put(playerId, game);
+    if (!registered) {
+      register();
+    }
+  }
+
+  /**
+   * Unbinds a player from a game. Does nothing if the player is bound to
+   * another game.
+   *
+   * @param playerId The UUID of the player.
+   * @param game     The game the player is leaving.
+   */
+  public void unbind(UUID playerId, GameEventHandler game) {
+    if (playerGames.remove(playerId, game)) {
+      unregisterIfIdle();
+    }
+  }
+
+  /**
+   * Binds a region of a world to a game so the game receives the block events
+   * of every player inside it, whether they are in the game or not.
+   *
+   * @param worldName The name of the world.
+   * @param minX      The lowest block x coordinate, inclusive.
+   * @param minZ      The lowest block z coordinate, inclusive.
+   * @param maxX      The highest block x coordinate, inclusive.
+   * @param maxZ      The highest block z coordinate, inclusive.
+   * @param game      The game owning the region.
+   */
+  public void bindRegion(String worldName, int minX, int minZ, int maxX, int maxZ, GameEventHandler game) {
+    regions.computeIfAbsent(worldName, ignored -> new SpatialIndex<>(REGION_CELL_SIZE))
+        .addBox(minX, minZ, maxX, maxZ, game);
+    if (!registered) {
+      register();
+    }
+  }
+
+  /**
+   * Unbinds every region a game owns in a world.
+   *
+   * @param worldName The name of the world.
+   * @param game      The game owning the regions.
+   */
+  public void unbindRegions(String worldName, GameEventHandler game) {
+    SpatialIndex<GameEventHandler> index = regions.get(worldName);
+    if (index == null || !index.removeBoxes(game)) {
+      return;
+    }
+    if (index.isEmpty()) {
+      regions.remove(worldName);
+    }
+    unregisterIfIdle();
+  }
+
+  /**
+   * Gets the game owning the region a block is in.
+   *
+   * @param block The block.
+   * @return The game, or null if the block is outside every bound region.
+   */
+  public GameEventHandler getRegionGame(Block block) {
+    if (regions.isEmpty()) {
+      return null;
+    }
+    SpatialIndex<GameEventHandler> index = regions.get(block.getWorld().getName());
+    return index == null ? null : index.containing(block.getX(), block.getZ());
+  }
+
+  /**
+   * Gets the game a player is bound to.
+   *
+   * @param playerId The UUID of the player.
+   * @return The player's game, or null if they are not in a game.
+   */
+  public GameEventHandler getGame(UUID playerId) {
+    return playerGames.get(playerId);
+  }
+
+  /**
+   * Checks if a player is bound to any game.
+   *
+   * @param playerId The UUID of the player.
+   * @return True if the player is in a game.
+   */
+  public boolean isInGame(UUID playerId) {
+    return playerGames.containsKey(playerId);
+  }
+
+  /**
+   * Removes every binding and unregisters the event handlers.
+   */
+  public void shutdown() {
+    playerGames.clear();
+    regions.clear();
+    unregister();
+  }
+
+  /**
+   * Event handler for player death events.
+   *
+   * @param event The PlayerDeathEvent.
+   */
+  @EventHandler
+  public void onPlayerDeath(PlayerDeathEvent event) {
+    long start = System.nanoTime();
+    GameEventHandler game = playerGames.get(event.getEntity().getUniqueId());
+    if (game != null) {
+      game.handlePlayerDeath(event);
+    }
+    PluginMetrics.EVENT_DEATH.recordSince(start);
+  }
+
+  /**
+   * Event handler for player respawn events.
+   *
+   * @param event The PlayerRespawnEvent.
+   */
+  @EventHandler
+  public void onPlayerRespawn(PlayerRespawnEvent event) {
+    long start = System.nanoTime();
+    GameEventHandler game = playerGames.get(event.getPlayer().getUniqueId());
+    if (game != null) {
+      game.handlePlayerRespawn(event);
+    }
+    PluginMetrics.EVENT_RESPAWN.recordSince(start);
+  }
+
+  /**
+   * Event handler for player quit events.
+   *
+   * @param event The PlayerQuitEvent.
+   */
+  @EventHandler
+  public void onPlayerQuit(PlayerQuitEvent event) {
+    long start = System.nanoTime();
+    GameEventHandler game = playerGames.get(event.getPlayer().getUniqueId());
+    if (game != null) {
+      game.handlePlayerDisconnect(event.getPlayer());
+    }
+    PluginMetrics.EVENT_QUIT.recordSince(start);
+  }
+
+  /**
+   * Event handler for player interact events.
+   *
+   * @param event The PlayerInteractEvent.
+   */
+  @EventHandler
+  public void onPlayerInteract(PlayerInteractEvent event) {
+    long start = System.nanoTime();
+    GameEventHandler game = playerGames.get(event.getPlayer().getUniqueId());
+    if (game != null) {
+      game.handlePlayerInteract(event);
+    }
+    PluginMetrics.EVENT_INTERACT.recordSince(start);
+  }
+
+  /**
+   * Event handler for block break events.
+   *
+   * @param event The BlockBreakEvent.
+   */
+  @EventHandler
+  public void onBlockBreak(BlockBreakEvent event) {
+    long start = System.nanoTime();
+    GameEventHandler game = playerGames.get(event.getPlayer().getUniqueId());
+    if (game == null) {
+      game = getRegionGame(event.getBlock());
+    }
+    if (game != null) {
+      game.handleBlockBreak(event);
+    }
+    PluginMetrics.EVENT_BLOCK_BREAK.recordSince(start);
+  }
+
+  private void register() {
+    Bukkit.getPluginManager().registerEvents(this, plugin);
+    registered = true;
+  }
+
+  private void unregisterIfIdle() {
+    if (registerOnlyWhileActive && playerGames.isEmpty() && regions.isEmpty()) {
+      unregister();
+    }
+  }
+
+  private void unregister() {
+    if (registered) {
+      HandlerList.unregisterAll(this);
+      registered = false;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package org.maven.minigamehub.listeners;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.maven.minigamehub.config.InventoryStash;
+
+/**
+ * Listener class for restoring stashed inventories.
+ * Players who left during a game, or were in a game when the server stopped
+ * unexpectedly, get their items back when they join again, or once they have
+ * respawned if they join while dead.
+ */
+public class InventoryStashListener implements Listener {
+  private final InventoryStash inventoryStash;
+  private final GameEventRouter eventRouter;
+
+  /**
+   * Constructor for the InventoryStashListener class.
+   *
+   * @param inventoryStash The InventoryStash instance.
+   * @param eventRouter    The GameEventRouter knowing which players are in a game.
+   */
+  public InventoryStashListener(InventoryStash inventoryStash, GameEventRouter eventRouter) {
+    this.inventoryStash = inventoryStash;
+    this.eventRouter = eventRouter;
+  }
+
+  /**
+   * Event handler for player join events.
+   * Restores the player's stash unless they are still in a game.
+   *
+   * @param event The PlayerJoinEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onPlayerJoin(PlayerJoinEvent event) {
+    Player player = event.getPlayer();
+    if (inventoryStash.isStashed(player.getUniqueId()) && !eventRouter.isInGame(player.getUniqueId())
+        && inventoryStash.restore(player)) {
+      player.sendMessage("Your items from before your last game have been restored.");
+    }
+  }
+
+  /**
+   * Event handler for player respawn events.
+   * Players who joined while dead are restored once they have respawned.
+   *
+   * @param event The PlayerRespawnEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onPlayerRespawn(PlayerRespawnEvent event) {
+    Player player = event.getPlayer();
+    if (!eventRouter.isInGame(player.getUniqueId())) {
+      inventoryStash.restoreAfterRespawn(player);
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package org.maven.minigamehub.listeners;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.maven.minigamehub.config.DataManager;
+
+/**
+ * Listener class for loading and unloading player stats.
+ * Stats are fetched while the player is still logging in, off the main thread,
+ * and dropped from memory when they leave.
+ */
+public class PlayerStatsListener implements Listener {
+  private final DataManager dataManager;
+
+  /**
+   * Constructor for the PlayerStatsListener class.
+   *
+   * @param dataManager The DataManager instance.
+   */
+  public PlayerStatsListener(DataManager dataManager) {
+    this.dataManager = dataManager;
+  }
+
+  /**
+   * Event handler for asynchronous pre-login events.
+   * Starts loading the player's stats in the background.
+   *
+   * @param event The AsyncPlayerPreLoginEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+    if (event.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+      dataManager.preloadPlayerStats(event.getUniqueId());
+    }
+  }
+
+  /**
+   * Event handler for player quit events.
+   * Drops the player's stats from memory after any pending changes are written.
+   *
+   * @param event The PlayerQuitEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onPlayerQuit(PlayerQuitEvent event) {
+    dataManager.unloadPlayerStats(event.getPlayer().getUniqueId());
+  }
+}
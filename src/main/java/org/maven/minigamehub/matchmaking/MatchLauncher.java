@@ -0,0 +1,41 @@
+package org.maven.minigamehub.matchmaking;
+
+import org.bukkit.entity.Player;
+
+import java.util.List;
+
+/**
+ * Starts the matches of one game for the {@link MatchmakingService}.
+ * Games with several worlds or arenas queue players per target; games without
+ * one use the empty string.
+ */
+public interface MatchLauncher {
+  /**
+   * Checks if players can queue for a target, such as an existing arena.
+   *
+   * @param target The world or arena name, or the empty string.
+   * @return True if the target exists.
+   */
+  boolean isValidTarget(String target);
+
+  /**
+   * Gets the most players a match on a target can hold, for example its number
+   * of spawn points.
+   *
+   * @param target The world or arena name, or the empty string.
+   * @return The capacity, or Integer.MAX_VALUE if the target sets no limit.
+   */
+  default int getCapacity(String target) {
+    return Integer.MAX_VALUE;
+  }
+
+  /**
+   * Starts a match. The players are online and in no game.
+   *
+   * @param target  The world or arena name, or the empty string.
+   * @param players The players taking part.
+   * @return True if the match was started, false if the target cannot take a
+   *         match right now, in which case the players stay queued.
+   */
+  boolean launch(String target, List<Player> players);
+}
@@ -0,0 +1,375 @@
+package org.maven.minigamehub.matchmaking;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.maven.minigamehub.games.GameClock;
+import org.maven.minigamehub.listeners.GameEventRouter;
+import org.maven.minigamehub.metrics.PluginMetrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Level;
+
+/**
+ * Lets players queue for games and starts matches from the queues.
+ * Every game and target, such as a Spleef arena, has its own queue of players
+ * in the order they joined. Joining and leaving cost a few hash lookups. Once a
+ * queue holds a game's minimum number of players a countdown starts, cut short
+ * when the queue can fill a match. When it ends a match is started with the
+ * longest waiting players, and the rest start a new countdown if there are
+ * enough of them. A single deadline on the shared game clock runs the
+ * countdowns of every queue once per second while anyone is queued; the quit
+ * listener is only registered then too.
+ */
+public class MatchmakingService implements Listener {
+  private static final String PREFIX = ChatColor.GOLD + "Queue: " + ChatColor.RESET;
+  private static final long TICKS_PER_SECOND = 20L;
+
+  private final JavaPlugin plugin;
+  private final GameEventRouter eventRouter;
+  private final GameClock clock;
+  private final int countdownSeconds;
+  private final int fullCountdownSeconds;
+  private final ConfigurationSection gamesSection;
+  private final Map<String, GameSettings> games = new HashMap<>();
+  private final Map<String, MatchQueue> queues = new LinkedHashMap<>();
+  private final Map<UUID, MatchQueue> playerQueues = new HashMap<>();
+  private GameClock.Timeout ticker;
+  private boolean registered;
+
+  /**
+   * Constructor for the MatchmakingService class.
+   * Reads the matchmaking section of config.yml.
+   *
+   * @param plugin      The JavaPlugin instance.
+   * @param eventRouter The GameEventRouter telling which players are in a game.
+   * @param clock       The GameClock driving the queue countdowns.
+   */
+  public MatchmakingService(JavaPlugin plugin, GameEventRouter eventRouter, GameClock clock) {
+    this.plugin = plugin;
+    this.eventRouter = eventRouter;
+    this.clock = clock;
+    this.countdownSeconds = Math.max(1, plugin.getConfig().getInt("matchmaking.countdown_seconds", 30));
+    this.fullCountdownSeconds = Math.max(1, Math.min(countdownSeconds,
+        plugin.getConfig().getInt("matchmaking.full_countdown_seconds", 5)));
+    this.gamesSection = plugin.getConfig().getConfigurationSection("matchmaking.games");
+  }
+
+  /**
+   * Registers a game players can queue for. The player thresholds are read from
+   * matchmaking.games.&lt;game&gt; in config.yml.
+   *
+   * @param game     The name of the game, as used in commands.
+   * @param launcher The launcher starting the game's matches.
+   */
+  public void registerGame(String game, MatchLauncher launcher) {
+    ConfigurationSection section = gamesSection != null ? gamesSection.getConfigurationSection(game) : null;
+    int minPlayers = Math.max(2, section != null ? section.getInt("min_players", 2) : 2);
+    int maxPlayers = Math.max(minPlayers, section != null ? section.getInt("max_players", 16) : 16);
+    games.put(game, new GameSettings(launcher, minPlayers, maxPlayers));
+  }
+
+  /**
+   * Checks if a game has been registered.
+   *
+   * @param game The name of the game.
+   * @return True if players can queue for the game.
+   */
+  public boolean isRegistered(String game) {
+    return games.containsKey(game);
+  }
+
+  /**
+   * Adds a player to the queue of a game and target, leaving any other queue.
+   *
+   * @param player The player joining.
+   * @param game   The name of the game.
+   * @param target The world or arena name, or the empty string for games without one.
+   */
+  public void join(Player player, String game, String target) {
+    GameSettings settings = games.get(game);
+    if (settings == null) {
+      player.sendMessage(PREFIX + "Unknown game: " + game);
+      return;
+    }
+    if (!settings.launcher.isValidTarget(target)) {
+      player.sendMessage(PREFIX + (target.isEmpty() ? game + " needs a world or arena to queue for."
+          : game + " has no world or arena named " + target + "."));
+      return;
+    }
+    int capacity = settings.launcher.getCapacity(target);
+    if (capacity < settings.minPlayers) {
+      player.sendMessage(PREFIX + (target.isEmpty() ? game : target) + " holds only " + capacity
+          + " players, but a queued match needs " + settings.minPlayers + ".");
+      return;
+    }
+    if (eventRouter.isInGame(player.getUniqueId())) {
+      player.sendMessage(PREFIX + "You are already in a game.");
+      return;
+    }
+
+    String key = game + "/" + target;
+    MatchQueue queue = playerQueues.get(player.getUniqueId());
+    if (queue != null && queue.key.equals(key)) {
+      player.sendMessage(PREFIX + "You are already queued for " + queue.describe() + ".");
+      return;
+    }
+    leave(player);
+    queue = queues.computeIfAbsent(key, ignored -> new MatchQueue(key, game, target, settings));
+    queue.players.add(player);
+    playerQueues.put(player.getUniqueId(), queue);
+    queue.broadcast(PREFIX + player.getName() + " joined the queue for " + queue.describe() + " ("
+        + queue.players.size() + "/" + queue.getCapacity() + ").");
+    activate();
+  }
+
+  /**
+   * Removes a player from their queue.
+   *
+   * @param player The player leaving.
+   * @return True if the player was queued.
+   */
+  public boolean leave(Player player) {
+    MatchQueue queue = playerQueues.remove(player.getUniqueId());
+    if (queue == null) {
+      return false;
+    }
+    queue.players.remove(player);
+    if (queue.players.isEmpty()) {
+      queues.remove(queue.key);
+      deactivateIfIdle();
+    }
+    return true;
+  }
+
+  /**
+   * Sends the queues that have players in them, with their countdowns.
+   *
+   * @param sender The sender of the command.
+   */
+  public void list(CommandSender sender) {
+    if (queues.isEmpty()) {
+      sender.sendMessage(PREFIX + "Nobody is queued.");
+      return;
+    }
+    for (MatchQueue queue : queues.values()) {
+      String countdown = queue.secondsLeft >= 0 ? ", starting in " + queue.secondsLeft + "s"
+          : ", needs " + queue.settings.minPlayers;
+      sender.sendMessage(PREFIX + queue.describe() + ": " + queue.players.size() + "/" + queue.getCapacity()
+          + countdown);
+    }
+  }
+
+  /**
+   * Empties every queue and stops the countdowns.
+   * Called when the plugin is disabled.
+   */
+  public void shutdown() {
+    queues.clear();
+    playerQueues.clear();
+    deactivateIfIdle();
+  }
+
+  /**
+   * Starts the countdown task and the quit listener if they are not running yet.
+   */
+  private void activate() {
+    if (!registered) {
+      Bukkit.getPluginManager().registerEvents(this, plugin);
+      registered = true;
+    }
+    if (ticker == null) {
+      ticker = clock.scheduleRepeating(TICKS_PER_SECOND, TICKS_PER_SECOND, () -> {
+        long start = System.nanoTime();
+        tick();
+        PluginMetrics.MATCHMAKING_TICK.recordSince(start);
+      });
+    }
+  }
+
+  /**
+   * Stops the countdown task and the quit listener once nobody is queued.
+   */
+  private void deactivateIfIdle() {
+    if (!queues.isEmpty()) {
+      return;
+    }
+    if (ticker != null) {
+      ticker.cancel();
+      ticker = null;
+    }
+    if (registered) {
+      HandlerList.unregisterAll(this);
+      registered = false;
+    }
+  }
+
+  /**
+   * Advances the countdown of every queue by one second and starts the
+   * matches whose countdown has ended.
+   */
+  private void tick() {
+    Iterator<MatchQueue> iterator = queues.values().iterator();
+    while (iterator.hasNext()) {
+      MatchQueue queue = iterator.next();
+      tick(queue);
+      if (queue.players.isEmpty()) {
+        iterator.remove();
+      }
+    }
+    deactivateIfIdle();
+  }
+
+  /**
+   * Advances the countdown of one queue by one second.
+   *
+   * @param queue The queue.
+   */
+  private void tick(MatchQueue queue) {
+    int size = queue.players.size();
+    // The target may have lost spawn points since the players queued
+    if (size < queue.settings.minPlayers || queue.getCapacity() < queue.settings.minPlayers) {
+      if (queue.secondsLeft >= 0) {
+        queue.secondsLeft = -1;
+        queue.broadcast(PREFIX + "Not enough players for " + queue.describe() + ", the countdown has stopped.");
+      }
+      return;
+    }
+    boolean full = size >= queue.getCapacity();
+    if (queue.secondsLeft < 0 || (full && queue.secondsLeft > fullCountdownSeconds)) {
+      queue.secondsLeft = full ? fullCountdownSeconds : countdownSeconds;
+      queue.broadcast(PREFIX + queue.describe() + " starts in " + queue.secondsLeft + " seconds.");
+      return;
+    }
+    queue.secondsLeft--;
+    if (queue.secondsLeft > 0) {
+      if (queue.secondsLeft <= 5 || queue.secondsLeft == 10) {
+        queue.broadcast(PREFIX + queue.describe() + " starts in " + queue.secondsLeft + "...");
+      }
+      return;
+    }
+    queue.secondsLeft = -1;
+    launch(queue);
+  }
+
+  /**
+   * Starts a match with the longest waiting players of a queue. Players who
+   * have entered a game in the meantime are dropped from the queue.
+   *
+   * @param queue The queue whose countdown has ended.
+   */
+  private void launch(MatchQueue queue) {
+    int capacity = queue.getCapacity();
+    List<Player> players = new ArrayList<>(Math.min(capacity, queue.players.size()));
+    Iterator<Player> iterator = queue.players.iterator();
+    while (iterator.hasNext() && players.size() < capacity) {
+      Player player = iterator.next();
+      if (!player.isOnline() || eventRouter.isInGame(player.getUniqueId())) {
+        iterator.remove();
+        playerQueues.remove(player.getUniqueId(), queue);
+      } else {
+        players.add(player);
+      }
+    }
+    if (players.size() < queue.settings.minPlayers) {
+      return;
+    }
+
+    boolean started;
+    try {
+      started = queue.settings.launcher.launch(queue.target, players);
+    } catch (RuntimeException e) {
+      plugin.getLogger().log(Level.SEVERE, "Failed to start a match of " + queue.describe() + " from the queue", e);
+      started = false;
+    }
+    if (!started) {
+      // The players keep their place, the next countdown tries again
+      queue.broadcast(PREFIX + queue.describe() + " could not start yet, trying again shortly.");
+      return;
+    }
+    PluginMetrics.QUEUED_MATCHES.increment();
+    for (Player player : players) {
+      queue.players.remove(player);
+      playerQueues.remove(player.getUniqueId(), queue);
+    }
+  }
+
+  /**
+   * Removes players who leave the server from their queue.
+   *
+   * @param event The PlayerQuitEvent.
+   */
+  @EventHandler
+  public void onPlayerQuit(PlayerQuitEvent event) {
+    leave(event.getPlayer());
+  }
+
+  /**
+   * A registered game and its player thresholds.
+   */
+  private static final class GameSettings {
+    private final MatchLauncher launcher;
+    private final int minPlayers;
+    private final int maxPlayers;
+
+    private GameSettings(MatchLauncher launcher, int minPlayers, int maxPlayers) {
+      this.launcher = launcher;
+      this.minPlayers = minPlayers;
+      this.maxPlayers = maxPlayers;
+    }
+  }
+
+  /**
+   * The players waiting for one game and target, in the order they joined.
+   */
+  private static final class MatchQueue {
+    private final String key;
+    private final String game;
+    private final String target;
+    private final GameSettings settings;
+    private final Set<Player> players = new LinkedHashSet<>();
+    private int secondsLeft = -1;
+
+    private MatchQueue(String key, String game, String target, GameSettings settings) {
+      this.key = key;
+      this.game = game;
+      this.target = target;
+      this.settings = settings;
+    }
+
+    /**
+     * Gets the most players one match from this queue takes. Below the
+     * minimum player count if the target cannot hold that many players.
+     *
+     * @return The capacity.
+     */
+    private int getCapacity() {
+      return Math.min(settings.maxPlayers, settings.launcher.getCapacity(target));
+    }
+
+    private String describe() {
+      return target.isEmpty() ? game : game + " (" + target + ")";
+    }
+
+    private void broadcast(String message) {
+      for (Player player : players) {
+        player.sendMessage(message);
+      }
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package org.maven.minigamehub.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counter class
+ * This class counts events. Increments are cheap and safe from any thread.
+ */
+public final class Counter {
+  private final String name;
+  private final String help;
+  private final LongAdder value = new LongAdder();
+
+  /**
+   * Constructor for the Counter class.
+   *
+   * @param name The metric name.
+   * @param help The description of the metric.
+   */
+  Counter(String name, String help) {
+    this.name = name;
+    this.help = help;
+  }
+
+  /**
+   * Adds one to the counter.
+   */
+  public void increment() {
+    value.increment();
+  }
+
+  /**
+   * Adds to the counter.
+   *
+   * @param amount The amount to add.
+   */
+  public void add(long amount) {
+    value.add(amount);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getHelp() {
+    return help;
+  }
+
+  public long get() {
+    return value.sum();
+  }
+}
@@ -0,0 +1,164 @@
+package org.maven.minigamehub.metrics;
+
+import org.maven.minigamehub.games.GameClock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * PluginMetrics class
+ * This class holds the plugin's timers and counters and samples how much of
+ * each server tick was spent in plugin code. Timers that run directly in a tick
+ * (event handlers, commands and the shared game clock) add their time to the
+ * current tick; nested timers such as a swap or a world worker run by the clock
+ * do not, so the time is not counted twice.
+ */
+public final class PluginMetrics {
+  private static final List<Timer> TIMERS = new ArrayList<>();
+  private static final List<Counter> COUNTERS = new ArrayList<>();
+
+  public static final Timer TICK_PLUGIN_TIME = timer("minigamehub_tick_plugin_seconds", "",
+      "Time spent in plugin code per server tick.", false);
+  public static final Timer SERVER_TICK = timer("minigamehub_server_tick_seconds", "",
+      "Time between the starts of two server ticks.", false);
+
+  public static final Timer EVENT_DEATH = eventTimer("death");
+  public static final Timer EVENT_RESPAWN = eventTimer("respawn");
+  public static final Timer EVENT_QUIT = eventTimer("quit");
+  public static final Timer EVENT_INTERACT = eventTimer("interact");
+  public static final Timer EVENT_BLOCK_BREAK = eventTimer("block_break");
+  public static final Timer EVENT_MOVE = eventTimer("move");
+  public static final Timer COMMAND = timer("minigamehub_command_seconds", "",
+      "Time spent handling /minigame and /deathswap commands.", true);
+
+  public static final Timer GAME_TICK = timer("minigamehub_game_tick_seconds", "",
+      "Time spent per tick running the due deadlines of the shared game clock, including the world workers.", true);
+  public static final Timer DEATHSWAP_SWAP = timer("minigamehub_deathswap_swap_seconds", "",
+      "Time spent planning and scheduling a DeathSwap swap.", false);
+  public static final Timer TELEPORT_TICK = timer("minigamehub_teleport_tick_seconds", "",
+      "Time spent per tick loading destination chunks and teleporting players.", false);
+  public static final Timer TELEPORT_BATCH = timer("minigamehub_teleport_batch_seconds", "",
+      "Time from scheduling a batch of teleports until its last player arrived.", false);
+  public static final Timer PREGENERATION_TICK = timer("minigamehub_pregeneration_tick_seconds", "",
+      "Time spent per tick pre-generating chunks.", false);
+  public static final Timer WORLD_POOL_MAINTENANCE = timer("minigamehub_world_pool_maintenance_seconds", "",
+      "Time spent per world pool maintenance run.", false);
+  public static final Timer WORLD_CREATE = timer("minigamehub_world_create_seconds", "",
+      "Time spent on the main thread creating a world.", false);
+  public static final Timer WORLD_CLONE = timer("minigamehub_world_clone_seconds", "",
+      "Time from requesting an arena world until it was loaded.", false);
+  public static final Timer WORLD_TEARDOWN = timer("minigamehub_world_teardown_seconds", "",
+      "Time spent on the main thread unloading a world for deletion.", false);
+  public static final Timer WORLD_DELETE = timer("minigamehub_world_delete_seconds", "",
+      "Time spent deleting a world folder in the background.", false);
+  public static final Timer REGION_RESET_TICK = timer("minigamehub_region_reset_tick_seconds", "",
+      "Time spent per tick capturing and restoring arena regions.", false);
+  public static final Timer MATCHMAKING_TICK = timer("minigamehub_matchmaking_tick_seconds", "",
+      "Time spent per run of the matchmaking countdown, including the matches it starts.", false);
+  public static final Timer STATS_FLUSH = timer("minigamehub_stats_flush_seconds", "",
+      "Time spent writing a batch of player stats in the background.", false);
+  public static final Timer CONFIG_SAVE = timer("minigamehub_config_save_seconds", "",
+      "Time spent saving a configuration file.", false);
+
+  public static final Counter TELEPORTS = counter("minigamehub_teleports_total",
+      "Players teleported by the teleport scheduler.");
+  public static final Counter SWAPS = counter("minigamehub_deathswap_swaps_total",
+      "DeathSwap swaps performed.");
+  public static final Counter WORLDS_CREATED = counter("minigamehub_worlds_created_total",
+      "Game worlds created or cloned.");
+  public static final Counter WORLDS_DELETED = counter("minigamehub_worlds_deleted_total",
+      "Game world folders deleted.");
+  public static final Counter WORLD_DELETE_FAILURES = counter("minigamehub_world_delete_failures_total",
+      "Game world folders that could not be deleted.");
+  public static final Counter REGION_BLOCKS_RESTORED = counter("minigamehub_region_blocks_restored_total",
+      "Blocks put back by the region reset engine.");
+  public static final Counter QUEUED_MATCHES = counter("minigamehub_queued_matches_total",
+      "Matches started from a matchmaking queue.");
+  public static final Counter STATS_ENTRIES_WRITTEN = counter("minigamehub_stats_entries_written_total",
+      "Player stats entries written to the stats backend.");
+
+  private static long tickNanos;
+  private static long lastTickStart;
+  private static GameClock.Timeout tickSampler;
+
+  private PluginMetrics() {
+  }
+
+  /**
+   * Starts sampling the plugin's time per server tick. The sampler is a
+   * deadline of the shared game clock that repeats every tick, so it keeps the
+   * clock's task running while metrics are enabled.
+   *
+   * @param clock The shared game clock.
+   */
+  public static void startTickSampling(GameClock clock) {
+    if (tickSampler != null) {
+      return;
+    }
+    lastTickStart = 0;
+    tickSampler = clock.scheduleRepeating(1L, 1L, () -> {
+      long now = System.nanoTime();
+      if (lastTickStart != 0) {
+        SERVER_TICK.record(now - lastTickStart);
+        TICK_PLUGIN_TIME.record(tickNanos);
+      }
+      lastTickStart = now;
+      tickNanos = 0;
+    });
+  }
+
+  /**
+   * Stops sampling the plugin's time per server tick.
+   */
+  public static void stopTickSampling() {
+    if (tickSampler != null) {
+      tickSampler.cancel();
+      tickSampler = null;
+    }
+  }
+
+  /**
+   * Gets every timer in registration order.
+   *
+   * @return An unmodifiable list of the timers.
+   */
+  public static List<Timer> getTimers() {
+    return Collections.unmodifiableList(TIMERS);
+  }
+
+  /**
+   * Gets every counter in registration order.
+   *
+   * @return An unmodifiable list of the counters.
+   */
+  public static List<Counter> getCounters() {
+    return Collections.unmodifiableList(COUNTERS);
+  }
+
+  /**
+   * Adds time spent in plugin code to the current tick. Main thread only.
+   *
+   * @param nanos The time in nanoseconds.
+   */
+  static void addTickTime(long nanos) {
+    tickNanos += nanos;
+  }
+
+  private static Timer eventTimer(String event) {
+    return timer("minigamehub_event_seconds", "event=\"" + event + "\"",
+        "Time spent handling player events.", true);
+  }
+
+  private static Timer timer(String name, String labels, String help, boolean tickTime) {
+    Timer timer = new Timer(name, labels, help, tickTime);
+    TIMERS.add(timer);
+    return timer;
+  }
+
+  private static Counter counter(String name, String help) {
+    Counter counter = new Counter(name, help);
+    COUNTERS.add(counter);
+    return counter;
+  }
+}
@@ -0,0 +1,152 @@
+package org.maven.minigamehub.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.logging.Level;
+
+/**
+ * PrometheusExporter class
+ * This class publishes the plugin's metrics in the Prometheus text format,
+ * either as a file rewritten periodically off the main thread or from an HTTP
+ * endpoint bound to the loopback address only.
+ */
+public class PrometheusExporter {
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+  private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+  private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private final JavaPlugin plugin;
+  private BukkitRunnable fileTask;
+  private HttpServer httpServer;
+
+  /**
+   * Constructor for the PrometheusExporter class.
+   *
+   * @param plugin The JavaPlugin instance.
+   */
+  public PrometheusExporter(JavaPlugin plugin) {
+    this.plugin = plugin;
+  }
+
+  /**
+   * Formats every metric in the Prometheus text format.
+   *
+   * @return The metrics text.
+   */
+  public static String format() {
+    StringBuilder out = new StringBuilder(8192);
+    String previousName = null;
+    for (Timer timer : PluginMetrics.getTimers()) {
+      if (!timer.getName().equals(previousName)) {
+        out.append("# HELP ").append(timer.getName()).append(' ').append(timer.getHelp()).append('\n');
+        out.append("# TYPE ").append(timer.getName()).append(" summary\n");
+        previousName = timer.getName();
+      }
+      String labels = timer.getLabels();
+      for (double quantile : QUANTILES) {
+        out.append(timer.getName()).append('{');
+        if (!labels.isEmpty()) {
+          out.append(labels).append(',');
+        }
+        out.append("quantile=\"").append(quantile).append("\"} ")
+            .append(seconds(timer.quantile(quantile))).append('\n');
+      }
+      String labelSuffix = labels.isEmpty() ? "" : "{" + labels + "}";
+      out.append(timer.getName()).append("_sum").append(labelSuffix).append(' ')
+          .append(seconds(timer.getSumNanos())).append('\n');
+      out.append(timer.getName()).append("_count").append(labelSuffix).append(' ')
+          .append(timer.getCount()).append('\n');
+    }
+    for (Counter counter : PluginMetrics.getCounters()) {
+      out.append("# HELP ").append(counter.getName()).append(' ').append(counter.getHelp()).append('\n');
+      out.append("# TYPE ").append(counter.getName()).append(" counter\n");
+      out.append(counter.getName()).append(' ').append(counter.get()).append('\n');
+    }
+    return out.toString();
+  }
+
+  /**
+   * Starts rewriting a metrics file periodically.
+   *
+   * @param file            The file to write.
+   * @param intervalSeconds The number of seconds between writes.
+   */
+  public void startFileDump(Path file, long intervalSeconds) {
+    long intervalTicks = Math.max(1L, intervalSeconds) * 20L;
+    fileTask = new BukkitRunnable() {
+      @Override
+      public void run() {
+        writeFile(file);
+      }
+    };
+    fileTask.runTaskTimerAsynchronously(plugin, intervalTicks, intervalTicks);
+  }
+
+  /**
+   * Starts an HTTP endpoint serving the metrics at /metrics on the loopback address.
+   *
+   * @param port The port to listen on.
+   */
+  public void startHttpEndpoint(int port) {
+    try {
+      httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+      httpServer.createContext("/metrics", exchange -> {
+        byte[] body = format().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+          output.write(body);
+        }
+      });
+      httpServer.start();
+      plugin.getLogger().info("Serving metrics on http://127.0.0.1:" + port + "/metrics");
+    } catch (IOException e) {
+      plugin.getLogger().log(Level.SEVERE, "Could not start the metrics endpoint on port " + port, e);
+      httpServer = null;
+    }
+  }
+
+  /**
+   * Stops the file dump and the HTTP endpoint.
+   */
+  public void shutdown() {
+    if (fileTask != null) {
+      fileTask.cancel();
+      fileTask = null;
+    }
+    if (httpServer != null) {
+      httpServer.stop(0);
+      httpServer = null;
+    }
+  }
+
+  /**
+   * Writes the metrics file atomically so scrapers never read a partial file.
+   *
+   * @param file The file to write.
+   */
+  private void writeFile(Path file) {
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      Files.write(temporary, format().getBytes(StandardCharsets.UTF_8));
+      Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      plugin.getLogger().log(Level.WARNING, "Could not write metrics to " + file, e);
+    }
+  }
+
+  private static String seconds(long nanos) {
+    return String.format(Locale.ROOT, "%.9f", nanos / NANOS_PER_SECOND);
+  }
+}
@@ -0,0 +1,152 @@
+package org.maven.minigamehub.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Timer class
+ * This class records durations into a fixed log-linear histogram, in the spirit
+ * of HdrHistogram. Every power of two is split into eight buckets, so recorded
+ * values are accurate to within 12.5%. Recording never allocates and is safe
+ * from any thread.
+ */
+public final class Timer {
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int MAX_EXPONENT = 42;
+  private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+  private final String name;
+  private final String labels;
+  private final String help;
+  private final boolean tickTime;
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+  private final AtomicLong count = new AtomicLong();
+  private final AtomicLong sum = new AtomicLong();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Constructor for the Timer class.
+   *
+   * @param name     The metric name.
+   * @param labels   The Prometheus labels, such as {@code event="death"}, or an empty string.
+   * @param help     The description of the metric.
+   * @param tickTime True if the timed code runs directly in a server tick and counts towards the plugin's tick time.
+   */
+  Timer(String name, String labels, String help, boolean tickTime) {
+    this.name = name;
+    this.labels = labels;
+    this.help = help;
+    this.tickTime = tickTime;
+  }
+
+  /**
+   * Records a duration.
+   *
+   * @param nanos The duration in nanoseconds.
+   */
+  public void record(long nanos) {
+    long value = Math.max(0L, nanos);
+    buckets.incrementAndGet(bucketIndex(value));
+    count.incrementAndGet();
+    sum.addAndGet(value);
+    max.accumulateAndGet(value, Math::max);
+    if (tickTime) {
+      PluginMetrics.addTickTime(value);
+    }
+  }
+
+  /**
+   * Records the time elapsed since a start time.
+   *
+   * @param startNanos The {@link System#nanoTime()} at which the timed code started.
+   */
+  public void recordSince(long startNanos) {
+    record(System.nanoTime() - startNanos);
+  }
+
+  /**
+   * Gets the value below which a fraction of the recorded durations fall.
+   * The result is the upper bound of the bucket holding that value.
+   *
+   * @param quantile The fraction between 0 and 1.
+   * @return The duration in nanoseconds, or 0 if nothing was recorded.
+   */
+  public long quantile(double quantile) {
+    long total = count.get();
+    if (total == 0) {
+      return 0L;
+    }
+    long target = Math.max(1L, (long) Math.ceil(quantile * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += buckets.get(i);
+      if (seen >= target) {
+        return Math.min(max.get(), upperBound(i));
+      }
+    }
+    return max.get();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getLabels() {
+    return labels;
+  }
+
+  public String getHelp() {
+    return help;
+  }
+
+  public long getCount() {
+    return count.get();
+  }
+
+  public long getSumNanos() {
+    return sum.get();
+  }
+
+  public long getMaxNanos() {
+    return max.get();
+  }
+
+  /**
+   * Maps a value to its bucket. Values below eight get a bucket each; above
+   * that each power of two is split into eight equal buckets.
+   *
+   * @param value The non-negative value.
+   * @return The bucket index.
+   */
+  private static int bucketIndex(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    if (exponent > MAX_EXPONENT) {
+      return BUCKET_COUNT - 1;
+    }
+    int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /**
+   * Gets the largest value that falls into a bucket.
+   *
+   * @param index The bucket index.
+   * @return The upper bound of the bucket.
+   */
+  private static long upperBound(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    if (index == BUCKET_COUNT - 1) {
+      return Long.MAX_VALUE;
+    }
+    int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    int subBucket = index % SUB_BUCKETS;
+    long lowerBound = (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+  }
+}
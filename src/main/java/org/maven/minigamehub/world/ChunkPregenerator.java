@@ -0,0 +1,333 @@
+package org.maven.minigamehub.world;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.maven.minigamehub.games.GameClock;
+import org.maven.minigamehub.metrics.PluginMetrics;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
+/**
+ * ChunkPregenerator class
+ * This class generates the chunks inside a world border ahead of time. Chunks are
+ * visited in a spiral from the border center outwards and the work done each tick
+ * is capped by a milliseconds-per-tick budget shared by all running tasks.
+ * Servers that provide {@code World#getChunkAtAsync} generate chunks off the main
+ * thread; elsewhere chunks are generated synchronously within the budget.
+ */
+public class ChunkPregenerator {
+  private static final int CHUNK_SIZE = 16;
+  private static final int MAX_ASYNC_IN_FLIGHT = 16;
+  private static final Method GET_CHUNK_AT_ASYNC = findAsyncChunkMethod();
+
+  private final JavaPlugin plugin;
+  private final long budgetNanosPerTick;
+  private final List<Task> tasks = new ArrayList<>();
+  private final GameClock clock;
+  private GameClock.Timeout tickTask;
+
+  /**
+   * Constructor for the ChunkPregenerator class.
+   *
+   * @param plugin              The JavaPlugin instance.
+   * @param budgetMillisPerTick The maximum milliseconds spent generating chunks per tick.
+   * @param clock               The shared game clock driving the per-tick runner.
+   */
+  public ChunkPregenerator(JavaPlugin plugin, double budgetMillisPerTick, GameClock clock) {
+    this.plugin = plugin;
+    this.clock = clock;
+    this.budgetNanosPerTick = (long) (Math.max(0.5, budgetMillisPerTick) * 1_000_000L);
+  }
+
+  /**
+   * Looks up Paper's asynchronous chunk loading method if the server has it.
+   *
+   * @return The method, or null if only synchronous loading is available.
+   */
+  private static Method findAsyncChunkMethod() {
+    try {
+      return World.class.getMethod("getChunkAtAsync", int.class, int.class, boolean.class);
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Requests a chunk through the server's asynchronous chunk loader.
+   *
+   * @param world  The world of the chunk.
+   * @param chunkX The x coordinate of the chunk.
+   * @param chunkZ The z coordinate of the chunk.
+   * @return A future completed on the main thread once the chunk is loaded,
+   *         or null if only synchronous loading is available.
+   * @throws ReflectiveOperationException If the asynchronous loader could not be called.
+   */
+  static CompletableFuture<?> loadChunkAsync(World world, int chunkX, int chunkZ)
+      throws ReflectiveOperationException {
+    if (GET_CHUNK_AT_ASYNC == null) {
+      return null;
+    }
+    return (CompletableFuture<?>) GET_CHUNK_AT_ASYNC.invoke(world, chunkX, chunkZ, true);
+  }
+
+  /**
+   * Checks if chunks are generated off the main thread on this server.
+   *
+   * @return True if asynchronous chunk loading is available.
+   */
+  public boolean isAsyncSupported() {
+    return GET_CHUNK_AT_ASYNC != null;
+  }
+
+  /**
+   * Starts generating every chunk inside the world's border.
+   *
+   * @param world The world to pre-generate.
+   * @return The task tracking the pre-generation.
+   */
+  public Task pregenerate(World world) {
+    Location center = world.getWorldBorder().getCenter();
+    int radiusChunks = (int) Math.ceil(world.getWorldBorder().getSize() / 2.0 / CHUNK_SIZE);
+    return pregenerate(world, center.getBlockX() >> 4, center.getBlockZ() >> 4, radiusChunks);
+  }
+
+  /**
+   * Starts generating a square of chunks around a center chunk.
+   *
+   * @param world        The world to pre-generate.
+   * @param centerChunkX The x coordinate of the center chunk.
+   * @param centerChunkZ The z coordinate of the center chunk.
+   * @param radiusChunks The radius of the square in chunks.
+   * @return The task tracking the pre-generation.
+   */
+  public Task pregenerate(World world, int centerChunkX, int centerChunkZ, int radiusChunks) {
+    Task task = new Task(world, centerChunkX, centerChunkZ, radiusChunks);
+    tasks.add(task);
+    plugin.getLogger().info("Pre-generating " + task.totalChunks + " chunks in " + world.getName()
+        + (isAsyncSupported() ? " asynchronously." : " within the tick budget."));
+    startTicking();
+    return task;
+  }
+
+  /**
+   * Cancels the running tasks of a world, for example before it is unloaded.
+   *
+   * @param worldName The name of the world.
+   */
+  public void cancel(String worldName) {
+    for (Task task : tasks) {
+      if (task.world.getName().equals(worldName)) {
+        task.cancel();
+      }
+    }
+  }
+
+  /**
+   * Cancels every running task.
+   */
+  public void shutdown() {
+    tasks.forEach(Task::cancel);
+    tasks.clear();
+    if (tickTask != null) {
+      tickTask.cancel();
+      tickTask = null;
+    }
+  }
+
+  /**
+   * Starts the per-tick runner if it is not running yet.
+   */
+  private void startTicking() {
+    if (tickTask != null) {
+      return;
+    }
+    tickTask = clock.scheduleRepeating(1L, 1L, this::tick);
+  }
+
+  /**
+   * Advances the running tasks round-robin until the tick budget is spent.
+   * Stops the runner when no tasks are left.
+   */
+  private void tick() {
+    long start = System.nanoTime();
+    long deadline = start + budgetNanosPerTick;
+    boolean progressed = true;
+    while (progressed && System.nanoTime() < deadline) {
+      progressed = false;
+      for (Task task : tasks) {
+        progressed |= task.step();
+      }
+    }
+
+    List<Task> finished = new ArrayList<>();
+    tasks.removeIf(task -> task.isFinished() && finished.add(task));
+    if (tasks.isEmpty() && tickTask != null) {
+      tickTask.cancel();
+      tickTask = null;
+    }
+    PluginMetrics.PREGENERATION_TICK.recordSince(start);
+    // Completed last, callbacks may start new tasks
+    finished.forEach(Task::complete);
+  }
+
+  /**
+   * Pre-generation of one square of chunks, visited in a spiral.
+   * Only accessed from the main thread.
+   */
+  public final class Task {
+    private final World world;
+    private final int centerChunkX;
+    private final int centerChunkZ;
+    private final int totalChunks;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private int visited;
+    private int completed;
+    private int inFlight;
+    private int spiralX;
+    private int spiralZ;
+    private int directionX;
+    private int directionZ = -1;
+    private int lastReportedDecile;
+    private boolean cancelled;
+
+    private Task(World world, int centerChunkX, int centerChunkZ, int radiusChunks) {
+      this.world = world;
+      this.centerChunkX = centerChunkX;
+      this.centerChunkZ = centerChunkZ;
+      int side = radiusChunks * 2 + 1;
+      this.totalChunks = side * side;
+    }
+
+    /**
+     * Generates or requests the next chunk of the spiral.
+     *
+     * @return True if work was done, false if the task is waiting or done.
+     */
+    private boolean step() {
+      if (cancelled || visited >= totalChunks || inFlight >= MAX_ASYNC_IN_FLIGHT) {
+        return false;
+      }
+
+      int chunkX = centerChunkX + spiralX;
+      int chunkZ = centerChunkZ + spiralZ;
+      advanceSpiral();
+      visited++;
+
+      if (world.isChunkGenerated(chunkX, chunkZ)) {
+        chunkCompleted();
+      } else if (GET_CHUNK_AT_ASYNC != null) {
+        loadAsync(chunkX, chunkZ);
+      } else {
+        world.loadChunk(chunkX, chunkZ, true);
+        world.unloadChunkRequest(chunkX, chunkZ);
+        chunkCompleted();
+      }
+      return true;
+    }
+
+    /**
+     * Moves to the next position of a square spiral around the origin.
+     */
+    private void advanceSpiral() {
+      if (spiralX == spiralZ || (spiralX < 0 && spiralX == -spiralZ) || (spiralX > 0 && spiralX == 1 - spiralZ)) {
+        int previousDirectionX = directionX;
+        directionX = -directionZ;
+        directionZ = previousDirectionX;
+      }
+      spiralX += directionX;
+      spiralZ += directionZ;
+    }
+
+    /**
+     * Requests a chunk through the server's asynchronous chunk loader.
+     *
+     * @param chunkX The x coordinate of the chunk.
+     * @param chunkZ The z coordinate of the chunk.
+     */
+    private void loadAsync(int chunkX, int chunkZ) {
+      inFlight++;
+      try {
+        CompletableFuture<?> future = loadChunkAsync(world, chunkX, chunkZ);
+        future.whenComplete((chunk, error) -> {
+          inFlight--;
+          if (error != null) {
+            plugin.getLogger().log(Level.WARNING, "Failed to pre-generate chunk " + chunkX + "," + chunkZ
+                + " in " + world.getName(), error);
+          } else {
+            world.unloadChunkRequest(chunkX, chunkZ);
+          }
+          chunkCompleted();
+        });
+      } catch (ReflectiveOperationException e) {
+        inFlight--;
+        world.loadChunk(chunkX, chunkZ, true);
+        world.unloadChunkRequest(chunkX, chunkZ);
+        chunkCompleted();
+      }
+    }
+
+    /**
+     * Records a finished chunk and logs progress every ten percent.
+     */
+    private void chunkCompleted() {
+      completed++;
+      int decile = completed * 10 / totalChunks;
+      if (decile > lastReportedDecile) {
+        lastReportedDecile = decile;
+        plugin.getLogger().info("Pre-generating " + world.getName() + ": " + (decile * 10) + "% ("
+            + completed + "/" + totalChunks + " chunks)");
+      }
+    }
+
+    private boolean isFinished() {
+      return cancelled || (completed >= totalChunks && inFlight == 0);
+    }
+
+    private void complete() {
+      if (!cancelled) {
+        completion.complete(null);
+      }
+    }
+
+    /**
+     * Stops the task. Chunks already requested still finish loading.
+     */
+    public void cancel() {
+      cancelled = true;
+      completion.cancel(false);
+    }
+
+    /**
+     * Gets the world being pre-generated.
+     *
+     * @return The world.
+     */
+    public World getWorld() {
+      return world;
+    }
+
+    /**
+     * Gets the fraction of chunks that have been generated.
+     *
+     * @return The progress between 0 and 1.
+     */
+    public double getProgress() {
+      return totalChunks == 0 ? 1.0 : (double) completed / totalChunks;
+    }
+
+    /**
+     * Gets a future completed on the main thread once every chunk has been
+     * generated. It is cancelled if the task is cancelled.
+     *
+     * @return The completion future.
+     */
+    public CompletableFuture<Void> getCompletion() {
+      return completion;
+    }
+  }
+}
@@ -0,0 +1,749 @@
+package org.maven.minigamehub.world;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.Container;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFormEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockGrowEvent;
+import org.bukkit.event.block.BlockMultiPlaceEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.BlockSpreadEvent;
+import org.bukkit.event.block.LeavesDecayEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.player.PlayerBucketEmptyEvent;
+import org.bukkit.event.player.PlayerBucketFillEvent;
+import org.bukkit.event.world.StructureGrowEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.maven.minigamehub.games.GameClock;
+import org.maven.minigamehub.metrics.PluginMetrics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
+/**
+ * RegionResetEngine class
+ * This class resets arena regions in place so a world can be reused between
+ * matches. A region's block states are captured into a {@link RegionSnapshot};
+ * while a match runs, every block change inside a tracked region marks its
+ * position in a dirty bitset. Afterwards only the dirty positions and the
+ * containers are put back. Capturing and restoring are spread over several
+ * ticks within a milliseconds-per-tick budget, and requests are served in the
+ * order they were made. The block change listener is only registered while a
+ * region is tracked.
+ * Changes that fire no event, such as redstone power or blocks moved by
+ * commands, are not tracked. Entities are left alone.
+ */
+public class RegionResetEngine implements Listener {
+  private static final int REGION_CELL_SIZE = 64;
+  private static final int BLOCKS_PER_CLOCK_CHECK = 64;
+
+  private final JavaPlugin plugin;
+  private final long budgetNanosPerTick;
+  private final Map<String, SpatialIndex<TrackedRegion>> regions = new HashMap<>();
+  private final Deque<Job> jobs = new ArrayDeque<>();
+  private final GameClock clock;
+  private GameClock.Timeout tickTask;
+  private boolean registered;
+
+  /**
+   * Constructor for the RegionResetEngine class.
+   *
+   * @param plugin              The JavaPlugin instance.
+   * @param budgetMillisPerTick The maximum milliseconds spent capturing and restoring per tick.
+   * @param clock               The shared game clock driving the per-tick runner.
+   */
+  public RegionResetEngine(JavaPlugin plugin, double budgetMillisPerTick, GameClock clock) {
+    this.plugin = plugin;
+    this.clock = clock;
+    this.budgetNanosPerTick = (long) (Math.max(0.5, budgetMillisPerTick) * 1_000_000L);
+  }
+
+  /**
+   * Captures the block states and container contents of a box. The chunks are
+   * copied on the main thread a few per tick and the snapshot is built from the
+   * copies in the background.
+   *
+   * @param world The world the box is in.
+   * @param x1    The x coordinate of one corner.
+   * @param y1    The y coordinate of one corner.
+   * @param z1    The z coordinate of one corner.
+   * @param x2    The x coordinate of the opposite corner.
+   * @param y2    The y coordinate of the opposite corner.
+   * @param z2    The z coordinate of the opposite corner.
+   * @return A future completed on the main thread with the snapshot.
+   */
+  public CompletableFuture<RegionSnapshot> capture(World world, int x1, int y1, int z1, int x2, int y2, int z2) {
+    RegionSnapshot.Builder builder;
+    try {
+      builder = new RegionSnapshot.Builder(x1, Math.max(y1, world.getMinHeight()), z1, x2,
+          Math.min(y2, world.getMaxHeight() - 1), z2);
+    } catch (IllegalArgumentException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    CaptureJob job = new CaptureJob(world, builder);
+    jobs.add(job);
+    startTicking();
+    return job.completion;
+  }
+
+  /**
+   * Starts tracking the block changes inside a snapshot's box.
+   *
+   * @param world    The world the box is in.
+   * @param snapshot The snapshot the region is restored to.
+   * @return The tracked region.
+   */
+  public TrackedRegion track(World world, RegionSnapshot snapshot) {
+    TrackedRegion region = new TrackedRegion(world.getName(), snapshot);
+    regions.computeIfAbsent(region.worldName, ignored -> new SpatialIndex<>(REGION_CELL_SIZE))
+        .addBox(snapshot.getMinX(), snapshot.getMinZ(), snapshot.getMaxX(), snapshot.getMaxZ(), region);
+    if (!registered) {
+      Bukkit.getPluginManager().registerEvents(this, plugin);
+      registered = true;
+    }
+    return region;
+  }
+
+  /**
+   * Stops tracking a region without restoring it.
+   *
+   * @param region The tracked region.
+   */
+  public void untrack(TrackedRegion region) {
+    SpatialIndex<TrackedRegion> index = regions.get(region.worldName);
+    if (index != null && index.removeBoxes(region) && index.isEmpty()) {
+      regions.remove(region.worldName);
+    }
+    if (regions.isEmpty() && registered) {
+      HandlerList.unregisterAll(this);
+      registered = false;
+    }
+  }
+
+  /**
+   * Puts back the dirty positions and the container contents of a tracked
+   * region. The region keeps being tracked until it is restored, so changes
+   * made in the meantime are put back too, and is untracked afterwards.
+   *
+   * @param region The tracked region.
+   * @return A future completed on the main thread with the number of blocks put back.
+   */
+  public CompletableFuture<Integer> reset(TrackedRegion region) {
+    ResetJob job = new ResetJob(region.worldName, region.snapshot, region, region.dirty);
+    jobs.add(job);
+    startTicking();
+    return job.completion;
+  }
+
+  /**
+   * Compares every position of a snapshot's box against the world and puts back the
+   * ones that differ. Used when the changed positions are not known, for
+   * example after a crash.
+   *
+   * @param world    The world the box is in.
+   * @param snapshot The snapshot to restore.
+   * @return A future completed on the main thread with the number of blocks put back.
+   */
+  public CompletableFuture<Integer> resetAll(World world, RegionSnapshot snapshot) {
+    BitSet everything = new BitSet(snapshot.getVolume());
+    everything.set(0, snapshot.getVolume());
+    ResetJob job = new ResetJob(world.getName(), snapshot, null, everything);
+    jobs.add(job);
+    startTicking();
+    return job.completion;
+  }
+
+  /**
+   * Finishes every pending reset at once and cancels pending captures.
+   * Called when the plugin is disabled and no more ticks will run.
+   */
+  public void shutdown() {
+    for (Job job : jobs) {
+      if (job instanceof ResetJob) {
+        job.step(Long.MAX_VALUE);
+      } else {
+        job.cancel();
+      }
+    }
+    jobs.clear();
+    if (tickTask != null) {
+      tickTask.cancel();
+      tickTask = null;
+    }
+    regions.clear();
+    if (registered) {
+      HandlerList.unregisterAll(this);
+      registered = false;
+    }
+  }
+
+  /**
+   * Starts the per-tick runner if it is not running yet.
+   * While the plugin is being disabled the jobs are left for {@link #shutdown()}.
+   */
+  private void startTicking() {
+    if (tickTask != null || !plugin.isEnabled()) {
+      return;
+    }
+    tickTask = clock.scheduleRepeating(1L, 1L, this::tick);
+  }
+
+  /**
+   * Works on the oldest jobs until the tick budget is spent. Stops the runner
+   * when no jobs are left.
+   */
+  private void tick() {
+    long start = System.nanoTime();
+    long deadline = start + budgetNanosPerTick;
+    // Jobs rotated to the back in a row because they are built in the background
+    int waiting = 0;
+    while (waiting < jobs.size() && System.nanoTime() < deadline) {
+      Job job = jobs.peekFirst();
+      if (job.step(deadline)) {
+        jobs.pollFirst();
+        waiting = 0;
+      } else if (job.isWaiting()) {
+        // Let the next job use the rest of the tick
+        jobs.pollFirst();
+        jobs.addLast(job);
+        waiting++;
+      } else {
+        waiting = 0;
+      }
+    }
+    if (jobs.isEmpty() && tickTask != null) {
+      tickTask.cancel();
+      tickTask = null;
+    }
+    PluginMetrics.REGION_RESET_TICK.recordSince(start);
+  }
+
+  /**
+   * Marks a changed block dirty in the region it lies in, if any.
+   *
+   * @param block The block that changed.
+   */
+  private void markDirty(Block block) {
+    SpatialIndex<TrackedRegion> index = regions.get(block.getWorld().getName());
+    if (index != null) {
+      TrackedRegion region = index.containing(block.getX(), block.getZ());
+      if (region != null) {
+        region.markDirty(block.getX(), block.getY(), block.getZ());
+      }
+    }
+  }
+
+  private void markDirty(List<Block> blocks) {
+    for (Block block : blocks) {
+      markDirty(block);
+    }
+  }
+
+  /**
+   * Marks blocks broken by players dirty.
+   *
+   * @param event The BlockBreakEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockBreak(BlockBreakEvent event) {
+    markDirty(event.getBlock());
+  }
+
+  /**
+   * Marks blocks placed by players dirty.
+   *
+   * @param event The BlockPlaceEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockPlace(BlockPlaceEvent event) {
+    markDirty(event.getBlock());
+  }
+
+  /**
+   * Marks every block replaced by a multi-block placement, such as a bed, dirty.
+   *
+   * @param event The BlockMultiPlaceEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockMultiPlace(BlockMultiPlaceEvent event) {
+    for (BlockState state : event.getReplacedBlockStates()) {
+      markDirty(state.getBlock());
+    }
+  }
+
+  /**
+   * Marks burnt blocks dirty.
+   *
+   * @param event The BlockBurnEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockBurn(BlockBurnEvent event) {
+    markDirty(event.getBlock());
+  }
+
+  /**
+   * Marks faded blocks, such as melted ice, dirty.
+   *
+   * @param event The BlockFadeEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockFade(BlockFadeEvent event) {
+    markDirty(event.getBlock());
+  }
+
+  /**
+   * Marks grown crops dirty.
+   *
+   * @param event The BlockGrowEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockGrow(BlockGrowEvent event) {
+    markDirty(event.getBlock());
+  }
+
+  /**
+   * Marks formed blocks, such as snow layers or cobblestone, dirty.
+   *
+   * @param event The BlockFormEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockForm(BlockFormEvent event) {
+    markDirty(event.getBlock());
+  }
+
+  /**
+   * Marks spread blocks, such as fire or grass, dirty.
+   *
+   * @param event The BlockSpreadEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockSpread(BlockSpreadEvent event) {
+    markDirty(event.getBlock());
+  }
+
+  /**
+   * Marks blocks reached by flowing liquids or dragon eggs dirty.
+   *
+   * @param event The BlockFromToEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockFromTo(BlockFromToEvent event) {
+    markDirty(event.getToBlock());
+  }
+
+  /**
+   * Marks decayed leaves dirty.
+   *
+   * @param event The LeavesDecayEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onLeavesDecay(LeavesDecayEvent event) {
+    markDirty(event.getBlock());
+  }
+
+  /**
+   * Marks blocks destroyed by an exploding block, and the block itself, dirty.
+   *
+   * @param event The BlockExplodeEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockExplode(BlockExplodeEvent event) {
+    markDirty(event.getBlock());
+    markDirty(event.blockList());
+  }
+
+  /**
+   * Marks blocks destroyed by an exploding entity dirty.
+   *
+   * @param event The EntityExplodeEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onEntityExplode(EntityExplodeEvent event) {
+    markDirty(event.blockList());
+  }
+
+  /**
+   * Marks the blocks pushed by a piston, their destinations and the piston head dirty.
+   *
+   * @param event The BlockPistonExtendEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onPistonExtend(BlockPistonExtendEvent event) {
+    markDirty(event.getBlock().getRelative(event.getDirection()));
+    for (Block block : event.getBlocks()) {
+      markDirty(block);
+      markDirty(block.getRelative(event.getDirection()));
+    }
+  }
+
+  /**
+   * Marks the blocks pulled by a piston, their destinations and the piston head dirty.
+   *
+   * @param event The BlockPistonRetractEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onPistonRetract(BlockPistonRetractEvent event) {
+    markDirty(event.getBlock().getRelative(event.getDirection().getOppositeFace()));
+    for (Block block : event.getBlocks()) {
+      markDirty(block);
+      markDirty(block.getRelative(event.getDirection()));
+    }
+  }
+
+  /**
+   * Marks blocks changed by entities, such as falling sand or endermen, dirty.
+   *
+   * @param event The EntityChangeBlockEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onEntityChangeBlock(EntityChangeBlockEvent event) {
+    markDirty(event.getBlock());
+  }
+
+  /**
+   * Marks blocks filled from a bucket dirty.
+   *
+   * @param event The PlayerBucketEmptyEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBucketEmpty(PlayerBucketEmptyEvent event) {
+    markDirty(event.getBlock());
+  }
+
+  /**
+   * Marks blocks scooped up with a bucket dirty.
+   *
+   * @param event The PlayerBucketFillEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBucketFill(PlayerBucketFillEvent event) {
+    markDirty(event.getBlock());
+  }
+
+  /**
+   * Marks the blocks of grown trees and mushrooms dirty.
+   *
+   * @param event The StructureGrowEvent.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onStructureGrow(StructureGrowEvent event) {
+    for (BlockState state : event.getBlocks()) {
+      markDirty(state.getBlock());
+    }
+  }
+
+  /**
+   * A region whose block changes are being tracked.
+   * Only accessed from the main thread.
+   */
+  public static final class TrackedRegion {
+    private final String worldName;
+    private final RegionSnapshot snapshot;
+    private final BitSet dirty = new BitSet();
+
+    private TrackedRegion(String worldName, RegionSnapshot snapshot) {
+      this.worldName = worldName;
+      this.snapshot = snapshot;
+    }
+
+    /**
+     * Gets the snapshot the region is restored to.
+     *
+     * @return The snapshot.
+     */
+    public RegionSnapshot getSnapshot() {
+      return snapshot;
+    }
+
+    /**
+     * Marks a position changed. Positions outside the region are ignored.
+     *
+     * @param x The block x coordinate.
+     * @param y The block y coordinate.
+     * @param z The block z coordinate.
+     */
+    public void markDirty(int x, int y, int z) {
+      int index = snapshot.indexOf(x, y, z);
+      if (index >= 0) {
+        dirty.set(index);
+      }
+    }
+
+    /**
+     * Gets the number of positions changed since the region was tracked or last restored.
+     *
+     * @return The number of dirty positions.
+     */
+    public int getDirtyCount() {
+      return dirty.cardinality();
+    }
+  }
+
+  /**
+   * A unit of work served by the per-tick runner.
+   */
+  private abstract static class Job {
+    /**
+     * Works on the job until it is done or the deadline has passed.
+     *
+     * @param deadline The System.nanoTime() at which the tick budget is spent.
+     * @return True if the job is done.
+     */
+    abstract boolean step(long deadline);
+
+    /**
+     * Checks if the job is waiting for background work and has nothing to do this tick.
+     *
+     * @return True if the job is waiting.
+     */
+    boolean isWaiting() {
+      return false;
+    }
+
+    abstract void cancel();
+  }
+
+  /**
+   * Copies the chunks of a box on the main thread, then builds the snapshot
+   * from the copies in the background.
+   */
+  private final class CaptureJob extends Job {
+    private final World world;
+    private final RegionSnapshot.Builder builder;
+    private final List<ChunkSnapshot> chunks = new ArrayList<>();
+    private final CompletableFuture<RegionSnapshot> completion = new CompletableFuture<>();
+    private final int lastChunkX;
+    private final int lastChunkZ;
+    private int chunkX;
+    private int chunkZ;
+    private boolean building;
+
+    private CaptureJob(World world, RegionSnapshot.Builder builder) {
+      this.world = world;
+      this.builder = builder;
+      this.chunkX = builder.getMinX() >> 4;
+      this.chunkZ = builder.getMinZ() >> 4;
+      this.lastChunkX = builder.getMaxX() >> 4;
+      this.lastChunkZ = builder.getMaxZ() >> 4;
+    }
+
+    @Override
+    boolean step(long deadline) {
+      if (completion.isDone()) {
+        return true;
+      }
+      if (building) {
+        return false;
+      }
+      while (chunkX <= lastChunkX && System.nanoTime() < deadline) {
+        Chunk chunk = world.getChunkAt(chunkX, chunkZ);
+        chunks.add(chunk.getChunkSnapshot(false, false, false));
+        captureContainers(chunk);
+        if (++chunkZ > lastChunkZ) {
+          chunkZ = builder.getMinZ() >> 4;
+          chunkX++;
+        }
+      }
+      if (chunkX <= lastChunkX) {
+        return false;
+      }
+      building = true;
+      new BukkitRunnable() {
+        @Override
+        public void run() {
+          try {
+            RegionSnapshot snapshot = build();
+            if (!plugin.isEnabled()) {
+              // Cancelled by shutdown()
+              return;
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> completion.complete(snapshot));
+          } catch (RuntimeException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to build a region snapshot of " + world.getName(), e);
+            Bukkit.getScheduler().runTask(plugin, () -> completion.completeExceptionally(e));
+          }
+        }
+      }.runTaskAsynchronously(plugin);
+      return false;
+    }
+
+    @Override
+    boolean isWaiting() {
+      return building;
+    }
+
+    @Override
+    void cancel() {
+      completion.cancel(false);
+    }
+
+    private void captureContainers(Chunk chunk) {
+      for (BlockState state : chunk.getTileEntities()) {
+        if (state instanceof Container && state.getX() >= builder.getMinX() && state.getX() <= builder.getMaxX()
+            && state.getY() >= builder.getMinY() && state.getY() <= builder.getMaxY()
+            && state.getZ() >= builder.getMinZ() && state.getZ() <= builder.getMaxZ()) {
+          builder.setContainer(state.getX(), state.getY(), state.getZ(),
+              cloneItems(((Container) state).getSnapshotInventory().getContents()));
+        }
+      }
+    }
+
+    /**
+     * Fills the builder from the chunk copies. Runs in the background.
+     *
+     * @return The snapshot.
+     */
+    private RegionSnapshot build() {
+      for (ChunkSnapshot chunk : chunks) {
+        int fromX = Math.max(builder.getMinX(), chunk.getX() << 4);
+        int toX = Math.min(builder.getMaxX(), (chunk.getX() << 4) + 15);
+        int fromZ = Math.max(builder.getMinZ(), chunk.getZ() << 4);
+        int toZ = Math.min(builder.getMaxZ(), (chunk.getZ() << 4) + 15);
+        for (int y = builder.getMinY(); y <= builder.getMaxY(); y++) {
+          for (int z = fromZ; z <= toZ; z++) {
+            for (int x = fromX; x <= toX; x++) {
+              builder.set(x, y, z, chunk.getBlockData(x & 15, y, z & 15));
+            }
+          }
+        }
+      }
+      chunks.clear();
+      return builder.build();
+    }
+  }
+
+  /**
+   * Puts back the marked positions of a snapshot, then the container contents.
+   */
+  private final class ResetJob extends Job {
+    private final String worldName;
+    private final RegionSnapshot snapshot;
+    private final TrackedRegion region;
+    private final BitSet pending;
+    private final CompletableFuture<Integer> completion = new CompletableFuture<>();
+    private Iterator<Map.Entry<Integer, ItemStack[]>> containers;
+    private int cursor;
+    private int restored;
+
+    private ResetJob(String worldName, RegionSnapshot snapshot, TrackedRegion region, BitSet pending) {
+      this.worldName = worldName;
+      this.snapshot = snapshot;
+      this.region = region;
+      this.pending = pending;
+    }
+
+    @Override
+    boolean step(long deadline) {
+      World world = Bukkit.getWorld(worldName);
+      if (world == null) {
+        finish();
+        completion.completeExceptionally(new IllegalStateException("World " + worldName + " is not loaded."));
+        return true;
+      }
+      int sinceClockCheck = 0;
+      while (true) {
+        int index = pending.nextSetBit(cursor);
+        if (index < 0 && cursor > 0) {
+          // Positions marked behind the cursor since the last pass
+          cursor = 0;
+          continue;
+        }
+        if (index >= 0) {
+          pending.clear(index);
+          cursor = index + 1;
+          restore(world, index);
+          if (++sinceClockCheck == BLOCKS_PER_CLOCK_CHECK) {
+            sinceClockCheck = 0;
+            if (System.nanoTime() >= deadline) {
+              return false;
+            }
+          }
+          continue;
+        }
+        // Every marked position is back; the containers are put back once
+        if (containers == null) {
+          containers = snapshot.getContainers().entrySet().iterator();
+        }
+        if (!containers.hasNext()) {
+          return complete();
+        }
+        while (containers.hasNext()) {
+          Map.Entry<Integer, ItemStack[]> container = containers.next();
+          Block block = restore(world, container.getKey());
+          BlockState state = block.getState();
+          if (state instanceof Container) {
+            ((Container) state).getInventory().setContents(cloneItems(container.getValue()));
+          }
+          if (System.nanoTime() >= deadline) {
+            // Positions marked until the next tick are restored before completing
+            return false;
+          }
+        }
+      }
+    }
+
+    private Block restore(World world, int index) {
+      Block block = world.getBlockAt(snapshot.getX(index), snapshot.getY(index), snapshot.getZ(index));
+      BlockData target = snapshot.getBlockData(index);
+      if (!block.getBlockData().equals(target)) {
+        block.setBlockData(target, false);
+        restored++;
+        PluginMetrics.REGION_BLOCKS_RESTORED.increment();
+      }
+      return block;
+    }
+
+    private boolean complete() {
+      finish();
+      completion.complete(restored);
+      return true;
+    }
+
+    private void finish() {
+      if (region != null) {
+        untrack(region);
+      }
+    }
+
+    @Override
+    void cancel() {
+      finish();
+      completion.cancel(false);
+    }
+  }
+
+  private static ItemStack[] cloneItems(ItemStack[] items) {
+    ItemStack[] copy = new ItemStack[items.length];
+    for (int i = 0; i < items.length; i++) {
+      copy[i] = items[i] != null ? items[i].clone() : null;
+    }
+    return copy;
+  }
+}
@@ -0,0 +1,510 @@
+package org.maven.minigamehub.world;
+
+import org.bukkit.Bukkit;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.io.BukkitObjectInputStream;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Immutable copy of the block states in a box of a world.
+ * Each distinct block state is stored once in a palette, and every position holds
+ * an index into the palette packed into as few bits as the palette needs, the
+ * same layout Minecraft uses for chunk sections. A box of 200 by 200 columns
+ * with a few hundred distinct states takes about one byte per block. The
+ * contents of containers are kept separately by position.
+ * Positions are numbered x first, then z, then y.
+ */
+public final class RegionSnapshot {
+  private static final int FORMAT_VERSION = 1;
+
+  private final int minX;
+  private final int minY;
+  private final int minZ;
+  private final int width;
+  private final int height;
+  private final int depth;
+  private final BlockData[] palette;
+  private final PackedIndices states;
+  private final Map<Integer, ItemStack[]> containers;
+
+  private RegionSnapshot(int minX, int minY, int minZ, int width, int height, int depth, BlockData[] palette,
+      PackedIndices states, Map<Integer, ItemStack[]> containers) {
+    this.minX = minX;
+    this.minY = minY;
+    this.minZ = minZ;
+    this.width = width;
+    this.height = height;
+    this.depth = depth;
+    this.palette = palette;
+    this.states = states;
+    this.containers = containers;
+  }
+
+  /**
+   * Gets the lowest block x coordinate of the box.
+   *
+   * @return The coordinate, inclusive.
+   */
+  public int getMinX() {
+    return minX;
+  }
+
+  /**
+   * Gets the lowest block y coordinate of the box.
+   *
+   * @return The coordinate, inclusive.
+   */
+  public int getMinY() {
+    return minY;
+  }
+
+  /**
+   * Gets the lowest block z coordinate of the box.
+   *
+   * @return The coordinate, inclusive.
+   */
+  public int getMinZ() {
+    return minZ;
+  }
+
+  /**
+   * Gets the highest block x coordinate of the box.
+   *
+   * @return The coordinate, inclusive.
+   */
+  public int getMaxX() {
+    return minX + width - 1;
+  }
+
+  /**
+   * Gets the highest block y coordinate of the box.
+   *
+   * @return The coordinate, inclusive.
+   */
+  public int getMaxY() {
+    return minY + height - 1;
+  }
+
+  /**
+   * Gets the highest block z coordinate of the box.
+   *
+   * @return The coordinate, inclusive.
+   */
+  public int getMaxZ() {
+    return minZ + depth - 1;
+  }
+
+  /**
+   * Gets the number of positions in the snapshot.
+   *
+   * @return The volume of the box.
+   */
+  public int getVolume() {
+    return width * height * depth;
+  }
+
+  /**
+   * Gets the number of distinct block states in the snapshot.
+   *
+   * @return The palette size.
+   */
+  public int getPaletteSize() {
+    return palette.length;
+  }
+
+  /**
+   * Gets the index of a block position.
+   *
+   * @param x The block x coordinate.
+   * @param y The block y coordinate.
+   * @param z The block z coordinate.
+   * @return The index, or -1 if the position is outside the box.
+   */
+  public int indexOf(int x, int y, int z) {
+    x -= minX;
+    y -= minY;
+    z -= minZ;
+    if (x < 0 || y < 0 || z < 0 || x >= width || y >= height || z >= depth) {
+      return -1;
+    }
+    return (y * depth + z) * width + x;
+  }
+
+  /**
+   * Gets the block x coordinate of a position.
+   *
+   * @param index The index of the position.
+   * @return The coordinate.
+   */
+  public int getX(int index) {
+    return minX + index % width;
+  }
+
+  /**
+   * Gets the block y coordinate of a position.
+   *
+   * @param index The index of the position.
+   * @return The coordinate.
+   */
+  public int getY(int index) {
+    return minY + index / (width * depth);
+  }
+
+  /**
+   * Gets the block z coordinate of a position.
+   *
+   * @param index The index of the position.
+   * @return The coordinate.
+   */
+  public int getZ(int index) {
+    return minZ + (index / width) % depth;
+  }
+
+  /**
+   * Gets the block state captured at a position.
+   *
+   * @param index The index of the position.
+   * @return The block state. Clone it before changing it.
+   */
+  public BlockData getBlockData(int index) {
+    return palette[states.get(index)];
+  }
+
+  /**
+   * Gets the indices of the positions whose captured block state passes a test.
+   * The test runs once per palette entry, not once per position.
+   *
+   * @param filter The test.
+   * @return A new bitset of the matching positions.
+   */
+  public BitSet positionsMatching(Predicate<BlockData> filter) {
+    boolean[] matches = new boolean[palette.length];
+    boolean any = false;
+    for (int i = 0; i < palette.length; i++) {
+      matches[i] = filter.test(palette[i]);
+      any |= matches[i];
+    }
+    BitSet positions = new BitSet();
+    if (any) {
+      int volume = getVolume();
+      for (int i = 0; i < volume; i++) {
+        if (matches[states.get(i)]) {
+          positions.set(i);
+        }
+      }
+    }
+    return positions;
+  }
+
+  /**
+   * Gets the captured contents of every container, keyed by position index.
+   *
+   * @return An unmodifiable view of the container contents.
+   */
+  public Map<Integer, ItemStack[]> getContainers() {
+    return containers;
+  }
+
+  /**
+   * Writes the snapshot to a file. The file is replaced atomically.
+   * Block states are written as strings, so the file survives server updates.
+   * Safe to call off the main thread, the snapshot never changes.
+   *
+   * @param file The file to write.
+   * @throws IOException If the file could not be written.
+   */
+  public void save(Path file) throws IOException {
+    Files.createDirectories(file.toAbsolutePath().getParent());
+    Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+    try (BukkitObjectOutputStream out = new BukkitObjectOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+      out.writeInt(FORMAT_VERSION);
+      out.writeInt(minX);
+      out.writeInt(minY);
+      out.writeInt(minZ);
+      out.writeInt(width);
+      out.writeInt(height);
+      out.writeInt(depth);
+      out.writeInt(palette.length);
+      for (BlockData data : palette) {
+        out.writeUTF(data.getAsString());
+      }
+      out.writeByte(states.bits);
+      out.writeInt(states.data.length);
+      for (long word : states.data) {
+        out.writeLong(word);
+      }
+      out.writeInt(containers.size());
+      for (Map.Entry<Integer, ItemStack[]> container : containers.entrySet()) {
+        out.writeInt(container.getKey());
+        out.writeInt(container.getValue().length);
+        for (ItemStack item : container.getValue()) {
+          out.writeObject(item);
+        }
+      }
+    }
+    Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Reads a snapshot written by {@link #save(Path)}.
+   *
+   * @param file The file to read.
+   * @return The snapshot, or null if the file does not exist.
+   * @throws IOException If the file could not be read or is not a snapshot.
+   */
+  public static RegionSnapshot load(Path file) throws IOException {
+    if (!Files.exists(file)) {
+      return null;
+    }
+    try (BukkitObjectInputStream in = new BukkitObjectInputStream(
+        new BufferedInputStream(Files.newInputStream(file)))) {
+      int version = in.readInt();
+      if (version != FORMAT_VERSION) {
+        throw new IOException("Unsupported region snapshot format " + version);
+      }
+      int minX = in.readInt();
+      int minY = in.readInt();
+      int minZ = in.readInt();
+      int width = in.readInt();
+      int height = in.readInt();
+      int depth = in.readInt();
+      BlockData[] palette = new BlockData[in.readInt()];
+      for (int i = 0; i < palette.length; i++) {
+        palette[i] = Bukkit.createBlockData(in.readUTF());
+      }
+      int bits = in.readByte();
+      if (bits < 1 || palette.length > 1L << bits) {
+        throw new IOException("Corrupt region snapshot " + file);
+      }
+      long[] data = new long[in.readInt()];
+      for (int i = 0; i < data.length; i++) {
+        data[i] = in.readLong();
+      }
+      PackedIndices states = new PackedIndices(width * height * depth, bits, data);
+      Map<Integer, ItemStack[]> containers = new HashMap<>();
+      int containerCount = in.readInt();
+      for (int i = 0; i < containerCount; i++) {
+        int index = in.readInt();
+        ItemStack[] items = new ItemStack[in.readInt()];
+        for (int slot = 0; slot < items.length; slot++) {
+          items[slot] = (ItemStack) in.readObject();
+        }
+        containers.put(index, items);
+      }
+      return new RegionSnapshot(minX, minY, minZ, width, height, depth, palette, states,
+          Collections.unmodifiableMap(containers));
+    } catch (ClassNotFoundException | IllegalArgumentException e) {
+      throw new IOException("Corrupt region snapshot " + file, e);
+    }
+  }
+
+  /**
+   * Collects the block states of a box position by position and builds a
+   * snapshot. Not thread-safe; a builder can be filled on any one thread.
+   */
+  public static final class Builder {
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int width;
+    private final int height;
+    private final int depth;
+    private final Map<BlockData, Integer> paletteIndices = new HashMap<>();
+    private final List<BlockData> palette = new ArrayList<>();
+    private final Map<Integer, ItemStack[]> containers = new HashMap<>();
+    private PackedIndices states;
+
+    /**
+     * Constructor for the Builder class. The corners may be given in any order.
+     *
+     * @param x1 The x coordinate of one corner.
+     * @param y1 The y coordinate of one corner.
+     * @param z1 The z coordinate of one corner.
+     * @param x2 The x coordinate of the opposite corner.
+     * @param y2 The y coordinate of the opposite corner.
+     * @param z2 The z coordinate of the opposite corner.
+     */
+    public Builder(int x1, int y1, int z1, int x2, int y2, int z2) {
+      this.minX = Math.min(x1, x2);
+      this.minY = Math.min(y1, y2);
+      this.minZ = Math.min(z1, z2);
+      this.width = Math.abs(x2 - x1) + 1;
+      this.height = Math.abs(y2 - y1) + 1;
+      this.depth = Math.abs(z2 - z1) + 1;
+      long volume = (long) width * height * depth;
+      if (volume > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Region of " + volume + " blocks is too large");
+      }
+      this.states = new PackedIndices((int) volume, 1);
+    }
+
+    /**
+     * Gets the lowest block x coordinate of the box.
+     *
+     * @return The coordinate, inclusive.
+     */
+    public int getMinX() {
+      return minX;
+    }
+
+    /**
+     * Gets the lowest block y coordinate of the box.
+     *
+     * @return The coordinate, inclusive.
+     */
+    public int getMinY() {
+      return minY;
+    }
+
+    /**
+     * Gets the lowest block z coordinate of the box.
+     *
+     * @return The coordinate, inclusive.
+     */
+    public int getMinZ() {
+      return minZ;
+    }
+
+    /**
+     * Gets the highest block x coordinate of the box.
+     *
+     * @return The coordinate, inclusive.
+     */
+    public int getMaxX() {
+      return minX + width - 1;
+    }
+
+    /**
+     * Gets the highest block y coordinate of the box.
+     *
+     * @return The coordinate, inclusive.
+     */
+    public int getMaxY() {
+      return minY + height - 1;
+    }
+
+    /**
+     * Gets the highest block z coordinate of the box.
+     *
+     * @return The coordinate, inclusive.
+     */
+    public int getMaxZ() {
+      return minZ + depth - 1;
+    }
+
+    /**
+     * Sets the block state at a position inside the box.
+     *
+     * @param x    The block x coordinate.
+     * @param y    The block y coordinate.
+     * @param z    The block z coordinate.
+     * @param data The block state.
+     */
+    public void set(int x, int y, int z, BlockData data) {
+      Integer paletteIndex = paletteIndices.get(data);
+      if (paletteIndex == null) {
+        paletteIndex = palette.size();
+        paletteIndices.put(data, paletteIndex);
+        palette.add(data);
+        if (paletteIndex >= 1 << states.bits) {
+          states = states.resize(states.bits + 1);
+        }
+      }
+      states.set(index(x, y, z), paletteIndex);
+    }
+
+    /**
+     * Sets the contents of a container at a position inside the box.
+     *
+     * @param x     The block x coordinate.
+     * @param y     The block y coordinate.
+     * @param z     The block z coordinate.
+     * @param items The contents, copied by the caller.
+     */
+    public void setContainer(int x, int y, int z, ItemStack[] items) {
+      containers.put(index(x, y, z), items);
+    }
+
+    /**
+     * Builds the snapshot. Positions that were never set hold the first block
+     * state that was set. The builder must not be used afterwards.
+     *
+     * @return The snapshot.
+     */
+    public RegionSnapshot build() {
+      if (palette.isEmpty()) {
+        throw new IllegalStateException("No block states were set");
+      }
+      return new RegionSnapshot(minX, minY, minZ, width, height, depth, palette.toArray(new BlockData[0]), states,
+          Collections.unmodifiableMap(new HashMap<>(containers)));
+    }
+
+    private int index(int x, int y, int z) {
+      return ((y - minY) * depth + (z - minZ)) * width + (x - minX);
+    }
+  }
+
+  /**
+   * Fixed-width unsigned integers packed into longs. Entries do not span two
+   * longs, so a long holds 64 / bits entries.
+   */
+  private static final class PackedIndices {
+    private final int size;
+    private final int bits;
+    private final int perWord;
+    private final long mask;
+    private final long[] data;
+
+    private PackedIndices(int size, int bits) {
+      this(size, bits, new long[(size + 64 / bits - 1) / (64 / bits)]);
+    }
+
+    private PackedIndices(int size, int bits, long[] data) {
+      if (bits < 1 || bits > 32) {
+        throw new IllegalArgumentException("Invalid entry width " + bits);
+      }
+      this.size = size;
+      this.bits = bits;
+      this.perWord = 64 / bits;
+      this.mask = (1L << bits) - 1;
+      if (data.length != (size + perWord - 1) / perWord) {
+        throw new IllegalArgumentException("Packed data has " + data.length + " words for " + size + " entries");
+      }
+      this.data = data;
+    }
+
+    private int get(int index) {
+      return (int) ((data[index / perWord] >>> ((index % perWord) * bits)) & mask);
+    }
+
+    private void set(int index, int value) {
+      int word = index / perWord;
+      int shift = (index % perWord) * bits;
+      data[word] = (data[word] & ~(mask << shift)) | ((long) value << shift);
+    }
+
+    private PackedIndices resize(int newBits) {
+      PackedIndices resized = new PackedIndices(size, newBits);
+      for (int i = 0; i < size; i++) {
+        resized.set(i, get(i));
+      }
+      return resized;
+    }
+  }
+}
@@ -0,0 +1,426 @@
+package org.maven.minigamehub.world;
+
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.WorldBorder;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.maven.minigamehub.games.GameClock;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * SafeLocationFinder class
+ * This class keeps a cache of safe points per world, so scatter spawns can be
+ * answered instantly. A point is safe if a player stands on solid ground that
+ * is not lava, water or another hazard, with room for their feet and head, and
+ * the column is not open to the void. To fill the cache, the bordered area is
+ * split into a grid and one generated chunk of every cell is snapshotted on the
+ * main thread within a milliseconds-per-tick budget. The heightmaps and blocks
+ * of the snapshots are then checked off the main thread.
+ */
+public class SafeLocationFinder {
+  private static final int CHUNK_SIZE = 16;
+  private static final int POINTS_PER_CHUNK = 4;
+  private static final int ATTEMPTS_PER_POINT = 4;
+  private static final int MAX_ASYNC_IN_FLIGHT = 8;
+  private static final Set<Material> UNSAFE_GROUND = EnumSet.of(Material.LAVA, Material.WATER,
+      Material.MAGMA_BLOCK, Material.CACTUS, Material.CAMPFIRE, Material.SOUL_CAMPFIRE, Material.FIRE,
+      Material.SOUL_FIRE, Material.POWDER_SNOW, Material.POINTED_DRIPSTONE, Material.SWEET_BERRY_BUSH);
+
+  private final JavaPlugin plugin;
+  private final int pointsPerWorld;
+  private final long budgetNanosPerTick;
+  private final Map<String, SafePoints> cache = new HashMap<>();
+  private final Deque<Sampling> samplings = new ArrayDeque<>();
+  private final Map<String, Sampling> activeSamplings = new HashMap<>();
+  private final GameClock clock;
+  private GameClock.Timeout tickTask;
+
+  /**
+   * Constructor for the SafeLocationFinder class.
+   *
+   * @param plugin              The JavaPlugin instance.
+   * @param pointsPerWorld      The number of safe points to look for in every world.
+   * @param budgetMillisPerTick The maximum milliseconds spent loading and snapshotting chunks per tick.
+   * @param clock               The shared game clock driving the per-tick runner.
+   */
+  public SafeLocationFinder(JavaPlugin plugin, int pointsPerWorld, double budgetMillisPerTick, GameClock clock) {
+    this.plugin = plugin;
+    this.clock = clock;
+    this.pointsPerWorld = Math.max(1, pointsPerWorld);
+    this.budgetNanosPerTick = (long) (Math.max(0.5, budgetMillisPerTick) * 1_000_000L);
+  }
+
+  /**
+   * Starts looking for safe points inside a world's border. The points found
+   * replace the ones cached for the world. If the world is already being
+   * sampled, that sampling's future is returned instead of starting another.
+   *
+   * @param world           The world to sample.
+   * @param generateMissing True to generate the sampled chunks that do not exist
+   *                        yet, for worlds still being pre-generated. Only one
+   *                        chunk per grid cell is sampled, so this stays bounded.
+   *                        Otherwise those chunks are skipped.
+   * @return A future completed on the main thread with the number of safe points found.
+   */
+  public CompletableFuture<Integer> prepare(World world, boolean generateMissing) {
+    Sampling active = activeSamplings.get(world.getName());
+    if (active != null) {
+      return active.completion;
+    }
+    Sampling sampling = new Sampling(world, generateMissing);
+    activeSamplings.put(world.getName(), sampling);
+    samplings.addLast(sampling);
+    startTicking();
+    return sampling.completion;
+  }
+
+  /**
+   * Drops the safe points of a world and stops sampling it, for example
+   * before it is deleted.
+   *
+   * @param worldName The name of the world.
+   */
+  public void forget(String worldName) {
+    cache.remove(worldName);
+    Sampling active = activeSamplings.remove(worldName);
+    if (active != null) {
+      // A sampling already being scanned sees the cancellation when it finishes
+      active.completion.cancel(false);
+      samplings.remove(active);
+    }
+  }
+
+  /**
+   * Gets a random cached safe point inside the world's current border.
+   *
+   * @param world The world.
+   * @return The safe point, or null if none is cached.
+   */
+  public Location getSafePoint(World world) {
+    List<Location> points = getScatterPoints(world, 1);
+    return points.isEmpty() ? null : points.get(0);
+  }
+
+  /**
+   * Picks cached safe points spread over the world's bordered area. Each point
+   * is the cached point farthest from the points already picked, so players
+   * start as far apart as the cache allows. Only cached coordinates are
+   * compared; no blocks are looked up.
+   *
+   * @param world The world.
+   * @param count The number of points wanted.
+   * @return Up to count distinct safe points, fewer if fewer are cached.
+   */
+  public List<Location> getScatterPoints(World world, int count) {
+    List<Location> scatter = new ArrayList<>(count);
+    SafePoints points = cache.get(world.getName());
+    if (points == null || count <= 0) {
+      return scatter;
+    }
+    WorldBorder border = world.getWorldBorder();
+    List<Location> candidates = new ArrayList<>(points.size);
+    for (int i = 0; i < points.size; i++) {
+      Location location = points.toLocation(world, i);
+      if (border.isInside(location)) {
+        candidates.add(location);
+      }
+    }
+    if (candidates.isEmpty()) {
+      return scatter;
+    }
+    // Smallest squared distance from each candidate to the points picked so far
+    double[] nearest = new double[candidates.size()];
+    Arrays.fill(nearest, Double.MAX_VALUE);
+    int next = ThreadLocalRandom.current().nextInt(candidates.size());
+    while (scatter.size() < count && next >= 0) {
+      Location picked = candidates.get(next);
+      scatter.add(picked);
+      nearest[next] = -1;
+      next = -1;
+      double farthest = -1;
+      for (int i = 0; i < nearest.length; i++) {
+        if (nearest[i] < 0) {
+          continue;
+        }
+        Location candidate = candidates.get(i);
+        double dx = candidate.getX() - picked.getX();
+        double dz = candidate.getZ() - picked.getZ();
+        nearest[i] = Math.min(nearest[i], dx * dx + dz * dz);
+        if (nearest[i] > farthest) {
+          farthest = nearest[i];
+          next = i;
+        }
+      }
+    }
+    return scatter;
+  }
+
+  /**
+   * Gets the number of safe points cached for a world.
+   *
+   * @param worldName The name of the world.
+   * @return The number of cached points.
+   */
+  public int getCachedCount(String worldName) {
+    SafePoints points = cache.get(worldName);
+    return points == null ? 0 : points.size;
+  }
+
+  /**
+   * Stops sampling and drops every cached point.
+   * Called when the plugin is disabled.
+   */
+  public void shutdown() {
+    if (tickTask != null) {
+      tickTask.cancel();
+      tickTask = null;
+    }
+    for (Sampling sampling : activeSamplings.values()) {
+      sampling.completion.cancel(false);
+    }
+    activeSamplings.clear();
+    samplings.clear();
+    cache.clear();
+  }
+
+  /**
+   * Starts the per-tick task if it is not running yet.
+   */
+  private void startTicking() {
+    if (tickTask != null || !plugin.isEnabled()) {
+      return;
+    }
+    tickTask = clock.scheduleRepeating(1L, 1L, this::tick);
+  }
+
+  /**
+   * Snapshots chunks of the oldest sampling within the tick budget and hands
+   * finished samplings to a background thread.
+   */
+  private void tick() {
+    long deadline = System.nanoTime() + budgetNanosPerTick;
+    while (!samplings.isEmpty() && System.nanoTime() < deadline) {
+      Sampling sampling = samplings.peekFirst();
+      if (sampling.isSnapshotted()) {
+        samplings.pollFirst();
+        sampling.scanAsync();
+      } else if (!sampling.step()) {
+        // Waiting for chunks requested from the asynchronous loader
+        break;
+      }
+    }
+    if (samplings.isEmpty()) {
+      tickTask.cancel();
+      tickTask = null;
+    }
+  }
+
+  /**
+   * Checks a column of a chunk snapshot for a safe place to stand.
+   * Safe to call off the main thread.
+   *
+   * @param snapshot  The chunk snapshot, including its heightmap.
+   * @param x         The x coordinate of the column inside the chunk.
+   * @param z         The z coordinate of the column inside the chunk.
+   * @param minHeight The world's minimum height.
+   * @param maxHeight The world's maximum height.
+   * @return The y coordinate of the ground, or Integer.MIN_VALUE if the column is not safe.
+   */
+  private static int findSafeGround(ChunkSnapshot snapshot, int x, int z, int minHeight, int maxHeight) {
+    int ground = snapshot.getHighestBlockYAt(x, z);
+    // An empty column is open to the void
+    if (ground < minHeight || ground + 2 >= maxHeight) {
+      return Integer.MIN_VALUE;
+    }
+    Material groundType = snapshot.getBlockType(x, ground, z);
+    if (!groundType.isSolid() || UNSAFE_GROUND.contains(groundType)) {
+      return Integer.MIN_VALUE;
+    }
+    if (!isPassable(snapshot.getBlockType(x, ground + 1, z)) || !isPassable(snapshot.getBlockType(x, ground + 2, z))) {
+      return Integer.MIN_VALUE;
+    }
+    return ground;
+  }
+
+  private static boolean isPassable(Material type) {
+    return !type.isSolid() && type != Material.WATER && type != Material.LAVA && !UNSAFE_GROUND.contains(type);
+  }
+
+  /**
+   * The safe points found in one world, packed as x, y and z of the block
+   * players stand in.
+   */
+  private static final class SafePoints {
+    private final int[] coordinates;
+    private final int size;
+
+    private SafePoints(int[] coordinates, int size) {
+      this.coordinates = coordinates;
+      this.size = size;
+    }
+
+    private Location toLocation(World world, int index) {
+      int offset = index * 3;
+      return new Location(world, coordinates[offset] + 0.5, coordinates[offset + 1], coordinates[offset + 2] + 0.5);
+    }
+  }
+
+  /**
+   * Sampling of one world: the chunks to snapshot, one per cell of a grid over
+   * the bordered area, and the snapshots taken so far.
+   */
+  private final class Sampling {
+    private final World world;
+    private final boolean generateMissing;
+    private final CompletableFuture<Integer> completion = new CompletableFuture<>();
+    private final Deque<int[]> chunksToSnapshot = new ArrayDeque<>();
+    private final List<ChunkSnapshot> snapshots = new ArrayList<>();
+    private final double borderCenterX;
+    private final double borderCenterZ;
+    private final double borderRadius;
+    private int inFlight;
+
+    private Sampling(World world, boolean generateMissing) {
+      this.world = world;
+      this.generateMissing = generateMissing;
+      WorldBorder border = world.getWorldBorder();
+      this.borderCenterX = border.getCenter().getX();
+      this.borderCenterZ = border.getCenter().getZ();
+      this.borderRadius = border.getSize() / 2.0;
+
+      int minChunkX = (int) Math.floor((borderCenterX - borderRadius) / CHUNK_SIZE);
+      int minChunkZ = (int) Math.floor((borderCenterZ - borderRadius) / CHUNK_SIZE);
+      int maxChunkX = (int) Math.floor((borderCenterX + borderRadius - 1) / CHUNK_SIZE);
+      int maxChunkZ = (int) Math.floor((borderCenterZ + borderRadius - 1) / CHUNK_SIZE);
+      int width = maxChunkX - minChunkX + 1;
+      int depth = maxChunkZ - minChunkZ + 1;
+      int chunks = (pointsPerWorld + POINTS_PER_CHUNK - 1) / POINTS_PER_CHUNK;
+      int cells = Math.max(1, Math.min(Math.min(width, depth), (int) Math.ceil(Math.sqrt(chunks))));
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      for (int cellX = 0; cellX < cells; cellX++) {
+        for (int cellZ = 0; cellZ < cells; cellZ++) {
+          int fromX = minChunkX + cellX * width / cells;
+          int toX = minChunkX + (cellX + 1) * width / cells;
+          int fromZ = minChunkZ + cellZ * depth / cells;
+          int toZ = minChunkZ + (cellZ + 1) * depth / cells;
+          chunksToSnapshot.add(new int[] { random.nextInt(fromX, Math.max(fromX + 1, toX)),
+              random.nextInt(fromZ, Math.max(fromZ + 1, toZ)) });
+        }
+      }
+    }
+
+    private boolean isSnapshotted() {
+      return chunksToSnapshot.isEmpty() && inFlight == 0;
+    }
+
+    /**
+     * Snapshots or requests the next chunk.
+     *
+     * @return True if work was done, false if the sampling is waiting for chunks.
+     */
+    private boolean step() {
+      if (chunksToSnapshot.isEmpty() || inFlight >= MAX_ASYNC_IN_FLIGHT) {
+        return false;
+      }
+      int[] chunk = chunksToSnapshot.pollFirst();
+      int chunkX = chunk[0];
+      int chunkZ = chunk[1];
+      if (world.isChunkLoaded(chunkX, chunkZ)) {
+        snapshots.add(world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(true, false, false));
+        return true;
+      }
+      if (!generateMissing && !world.isChunkGenerated(chunkX, chunkZ)) {
+        return true;
+      }
+      try {
+        CompletableFuture<?> future = ChunkPregenerator.loadChunkAsync(world, chunkX, chunkZ);
+        if (future != null) {
+          inFlight++;
+          future.whenComplete((loaded, error) -> {
+            inFlight--;
+            if (error == null && !completion.isDone()) {
+              snapshots.add(((Chunk) loaded).getChunkSnapshot(true, false, false));
+            }
+            world.unloadChunkRequest(chunkX, chunkZ);
+          });
+          return true;
+        }
+      } catch (ReflectiveOperationException e) {
+        // Falls back to loading the chunk synchronously below
+      }
+      snapshots.add(world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(true, false, false));
+      world.unloadChunkRequest(chunkX, chunkZ);
+      return true;
+    }
+
+    /**
+     * Checks random columns of every snapshot off the main thread and caches
+     * the safe points found on the main thread.
+     */
+    private void scanAsync() {
+      int minHeight = world.getMinHeight();
+      int maxHeight = world.getMaxHeight();
+      new BukkitRunnable() {
+        @Override
+        public void run() {
+          int[] coordinates = new int[snapshots.size() * POINTS_PER_CHUNK * 3];
+          int size = 0;
+          ThreadLocalRandom random = ThreadLocalRandom.current();
+          for (ChunkSnapshot snapshot : snapshots) {
+            int found = 0;
+            for (int attempt = 0; attempt < POINTS_PER_CHUNK * ATTEMPTS_PER_POINT && found < POINTS_PER_CHUNK;
+                attempt++) {
+              int x = random.nextInt(CHUNK_SIZE);
+              int z = random.nextInt(CHUNK_SIZE);
+              int blockX = snapshot.getX() * CHUNK_SIZE + x;
+              int blockZ = snapshot.getZ() * CHUNK_SIZE + z;
+              if (Math.abs(blockX + 0.5 - borderCenterX) >= borderRadius
+                  || Math.abs(blockZ + 0.5 - borderCenterZ) >= borderRadius) {
+                continue;
+              }
+              int ground = findSafeGround(snapshot, x, z, minHeight, maxHeight);
+              if (ground != Integer.MIN_VALUE) {
+                coordinates[size * 3] = blockX;
+                coordinates[size * 3 + 1] = ground + 1;
+                coordinates[size * 3 + 2] = blockZ;
+                size++;
+                found++;
+              }
+            }
+          }
+          SafePoints points = new SafePoints(coordinates, size);
+          if (plugin.isEnabled()) {
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+              if (completion.isDone()) {
+                return;
+              }
+              activeSamplings.remove(world.getName(), Sampling.this);
+              // The world may have been deleted while its snapshots were checked
+              if (plugin.getServer().getWorld(world.getName()) == world) {
+                cache.put(world.getName(), points);
+                completion.complete(points.size);
+              } else {
+                completion.complete(0);
+              }
+            });
+          }
+        }
+      }.runTaskAsynchronously(plugin);
+    }
+  }
+}
@@ -0,0 +1,377 @@
+package org.maven.minigamehub.world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Uniform grid over the x and z axes of one world, holding points and
+ * axis-aligned boxes.
+ * Points answer nearest and radius queries, boxes answer containment queries.
+ * Every query only visits the cells around the queried position, so its cost
+ * depends on how crowded the area is rather than on the size of the map.
+ * Boxes span the full height of the world. Boxes covering more than
+ * {@link #MAX_BOX_CELLS} cells, such as a whole-world arena, are kept in a
+ * short list that every containment query checks instead.
+ * Not thread-safe, meant to be used from the main thread.
+ *
+ * @param <T> The type of the values stored at the points and boxes.
+ */
+public class SpatialIndex<T> {
+  private static final int MAX_BOX_CELLS = 4096;
+
+  private final int cellShift;
+  private final int cellSize;
+  private final Map<Long, Cell<T>> cells = new HashMap<>();
+  private final List<Box<T>> boxes = new ArrayList<>();
+  private final List<Box<T>> oversizedBoxes = new ArrayList<>();
+  private int pointCount;
+  private int minCellX = Integer.MAX_VALUE;
+  private int minCellZ = Integer.MAX_VALUE;
+  private int maxCellX = Integer.MIN_VALUE;
+  private int maxCellZ = Integer.MIN_VALUE;
+
+  /**
+   * Constructor for the SpatialIndex class.
+   *
+   * @param cellSize The width of a grid cell in blocks, rounded up to a power of two.
+   */
+  public SpatialIndex(int cellSize) {
+    this.cellShift = 32 - Integer.numberOfLeadingZeros(Math.max(1, cellSize) - 1);
+    this.cellSize = 1 << cellShift;
+  }
+
+  /**
+   * Adds a point.
+   *
+   * @param x     The x coordinate.
+   * @param y     The y coordinate.
+   * @param z     The z coordinate.
+   * @param value The value stored at the point.
+   */
+  public void addPoint(double x, double y, double z, T value) {
+    int cellX = cellOf(x);
+    int cellZ = cellOf(z);
+    cell(cellX, cellZ).addPoint(x, y, z, value);
+    pointCount++;
+    minCellX = Math.min(minCellX, cellX);
+    minCellZ = Math.min(minCellZ, cellZ);
+    maxCellX = Math.max(maxCellX, cellX);
+    maxCellZ = Math.max(maxCellZ, cellZ);
+  }
+
+  /**
+   * Adds a box covering the given block columns.
+   *
+   * @param minX  The lowest block x coordinate, inclusive.
+   * @param minZ  The lowest block z coordinate, inclusive.
+   * @param maxX  The highest block x coordinate, inclusive.
+   * @param maxZ  The highest block z coordinate, inclusive.
+   * @param value The value stored for the box.
+   */
+  public void addBox(int minX, int minZ, int maxX, int maxZ, T value) {
+    Box<T> box = new Box<>(Math.min(minX, maxX), Math.min(minZ, maxZ), Math.max(minX, maxX),
+        Math.max(minZ, maxZ), value);
+    boxes.add(box);
+    long width = ((long) box.maxX >> cellShift) - (box.minX >> cellShift) + 1;
+    long depth = ((long) box.maxZ >> cellShift) - (box.minZ >> cellShift) + 1;
+    if (width * depth > MAX_BOX_CELLS) {
+      oversizedBoxes.add(box);
+      return;
+    }
+    for (int cellX = box.minX >> cellShift; cellX <= box.maxX >> cellShift; cellX++) {
+      for (int cellZ = box.minZ >> cellShift; cellZ <= box.maxZ >> cellShift; cellZ++) {
+        cell(cellX, cellZ).boxes.add(box);
+      }
+    }
+  }
+
+  /**
+   * Removes every box storing the given value. Points are left in place.
+   *
+   * @param value The value of the boxes to remove.
+   * @return True if a box was removed.
+   */
+  public boolean removeBoxes(T value) {
+    boolean removed = false;
+    Iterator<Box<T>> iterator = boxes.iterator();
+    while (iterator.hasNext()) {
+      Box<T> box = iterator.next();
+      if (!box.value.equals(value)) {
+        continue;
+      }
+      iterator.remove();
+      removed = true;
+      if (oversizedBoxes.remove(box)) {
+        continue;
+      }
+      for (int cellX = box.minX >> cellShift; cellX <= box.maxX >> cellShift; cellX++) {
+        for (int cellZ = box.minZ >> cellShift; cellZ <= box.maxZ >> cellShift; cellZ++) {
+          long key = key(cellX, cellZ);
+          Cell<T> cell = cells.get(key);
+          if (cell != null && cell.boxes.remove(box) && cell.boxes.isEmpty() && cell.pointCount == 0) {
+            cells.remove(key);
+          }
+        }
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * Checks if the index holds neither points nor boxes.
+   *
+   * @return True if the index is empty.
+   */
+  public boolean isEmpty() {
+    return pointCount == 0 && boxes.isEmpty();
+  }
+
+  /**
+   * Finds the point nearest to a position that passes a filter.
+   * Searches rings of cells outwards from the position and stops as soon as no
+   * unvisited cell can hold a nearer point.
+   *
+   * @param x      The x coordinate.
+   * @param y      The y coordinate.
+   * @param z      The z coordinate.
+   * @param filter The filter points must pass, or null to accept every point.
+   * @return The value of the nearest point, or null if no point passes the filter.
+   */
+  public T nearest(double x, double y, double z, Predicate<T> filter) {
+    if (pointCount == 0) {
+      return null;
+    }
+    int centerX = cellOf(x);
+    int centerZ = cellOf(z);
+    // Rings that miss every occupied cell are skipped
+    int firstRing = Math.max(0, Math.max(Math.max(minCellX - centerX, centerX - maxCellX),
+        Math.max(minCellZ - centerZ, centerZ - maxCellZ)));
+    int lastRing = Math.max(Math.max(centerX - minCellX, maxCellX - centerX),
+        Math.max(centerZ - minCellZ, maxCellZ - centerZ));
+    NearestSearch<T> search = new NearestSearch<>(x, y, z, filter);
+    for (int ring = firstRing; ring <= lastRing; ring++) {
+      int fromZ = Math.max(centerZ - ring, minCellZ);
+      int toZ = Math.min(centerZ + ring, maxCellZ);
+      int toX = Math.min(centerX + ring, maxCellX);
+      for (int cellX = Math.max(centerX - ring, minCellX); cellX <= toX; cellX++) {
+        if (cellX == centerX - ring || cellX == centerX + ring) {
+          for (int cellZ = fromZ; cellZ <= toZ; cellZ++) {
+            search.visit(cells.get(key(cellX, cellZ)));
+          }
+        } else {
+          search.visit(cells.get(key(cellX, centerZ - ring)));
+          search.visit(cells.get(key(cellX, centerZ + ring)));
+        }
+      }
+      // Points beyond this ring are at least ring cells away on the x or z axis
+      double reach = (double) ring * cellSize;
+      if (search.best != null && search.bestDistance <= reach * reach) {
+        break;
+      }
+    }
+    return search.best;
+  }
+
+  /**
+   * Finds every point within a radius of a position.
+   *
+   * @param x      The x coordinate.
+   * @param y      The y coordinate.
+   * @param z      The z coordinate.
+   * @param radius The radius in blocks.
+   * @return A new list of the values of the points within the radius, in no particular order.
+   */
+  public List<T> withinRadius(double x, double y, double z, double radius) {
+    List<T> found = new ArrayList<>();
+    if (pointCount == 0) {
+      return found;
+    }
+    double radiusSquared = radius * radius;
+    int fromX = Math.max(cellOf(x - radius), minCellX);
+    int toX = Math.min(cellOf(x + radius), maxCellX);
+    int fromZ = Math.max(cellOf(z - radius), minCellZ);
+    int toZ = Math.min(cellOf(z + radius), maxCellZ);
+    for (int cellX = fromX; cellX <= toX; cellX++) {
+      for (int cellZ = fromZ; cellZ <= toZ; cellZ++) {
+        Cell<T> cell = cells.get(key(cellX, cellZ));
+        if (cell == null) {
+          continue;
+        }
+        for (int i = 0; i < cell.pointCount; i++) {
+          if (cell.distanceSquared(i, x, y, z) <= radiusSquared) {
+            found.add(cell.value(i));
+          }
+        }
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Checks if any point lies within a radius of a position.
+   * Cheaper than {@link #withinRadius} when only the answer matters.
+   *
+   * @param x      The x coordinate.
+   * @param y      The y coordinate.
+   * @param z      The z coordinate.
+   * @param radius The radius in blocks.
+   * @return True if a point lies within the radius.
+   */
+  public boolean anyWithinRadius(double x, double y, double z, double radius) {
+    if (pointCount == 0) {
+      return false;
+    }
+    double radiusSquared = radius * radius;
+    int toX = Math.min(cellOf(x + radius), maxCellX);
+    int toZ = Math.min(cellOf(z + radius), maxCellZ);
+    for (int cellX = Math.max(cellOf(x - radius), minCellX); cellX <= toX; cellX++) {
+      for (int cellZ = Math.max(cellOf(z - radius), minCellZ); cellZ <= toZ; cellZ++) {
+        Cell<T> cell = cells.get(key(cellX, cellZ));
+        if (cell == null) {
+          continue;
+        }
+        for (int i = 0; i < cell.pointCount; i++) {
+          if (cell.distanceSquared(i, x, y, z) <= radiusSquared) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Finds a box containing a block column.
+   *
+   * @param blockX The block x coordinate.
+   * @param blockZ The block z coordinate.
+   * @return The value of a box containing the column, or null if there is none.
+   */
+  public T containing(int blockX, int blockZ) {
+    if (boxes.isEmpty()) {
+      return null;
+    }
+    Cell<T> cell = cells.get(key(blockX >> cellShift, blockZ >> cellShift));
+    if (cell != null) {
+      for (Box<T> box : cell.boxes) {
+        if (box.contains(blockX, blockZ)) {
+          return box.value;
+        }
+      }
+    }
+    for (Box<T> box : oversizedBoxes) {
+      if (box.contains(blockX, blockZ)) {
+        return box.value;
+      }
+    }
+    return null;
+  }
+
+  private Cell<T> cell(int cellX, int cellZ) {
+    return cells.computeIfAbsent(key(cellX, cellZ), ignored -> new Cell<>());
+  }
+
+  private int cellOf(double coordinate) {
+    return (int) Math.floor(coordinate) >> cellShift;
+  }
+
+  private static long key(int cellX, int cellZ) {
+    return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+  }
+
+  /**
+   * The points and boxes of one grid cell. Points are packed as x, y, z triples.
+   */
+  private static final class Cell<T> {
+    private double[] coordinates = new double[0];
+    private Object[] values = new Object[0];
+    private int pointCount;
+    private final List<Box<T>> boxes = new ArrayList<>(1);
+
+    private void addPoint(double x, double y, double z, T value) {
+      if (pointCount == values.length) {
+        int capacity = Math.max(4, values.length * 2);
+        values = Arrays.copyOf(values, capacity);
+        coordinates = Arrays.copyOf(coordinates, capacity * 3);
+      }
+      int offset = pointCount * 3;
+      coordinates[offset] = x;
+      coordinates[offset + 1] = y;
+      coordinates[offset + 2] = z;
+      values[pointCount++] = value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T value(int index) {
+      return (T) values[index];
+    }
+
+    private double distanceSquared(int index, double x, double y, double z) {
+      int offset = index * 3;
+      double dx = coordinates[offset] - x;
+      double dy = coordinates[offset + 1] - y;
+      double dz = coordinates[offset + 2] - z;
+      return dx * dx + dy * dy + dz * dz;
+    }
+  }
+
+  /**
+   * Running state of a nearest point search.
+   */
+  private static final class NearestSearch<T> {
+    private final double x;
+    private final double y;
+    private final double z;
+    private final Predicate<T> filter;
+    private T best;
+    private double bestDistance = Double.MAX_VALUE;
+
+    private NearestSearch(double x, double y, double z, Predicate<T> filter) {
+      this.x = x;
+      this.y = y;
+      this.z = z;
+      this.filter = filter;
+    }
+
+    private void visit(Cell<T> cell) {
+      if (cell == null) {
+        return;
+      }
+      for (int i = 0; i < cell.pointCount; i++) {
+        double distance = cell.distanceSquared(i, x, y, z);
+        if (distance < bestDistance && (filter == null || filter.test(cell.value(i)))) {
+          bestDistance = distance;
+          best = cell.value(i);
+        }
+      }
+    }
+  }
+
+  /**
+   * A box over block columns, bounds inclusive.
+   */
+  private static final class Box<T> {
+    private final int minX;
+    private final int minZ;
+    private final int maxX;
+    private final int maxZ;
+    private final T value;
+
+    private Box(int minX, int minZ, int maxX, int maxZ, T value) {
+      this.minX = minX;
+      this.minZ = minZ;
+      this.maxX = maxX;
+      this.maxZ = maxZ;
+      this.value = value;
+    }
+
+    private boolean contains(int blockX, int blockZ) {
+      return blockX >= minX && blockX <= maxX && blockZ >= minZ && blockZ <= maxZ;
+    }
+  }
+}
@@ -0,0 +1,399 @@
+package org.maven.minigamehub.world;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.maven.minigamehub.games.GameClock;
+import org.maven.minigamehub.metrics.PluginMetrics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
+/**
+ * TeleportScheduler class
+ * This class spreads large groups of teleports over several ticks. The chunks at
+ * every destination of a batch are loaded first, asynchronously where the server
+ * supports it, and held with plugin chunk tickets. The players are then teleported
+ * a few per tick within a milliseconds-per-tick budget. Players of a batch can be
+ * frozen in place until the whole batch has been teleported, so a batch looks
+ * simultaneous to them.
+ */
+public class TeleportScheduler implements Listener {
+  private final JavaPlugin plugin;
+  private final long budgetNanosPerTick;
+  private final int maxTeleportsPerTick;
+  private final List<Batch> batches = new ArrayList<>();
+  private final Map<UUID, Integer> frozenPlayers = new HashMap<>();
+  private final GameClock clock;
+  private GameClock.Timeout tickTask;
+
+  /**
+   * Constructor for the TeleportScheduler class.
+   *
+   * @param plugin              The JavaPlugin instance.
+   * @param budgetMillisPerTick The maximum milliseconds spent loading chunks and teleporting per tick.
+   * @param maxTeleportsPerTick The maximum number of players teleported per tick.
+   * @param clock               The shared game clock driving the per-tick runner.
+   */
+  public TeleportScheduler(JavaPlugin plugin, double budgetMillisPerTick, int maxTeleportsPerTick, GameClock clock) {
+    this.plugin = plugin;
+    this.clock = clock;
+    this.budgetNanosPerTick = (long) (Math.max(0.5, budgetMillisPerTick) * 1_000_000L);
+    this.maxTeleportsPerTick = Math.max(1, maxTeleportsPerTick);
+    Bukkit.getPluginManager().registerEvents(this, plugin);
+  }
+
+  /**
+   * Schedules a batch of teleports.
+   * The returned future is completed on the main thread once every player of
+   * the batch has been teleported. Cancelling it drops the teleports that have
+   * not happened yet and unfreezes the players.
+   *
+   * @param destinations The destination of each player, teleported in iteration order.
+   * @param freeze       True to keep the players in place until the whole batch is done.
+   * @return The completion future of the batch.
+   */
+  public CompletableFuture<Void> schedule(Map<Player, Location> destinations, boolean freeze) {
+    return schedule(destinations.keySet().toArray(new Player[0]), destinations.values().toArray(new Location[0]),
+        freeze);
+  }
+
+  /**
+   * Schedules a batch of teleports given as parallel arrays, so callers that
+   * already hold them do not build a map on the tick they teleport.
+   * The batch takes over the destinations array and clears its entries as
+   * players are teleported or removed; the players array is not changed.
+   *
+   * @param players      The players, teleported in array order.
+   * @param destinations The destination of each player, at the same index.
+   * @param freeze       True to keep the players in place until the whole batch is done.
+   * @return The completion future of the batch.
+   * @throws IllegalArgumentException If the arrays differ in length.
+   */
+  public CompletableFuture<Void> schedule(Player[] players, Location[] destinations, boolean freeze) {
+    if (players.length != destinations.length) {
+      throw new IllegalArgumentException("Every player needs exactly one destination");
+    }
+    Batch batch = new Batch(players, destinations, freeze);
+    if (players.length == 0) {
+      batch.completion.complete(null);
+      return batch.completion;
+    }
+    if (freeze) {
+      for (Player player : players) {
+        frozenPlayers.merge(player.getUniqueId(), 1, Integer::sum);
+      }
+    }
+    batches.add(batch);
+    batch.requestChunks();
+    startTicking();
+    return batch.completion;
+  }
+
+  /**
+   * Drops the pending teleports of a player and unfreezes them, for example
+   * when they die or leave their game.
+   *
+   * @param playerId The UUID of the player.
+   */
+  public void removePlayer(UUID playerId) {
+    for (Batch batch : batches) {
+      batch.remove(playerId);
+    }
+  }
+
+  /**
+   * Checks if a player is being held in place by a batch.
+   *
+   * @param playerId The UUID of the player.
+   * @return True if the player is frozen.
+   */
+  public boolean isFrozen(UUID playerId) {
+    return frozenPlayers.containsKey(playerId);
+  }
+
+  /**
+   * Cancels every pending batch.
+   */
+  public void shutdown() {
+    for (Batch batch : batches) {
+      batch.completion.cancel(false);
+      batch.release();
+    }
+    batches.clear();
+    frozenPlayers.clear();
+    if (tickTask != null) {
+      tickTask.cancel();
+      tickTask = null;
+    }
+  }
+
+  /**
+   * Keeps frozen players in place while still letting them look around.
+   *
+   * @param event The PlayerMoveEvent.
+   */
+  @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+  public void onPlayerMove(PlayerMoveEvent event) {
+    if (frozenPlayers.isEmpty() || !frozenPlayers.containsKey(event.getPlayer().getUniqueId())) {
+      return;
+    }
+    long start = System.nanoTime();
+    Location from = event.getFrom();
+    Location to = event.getTo();
+    if (to != null && (from.getX() != to.getX() || from.getY() != to.getY() || from.getZ() != to.getZ())) {
+      Location held = from.clone();
+      held.setYaw(to.getYaw());
+      held.setPitch(to.getPitch());
+      event.setTo(held);
+    }
+    PluginMetrics.EVENT_MOVE.recordSince(start);
+  }
+
+  /**
+   * Starts the per-tick runner if it is not running yet.
+   */
+  private void startTicking() {
+    if (tickTask != null) {
+      return;
+    }
+    tickTask = clock.scheduleRepeating(1L, 1L, this::tick);
+  }
+
+  /**
+   * Loads chunks and teleports players until the tick budget or the per-tick
+   * teleport limit is spent. Batches are served in the order they were scheduled.
+   * Stops the runner when no batches are left.
+   */
+  private void tick() {
+    long start = System.nanoTime();
+    long deadline = start + budgetNanosPerTick;
+    int teleportsLeft = maxTeleportsPerTick;
+    for (Batch batch : batches) {
+      if (System.nanoTime() >= deadline) {
+        break;
+      }
+      if (!batch.completion.isDone()) {
+        teleportsLeft -= batch.step(deadline, teleportsLeft);
+      }
+    }
+
+    List<Batch> finished = new ArrayList<>();
+    batches.removeIf(batch -> batch.isFinished() && finished.add(batch));
+    if (batches.isEmpty() && tickTask != null) {
+      tickTask.cancel();
+      tickTask = null;
+    }
+    PluginMetrics.TELEPORT_TICK.recordSince(start);
+    // Completed last, callbacks may schedule new batches
+    for (Batch batch : finished) {
+      batch.release();
+      if (batch.completion.complete(null)) {
+        PluginMetrics.TELEPORT_BATCH.recordSince(batch.createdNanos);
+      }
+    }
+  }
+
+  /**
+   * Unfreezes a player once no batch holds them anymore.
+   *
+   * @param playerId The UUID of the player.
+   */
+  private void unfreeze(UUID playerId) {
+    frozenPlayers.computeIfPresent(playerId, (id, holds) -> holds > 1 ? holds - 1 : null);
+  }
+
+  /**
+   * One group of teleports and the chunks they need.
+   * Only accessed from the main thread.
+   */
+  private final class Batch {
+    private final Player[] players;
+    private final Location[] destinations;
+    private final boolean freeze;
+    private final Set<UUID> heldPlayers = new HashSet<>();
+    private final Deque<ChunkPosition> chunksToLoad = new ArrayDeque<>();
+    private final List<ChunkPosition> ticketedChunks = new ArrayList<>();
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private final long createdNanos = System.nanoTime();
+    private int chunksLoading;
+    // Index of the next player to teleport
+    private int next;
+
+    private Batch(Player[] players, Location[] destinations, boolean freeze) {
+      this.players = players;
+      this.destinations = destinations;
+      this.freeze = freeze;
+      if (freeze) {
+        for (Player player : players) {
+          heldPlayers.add(player.getUniqueId());
+        }
+      }
+      Set<ChunkPosition> chunks = new HashSet<>();
+      for (Location destination : destinations) {
+        ChunkPosition chunk = new ChunkPosition(destination.getWorld(), destination.getBlockX() >> 4,
+            destination.getBlockZ() >> 4);
+        if (chunks.add(chunk)) {
+          chunksToLoad.add(chunk);
+        }
+      }
+    }
+
+    /**
+     * Requests every destination chunk that is not loaded yet from the
+     * asynchronous chunk loader. Loaded chunks only get a ticket.
+     */
+    private void requestChunks() {
+      Iterator<ChunkPosition> iterator = chunksToLoad.iterator();
+      while (iterator.hasNext()) {
+        ChunkPosition chunk = iterator.next();
+        if (chunk.world.isChunkLoaded(chunk.x, chunk.z)) {
+          iterator.remove();
+          addTicket(chunk);
+          continue;
+        }
+        try {
+          CompletableFuture<?> future = ChunkPregenerator.loadChunkAsync(chunk.world, chunk.x, chunk.z);
+          if (future == null) {
+            // Loaded synchronously within the tick budget instead
+            return;
+          }
+          iterator.remove();
+          chunksLoading++;
+          future.whenComplete((loaded, error) -> {
+            chunksLoading--;
+            if (error != null) {
+              plugin.getLogger().log(Level.WARNING, "Failed to preload chunk " + chunk.x + "," + chunk.z
+                  + " in " + chunk.world.getName(), error);
+            } else if (!completion.isDone()) {
+              addTicket(chunk);
+            }
+          });
+        } catch (ReflectiveOperationException e) {
+          return;
+        }
+      }
+    }
+
+    /**
+     * Loads the next chunks synchronously or, once every chunk is loaded,
+     * teleports the next players.
+     *
+     * @param deadline      The System.nanoTime() at which the tick budget is spent.
+     * @param teleportLimit The number of teleports still allowed this tick.
+     * @return The number of players teleported.
+     */
+    private int step(long deadline, int teleportLimit) {
+      while (!chunksToLoad.isEmpty() && System.nanoTime() < deadline) {
+        ChunkPosition chunk = chunksToLoad.pollFirst();
+        chunk.world.loadChunk(chunk.x, chunk.z, true);
+        addTicket(chunk);
+      }
+      if (!chunksToLoad.isEmpty() || chunksLoading > 0) {
+        return 0;
+      }
+
+      int teleported = 0;
+      while (next < players.length && teleported < teleportLimit && System.nanoTime() < deadline) {
+        Player player = players[next];
+        Location destination = destinations[next];
+        destinations[next++] = null;
+        // Removed players have no destination left
+        if (destination != null && player.isOnline() && !player.isDead()) {
+          player.teleport(destination);
+          PluginMetrics.TELEPORTS.increment();
+          teleported++;
+        }
+      }
+      return teleported;
+    }
+
+    private boolean isFinished() {
+      return completion.isDone() || (next == players.length && chunksToLoad.isEmpty() && chunksLoading == 0);
+    }
+
+    /**
+     * Drops the pending teleport of a player and stops holding them.
+     *
+     * @param playerId The UUID of the player.
+     */
+    private void remove(UUID playerId) {
+      for (int i = next; i < players.length; i++) {
+        if (players[i].getUniqueId().equals(playerId)) {
+          destinations[i] = null;
+        }
+      }
+      if (heldPlayers.remove(playerId)) {
+        unfreeze(playerId);
+      }
+    }
+
+    /**
+     * Removes the batch's chunk tickets and unfreezes its players.
+     */
+    private void release() {
+      for (ChunkPosition chunk : ticketedChunks) {
+        chunk.world.removePluginChunkTicket(chunk.x, chunk.z, plugin);
+      }
+      ticketedChunks.clear();
+      if (freeze) {
+        heldPlayers.forEach(TeleportScheduler.this::unfreeze);
+        heldPlayers.clear();
+      }
+    }
+
+    private void addTicket(ChunkPosition chunk) {
+      if (chunk.world.addPluginChunkTicket(chunk.x, chunk.z, plugin)) {
+        ticketedChunks.add(chunk);
+      }
+    }
+  }
+
+  /**
+   * Position of a chunk in a world.
+   */
+  private static final class ChunkPosition {
+    private final World world;
+    private final int x;
+    private final int z;
+
+    private ChunkPosition(World world, int x, int z) {
+      this.world = world;
+      this.x = x;
+      this.z = z;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof ChunkPosition)) {
+        return false;
+      }
+      ChunkPosition chunk = (ChunkPosition) other;
+      return x == chunk.x && z == chunk.z && world.equals(chunk.world);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * world.hashCode() + x) + z;
+    }
+  }
+}
@@ -0,0 +1,386 @@
+package org.maven.minigamehub.world;
+
+import com.onarandombox.MultiverseCore.api.MVWorldManager;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.WorldType;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.maven.minigamehub.metrics.PluginMetrics;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * TemplateCloner class
+ * This class creates game worlds from template worlds without copying the whole
+ * template byte-for-byte. A snapshot of a template keeps only the region files
+ * inside the map's bounds. New worlds are created from the snapshot off the main
+ * thread, using reflinks where the filesystem supports them and parallel file
+ * copies otherwise, and are only registered with Multiverse once the files are
+ * in place. Hardlinks are not used because the server writes region files in
+ * place, which would modify the snapshot.
+ */
+public class TemplateCloner {
+  private static final Set<String> REGION_DIRECTORIES = new HashSet<>(Arrays.asList("region", "entities", "poi"));
+  private static final Set<String> SKIPPED_ENTRIES = new HashSet<>(Arrays.asList(
+      "uid.dat", "session.lock", "playerdata", "advancements", "stats", "DIM-1", "DIM1"));
+  private static final Pattern REGION_FILE_PATTERN = Pattern.compile("r\\.(-?\\d+)\\.(-?\\d+)\\.mca");
+  private static final int REGION_SIZE_BLOCKS = 512;
+
+  private final JavaPlugin plugin;
+  private final MVWorldManager worldManager;
+  private final Path snapshotDirectory;
+  private final ExecutorService coordinator;
+  private final ExecutorService copyExecutor;
+  private volatile boolean reflinkSupported = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).contains("linux");
+
+  /**
+   * Constructor for the TemplateCloner class.
+   *
+   * @param plugin       The JavaPlugin instance.
+   * @param worldManager The MVWorldManager instance.
+   * @param copyThreads  The number of threads used for parallel file copies.
+   */
+  public TemplateCloner(JavaPlugin plugin, MVWorldManager worldManager, int copyThreads) {
+    this.plugin = plugin;
+    this.worldManager = worldManager;
+    this.snapshotDirectory = plugin.getDataFolder().toPath().resolve("templates");
+    this.coordinator = Executors.newSingleThreadExecutor(runnable -> newDaemonThread(runnable, "MiniGameHub-TemplateCloner"));
+    this.copyExecutor = Executors.newFixedThreadPool(Math.max(1, copyThreads),
+        runnable -> newDaemonThread(runnable, "MiniGameHub-TemplateCopy"));
+  }
+
+  private static Thread newDaemonThread(Runnable runnable, String name) {
+    Thread thread = new Thread(runnable, name);
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  /**
+   * Checks if a snapshot of a template has been captured.
+   *
+   * @param templateName The name of the template world.
+   * @return True if a snapshot exists.
+   */
+  public boolean hasSnapshot(String templateName) {
+    return Files.isDirectory(snapshotDirectory.resolve(templateName));
+  }
+
+  /**
+   * Captures a snapshot of a template world, replacing any existing snapshot.
+   * The template is saved on the calling (main) thread and its files are copied
+   * in the background with autosave paused.
+   *
+   * @param templateName The name of the template world.
+   * @param bounds       The area of the map to keep, or null to keep every region.
+   * @return A future completed on the main thread once the snapshot is written.
+   */
+  public CompletableFuture<Void> captureSnapshot(String templateName, RegionBounds bounds) {
+    World template = Bukkit.getWorld(templateName);
+    if (template == null) {
+      return CompletableFuture.failedFuture(
+          new IllegalArgumentException("Template world " + templateName + " is not loaded."));
+    }
+    template.save();
+    boolean autoSave = template.isAutoSave();
+    template.setAutoSave(false);
+
+    Path source = template.getWorldFolder().toPath();
+    Path target = snapshotDirectory.resolve(templateName);
+    CompletableFuture<Void> captured = CompletableFuture.runAsync(() -> {
+      try {
+        Path staging = snapshotDirectory.resolve(templateName + ".staging");
+        deleteRecursively(staging);
+        copyTree(source, staging, bounds);
+        deleteRecursively(target);
+        Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException e) {
+        throw new CompletionException(e);
+      }
+    }, coordinator);
+
+    return onMainThread(captured.whenComplete((ignored, error) ->
+        Bukkit.getScheduler().runTask(plugin, () -> template.setAutoSave(autoSave))));
+  }
+
+  /**
+   * Creates a new world from a template's snapshot.
+   * A snapshot is captured first if none exists yet.
+   *
+   * @param templateName The name of the template world.
+   * @param worldName    The name of the new world.
+   * @param bounds       The area of the map to keep if a snapshot has to be captured.
+   * @return A future completed on the main thread with the loaded world.
+   */
+  public CompletableFuture<World> cloneTemplate(String templateName, String worldName, RegionBounds bounds) {
+    long start = System.nanoTime();
+    CompletableFuture<Void> snapshot = hasSnapshot(templateName)
+        ? CompletableFuture.completedFuture(null)
+        : captureSnapshot(templateName, bounds);
+    World template = Bukkit.getWorld(templateName);
+    World.Environment environment = template != null ? template.getEnvironment() : World.Environment.NORMAL;
+
+    CompletableFuture<Void> copied = snapshot.thenRunAsync(() -> {
+      try {
+        createWorldFiles(snapshotDirectory.resolve(templateName), Bukkit.getWorldContainer().toPath().resolve(worldName));
+      } catch (IOException e) {
+        throw new CompletionException(e);
+      }
+    }, coordinator);
+    return onMainThread(copied).thenApply(ignored -> {
+      World world = registerWorld(worldName, environment);
+      PluginMetrics.WORLD_CLONE.recordSince(start);
+      PluginMetrics.WORLDS_CREATED.increment();
+      return world;
+    });
+  }
+
+  /**
+   * Stops the background threads.
+   */
+  public void shutdown() {
+    coordinator.shutdownNow();
+    copyExecutor.shutdownNow();
+    try {
+      coordinator.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Registers a world folder that is already on disk with Multiverse and loads it.
+   * Runs on the main thread only.
+   *
+   * @param worldName   The name of the world.
+   * @param environment The environment of the world.
+   * @return The loaded world.
+   */
+  private World registerWorld(String worldName, World.Environment environment) {
+    if (!worldManager.addWorld(worldName, environment, null, WorldType.NORMAL, false, null)) {
+      throw new CompletionException(new IOException("Multiverse could not load cloned world " + worldName));
+    }
+    return Bukkit.getWorld(worldName);
+  }
+
+  /**
+   * Creates a world folder from a snapshot, with a single reflink copy when
+   * possible and parallel copies otherwise.
+   *
+   * @param snapshot The snapshot directory.
+   * @param target   The new world folder.
+   * @throws IOException If the files could not be copied.
+   */
+  private void createWorldFiles(Path snapshot, Path target) throws IOException {
+    if (Files.exists(target)) {
+      throw new IOException("World folder " + target.getFileName() + " already exists.");
+    }
+    if (reflinkSupported && reflinkCopy(snapshot, target)) {
+      return;
+    }
+    try {
+      deleteRecursively(target);
+      copyTree(snapshot, target, null);
+    } catch (IOException e) {
+      deleteRecursively(target);
+      throw e;
+    }
+  }
+
+  /**
+   * Copies a directory with {@code cp --reflink=always}, sharing data blocks with
+   * the snapshot until either side is written to.
+   *
+   * @param source The directory to copy.
+   * @param target The directory to create.
+   * @return True if the copy succeeded, false if reflinks are not supported.
+   */
+  private boolean reflinkCopy(Path source, Path target) {
+    try {
+      Process process = new ProcessBuilder("cp", "-R", "--reflink=always", source.toString(), target.toString())
+          .redirectErrorStream(true)
+          .start();
+      process.getInputStream().readAllBytes();
+      if (process.waitFor() == 0) {
+        return true;
+      }
+    } catch (IOException e) {
+      // cp is not available, fall through to disable reflinks
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+    reflinkSupported = false;
+    plugin.getLogger().info("Reflink copies are not supported here, cloning templates with parallel copies.");
+    return false;
+  }
+
+  /**
+   * Copies a world folder, skipping per-world runtime files and, if bounds are
+   * given, region files outside the bounds. Files are copied in parallel.
+   *
+   * @param source The world folder to copy.
+   * @param target The directory to copy into.
+   * @param bounds The area to keep, or null to keep every region.
+   * @throws IOException If the files could not be copied.
+   */
+  private void copyTree(Path source, Path target, RegionBounds bounds) throws IOException {
+    List<Path> files = new ArrayList<>();
+    Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+      @Override
+      public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+        if (!dir.equals(source) && SKIPPED_ENTRIES.contains(dir.getFileName().toString())) {
+          return FileVisitResult.SKIP_SUBTREE;
+        }
+        Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+        if (!SKIPPED_ENTRIES.contains(file.getFileName().toString()) && isWithinBounds(file, bounds)) {
+          files.add(file);
+        }
+        return FileVisitResult.CONTINUE;
+      }
+    });
+
+    List<CompletableFuture<Void>> copies = new ArrayList<>(files.size());
+    for (Path file : files) {
+      Path destination = target.resolve(source.relativize(file).toString());
+      copies.add(CompletableFuture.runAsync(() -> {
+        try {
+          Files.copy(file, destination, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+          throw new CompletionException(e);
+        }
+      }, copyExecutor));
+    }
+    try {
+      CompletableFuture.allOf(copies.toArray(new CompletableFuture[0])).join();
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+    }
+  }
+
+  /**
+   * Checks if a file is needed for the given bounds. Only region, entity and POI
+   * files are filtered; everything else is always kept.
+   *
+   * @param file   The file to check.
+   * @param bounds The area to keep, or null to keep every region.
+   * @return True if the file should be copied.
+   */
+  private static boolean isWithinBounds(Path file, RegionBounds bounds) {
+    if (bounds == null || file.getParent() == null
+        || !REGION_DIRECTORIES.contains(file.getParent().getFileName().toString())) {
+      return true;
+    }
+    Matcher matcher = REGION_FILE_PATTERN.matcher(file.getFileName().toString());
+    if (!matcher.matches()) {
+      return true;
+    }
+    return bounds.containsRegion(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+  }
+
+  /**
+   * Deletes a directory tree if it exists.
+   *
+   * @param directory The directory to delete.
+   * @throws IOException If a file could not be deleted.
+   */
+  private static void deleteRecursively(Path directory) throws IOException {
+    if (!Files.exists(directory)) {
+      return;
+    }
+    Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+        Files.delete(file);
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult postVisitDirectory(Path dir, IOException exception) throws IOException {
+        if (exception != null) {
+          throw exception;
+        }
+        Files.delete(dir);
+        return FileVisitResult.CONTINUE;
+      }
+    });
+  }
+
+  private <T> CompletableFuture<T> onMainThread(CompletableFuture<T> future) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    future.whenComplete((value, error) -> Bukkit.getScheduler().runTask(plugin, () -> {
+      if (error != null) {
+        result.completeExceptionally(error);
+      } else {
+        result.complete(value);
+      }
+    }));
+    return result;
+  }
+
+  /**
+   * Block area of a map, used to select the region files it needs.
+   */
+  public static final class RegionBounds {
+    private final int minRegionX;
+    private final int minRegionZ;
+    private final int maxRegionX;
+    private final int maxRegionZ;
+
+    private RegionBounds(int minRegionX, int minRegionZ, int maxRegionX, int maxRegionZ) {
+      this.minRegionX = minRegionX;
+      this.minRegionZ = minRegionZ;
+      this.maxRegionX = maxRegionX;
+      this.maxRegionZ = maxRegionZ;
+    }
+
+    /**
+     * Creates bounds from block coordinates. The corners may be given in any order.
+     *
+     * @param x1 The x coordinate of one corner.
+     * @param z1 The z coordinate of one corner.
+     * @param x2 The x coordinate of the opposite corner.
+     * @param z2 The z coordinate of the opposite corner.
+     * @return The bounds covering both corners.
+     */
+    public static RegionBounds ofBlocks(int x1, int z1, int x2, int z2) {
+      return new RegionBounds(
+          Math.floorDiv(Math.min(x1, x2), REGION_SIZE_BLOCKS), Math.floorDiv(Math.min(z1, z2), REGION_SIZE_BLOCKS),
+          Math.floorDiv(Math.max(x1, x2), REGION_SIZE_BLOCKS), Math.floorDiv(Math.max(z1, z2), REGION_SIZE_BLOCKS));
+    }
+
+    /**
+     * Checks if a region file overlaps the bounds.
+     *
+     * @param regionX The x coordinate of the region.
+     * @param regionZ The z coordinate of the region.
+     * @return True if the region is needed.
+     */
+    public boolean containsRegion(int regionX, int regionZ) {
+      return regionX >= minRegionX && regionX <= maxRegionX && regionZ >= minRegionZ && regionZ <= maxRegionZ;
+    }
+  }
+}
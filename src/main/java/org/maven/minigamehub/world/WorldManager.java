@@ -4,11 +4,18 @@ import com.onarandombox.MultiverseCore.api.MVWorldManager;
 import com.onarandombox.MultiverseCore.MultiverseCore;
 import org.bukkit.Bukkit;
 import org.bukkit.GameRule;
+import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.WorldType;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.maven.minigamehub.games.GameClock;
+import org.maven.minigamehub.metrics.PluginMetrics;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * WorldManager class
@@ -16,17 +23,125 @@ import java.util.List;
  */
 public class WorldManager {
   private final JavaPlugin plugin;
+  private final GameClock clock;
   private final MVWorldManager worldManager;
+  private final ChunkPregenerator chunkPregenerator;
+  private final WorldTeardown worldTeardown;
+  private final TemplateCloner templateCloner;
+  private final TeleportScheduler teleportScheduler;
+  private final SafeLocationFinder safeLocationFinder;
 
   /**
    * Constructor for the WorldManager class.
    *
    * @param plugin The JavaPlugin instance.
    * @param core   The MultiverseCore instance.
+   * @param clock  The shared game clock the world workers run on.
    */
-  public WorldManager(JavaPlugin plugin, MultiverseCore core) {
+  public WorldManager(JavaPlugin plugin, MultiverseCore core, GameClock clock) {
     this.plugin = plugin;
+    this.clock = clock;
     this.worldManager = core.getMVWorldManager();
+    this.chunkPregenerator = new ChunkPregenerator(plugin,
+        plugin.getConfig().getDouble("world.pregeneration.max_millis_per_tick", 5.0), clock);
+    this.worldTeardown = new WorldTeardown(plugin, worldManager);
+    this.templateCloner = new TemplateCloner(plugin, worldManager,
+        plugin.getConfig().getInt("world.template_copy_threads", 4));
+    this.teleportScheduler = new TeleportScheduler(plugin,
+        plugin.getConfig().getDouble("world.teleport.max_millis_per_tick", 5.0),
+        plugin.getConfig().getInt("world.teleport.max_per_tick", 5), clock);
+    this.safeLocationFinder = new SafeLocationFinder(plugin,
+        plugin.getConfig().getInt("world.safe_locations.points_per_world", 64),
+        plugin.getConfig().getDouble("world.safe_locations.max_millis_per_tick", 2.0), clock);
+  }
+
+  /**
+   * Gets the shared game clock the world workers and world pools run on.
+   *
+   * @return The GameClock instance.
+   */
+  public GameClock getClock() {
+    return clock;
+  }
+
+  /**
+   * Gets the teleport scheduler shared by all games.
+   *
+   * @return The TeleportScheduler instance.
+   */
+  public TeleportScheduler getTeleportScheduler() {
+    return teleportScheduler;
+  }
+
+  /**
+   * Gets the cache of safe spawn points shared by all games.
+   *
+   * @return The SafeLocationFinder instance.
+   */
+  public SafeLocationFinder getSafeLocationFinder() {
+    return safeLocationFinder;
+  }
+
+  /**
+   * Gets the template cloner used to create arena worlds from templates.
+   *
+   * @return The TemplateCloner instance.
+   */
+  public TemplateCloner getTemplateCloner() {
+    return templateCloner;
+  }
+
+  /**
+   * Removes game worlds left behind by a previous crash.
+   * Must be called on startup before any game starts.
+   */
+  public void sweepOrphanedWorlds() {
+    worldTeardown.sweepOrphans();
+  }
+
+  /**
+   * Gets the world teardown pipeline.
+   *
+   * @return The WorldTeardown instance.
+   */
+  public WorldTeardown getWorldTeardown() {
+    return worldTeardown;
+  }
+
+  /**
+   * Stops background world work.
+   * Called when the plugin is disabled.
+   */
+  public void shutdown() {
+    chunkPregenerator.shutdown();
+    teleportScheduler.shutdown();
+    safeLocationFinder.shutdown();
+    templateCloner.shutdown();
+    worldTeardown.shutdown();
+  }
+
+  /**
+   * Gets the chunk pre-generator shared by all games.
+   *
+   * @return The ChunkPregenerator instance.
+   */
+  public ChunkPregenerator getChunkPregenerator() {
+    return chunkPregenerator;
+  }
+
+  /**
+   * Starts generating every chunk inside the world border of the specified world.
+   *
+   * @param worldName The name of the world to pre-generate.
+   * @return The pre-generation task, or null if the world does not exist.
+   */
+  public ChunkPregenerator.Task pregenerateWithinBorder(String worldName) {
+    World world = Bukkit.getWorld(worldName);
+    if (world == null) {
+      plugin.getLogger().severe("World " + worldName + " does not exist.");
+      return null;
+    }
+    return chunkPregenerator.pregenerate(world);
   }
 
   /**
@@ -38,7 +153,10 @@ public class WorldManager {
    */
   public World createNewWorld(String worldName) {
     if (!worldManager.isMVWorld(worldName)) {
+      long start = System.nanoTime();
       worldManager.addWorld(worldName, World.Environment.NORMAL, null, WorldType.NORMAL, true, null);
+      PluginMetrics.WORLD_CREATE.recordSince(start);
+      PluginMetrics.WORLDS_CREATED.increment();
     }
     World newWorld = Bukkit.getWorld(worldName);
     newWorld.setGameRule(GameRule.DO_IMMEDIATE_RESPAWN, true);
@@ -46,21 +164,26 @@ public class WorldManager {
   }
 
   /**
-   * Teleports a list of players to the specified world.
+   * Teleports a list of players to the spawn of the specified world.
+   * The teleports are spread over several ticks by the teleport scheduler.
    *
    * @param playerNames The list of player names to teleport.
    * @param worldName   The name of the world to teleport players to.
+   * @return A future completed once every player has been teleported.
    */
-  public void teleportPlayersToWorld(List<String> playerNames, String worldName) {
+  public CompletableFuture<Void> teleportPlayersToWorld(List<String> playerNames, String worldName) {
     World world = Bukkit.getWorld(worldName);
     if (world == null) {
       plugin.getLogger().severe("World " + worldName + " does not exist.");
-      return;
+      return CompletableFuture.completedFuture(null);
     }
+    Location spawn = world.getSpawnLocation();
+    Map<Player, Location> destinations = new LinkedHashMap<>();
     playerNames.stream()
         .map(Bukkit::getPlayer)
         .filter(player -> player != null)
-        .forEach(player -> player.teleport(world.getSpawnLocation()));
+        .forEach(player -> destinations.put(player, spawn));
+    return teleportScheduler.schedule(destinations, false);
   }
 
   /**
@@ -104,11 +227,16 @@ public class WorldManager {
 
   /**
    * Deletes the specified world.
+   * Remaining players are sent to the main world and the world is unloaded
+   * immediately; its folder is deleted in the background.
    *
    * @param worldName The name of the world to delete.
+   * @return True if the world was unloaded and queued for deletion, false otherwise.
    */
-  public void deleteWorld(String worldName) {
-    worldManager.deleteWorld(worldName, true, true);
+  public boolean deleteWorld(String worldName) {
+    chunkPregenerator.cancel(worldName);
+    safeLocationFinder.forget(worldName);
+    return worldTeardown.teardown(worldName, plugin.getConfig().getString("main_world", "world"));
   }
 
   /**
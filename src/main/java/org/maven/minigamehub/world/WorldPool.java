@@ -0,0 +1,249 @@
+package org.maven.minigamehub.world;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.maven.minigamehub.games.GameClock;
+import org.maven.minigamehub.metrics.PluginMetrics;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * WorldPool class
+ * This class keeps a number of pre-generated, pre-bordered game worlds ready so
+ * a game can lease one instantly instead of generating a world on start.
+ * Pool maintenance creates or deletes at most one world per run and skips runs
+ * while the server is lagging. A new world only becomes ready once every chunk
+ * inside its border has been pre-generated.
+ */
+public class WorldPool {
+  private static final long NANOS_PER_TICK = 50_000_000L;
+  private static final double IDLE_TOLERANCE = 1.1;
+
+  private final JavaPlugin plugin;
+  private final WorldManager worldManager;
+  private final String worldPrefix;
+  private final int targetSize;
+  private final long maintenanceIntervalTicks;
+  private final Deque<String> readyWorlds = new ArrayDeque<>();
+  private final Map<String, ChunkPregenerator.Task> pendingWorlds = new LinkedHashMap<>();
+  private final Deque<String> releasedWorlds = new ArrayDeque<>();
+  private double borderSize;
+  private int nextWorldId;
+  private GameClock.Timeout maintenanceTask;
+  private long lastMaintenanceNanos;
+
+  /**
+   * Constructor for the WorldPool class.
+   *
+   * @param plugin                   The JavaPlugin instance.
+   * @param worldManager             The WorldManager used to create and delete worlds.
+   * @param worldPrefix              The prefix of every pooled world's name.
+   * @param targetSize               The number of ready worlds to keep.
+   * @param maintenanceIntervalTicks The number of ticks between maintenance runs.
+   * @param borderSize               The world border size of pooled worlds.
+   */
+  public WorldPool(JavaPlugin plugin, WorldManager worldManager, String worldPrefix, int targetSize,
+      long maintenanceIntervalTicks, double borderSize) {
+    this.plugin = plugin;
+    this.worldManager = worldManager;
+    this.worldPrefix = worldPrefix;
+    this.targetSize = Math.max(0, targetSize);
+    this.maintenanceIntervalTicks = Math.max(1L, maintenanceIntervalTicks);
+    this.borderSize = borderSize;
+  }
+
+  /**
+   * Starts the maintenance that refills the pool and deletes released worlds,
+   * run periodically on the shared game clock.
+   */
+  public void start() {
+    if (maintenanceTask != null) {
+      return;
+    }
+    lastMaintenanceNanos = System.nanoTime();
+    maintenanceTask = worldManager.getClock().scheduleRepeating(maintenanceIntervalTicks, maintenanceIntervalTicks,
+        this::runMaintenance);
+  }
+
+  /**
+   * Leases a world from the pool.
+   * Fully pre-generated worlds are preferred. Otherwise a world that is still
+   * being pre-generated is handed out and finishes generating while the game
+   * runs. If the pool is empty, a world is created synchronously as a fallback.
+   * Worlds that are not fully pre-generated have their safe spawn points
+   * sampled right away, generating the few chunks that requires.
+   *
+   * @return The name of the leased world.
+   */
+  public String lease() {
+    String worldName = readyWorlds.pollFirst();
+    if (worldName != null) {
+      // The border size may have changed since the world was pooled
+      worldManager.setWorldBorder(worldName, borderSize);
+      return worldName;
+    }
+
+    Iterator<String> pending = pendingWorlds.keySet().iterator();
+    if (pending.hasNext()) {
+      worldName = pending.next();
+      pending.remove();
+      worldManager.setWorldBorder(worldName, borderSize);
+      sampleSafePoints(worldName, true);
+      return worldName;
+    }
+
+    plugin.getLogger().warning("World pool for " + worldPrefix + " is empty, creating a world synchronously.");
+    worldName = createWorld();
+    worldManager.pregenerateWithinBorder(worldName);
+    sampleSafePoints(worldName, true);
+    return worldName;
+  }
+
+  /**
+   * Starts sampling the safe spawn points of a pooled world.
+   *
+   * @param worldName       The name of the world.
+   * @param generateMissing True to generate the sampled chunks the pre-generator has not reached yet.
+   */
+  private void sampleSafePoints(String worldName, boolean generateMissing) {
+    World world = Bukkit.getWorld(worldName);
+    if (world != null) {
+      worldManager.getSafeLocationFinder().prepare(world, generateMissing);
+    }
+  }
+
+  /**
+   * Hands a world back to the pool once its game has finished.
+   * Used worlds are not reused; they are deleted during a later maintenance run.
+   *
+   * @param worldName The name of the world to release.
+   */
+  public void release(String worldName) {
+    if (worldName != null) {
+      releasedWorlds.addLast(worldName);
+    }
+  }
+
+  /**
+   * Sets the world border size for pooled and future worlds.
+   *
+   * @param borderSize The world border size.
+   */
+  public void setBorderSize(double borderSize) {
+    this.borderSize = borderSize;
+  }
+
+  /**
+   * Gets the number of worlds still being pre-generated.
+   *
+   * @return The number of pending worlds.
+   */
+  public int getPendingCount() {
+    return pendingWorlds.size();
+  }
+
+  /**
+   * Gets the number of worlds ready to be leased.
+   *
+   * @return The number of ready worlds.
+   */
+  public int getReadyCount() {
+    return readyWorlds.size();
+  }
+
+  /**
+   * Stops maintenance and deletes every released and unused world.
+   * Unused worlds are deleted so they are not loaded again on the next start.
+   */
+  public void shutdown() {
+    if (maintenanceTask != null) {
+      maintenanceTask.cancel();
+      maintenanceTask = null;
+    }
+    while (!releasedWorlds.isEmpty()) {
+      deleteWorld(releasedWorlds.pollFirst());
+    }
+    for (Map.Entry<String, ChunkPregenerator.Task> entry : pendingWorlds.entrySet()) {
+      entry.getValue().cancel();
+      deleteWorld(entry.getKey());
+    }
+    pendingWorlds.clear();
+    while (!readyWorlds.isEmpty()) {
+      deleteWorld(readyWorlds.pollFirst());
+    }
+  }
+
+  /**
+   * Runs one maintenance step if the server kept up since the previous run.
+   * Deleting released worlds takes priority over refilling the pool.
+   */
+  private void runMaintenance() {
+    long now = System.nanoTime();
+    long elapsed = now - lastMaintenanceNanos;
+    lastMaintenanceNanos = now;
+    if (elapsed > maintenanceIntervalTicks * NANOS_PER_TICK * IDLE_TOLERANCE) {
+      return;
+    }
+
+    if (!releasedWorlds.isEmpty()) {
+      deleteWorld(releasedWorlds.pollFirst());
+    } else if (readyWorlds.size() + pendingWorlds.size() < targetSize) {
+      try {
+        pregenerate(createWorld());
+      } catch (Exception e) {
+        plugin.getLogger().log(Level.SEVERE, "Failed to create pooled world for " + worldPrefix, e);
+      }
+    }
+    PluginMetrics.WORLD_POOL_MAINTENANCE.recordSince(now);
+  }
+
+  /**
+   * Starts pre-generating a new pooled world and marks it ready once done.
+   * Safe spawn points are sampled once every chunk exists.
+   *
+   * @param worldName The name of the new world.
+   */
+  private void pregenerate(String worldName) {
+    ChunkPregenerator.Task task = worldManager.pregenerateWithinBorder(worldName);
+    if (task == null) {
+      return;
+    }
+    pendingWorlds.put(worldName, task);
+    task.getCompletion().thenRun(() -> {
+      // Leased worlds have already left the pending map and were sampled when leased
+      if (pendingWorlds.remove(worldName) != null) {
+        sampleSafePoints(worldName, false);
+        readyWorlds.addLast(worldName);
+      }
+    });
+  }
+
+  /**
+   * Creates and borders a new world.
+   *
+   * @return The name of the new world.
+   */
+  private String createWorld() {
+    String worldName = worldPrefix + System.currentTimeMillis() + "_" + nextWorldId++;
+    worldManager.createNewWorld(worldName);
+    worldManager.setWorldBorder(worldName, borderSize);
+    return worldName;
+  }
+
+  /**
+   * Tears down a world through the background deletion pipeline.
+   *
+   * @param worldName The name of the world to delete.
+   */
+  private void deleteWorld(String worldName) {
+    if (!worldManager.deleteWorld(worldName)) {
+      plugin.getLogger().severe("Failed to delete world: " + worldName);
+    }
+  }
+}
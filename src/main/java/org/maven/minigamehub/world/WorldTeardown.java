@@ -0,0 +1,265 @@
+package org.maven.minigamehub.world;
+
+import com.onarandombox.MultiverseCore.api.MVWorldManager;
+import com.onarandombox.MultiverseCore.api.MultiverseWorld;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.maven.minigamehub.metrics.PluginMetrics;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.regex.Pattern;
+
+/**
+ * WorldTeardown class
+ * This class removes game worlds without blocking the main thread on disk I/O.
+ * A world is unloaded on the main thread, its folder is renamed into a trash
+ * directory, and the trash is deleted recursively on a background thread with
+ * retries. Leftovers from a crash are swept on startup.
+ */
+public class WorldTeardown {
+  private static final String TRASH_DIRECTORY = ".minigamehub-trash";
+  private static final int MAX_DELETE_ATTEMPTS = 3;
+  private static final long RETRY_DELAY_MILLIS = 1000L;
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 5L;
+  private static final Pattern GAME_WORLD_PATTERN = Pattern.compile("deathswap_\\d+(_\\d+)?|.+_game_\\d+(_\\d+)?");
+
+  private final JavaPlugin plugin;
+  private final MVWorldManager worldManager;
+  private final Path worldContainer;
+  private final Path trashDirectory;
+  private final Set<String> failedDeletions = ConcurrentHashMap.newKeySet();
+  private final ExecutorService deleter = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "MiniGameHub-WorldTeardown");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * Constructor for the WorldTeardown class.
+   *
+   * @param plugin       The JavaPlugin instance.
+   * @param worldManager The MVWorldManager instance.
+   */
+  public WorldTeardown(JavaPlugin plugin, MVWorldManager worldManager) {
+    this.plugin = plugin;
+    this.worldManager = worldManager;
+    this.worldContainer = Bukkit.getWorldContainer().toPath();
+    this.trashDirectory = worldContainer.resolve(TRASH_DIRECTORY);
+  }
+
+  /**
+   * Checks if a world name follows the naming scheme of the plugin's game worlds.
+   *
+   * @param worldName The world name to check.
+   * @return True if the world is a DeathSwap or SurvivalGames game world.
+   */
+  public static boolean isGameWorldName(String worldName) {
+    return GAME_WORLD_PATTERN.matcher(worldName).matches();
+  }
+
+  /**
+   * Tears down a world. Must be called on the main thread.
+   * Players still in the world are moved to the fallback world, the world is
+   * unloaded without saving and removed from Multiverse, and its folder is
+   * moved to the trash to be deleted in the background.
+   *
+   * @param worldName     The name of the world to tear down.
+   * @param fallbackWorld The name of the world remaining players are sent to.
+   * @return True if the world was unloaded and queued for deletion, false otherwise.
+   */
+  public boolean teardown(String worldName, String fallbackWorld) {
+    long start = System.nanoTime();
+    World world = Bukkit.getWorld(worldName);
+    Path folder = worldContainer.resolve(worldName);
+    if (world != null) {
+      folder = world.getWorldFolder().toPath();
+      World destination = Bukkit.getWorld(fallbackWorld);
+      Location destinationSpawn = destination != null ? destination.getSpawnLocation()
+          : Bukkit.getWorlds().get(0).getSpawnLocation();
+      world.getPlayers().forEach(player -> player.teleport(destinationSpawn));
+      if (!Bukkit.unloadWorld(world, false)) {
+        plugin.getLogger().severe("Failed to unload world: " + worldName);
+        return false;
+      }
+    }
+    if (worldManager.isMVWorld(worldName)) {
+      worldManager.unloadWorld(worldName, false);
+    }
+    worldManager.removeWorldFromConfig(worldName);
+
+    if (Files.isDirectory(folder)) {
+      moveToTrashAndDelete(folder);
+    }
+    PluginMetrics.WORLD_TEARDOWN.recordSince(start);
+    return true;
+  }
+
+  /**
+   * Removes game worlds left behind by a crash or an unclean shutdown and
+   * empties the trash. Must be called on the main thread before any game starts.
+   */
+  public void sweepOrphans() {
+    List<String> orphans = new ArrayList<>();
+    for (MultiverseWorld world : worldManager.getMVWorlds()) {
+      if (isGameWorldName(world.getName())) {
+        orphans.add(world.getName());
+      }
+    }
+    for (String worldName : worldManager.getUnloadedWorlds()) {
+      if (isGameWorldName(worldName)) {
+        orphans.add(worldName);
+      }
+    }
+    String mainWorld = plugin.getConfig().getString("main_world", "world");
+    for (String worldName : orphans) {
+      teardown(worldName, mainWorld);
+    }
+
+    try (DirectoryStream<Path> folders = Files.newDirectoryStream(worldContainer, Files::isDirectory)) {
+      for (Path folder : folders) {
+        String folderName = folder.getFileName().toString();
+        if (isGameWorldName(folderName) && Bukkit.getWorld(folderName) == null) {
+          orphans.add(folderName);
+          moveToTrashAndDelete(folder);
+        }
+      }
+    } catch (IOException e) {
+      plugin.getLogger().log(Level.WARNING, "Could not scan the world container for leftover game worlds", e);
+    }
+
+    if (Files.isDirectory(trashDirectory)) {
+      deleter.execute(() -> deleteWithRetries(trashDirectory, TRASH_DIRECTORY));
+    }
+    if (!orphans.isEmpty()) {
+      plugin.getLogger().info("Removing " + orphans.size() + " leftover game worlds: " + String.join(", ", orphans));
+    }
+  }
+
+  /**
+   * Gets the worlds whose folders could not be deleted.
+   *
+   * @return An unmodifiable view of the failed world names.
+   */
+  public Set<String> getFailedDeletions() {
+    return Collections.unmodifiableSet(failedDeletions);
+  }
+
+  /**
+   * Stops the background deleter, giving queued deletions a short time to
+   * finish. Anything left in the trash is removed on the next startup.
+   */
+  public void shutdown() {
+    deleter.shutdown();
+    try {
+      if (!deleter.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        plugin.getLogger().warning("World deletions still pending, they will finish on the next startup.");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Renames a world folder into the trash directory and queues its deletion.
+   * Falls back to deleting the folder in place if it cannot be renamed.
+   *
+   * @param folder The world folder.
+   */
+  private void moveToTrashAndDelete(Path folder) {
+    String worldName = folder.getFileName().toString();
+    Path target = folder;
+    try {
+      Files.createDirectories(trashDirectory);
+      target = trashDirectory.resolve(worldName + "-" + System.nanoTime());
+      Files.move(folder, target, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      plugin.getLogger().log(Level.WARNING, "Could not move " + worldName + " to the trash, deleting in place", e);
+      target = folder;
+    }
+
+    Path toDelete = target;
+    if (!deleter.isShutdown()) {
+      deleter.execute(() -> deleteWithRetries(toDelete, worldName));
+    }
+  }
+
+  /**
+   * Deletes a directory tree, retrying a few times before giving up.
+   * Runs on the deleter thread only.
+   *
+   * @param directory The directory to delete.
+   * @param worldName The name of the world the directory belonged to.
+   */
+  private void deleteWithRetries(Path directory, String worldName) {
+    long start = System.nanoTime();
+    for (int attempt = 1; attempt <= MAX_DELETE_ATTEMPTS; attempt++) {
+      try {
+        deleteRecursively(directory);
+        failedDeletions.remove(worldName);
+        PluginMetrics.WORLD_DELETE.recordSince(start);
+        PluginMetrics.WORLDS_DELETED.increment();
+        return;
+      } catch (IOException e) {
+        if (attempt == MAX_DELETE_ATTEMPTS) {
+          failedDeletions.add(worldName);
+          PluginMetrics.WORLD_DELETE_FAILURES.increment();
+          plugin.getLogger().log(Level.SEVERE, "Failed to delete world folder " + directory + " after "
+              + MAX_DELETE_ATTEMPTS + " attempts", e);
+          return;
+        }
+        try {
+          Thread.sleep(RETRY_DELAY_MILLIS * attempt);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Deletes a directory and everything in it.
+   *
+   * @param directory The directory to delete.
+   * @throws IOException If a file could not be deleted.
+   */
+  private static void deleteRecursively(Path directory) throws IOException {
+    if (!Files.exists(directory)) {
+      return;
+    }
+    Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+        Files.deleteIfExists(file);
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult postVisitDirectory(Path dir, IOException exception) throws IOException {
+        if (exception != null) {
+          throw exception;
+        }
+        Files.deleteIfExists(dir);
+        return FileVisitResult.CONTINUE;
+      }
+    });
+  }
+}
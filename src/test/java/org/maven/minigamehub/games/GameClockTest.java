@@ -0,0 +1,171 @@
+package org.maven.minigamehub.games;
+
+import org.bukkit.plugin.java.JavaPlugin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the GameClock timing wheel. The mocked plugin is never enabled, so the
+ * clock starts no Bukkit task and the tests advance it tick by tick.
+ */
+class GameClockTest {
+    private static final long[] WHEEL_BOUNDARY_DELAYS = {
+            1, 2, 63, 64, 65, 127, 128, 4095, 4096, 4097, 8191, 262143, 262144, 262145, 300000
+    };
+
+    private GameClock clock;
+
+    @BeforeEach
+    void setUp() {
+        JavaPlugin plugin = mock(JavaPlugin.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger(GameClockTest.class.getName()));
+        clock = new GameClock(plugin);
+    }
+
+    @Test
+    void deadlinesAcrossWheelBoundariesRunOnTime() {
+        assertDeadlinesRunOnTime(WHEEL_BOUNDARY_DELAYS);
+    }
+
+    @Test
+    void deadlinesScheduledBetweenSlotsRunOnTime() {
+        // Not aligned to any wheel, so deadlines are moved down at odd offsets
+        advance(4157);
+        assertDeadlinesRunOnTime(WHEEL_BOUNDARY_DELAYS);
+    }
+
+    @Test
+    void deadlinesBeyondTheCoarsestWheelRunOnTime() {
+        advance(12345);
+        assertDeadlinesRunOnTime(new long[]{(1L << 24) - 1, 1L << 24, (1L << 24) + 4097});
+    }
+
+    @Test
+    void delaysBelowOneRunOnTheNextTick() {
+        List<Long> runs = new ArrayList<>();
+        clock.schedule(0L, () -> runs.add(clock.getCurrentTick()));
+        clock.schedule(-5L, () -> runs.add(clock.getCurrentTick()));
+        advance(3);
+        assertEquals(List.of(1L, 1L), runs);
+    }
+
+    @Test
+    void repeatingDeadlinesRunEveryPeriod() {
+        List<Long> runs = new ArrayList<>();
+        GameClock.Timeout timeout = clock.scheduleRepeating(5L, 70L, () -> runs.add(clock.getCurrentTick()));
+        advance(5000);
+        assertEquals(72, runs.size());
+        for (int i = 0; i < runs.size(); i++) {
+            assertEquals(5L + 70L * i, (long) runs.get(i));
+        }
+        assertTrue(timeout.isPending());
+        assertEquals(5L + 70L * 72 - 5000, timeout.getRemainingTicks());
+    }
+
+    @Test
+    void cancelledDeadlinesNeverRun() {
+        List<Long> runs = new ArrayList<>();
+        GameClock.Timeout oneShot = clock.schedule(5000L, () -> runs.add(clock.getCurrentTick()));
+        GameClock.Timeout repeating = clock.scheduleRepeating(1L, 1L, () -> runs.add(clock.getCurrentTick()));
+        advance(10);
+        repeating.cancel();
+        oneShot.cancel();
+        oneShot.cancel();
+        advance(6000);
+        assertEquals(10, runs.size());
+        assertFalse(oneShot.isPending());
+        assertFalse(repeating.isPending());
+        assertEquals(0L, oneShot.getRemainingTicks());
+    }
+
+    @Test
+    void tasksCanCancelDeadlinesOfTheSameTick() {
+        List<String> runs = new ArrayList<>();
+        GameClock.Timeout[] second = new GameClock.Timeout[1];
+        clock.schedule(100L, () -> {
+            runs.add("first");
+            second[0].cancel();
+        });
+        second[0] = clock.schedule(100L, () -> runs.add("second"));
+        advance(200);
+        assertEquals(List.of("first"), runs);
+    }
+
+    @Test
+    void failingTasksDoNotStopTheOthers() {
+        List<String> runs = new ArrayList<>();
+        clock.schedule(3L, () -> {
+            throw new IllegalStateException("Expected by the test");
+        });
+        clock.schedule(3L, () -> runs.add("after"));
+        advance(3);
+        assertEquals(List.of("after"), runs);
+    }
+
+    @Test
+    void remainingTicksCountDown() {
+        GameClock.Timeout timeout = clock.schedule(5000L, () -> { });
+        advance(1234);
+        assertEquals(5000L - 1234, timeout.getRemainingTicks());
+        advance(5000 - 1234);
+        assertFalse(timeout.isPending());
+    }
+
+    @Test
+    void shutdownDropsEveryDeadline() {
+        List<Long> runs = new ArrayList<>();
+        GameClock.Timeout timeout = clock.schedule(10L, () -> runs.add(clock.getCurrentTick()));
+        clock.shutdown();
+        timeout.cancel();
+        advance(20);
+        assertTrue(runs.isEmpty());
+        assertFalse(timeout.isPending());
+    }
+
+    /**
+     * Schedules one deadline per delay from the current tick and checks that
+     * each runs exactly once, on its own tick.
+     *
+     * @param delays The delays to schedule.
+     */
+    private void assertDeadlinesRunOnTime(long[] delays) {
+        long start = clock.getCurrentTick();
+        long[] runAt = new long[delays.length];
+        int[] runs = new int[delays.length];
+        long last = 0;
+        for (int i = 0; i < delays.length; i++) {
+            int index = i;
+            clock.schedule(delays[i], () -> {
+                runAt[index] = clock.getCurrentTick();
+                runs[index]++;
+            });
+            last = Math.max(last, delays[i]);
+        }
+        advance(last + 70000);
+        for (int i = 0; i < delays.length; i++) {
+            assertEquals(1, runs[i], "Deadline after " + delays[i] + " ticks ran " + runs[i] + " times");
+            assertEquals(start + delays[i], runAt[i], "Deadline after " + delays[i] + " ticks ran off time");
+        }
+    }
+
+    /**
+     * Advances the clock.
+     *
+     * @param ticks The number of ticks to advance by.
+     */
+    private void advance(long ticks) {
+        for (long i = 0; i < ticks; i++) {
+            clock.tick();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.maven.minigamehub.games;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the swap plans of the SwapPlanner class. Plans are random, so every
+ * property is checked over many plans of many sizes.
+ */
+class SwapPlannerTest {
+    private static final int MAX_PLAYERS = 40;
+    private static final int PLANS_PER_SIZE = 200;
+
+    @ParameterizedTest
+    @EnumSource(SwapPlanner.Mode.class)
+    void nobodyKeepsTheirSpot(SwapPlanner.Mode mode) {
+        SwapPlanner planner = new SwapPlanner(mode);
+        for (int count = 2; count <= MAX_PLAYERS; count++) {
+            for (int plan = 0; plan < PLANS_PER_SIZE; plan++) {
+                int[] targets = planner.planTargets(count);
+                assertPermutation(targets);
+                for (int i = 0; i < count; i++) {
+                    assertNotEquals(i, targets[i], "Player " + i + " of " + count + " keeps their spot");
+                }
+            }
+        }
+    }
+
+    @Test
+    void cycleVisitsEveryPlayer() {
+        SwapPlanner planner = new SwapPlanner(SwapPlanner.Mode.CYCLE);
+        for (int count = 2; count <= MAX_PLAYERS; count++) {
+            for (int plan = 0; plan < PLANS_PER_SIZE; plan++) {
+                int[] targets = planner.planTargets(count);
+                int length = 0;
+                int player = 0;
+                do {
+                    player = targets[player];
+                    length++;
+                } while (player != 0 && length <= count);
+                assertEquals(count, length, "Cycle of " + count + " players is split");
+            }
+        }
+    }
+
+    @Test
+    void pairwiseSwapsInPairsWithOneRotationForOddCounts() {
+        SwapPlanner planner = new SwapPlanner(SwapPlanner.Mode.PAIRWISE);
+        for (int count = 2; count <= MAX_PLAYERS; count++) {
+            for (int plan = 0; plan < PLANS_PER_SIZE; plan++) {
+                int[] targets = planner.planTargets(count);
+                int rotating = 0;
+                for (int i = 0; i < count; i++) {
+                    if (targets[targets[i]] == i) {
+                        continue;
+                    }
+                    // Not part of a pair, so it must be part of a cycle of three
+                    assertEquals(i, targets[targets[targets[i]]], "Player " + i + " of " + count + " is not in a 3-cycle");
+                    rotating++;
+                }
+                assertEquals(count % 2 == 1 ? 3 : 0, rotating, "Wrong number of rotating players for " + count);
+            }
+        }
+    }
+
+    @Test
+    void planningFewerThanTwoPlayersFails() {
+        SwapPlanner planner = new SwapPlanner(SwapPlanner.Mode.RANDOM);
+        assertThrows(IllegalArgumentException.class, () -> planner.planTargets(1));
+        assertThrows(IllegalArgumentException.class, () -> planner.planTargets(0));
+    }
+
+    @Test
+    void modesAreFoundByNameInAnyCase() {
+        assertEquals(SwapPlanner.Mode.PAIRWISE, SwapPlanner.Mode.fromName("pairwise"));
+        assertEquals(SwapPlanner.Mode.CYCLE, SwapPlanner.Mode.fromName("Cycle"));
+        assertNull(SwapPlanner.Mode.fromName("shuffle"));
+    }
+
+    /**
+     * Checks that every index appears exactly once among the targets.
+     *
+     * @param targets The targets of a plan.
+     */
+    private static void assertPermutation(int[] targets) {
+        boolean[] taken = new boolean[targets.length];
+        for (int target : targets) {
+            assertTrue(target >= 0 && target < targets.length, "Target " + target + " out of range");
+            assertFalse(taken[target], "Spot " + target + " is taken twice");
+            taken[target] = true;
+        }
+    }
+}